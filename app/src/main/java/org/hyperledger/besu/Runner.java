@@ -22,6 +22,8 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
 import org.hyperledger.besu.ethereum.api.jsonrpc.ipc.JsonRpcIpcService;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.WebSocketService;
 import org.hyperledger.besu.ethereum.api.query.cache.AutoTransactionLogBloomCachingService;
+import org.hyperledger.besu.ethereum.api.query.cache.LogIndex;
+import org.hyperledger.besu.ethereum.api.query.cache.LogIndexingService;
 import org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolEvictionService;
@@ -79,6 +81,7 @@ public class Runner implements AutoCloseable {
   private final Path dataDir;
   private final Optional<AutoTransactionLogBloomCachingService>
       autoTransactionLogBloomCachingService;
+  private final Optional<LogIndexingService> logIndexingService;
 
   /**
    * Instantiates a new Runner.
@@ -98,6 +101,7 @@ public class Runner implements AutoCloseable {
    * @param dataDir the data dir
    * @param pidPath the pid path
    * @param transactionLogBloomCacher the transaction log bloom cacher
+   * @param logIndex the log index
    * @param blockchain the blockchain
    */
   Runner(
@@ -116,6 +120,7 @@ public class Runner implements AutoCloseable {
       final Path dataDir,
       final Optional<Path> pidPath,
       final Optional<TransactionLogBloomCacher> transactionLogBloomCacher,
+      final Optional<LogIndex> logIndex,
       final Blockchain blockchain) {
     this.vertx = vertx;
     this.networkRunner = networkRunner;
@@ -134,6 +139,7 @@ public class Runner implements AutoCloseable {
     this.autoTransactionLogBloomCachingService =
         transactionLogBloomCacher.map(
             cacher -> new AutoTransactionLogBloomCachingService(blockchain, cacher));
+    this.logIndexingService = logIndex.map(index -> new LogIndexingService(blockchain, index));
     this.transactionPoolEvictionService =
         new TransactionPoolEvictionService(vertx, besuController.getTransactionPool());
   }
@@ -152,6 +158,7 @@ public class Runner implements AutoCloseable {
             waitForServiceToStart(
                 "ipcJsonRpc", service.start().toCompletionStage().toCompletableFuture()));
     autoTransactionLogBloomCachingService.ifPresent(AutoTransactionLogBloomCachingService::start);
+    logIndexingService.ifPresent(LogIndexingService::start);
   }
 
   private void startExternalServicePostMainLoop() {
@@ -209,6 +216,7 @@ public class Runner implements AutoCloseable {
     networkRunner.stop();
     waitForServiceToStop("Network", networkRunner::awaitStop);
     autoTransactionLogBloomCachingService.ifPresent(AutoTransactionLogBloomCachingService::stop);
+    logIndexingService.ifPresent(LogIndexingService::stop);
     natService.stop();
     besuController.close();
     vertx.close((res) -> vertxShutdownLatch.countDown());
@@ -63,6 +63,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.pending.
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.pending.PendingTransactionSubscriptionService;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.syncing.SyncingSubscriptionService;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
+import org.hyperledger.besu.ethereum.api.query.cache.LogIndex;
 import org.hyperledger.besu.ethereum.blockcreation.MiningCoordinator;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.MiningConfiguration;
@@ -98,6 +99,7 @@ import org.hyperledger.besu.ethereum.permissioning.node.InsufficientPeersPermiss
 import org.hyperledger.besu.ethereum.permissioning.node.NodePermissioningController;
 import org.hyperledger.besu.ethereum.permissioning.node.PeerPermissionsAdapter;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
 import org.hyperledger.besu.ethstats.EthStatsService;
 import org.hyperledger.besu.ethstats.util.EthStatsConnectOptions;
@@ -734,6 +736,13 @@ public class RunnerBuilder {
     final MiningCoordinator miningCoordinator = besuController.getMiningCoordinator();
     final MiningConfiguration miningConfiguration = besuController.getMiningParameters();
 
+    final Optional<LogIndex> logIndex =
+        apiConfiguration.isLogIndexEnabled()
+            ? Optional.of(
+                new LogIndex(
+                    storageProvider.getStorageBySegmentIdentifier(
+                        KeyValueSegmentIdentifier.LOG_INDEX)))
+            : Optional.empty();
     final BlockchainQueries blockchainQueries =
         new BlockchainQueries(
             protocolSchedule,
@@ -742,7 +751,8 @@ public class RunnerBuilder {
             Optional.of(dataDir.resolve(CACHE_PATH)),
             Optional.of(besuController.getProtocolManager().ethContext().getScheduler()),
             apiConfiguration,
-            miningConfiguration);
+            miningConfiguration,
+            logIndex);
 
     final FilterManager filterManager =
         new FilterManagerBuilder()
@@ -1079,6 +1089,7 @@ public class RunnerBuilder {
         dataDir,
         pidPath,
         autoLogBloomCaching ? blockchainQueries.getTransactionLogBloomCacher() : Optional.empty(),
+        logIndex,
         context.getBlockchain());
   }
 
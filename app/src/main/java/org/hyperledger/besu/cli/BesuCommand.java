@@ -2506,6 +2506,9 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
         && !dataStorageConfiguration.getHistoryExpiryPruneEnabled()) {
       rocksDBPlugin.addIgnorableSegmentIdentifier(KeyValueSegmentIdentifier.CHAIN_PRUNER_STATE);
     }
+    if (!apiConfigurationOptions.apiConfiguration().isLogIndexEnabled()) {
+      rocksDBPlugin.addIgnorableSegmentIdentifier(KeyValueSegmentIdentifier.LOG_INDEX);
+    }
   }
 
   private void validatePostMergeCheckpointBlockRequirements() {
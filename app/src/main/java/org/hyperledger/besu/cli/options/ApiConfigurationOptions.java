@@ -67,6 +67,13 @@ public class ApiConfigurationOptions {
           "Set to enable eth_getBlockAccessListByNumber method and Block Access Lists in simulation results")
   private final Boolean apiBlockAccessListEnabled = false;
 
+  @CommandLine.Option(
+      names = {"--Xapi-log-index-enabled"},
+      hidden = true,
+      description =
+          "Set to index the blocks holding logs of each address and topic, so that logs queries only read the blocks with matching logs. Only the blocks imported after it is enabled are indexed (default: ${DEFAULT-VALUE})")
+  private final Boolean apiLogIndexEnabled = false;
+
   @CommandLine.Option(
       names = {"--api-gas-and-priority-fee-lower-bound-coefficient"},
       hidden = true,
@@ -145,7 +152,8 @@ public class ApiConfigurationOptions {
             .gasCap(rpcGasCap)
             .isGasAndPriorityFeeLimitingEnabled(apiGasAndPriorityFeeLimitingEnabled)
             .maxTraceFilterRange(maxTraceFilterRange)
-            .isBlockAccessListEnabled(apiBlockAccessListEnabled);
+            .isBlockAccessListEnabled(apiBlockAccessListEnabled)
+            .isLogIndexEnabled(apiLogIndexEnabled);
     if (apiGasAndPriorityFeeLimitingEnabled) {
       builder
           .lowerBoundGasAndPriorityFeeCoefficient(apiGasAndPriorityFeeLowerBoundCoefficient)
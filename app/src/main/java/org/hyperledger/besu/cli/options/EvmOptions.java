@@ -29,6 +29,9 @@ public class EvmOptions implements CLIOptions<EvmConfiguration> {
   /** The constant WORLDSTATE_UPDATE_MODE. */
   public static final String WORLDSTATE_UPDATE_MODE = "--Xevm-worldstate-update-mode";
 
+  /** The constant BASIC_BLOCK_EXECUTION. */
+  public static final String BASIC_BLOCK_EXECUTION = "--Xevm-basic-block-execution-enabled";
+
   /** Default constructor. */
   EvmOptions() {}
 
@@ -63,13 +66,25 @@ public class EvmOptions implements CLIOptions<EvmConfiguration> {
       EvmConfiguration.WorldUpdaterMode
           .STACKED; // Stacked Updater.  Years of battle tested correctness.
 
+  @SuppressWarnings({"FieldCanBeFinal", "FieldMayBeFinal"})
+  @CommandLine.Option(
+      names = {BASIC_BLOCK_EXECUTION},
+      description =
+          "Execute legacy contract code from pre-decoded basic blocks, "
+              + "checking gas and stack once per block (default: ${DEFAULT-VALUE})",
+      fallbackValue = "true",
+      hidden = true,
+      arity = "0..1")
+  private Boolean basicBlockExecutionEnabled = false;
+
   @Override
   public EvmConfiguration toDomainObject() {
-    return new EvmConfiguration(jumpDestCacheWeightKilobytes, worldstateUpdateMode);
+    return new EvmConfiguration(
+        jumpDestCacheWeightKilobytes, worldstateUpdateMode, basicBlockExecutionEnabled);
   }
 
   @Override
   public List<String> getCLIOptions() {
-    return List.of(JUMPDEST_CACHE_WEIGHT, WORLDSTATE_UPDATE_MODE);
+    return List.of(JUMPDEST_CACHE_WEIGHT, WORLDSTATE_UPDATE_MODE, BASIC_BLOCK_EXECUTION);
   }
 }
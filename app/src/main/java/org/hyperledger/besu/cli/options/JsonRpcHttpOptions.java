@@ -38,7 +38,9 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -224,6 +226,23 @@ public class JsonRpcHttpOptions {
       description = "Enable JSON pretty print format (default: ${DEFAULT-VALUE})")
   private final Boolean prettyJsonEnabled = DEFAULT_PRETTY_JSON_ENABLED;
 
+  @CommandLine.Option(
+      names = {"--Xrpc-http-virtual-threads-enabled"},
+      hidden = true,
+      description =
+          "Run each JSON-RPC request, and each element of a batch request, on its own virtual thread (default: ${DEFAULT-VALUE})")
+  private final Boolean rpcHttpVirtualThreadsEnabled = false;
+
+  @CommandLine.Option(
+      names = {"--Xrpc-http-method-concurrency-limit"},
+      hidden = true,
+      paramLabel = "<METHOD=LIMIT>",
+      description =
+          "Comma separated list of the maximum number of concurrent requests of a JSON-RPC method, e.g. eth_call=64,debug_traceTransaction=8",
+      split = ",",
+      arity = "1..*")
+  private final Map<String, Integer> rpcHttpMethodConcurrencyLimits = new HashMap<>();
+
   /** Default constructor */
   public JsonRpcHttpOptions() {}
 
@@ -271,6 +290,13 @@ public class JsonRpcHttpOptions {
           "Unable to authenticate JSON-RPC HTTP endpoint without a supplied credentials file or authentication public key file");
     }
 
+    if (!rpcHttpMethodConcurrencyLimits.keySet().stream().allMatch(RpcMethod::rpcMethodExists)
+        || !rpcHttpMethodConcurrencyLimits.values().stream().allMatch(limit -> limit > 0)) {
+      throw new CommandLine.ParameterException(
+          commandLine,
+          "Invalid value for option '--Xrpc-http-method-concurrency-limit', entries must be valid RPC methods with a positive limit");
+    }
+
     checkDependencies(logger, commandLine);
 
     if (isRpcTlsConfigurationRequired()) {
@@ -301,6 +327,8 @@ public class JsonRpcHttpOptions {
     jsonRpcConfiguration.setMaxBatchSize(rpcHttpMaxBatchSize);
     jsonRpcConfiguration.setMaxRequestContentLength(rpcHttpMaxRequestContentLength);
     jsonRpcConfiguration.setPrettyJsonEnabled(prettyJsonEnabled);
+    jsonRpcConfiguration.setVirtualThreadsEnabled(rpcHttpVirtualThreadsEnabled);
+    jsonRpcConfiguration.setMethodConcurrencyLimits(Map.copyOf(rpcHttpMethodConcurrencyLimits));
     return jsonRpcConfiguration;
   }
 
@@ -50,6 +50,8 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
       "--Xsynchronizer-transactions-parallelism";
   private static final String COMPUTATION_PARALLELISM_FLAG =
       "--Xsynchronizer-computation-parallelism";
+  private static final String ADAPTIVE_CONCURRENCY_ENABLED_FLAG =
+      "--Xsynchronizer-adaptive-concurrency-enabled";
   private static final String PIVOT_DISTANCE_FROM_HEAD_FLAG =
       "--Xsynchronizer-fast-sync-pivot-distance";
   private static final String FULL_VALIDATION_RATE_FLAG =
@@ -185,6 +187,16 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
           "Number of threads to make available for bulk hash computations during downloads (default: # of processors)")
   private int computationParallelism = Runtime.getRuntime().availableProcessors();
 
+  @CommandLine.Option(
+      names = ADAPTIVE_CONCURRENCY_ENABLED_FLAG,
+      hidden = true,
+      paramLabel = "<Boolean>",
+      arity = "0..1",
+      description =
+          "Adjust the concurrency of the download pipelines at runtime, using the downloader and world state request parallelism as maximum (default: ${DEFAULT-VALUE})")
+  private Boolean adaptiveConcurrencyEnabled =
+      SynchronizerConfiguration.DEFAULT_ADAPTIVE_CONCURRENCY_ENABLED;
+
   @CommandLine.Option(
       names = PIVOT_DISTANCE_FROM_HEAD_FLAG,
       hidden = true,
@@ -426,6 +438,7 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
     options.downloaderParallelism = config.getDownloaderParallelism();
     options.transactionsParallelism = config.getTransactionsParallelism();
     options.computationParallelism = config.getComputationParallelism();
+    options.adaptiveConcurrencyEnabled = config.isAdaptiveConcurrencyEnabled();
     options.fastSyncPivotDistance = config.getSyncPivotDistance();
     options.fastSyncFullValidationRate = config.getFastSyncFullValidationRate();
     options.worldStateHashCountPerRequest = config.getWorldStateHashCountPerRequest();
@@ -471,6 +484,7 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
     builder.downloaderParallelism(downloaderParallelism);
     builder.transactionsParallelism(transactionsParallelism);
     builder.computationParallelism(computationParallelism);
+    builder.adaptiveConcurrencyEnabled(adaptiveConcurrencyEnabled);
     builder.syncPivotDistance(fastSyncPivotDistance);
     builder.fastSyncFullValidationRate(fastSyncFullValidationRate);
     builder.worldStateHashCountPerRequest(worldStateHashCountPerRequest);
@@ -522,6 +536,8 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
             OptionParser.format(transactionsParallelism),
             COMPUTATION_PARALLELISM_FLAG,
             OptionParser.format(computationParallelism),
+            ADAPTIVE_CONCURRENCY_ENABLED_FLAG,
+            OptionParser.format(adaptiveConcurrencyEnabled),
             PIVOT_DISTANCE_FROM_HEAD_FLAG,
             OptionParser.format(fastSyncPivotDistance),
             FULL_VALIDATION_RATE_FLAG,
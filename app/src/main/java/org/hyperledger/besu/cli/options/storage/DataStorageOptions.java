@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.cli.options.storage;
 
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_RECEIPT_COLUMNAR_ENCODING_ENABLED;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_RECEIPT_COMPACTION_ENABLED;
 
 import org.hyperledger.besu.cli.options.CLIOptions;
@@ -49,6 +50,14 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
       fallbackValue = "true")
   private Boolean receiptCompactionEnabled = DEFAULT_RECEIPT_COMPACTION_ENABLED;
 
+  @Option(
+      names = "--Xreceipt-columnar-encoding-enabled",
+      hidden = true,
+      description =
+          "Stores new receipts in a columnar encoding whose logs are only decoded when needed. Receipts stored this way can't be read by older versions (default: ${DEFAULT-VALUE})",
+      fallbackValue = "true")
+  private Boolean receiptColumnarEncodingEnabled = DEFAULT_RECEIPT_COLUMNAR_ENCODING_ENABLED;
+
   @SuppressWarnings("ExperimentalCliOptionMustBeCorrectlyDisplayed")
   @CommandLine.Option(
       names = {"--Xhistory-expiry-prune", "--history-expiry-prune"},
@@ -95,6 +104,8 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
     final DataStorageOptions dataStorageOptions = DataStorageOptions.create();
     dataStorageOptions.dataStorageFormat = domainObject.getDataStorageFormat();
     dataStorageOptions.receiptCompactionEnabled = domainObject.getReceiptCompactionEnabled();
+    dataStorageOptions.receiptColumnarEncodingEnabled =
+        domainObject.getReceiptColumnarEncodingEnabled();
     dataStorageOptions.pathBasedExtraStorageOptions =
         PathBasedExtraStorageOptions.fromConfig(
             domainObject.getPathBasedExtraStorageConfiguration());
@@ -108,6 +119,7 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
         ImmutableDataStorageConfiguration.builder()
             .dataStorageFormat(dataStorageFormat)
             .receiptCompactionEnabled(receiptCompactionEnabled)
+            .receiptColumnarEncodingEnabled(receiptColumnarEncodingEnabled)
             .historyExpiryPruneEnabled(historyExpiryPrune)
             .pathBasedExtraStorageConfiguration(pathBasedExtraStorageOptions.toDomainObject());
     return builder.build();
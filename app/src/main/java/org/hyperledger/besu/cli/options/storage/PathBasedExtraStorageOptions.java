@@ -19,8 +19,12 @@ import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConf
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.DEFAULT_PARALLEL_TX_PROCESSING;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.DEFAULT_TRIE_LOG_PRUNING_WINDOW_SIZE;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.MINIMUM_TRIE_LOG_RETENTION_LIMIT;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_CACHED_LAYERS_HEAP_SHARE;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_CODE_USING_CODE_HASH_ENABLED;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_FULL_FLAT_DB_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_TRIE_LOG_COMPACT_ENCODING_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_TRIE_NODE_CACHE_HEAP_SHARE;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_TRIE_NODE_CACHE_PINNED_ACCOUNT_LEVELS;
 
 import org.hyperledger.besu.cli.options.CLIOptions;
 import org.hyperledger.besu.cli.util.CommandLineUtils;
@@ -111,6 +115,38 @@ public class PathBasedExtraStorageOptions
             "Enables code storage using code hash instead of by account hash. (default: ${DEFAULT-VALUE})")
     private boolean codeUsingCodeHashEnabled = DEFAULT_CODE_USING_CODE_HASH_ENABLED;
 
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-trie-node-cache-heap-share"},
+        arity = "1",
+        description =
+            "Share of the maximum heap size used to cache trie nodes. (default: ${DEFAULT-VALUE})")
+    private double trieNodeCacheHeapShare = DEFAULT_TRIE_NODE_CACHE_HEAP_SHARE;
+
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-trie-node-cache-pinned-account-levels"},
+        arity = "1",
+        description =
+            "Number of top levels of the account trie whose nodes are never evicted from the cache. (default: ${DEFAULT-VALUE})")
+    private int trieNodeCachePinnedAccountLevels = DEFAULT_TRIE_NODE_CACHE_PINNED_ACCOUNT_LEVELS;
+
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-trie-log-compact-encoding-enabled"},
+        arity = "1",
+        description =
+            "Stores new trie logs in a compact encoding with delta-encoded accounts, compressed with Snappy. Trie logs stored this way can't be read by older versions or by plugins reading raw trie logs. (default: ${DEFAULT-VALUE})")
+    private boolean trieLogCompactEncodingEnabled = DEFAULT_TRIE_LOG_COMPACT_ENCODING_ENABLED;
+
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-cached-layers-heap-share"},
+        arity = "1",
+        description =
+            "Share of the maximum heap size used to cache the world states of recent blocks, the least recently used ones being evicted first. Only the changes kept on the heap by fork layers are counted, not the database snapshots. (default: ${DEFAULT-VALUE})")
+    private double cachedLayersHeapShare = DEFAULT_CACHED_LAYERS_HEAP_SHARE;
+
     /** Default Constructor. */
     Unstable() {}
   }
@@ -133,6 +169,29 @@ public class PathBasedExtraStorageOptions
    */
   public void validate(final CommandLine commandLine, final DataStorageFormat dataStorageFormat) {
     if (DataStorageFormat.BONSAI == dataStorageFormat) {
+      if (unstableOptions.trieNodeCacheHeapShare < 0
+          || unstableOptions.trieNodeCacheHeapShare >= 1) {
+        throw new CommandLine.ParameterException(
+            commandLine,
+            String.format(
+                "--Xbonsai-trie-node-cache-heap-share=%s must be between 0 and 1",
+                unstableOptions.trieNodeCacheHeapShare));
+      }
+      if (unstableOptions.cachedLayersHeapShare <= 0
+          || unstableOptions.cachedLayersHeapShare >= 1) {
+        throw new CommandLine.ParameterException(
+            commandLine,
+            String.format(
+                "--Xbonsai-cached-layers-heap-share=%s must be between 0 and 1",
+                unstableOptions.cachedLayersHeapShare));
+      }
+      if (unstableOptions.trieNodeCachePinnedAccountLevels < 0) {
+        throw new CommandLine.ParameterException(
+            commandLine,
+            String.format(
+                "--Xbonsai-trie-node-cache-pinned-account-levels=%d must not be negative",
+                unstableOptions.trieNodeCachePinnedAccountLevels));
+      }
       if (limitTrieLogsEnabled) {
         if (maxLayersToLoad < MINIMUM_TRIE_LOG_RETENTION_LIMIT) {
           throw new CommandLine.ParameterException(
@@ -178,6 +237,14 @@ public class PathBasedExtraStorageOptions
         domainObject.getUnstable().getFullFlatDbEnabled();
     dataStorageOptions.unstableOptions.codeUsingCodeHashEnabled =
         domainObject.getUnstable().getCodeStoredByCodeHashEnabled();
+    dataStorageOptions.unstableOptions.trieNodeCacheHeapShare =
+        domainObject.getUnstable().getTrieNodeCacheHeapShare();
+    dataStorageOptions.unstableOptions.trieNodeCachePinnedAccountLevels =
+        domainObject.getUnstable().getTrieNodeCachePinnedAccountLevels();
+    dataStorageOptions.unstableOptions.trieLogCompactEncodingEnabled =
+        domainObject.getUnstable().getTrieLogCompactEncodingEnabled();
+    dataStorageOptions.unstableOptions.cachedLayersHeapShare =
+        domainObject.getUnstable().getCachedLayersHeapShare();
     dataStorageOptions.isParallelTxProcessingEnabled =
         domainObject.getParallelTxProcessingEnabled();
 
@@ -195,6 +262,10 @@ public class PathBasedExtraStorageOptions
             ImmutablePathBasedExtraStorageConfiguration.PathBasedUnstable.builder()
                 .fullFlatDbEnabled(unstableOptions.fullFlatDbEnabled)
                 .codeStoredByCodeHashEnabled(unstableOptions.codeUsingCodeHashEnabled)
+                .trieNodeCacheHeapShare(unstableOptions.trieNodeCacheHeapShare)
+                .trieNodeCachePinnedAccountLevels(unstableOptions.trieNodeCachePinnedAccountLevels)
+                .trieLogCompactEncodingEnabled(unstableOptions.trieLogCompactEncodingEnabled)
+                .cachedLayersHeapShare(unstableOptions.cachedLayersHeapShare)
                 .build())
         .build();
   }
@@ -26,6 +26,7 @@ import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogDecoder;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.TrieLogFactoryImpl;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogLayer;
@@ -41,11 +42,13 @@ import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.tuweni.bytes.Bytes;
@@ -98,7 +101,11 @@ public class TrieLogHelper {
         chainHeight,
         lastBlockNumberToRetainTrieLogsFor,
         numberOfBatches,
-        batchFileNameBase);
+        batchFileNameBase,
+        config
+            .getPathBasedExtraStorageConfiguration()
+            .getUnstable()
+            .getTrieLogCompactEncodingEnabled());
 
     // Should only be layersToRetain left but loading extra just in case of an unforeseen bug
     final long countAfterPrune =
@@ -126,7 +133,8 @@ public class TrieLogHelper {
       final long chainHeight,
       final long lastBlockNumberToRetainTrieLogsFor,
       final long numberOfBatches,
-      final String batchFileNameBase) {
+      final String batchFileNameBase,
+      final boolean compactEncodingEnabled) {
 
     for (long batchNumber = 1; batchNumber <= numberOfBatches; batchNumber++) {
       final String batchFileName = batchFileNameBase + "-" + batchNumber;
@@ -144,7 +152,8 @@ public class TrieLogHelper {
     rootWorldStateStorage.clearTrieLog();
 
     for (long batchNumber = 1; batchNumber <= numberOfBatches; batchNumber++) {
-      restoreTrieLogBatches(rootWorldStateStorage, batchNumber, batchFileNameBase);
+      restoreTrieLogBatches(
+          rootWorldStateStorage, batchNumber, batchFileNameBase, compactEncodingEnabled);
     }
   }
 
@@ -164,11 +173,13 @@ public class TrieLogHelper {
   private void restoreTrieLogBatches(
       final PathBasedWorldStateKeyValueStorage rootWorldStateStorage,
       final long batchNumber,
-      final String batchFileNameBase) {
+      final String batchFileNameBase,
+      final boolean compactEncodingEnabled) {
 
     try {
       LOG.info("Restoring trie logs retained from batch {}...", batchNumber);
-      recreateTrieLogs(rootWorldStateStorage, batchNumber, batchFileNameBase);
+      recreateTrieLogs(
+          rootWorldStateStorage, batchNumber, batchFileNameBase, compactEncodingEnabled);
     } catch (IOException e) {
       LOG.error("Error recreating trie logs from batch {}: {}", batchNumber, e.getMessage());
       throw new RuntimeException(e);
@@ -257,7 +268,8 @@ public class TrieLogHelper {
   private void recreateTrieLogs(
       final PathBasedWorldStateKeyValueStorage rootWorldStateStorage,
       final long batchNumber,
-      final String batchFileNameBase)
+      final String batchFileNameBase,
+      final boolean compactEncodingEnabled)
       throws IOException {
     // process in chunk to avoid OOM
     final String batchFileName = batchFileNameBase + "-" + batchNumber;
@@ -266,7 +278,13 @@ public class TrieLogHelper {
     List<byte[]> keys = new ArrayList<>(trieLogsToRetain.keySet());
 
     for (int startIndex = 0; startIndex < keys.size(); startIndex += chunkSize) {
-      processTransactionChunk(startIndex, chunkSize, keys, trieLogsToRetain, rootWorldStateStorage);
+      processTransactionChunk(
+          startIndex,
+          chunkSize,
+          keys,
+          trieLogsToRetain,
+          rootWorldStateStorage,
+          compactEncodingEnabled);
     }
   }
 
@@ -275,14 +293,16 @@ public class TrieLogHelper {
       final int chunkSize,
       final List<byte[]> keys,
       final IdentityHashMap<byte[], byte[]> trieLogsToRetain,
-      final PathBasedWorldStateKeyValueStorage rootWorldStateStorage) {
+      final PathBasedWorldStateKeyValueStorage rootWorldStateStorage,
+      final boolean compactEncodingEnabled) {
 
     var updater = rootWorldStateStorage.updater();
     int endIndex = Math.min(startIndex + chunkSize, keys.size());
 
     for (int i = startIndex; i < endIndex; i++) {
       byte[] key = keys.get(i);
-      byte[] value = trieLogsToRetain.get(key);
+      byte[] value =
+          TrieLogFactoryImpl.reencode(trieLogsToRetain.get(key), compactEncodingEnabled);
       updater.getTrieLogStorageTransaction().put(key, value);
       LOG.info("Key({}): {}", i, Bytes32.wrap(key).toShortHexString());
     }
@@ -367,7 +387,8 @@ public class TrieLogHelper {
         RLP.encode(
             o ->
                 o.writeList(
-                    trieLogs.entrySet(), (val, out) -> out.writeRaw(Bytes.wrap(val.getValue()))));
+                    trieLogs.entrySet(),
+                    (val, out) -> out.writeRaw(Bytes.wrap(toRlp(val.getValue())))));
     try {
       Files.write(file.toPath(), rlp.toArrayUnsafe());
     } catch (IOException e) {
@@ -376,6 +397,11 @@ public class TrieLogHelper {
     }
   }
 
+  // exported trie logs are always RLP, so that nodes not using the compact encoding can import them
+  private static byte[] toRlp(final byte[] trieLog) {
+    return TrieLogFactoryImpl.reencode(trieLog, false);
+  }
+
   IdentityHashMap<byte[], byte[]> readTrieLogsAsRlpFromFile(final String batchFileName) {
     try {
       final Bytes file = Bytes.wrap(Files.readAllBytes(Path.of(batchFileName)));
@@ -453,12 +479,18 @@ public class TrieLogHelper {
   }
 
   void importTrieLog(
-      final PathBasedWorldStateKeyValueStorage rootWorldStateStorage, final Path trieLogFilePath) {
+      final PathBasedWorldStateKeyValueStorage rootWorldStateStorage,
+      final Path trieLogFilePath,
+      final boolean compactEncodingEnabled) {
 
     var trieLog = readTrieLogsAsRlpFromFile(trieLogFilePath.toString());
 
     var updater = rootWorldStateStorage.updater();
-    trieLog.forEach((key, value) -> updater.getTrieLogStorageTransaction().put(key, value));
+    trieLog.forEach(
+        (key, value) ->
+            updater
+                .getTrieLogStorageTransaction()
+                .put(key, TrieLogFactoryImpl.reencode(value, compactEncodingEnabled)));
     updater.getTrieLogStorageTransaction().commit();
   }
 
@@ -472,5 +504,59 @@ public class TrieLogHelper {
     saveTrieLogsAsRlpInFile(trieLogHash, rootWorldStateStorage, trieLogFile);
   }
 
+  TrieLogMigration migrate(
+      final PathBasedWorldStateKeyValueStorage rootWorldStateStorage,
+      final boolean compactEncodingEnabled) {
+    final TrieLogFactoryImpl trieLogFactory = new TrieLogFactoryImpl(compactEncodingEnabled);
+    final long start = System.nanoTime();
+    int total = 0;
+    int migrated = 0;
+    long sizeBefore = 0;
+    long sizeAfter = 0;
+
+    var updater = rootWorldStateStorage.updater();
+    try (Stream<byte[]> keys = rootWorldStateStorage.streamTrieLogKeys(Long.MAX_VALUE)) {
+      for (final byte[] key : (Iterable<byte[]>) keys::iterator) {
+        final Optional<byte[]> trieLog =
+            rootWorldStateStorage.getTrieLog(Hash.wrap(Bytes32.wrap(key)));
+        if (trieLog.isEmpty()) {
+          continue;
+        }
+        total++;
+        sizeBefore += trieLog.get().length;
+        if (CompactTrieLogDecoder.isCompact(trieLog.get()) == compactEncodingEnabled) {
+          sizeAfter += trieLog.get().length;
+          continue;
+        }
+        final byte[] reencoded =
+            trieLogFactory.serialize(trieLogFactory.deserialize(trieLog.get()));
+        sizeAfter += reencoded.length;
+        updater.getTrieLogStorageTransaction().put(key, reencoded);
+        if (++migrated % ROCKSDB_MAX_INSERTS_PER_TRANSACTION == 0) {
+          updater.getTrieLogStorageTransaction().commit();
+          updater = rootWorldStateStorage.updater();
+          LOG.info("Migrated {} trie logs", migrated);
+        }
+      }
+    }
+    updater.getTrieLogStorageTransaction().commit();
+
+    return new TrieLogMigration(
+        total, migrated, sizeBefore, sizeAfter, Duration.ofNanos(System.nanoTime() - start));
+  }
+
+  void printMigration(final PrintWriter out, final TrieLogMigration migration) {
+    out.printf(
+        "trieLog count: %s\n - migrated count: %s\n - size before: %s bytes\n - size after: %s bytes\n - duration: %s ms\n",
+        migration.total,
+        migration.migrated,
+        migration.sizeBefore,
+        migration.sizeAfter,
+        migration.duration.toMillis());
+  }
+
   record TrieLogCount(int total, int canonicalCount, int forkCount, int orphanCount) {}
+
+  record TrieLogMigration(
+      int total, int migrated, long sizeBefore, long sizeAfter, Duration duration) {}
 }
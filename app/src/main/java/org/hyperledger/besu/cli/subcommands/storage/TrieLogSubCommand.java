@@ -59,7 +59,8 @@ import picocli.CommandLine.ParentCommand;
       TrieLogSubCommand.CountTrieLog.class,
       TrieLogSubCommand.PruneTrieLog.class,
       TrieLogSubCommand.ExportTrieLog.class,
-      TrieLogSubCommand.ImportTrieLog.class
+      TrieLogSubCommand.ImportTrieLog.class,
+      TrieLogSubCommand.MigrateTrieLog.class
     })
 public class TrieLogSubCommand implements Runnable {
 
@@ -312,7 +313,50 @@ public class TrieLogSubCommand implements Runnable {
 
       TrieLogContext context = getTrieLogContext();
       final TrieLogHelper trieLogHelper = new TrieLogHelper();
-      trieLogHelper.importTrieLog(context.rootWorldStateStorage(), trieLogFilePath);
+      trieLogHelper.importTrieLog(
+          context.rootWorldStateStorage(),
+          trieLogFilePath,
+          context
+              .config()
+              .getPathBasedExtraStorageConfiguration()
+              .getUnstable()
+              .getTrieLogCompactEncodingEnabled());
+    }
+  }
+
+  @Command(
+      name = "migrate",
+      description =
+          "This command rewrites the trie logs in the encoding selected by --Xbonsai-trie-log-compact-encoding-enabled, and reports their size before and after.",
+      mixinStandardHelpOptions = true,
+      versionProvider = VersionProvider.class)
+  static class MigrateTrieLog implements Runnable {
+
+    @SuppressWarnings("unused")
+    @ParentCommand
+    private TrieLogSubCommand parentCommand;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec; // Picocli injects reference to command spec
+
+    @Override
+    public void run() {
+      final TrieLogContext context = getTrieLogContext();
+      final boolean compactEncodingEnabled =
+          context
+              .config()
+              .getPathBasedExtraStorageConfiguration()
+              .getUnstable()
+              .getTrieLogCompactEncodingEnabled();
+
+      final PrintWriter out = spec.commandLine().getOut();
+      out.printf(
+          "Migrating trie logs to the %s encoding...\n",
+          compactEncodingEnabled ? "compact" : "RLP");
+      final TrieLogHelper trieLogHelper = new TrieLogHelper();
+      trieLogHelper.printMigration(
+          out, trieLogHelper.migrate(context.rootWorldStateStorage(), compactEncodingEnabled));
     }
   }
 
@@ -88,9 +88,12 @@ import org.hyperledger.besu.ethereum.trie.forest.ForestWorldStateArchive;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiArchiveWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.BonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.CodeAnalysisStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.CodeCache;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiArchiver;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.cache.PathBasedCachedWorldStorageManager;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.PathBasedWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogPruner;
@@ -589,6 +592,12 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
 
     this.codeCache = besuComponent.map(BesuComponent::getCodeCache).orElse(new CodeCache());
     this.codeCache.setupMetricsSystem(metricsSystem);
+    if (dataStorageConfiguration.getDataStorageFormat().isBonsaiFormat()) {
+      this.codeCache.setCodeAnalysisStorage(
+          new CodeAnalysisStorage(
+              storageProvider.getStorageBySegmentIdentifier(
+                  KeyValueSegmentIdentifier.CODE_ANALYSIS)));
+    }
 
     prepForBuild();
 
@@ -632,6 +641,16 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
             blockchain,
             bonsaiCachedMerkleTrieLoader,
             worldStateHealerSupplier::get);
+    if (worldStateArchive instanceof PathBasedWorldStateProvider pathBasedWorldStateProvider) {
+      final PathBasedCachedWorldStorageManager cachedWorldStorageManager =
+          pathBasedWorldStateProvider.getCachedWorldStorageManager();
+      cachedWorldStorageManager.setCachedLayersHeapShare(
+          dataStorageConfiguration
+              .getPathBasedExtraStorageConfiguration()
+              .getUnstable()
+              .getCachedLayersHeapShare());
+      cachedWorldStorageManager.setupMetricsSystem(metricsSystem);
+    }
 
     if (maybeStoredGenesisBlockHash.isEmpty()) {
       genesisState.writeStateTo(worldStateArchive.getWorldState());
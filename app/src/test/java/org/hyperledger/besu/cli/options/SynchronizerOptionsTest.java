@@ -66,6 +66,7 @@ public class SynchronizerOptionsTest
         .downloaderParallelism(SynchronizerConfiguration.DEFAULT_DOWNLOADER_PARALLELISM + 2)
         .transactionsParallelism(SynchronizerConfiguration.DEFAULT_TRANSACTIONS_PARALLELISM + 2)
         .computationParallelism(SynchronizerConfiguration.DEFAULT_COMPUTATION_PARALLELISM + 2)
+        .adaptiveConcurrencyEnabled(true)
         .snapSyncConfiguration(
             ImmutableSnapSyncConfiguration.builder()
                 .pivotBlockWindowValidity(
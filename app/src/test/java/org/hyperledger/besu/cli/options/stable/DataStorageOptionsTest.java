@@ -138,6 +138,65 @@ public class DataStorageOptionsTest
         "false");
   }
 
+  @Test
+  public void trieNodeCacheCanBeConfigured() {
+    internalTestSuccess(
+        dataStorageConfiguration -> {
+          final var unstable =
+              dataStorageConfiguration.getPathBasedExtraStorageConfiguration().getUnstable();
+          assertThat(unstable.getTrieNodeCacheHeapShare()).isEqualTo(0.1);
+          assertThat(unstable.getTrieNodeCachePinnedAccountLevels()).isEqualTo(3);
+        },
+        "--Xbonsai-trie-node-cache-heap-share",
+        "0.1",
+        "--Xbonsai-trie-node-cache-pinned-account-levels",
+        "3");
+  }
+
+  @Test
+  public void trieNodeCacheHeapShareShouldBeBelowOne() {
+    internalTestFailure(
+        "--Xbonsai-trie-node-cache-heap-share=1.0 must be between 0 and 1",
+        "--Xbonsai-trie-node-cache-heap-share",
+        "1");
+  }
+
+  @Test
+  public void cachedLayersHeapShareCanBeConfigured() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(
+                    dataStorageConfiguration
+                        .getPathBasedExtraStorageConfiguration()
+                        .getUnstable()
+                        .getCachedLayersHeapShare())
+                .isEqualTo(0.3),
+        "--Xbonsai-cached-layers-heap-share",
+        "0.3");
+  }
+
+  @Test
+  public void cachedLayersHeapShareShouldBeAboveZero() {
+    internalTestFailure(
+        "--Xbonsai-cached-layers-heap-share=0.0 must be between 0 and 1",
+        "--Xbonsai-cached-layers-heap-share",
+        "0");
+  }
+
+  @Test
+  public void trieLogCompactEncodingCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(
+                    dataStorageConfiguration
+                        .getPathBasedExtraStorageConfiguration()
+                        .getUnstable()
+                        .getTrieLogCompactEncodingEnabled())
+                .isTrue(),
+        "--Xbonsai-trie-log-compact-encoding-enabled",
+        "true");
+  }
+
   @Test
   public void receiptCompactionCanBeEnabledWithImplicitTrueValue() {
     internalTestSuccess(
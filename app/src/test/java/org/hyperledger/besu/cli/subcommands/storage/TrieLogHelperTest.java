@@ -31,6 +31,7 @@ import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogDecoder;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.TrieLogFactoryImpl;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogLayer;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
@@ -171,6 +172,42 @@ class TrieLogHelperTest {
         .isEqualTo(createTrieLog(blockHeader5));
   }
 
+  @Test
+  public void pruneKeepsRetainedTrieLogsInTheConfiguredEncoding(final @TempDir Path dataDir)
+      throws IOException {
+    Files.createDirectories(dataDir.resolve("database"));
+    nonValidatingTrieLogHelper.migrate(inMemoryWorldState, true);
+
+    DataStorageConfiguration dataStorageConfiguration =
+        ImmutableDataStorageConfiguration.builder()
+            .dataStorageFormat(BONSAI)
+            .pathBasedExtraStorageConfiguration(
+                ImmutablePathBasedExtraStorageConfiguration.builder()
+                    .maxLayersToLoad(3L)
+                    .limitTrieLogsEnabled(true)
+                    .unstable(
+                        ImmutablePathBasedExtraStorageConfiguration.PathBasedUnstable.builder()
+                            .trieLogCompactEncodingEnabled(true)
+                            .build())
+                    .build())
+            .build();
+
+    mockBlockchainBase();
+    when(blockchain.getBlockHeader(5)).thenReturn(Optional.of(blockHeader5));
+    when(blockchain.getBlockHeader(4)).thenReturn(Optional.of(blockHeader4));
+    when(blockchain.getBlockHeader(3)).thenReturn(Optional.of(blockHeader3));
+
+    nonValidatingTrieLogHelper.prune(
+        dataStorageConfiguration, inMemoryWorldState, blockchain, dataDir);
+
+    assertThat(inMemoryWorldState.getTrieLog(blockHeader1.getHash())).isEmpty();
+    for (final BlockHeader retained : List.of(blockHeader3, blockHeader4, blockHeader5)) {
+      final byte[] trieLog = inMemoryWorldState.getTrieLog(retained.getHash()).get();
+      assertThat(CompactTrieLogDecoder.isCompact(trieLog)).isTrue();
+      assertThat(TrieLogFactoryImpl.reencode(trieLog, false)).isEqualTo(createTrieLog(retained));
+    }
+  }
+
   @Test
   public void cannotPruneIfNoFinalizedIsFound() {
     DataStorageConfiguration dataStorageConfiguration =
@@ -445,6 +482,55 @@ class TrieLogHelperTest {
         .isEqualTo(inMemoryWorldState.getTrieLog(blockHeader3.getHash()).get());
   }
 
+  @Test
+  public void exportedCompactTrieLogIsRlp(final @TempDir Path dataDir) throws IOException {
+    final TrieLogLayer trieLogLayer = new TrieLogLayer().setBlockHash(blockHeader1.getBlockHash());
+    final var updater = inMemoryWorldState.updater();
+    updater
+        .getTrieLogStorageTransaction()
+        .put(
+            blockHeader1.getHash().toArrayUnsafe(),
+            new TrieLogFactoryImpl(true).serialize(trieLogLayer));
+    updater.getTrieLogStorageTransaction().commit();
+
+    nonValidatingTrieLogHelper.exportTrieLog(
+        inMemoryWorldState,
+        singletonList(blockHeader1.getHash()),
+        dataDir.resolve("trie-log-dump"));
+
+    var trieLog =
+        nonValidatingTrieLogHelper
+            .readTrieLogsAsRlpFromFile(dataDir.resolve("trie-log-dump").toString())
+            .values()
+            .stream()
+            .findFirst()
+            .get();
+
+    assertThat(trieLog).isEqualTo(createTrieLog(blockHeader1));
+  }
+
+  @Test
+  public void migratedTrieLogsAreRewrittenInTheSelectedEncoding() {
+    final TrieLogHelper.TrieLogMigration toCompact =
+        nonValidatingTrieLogHelper.migrate(inMemoryWorldState, true);
+
+    assertThat(toCompact.migrated()).isEqualTo(toCompact.total()).isPositive();
+    final byte[] compactTrieLog = inMemoryWorldState.getTrieLog(blockHeader1.getHash()).get();
+    assertThat(CompactTrieLogDecoder.isCompact(compactTrieLog)).isTrue();
+    assertThat(new TrieLogFactoryImpl().deserialize(compactTrieLog).getBlockHash())
+        .isEqualTo(blockHeader1.getBlockHash());
+    assertThat(nonValidatingTrieLogHelper.migrate(inMemoryWorldState, true).migrated()).isZero();
+
+    final TrieLogHelper.TrieLogMigration toRlp =
+        nonValidatingTrieLogHelper.migrate(inMemoryWorldState, false);
+
+    assertThat(toRlp.migrated()).isEqualTo(toRlp.total());
+    assertThat(toRlp.sizeBefore()).isEqualTo(toCompact.sizeAfter());
+    assertThat(toRlp.sizeAfter()).isEqualTo(toCompact.sizeBefore());
+    assertThat(inMemoryWorldState.getTrieLog(blockHeader1.getHash()).get())
+        .isEqualTo(createTrieLog(blockHeader1));
+  }
+
   @Test
   public void importedTrieLogMatchesDbTrieLog(final @TempDir Path dataDir) throws IOException {
     StorageProvider tempStorageProvider = new InMemoryKeyValueStorageProvider();
@@ -498,4 +584,26 @@ class TrieLogHelperTest {
     assertThat(inMemoryWorldState2.getTrieLog(blockHeader3.getHash()).get())
         .isEqualTo(inMemoryWorldState.getTrieLog(blockHeader3.getHash()).get());
   }
+
+  @Test
+  public void importedTrieLogIsStoredInTheConfiguredEncoding(final @TempDir Path dataDir)
+      throws IOException {
+    final BonsaiWorldStateKeyValueStorage importingWorldState =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    nonValidatingTrieLogHelper.exportTrieLog(
+        inMemoryWorldState,
+        singletonList(blockHeader1.getHash()),
+        dataDir.resolve("trie-log-dump"));
+
+    nonValidatingTrieLogHelper.importTrieLog(
+        importingWorldState, dataDir.resolve("trie-log-dump"), true);
+
+    final byte[] trieLog = importingWorldState.getTrieLog(blockHeader1.getHash()).get();
+    assertThat(CompactTrieLogDecoder.isCompact(trieLog)).isTrue();
+    assertThat(TrieLogFactoryImpl.reencode(trieLog, false))
+        .isEqualTo(createTrieLog(blockHeader1));
+  }
 }
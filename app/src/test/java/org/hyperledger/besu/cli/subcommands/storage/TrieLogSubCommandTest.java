@@ -33,6 +33,7 @@ class TrieLogSubCommandTest extends CommandTestAbstract {
     assertTrieLogSubcommand("count");
     assertTrieLogSubcommand("import");
     assertTrieLogSubcommand("export");
+    assertTrieLogSubcommand("migrate");
   }
 
   @Test
@@ -41,6 +42,7 @@ class TrieLogSubCommandTest extends CommandTestAbstract {
     assertTrieLogSubcommandWithExplicitLimitEnabled("count");
     assertTrieLogSubcommandWithExplicitLimitEnabled("import");
     assertTrieLogSubcommandWithExplicitLimitEnabled("export");
+    assertTrieLogSubcommandWithExplicitLimitEnabled("migrate");
   }
 
   private void assertTrieLogSubcommand(final String trieLogSubcommand) {
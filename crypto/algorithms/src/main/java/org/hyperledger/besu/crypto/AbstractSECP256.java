@@ -21,10 +21,19 @@ import java.security.InvalidAlgorithmParameterException;
 import java.security.KeyPairGenerator;
 import java.security.Security;
 import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 
+import com.google.common.util.concurrent.Uninterruptibles;
+
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
@@ -48,6 +57,9 @@ public abstract class AbstractSECP256 implements SignatureAlgorithm {
   /** The constant PROVIDER. */
   public static final String PROVIDER = "BC";
 
+  // below this many signatures per task, handing them to another thread costs more than it saves
+  private static final int RECOVERIES_PER_TASK = 8;
+
   /** The Curve. */
   protected final ECDomainParameters curve;
 
@@ -413,6 +425,53 @@ public abstract class AbstractSECP256 implements SignatureAlgorithm {
         : Optional.of(SECPPublicKey.create(publicKeyBI, ALGORITHM));
   }
 
+  @Override
+  public List<Optional<SECPPublicKey>> recoverPublicKeysFromSignatures(
+      final List<Bytes32> dataHashes,
+      final List<SECPSignature> signatures,
+      final Executor executor) {
+    checkArgument(
+        dataHashes.size() == signatures.size(),
+        "there must be as many data hashes as signatures");
+    final int count = signatures.size();
+    final List<Optional<SECPPublicKey>> publicKeys =
+        new ArrayList<>(Collections.nCopies(count, Optional.empty()));
+    final AtomicInteger nextIndex = new AtomicInteger();
+    final CountDownLatch recovered = new CountDownLatch(count);
+    // every task, the caller included, takes the next signature to recover until none is left
+    final Runnable recoverRemaining =
+        () -> {
+          for (int i = nextIndex.getAndIncrement(); i < count; i = nextIndex.getAndIncrement()) {
+            publicKeys.set(i, recoverPublicKeyOrEmpty(dataHashes.get(i), signatures.get(i)));
+            recovered.countDown();
+          }
+        };
+
+    final int helperTasks =
+        Math.min(
+            (count - 1) / RECOVERIES_PER_TASK, Runtime.getRuntime().availableProcessors() - 1);
+    try {
+      for (int i = 0; i < helperTasks; i++) {
+        executor.execute(recoverRemaining);
+      }
+    } catch (final RejectedExecutionException e) {
+      // the caller recovers what the executor cannot take
+    }
+    recoverRemaining.run();
+    Uninterruptibles.awaitUninterruptibly(recovered);
+    return publicKeys;
+  }
+
+  private Optional<SECPPublicKey> recoverPublicKeyOrEmpty(
+      final Bytes32 dataHash, final SECPSignature signature) {
+    try {
+      return recoverPublicKeyFromSignature(dataHash, signature);
+    } catch (final IllegalArgumentException e) {
+      // an invalid signature must not fail the recovery of the rest of the batch
+      return Optional.empty();
+    }
+  }
+
   @Override
   public Bytes compressPublicKey(final SECPPublicKey uncompressedPublicKey) {
     return Bytes.wrap(publicKeyAsEcPoint(uncompressedPublicKey).getEncoded(true));
@@ -15,7 +15,9 @@
 package org.hyperledger.besu.crypto;
 
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.UnaryOperator;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -197,6 +199,20 @@ public interface SignatureAlgorithm {
   Optional<SECPPublicKey> recoverPublicKeyFromSignature(
       final Bytes32 dataHash, final SECPSignature signature);
 
+  /**
+   * Recover the public keys from a batch of signatures, spreading the recoveries over the executor.
+   * The calling thread takes part in the recoveries, so the batch completes even when the executor
+   * does not run the submitted tasks.
+   *
+   * @param dataHashes the data hashes
+   * @param signatures the signatures, in the same order as the data hashes
+   * @param executor the executor to spread the recoveries on
+   * @return the public keys in the same order as the signatures, empty for the signatures from
+   *     which no public key can be recovered
+   */
+  List<Optional<SECPPublicKey>> recoverPublicKeysFromSignatures(
+      List<Bytes32> dataHashes, List<SECPSignature> signatures, Executor executor);
+
   /**
    * Public key as EcPoint.
    *
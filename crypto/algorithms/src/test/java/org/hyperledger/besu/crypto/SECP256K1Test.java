@@ -25,6 +25,12 @@ import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -83,6 +89,48 @@ public class SECP256K1Test {
     assertThat(recoveredPublicKey.toString()).isEqualTo(keyPair.getPublicKey().toString());
   }
 
+  @Test
+  public void recoverPublicKeysFromSignatures() {
+    final List<KeyPair> keyPairs = new ArrayList<>();
+    final List<Bytes32> dataHashes = new ArrayList<>();
+    final List<SECPSignature> signatures = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      final KeyPair keyPair = secp256K1.generateKeyPair();
+      final Bytes32 dataHash = keccak256(Bytes.ofUnsignedInt(i));
+      keyPairs.add(keyPair);
+      dataHashes.add(dataHash);
+      signatures.add(secp256K1.sign(dataHash, keyPair));
+    }
+    // a signature that does not match its data hash recovers another public key
+    dataHashes.set(1, keccak256(Bytes.of(1)));
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Optional<SECPPublicKey>> publicKeys =
+          secp256K1.recoverPublicKeysFromSignatures(dataHashes, signatures, executor);
+
+      assertThat(publicKeys).hasSize(50).allMatch(Optional::isPresent);
+      assertThat(publicKeys.get(0)).contains(keyPairs.get(0).getPublicKey());
+      assertThat(publicKeys.get(1)).isNotEqualTo(Optional.of(keyPairs.get(1).getPublicKey()));
+      assertThat(publicKeys.get(49)).contains(keyPairs.get(49).getPublicKey());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void recoverPublicKeysFromSignaturesOnTheCallerWhenTheExecutorDoesNotRunTasks() {
+    final KeyPair keyPair = secp256K1.generateKeyPair();
+    final Bytes32 dataHash = keccak256(Bytes.of(1));
+    final SECPSignature signature = secp256K1.sign(dataHash, keyPair);
+
+    final List<Optional<SECPPublicKey>> publicKeys =
+        secp256K1.recoverPublicKeysFromSignatures(
+            Collections.nCopies(20, dataHash), Collections.nCopies(20, signature), task -> {});
+
+    assertThat(publicKeys).hasSize(20).containsOnly(Optional.of(keyPair.getPublicKey()));
+  }
+
   @Test
   public void signatureGeneration() {
     final SECPPrivateKey privateKey =
@@ -167,4 +167,15 @@ public abstract class ApiConfiguration {
   public boolean isBlockAccessListEnabled() {
     return false;
   }
+
+  /**
+   * Returns whether the exact address and topic index of logs is maintained and used to answer
+   * logs queries. Default value is false.
+   *
+   * @return true if the log index is enabled, false otherwise
+   */
+  @Value.Default
+  public boolean isLogIndexEnabled() {
+    return false;
+  }
 }
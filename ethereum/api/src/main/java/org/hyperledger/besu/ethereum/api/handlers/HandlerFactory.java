@@ -22,6 +22,7 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -55,4 +56,13 @@ public class HandlerFactory {
       final JsonRpcConfiguration jsonRpcConfiguration) {
     return JsonRpcExecutorHandler.handler(jsonRpcExecutor, tracer, jsonRpcConfiguration);
   }
+
+  public static Handler<RoutingContext> jsonRpcExecutor(
+      final JsonRpcExecutor jsonRpcExecutor,
+      final Tracer tracer,
+      final JsonRpcConfiguration jsonRpcConfiguration,
+      final Optional<Executor> requestExecutor) {
+    return JsonRpcExecutorHandler.handler(
+        jsonRpcExecutor, tracer, jsonRpcConfiguration, requestExecutor);
+  }
 }
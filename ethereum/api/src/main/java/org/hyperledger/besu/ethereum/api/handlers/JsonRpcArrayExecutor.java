@@ -26,6 +26,11 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
 import org.hyperledger.besu.plugin.services.rpc.RpcResponseType;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import io.opentelemetry.api.trace.Tracer;
@@ -35,12 +40,35 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 
 public class JsonRpcArrayExecutor extends AbstractJsonRpcExecutor {
+  private final Optional<Executor> batchExecutor;
+
   public JsonRpcArrayExecutor(
       final JsonRpcExecutor jsonRpcExecutor,
       final Tracer tracer,
       final RoutingContext ctx,
       final JsonRpcConfiguration jsonRpcConfiguration) {
+    this(jsonRpcExecutor, tracer, ctx, jsonRpcConfiguration, Optional.empty());
+  }
+
+  /**
+   * Creates an executor of batch requests.
+   *
+   * @param jsonRpcExecutor The executor used to process the JSON RPC requests.
+   * @param tracer The tracer used for monitoring and debugging purposes.
+   * @param ctx The context of the routing, containing information about the HTTP request and
+   *     response.
+   * @param jsonRpcConfiguration The configuration for JSON RPC operations
+   * @param batchExecutor The executor running the elements of a batch concurrently, if any,
+   *     otherwise they run one after the other on the calling thread
+   */
+  public JsonRpcArrayExecutor(
+      final JsonRpcExecutor jsonRpcExecutor,
+      final Tracer tracer,
+      final RoutingContext ctx,
+      final JsonRpcConfiguration jsonRpcConfiguration,
+      final Optional<Executor> batchExecutor) {
     super(jsonRpcExecutor, tracer, ctx, jsonRpcConfiguration);
+    this.batchExecutor = batchExecutor;
   }
 
   /**
@@ -70,10 +98,22 @@ public class JsonRpcArrayExecutor extends AbstractJsonRpcExecutor {
    */
   public void executeRpcRequestBatch(
       final JsonArray rpcRequestBatch, final JsonResponseStreamer streamer) throws IOException {
+    final List<CompletableFuture<JsonRpcResponse>> responses = new ArrayList<>();
+    if (batchExecutor.isPresent()) {
+      for (int i = 0; i < rpcRequestBatch.size(); i++) {
+        final Object maybeRequest = rpcRequestBatch.getValue(i);
+        responses.add(
+            CompletableFuture.supplyAsync(
+                () -> processMaybeRequest(maybeRequest), batchExecutor.get()));
+      }
+    }
     try (JsonGenerator generator = getJsonObjectMapper().getFactory().createGenerator(streamer)) {
       generator.writeStartArray();
       for (int i = 0; i < rpcRequestBatch.size(); i++) {
-        JsonRpcResponse response = processMaybeRequest(rpcRequestBatch.getValue(i));
+        JsonRpcResponse response =
+            batchExecutor.isPresent()
+                ? responses.get(i).join()
+                : processMaybeRequest(rpcRequestBatch.getValue(i));
         if (response.getType() != RpcResponseType.NONE) {
           generator.writeObject(response);
         }
@@ -23,6 +23,8 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import io.opentelemetry.api.trace.Tracer;
 import io.vertx.core.Handler;
@@ -39,6 +41,45 @@ public class JsonRpcExecutorHandler {
       final JsonRpcExecutor jsonRpcExecutor,
       final Tracer tracer,
       final JsonRpcConfiguration jsonRpcConfiguration) {
+    return handler(jsonRpcExecutor, tracer, jsonRpcConfiguration, Optional.empty());
+  }
+
+  /**
+   * Creates a handler executing JSON-RPC requests. When given an executor, such as one starting a
+   * virtual thread per task, each request and each element of a batch request runs on it, so the
+   * handler can be registered as a non-blocking handler.
+   *
+   * @param jsonRpcExecutor the executor of JSON-RPC requests
+   * @param tracer the tracer of the requests
+   * @param jsonRpcConfiguration the JSON-RPC configuration
+   * @param requestExecutor the executor to run the requests on, if any
+   * @return the handler
+   */
+  public static Handler<RoutingContext> handler(
+      final JsonRpcExecutor jsonRpcExecutor,
+      final Tracer tracer,
+      final JsonRpcConfiguration jsonRpcConfiguration,
+      final Optional<Executor> requestExecutor) {
+    final Handler<RoutingContext> handler =
+        executingHandler(jsonRpcExecutor, tracer, jsonRpcConfiguration, requestExecutor);
+    if (requestExecutor.isPresent()) {
+      return ctx -> {
+        try {
+          requestExecutor.get().execute(() -> handler.handle(ctx));
+        } catch (final RejectedExecutionException e) {
+          LOG.debug("JSON-RPC request rejected, the service is stopping", e);
+          handleErrorAndEndResponse(ctx, null, RpcErrorType.INTERNAL_ERROR);
+        }
+      };
+    }
+    return handler;
+  }
+
+  private static Handler<RoutingContext> executingHandler(
+      final JsonRpcExecutor jsonRpcExecutor,
+      final Tracer tracer,
+      final JsonRpcConfiguration jsonRpcConfiguration,
+      final Optional<Executor> batchExecutor) {
     return ctx -> {
       final long timerId =
           ctx.vertx()
@@ -54,7 +95,7 @@ public class JsonRpcExecutorHandler {
       ctx.put("timerId", timerId);
 
       try {
-        createExecutor(jsonRpcExecutor, tracer, ctx, jsonRpcConfiguration)
+        createExecutor(jsonRpcExecutor, tracer, ctx, jsonRpcConfiguration, batchExecutor)
             .ifPresentOrElse(
                 executor -> {
                   try {
@@ -98,14 +139,16 @@ public class JsonRpcExecutorHandler {
       final JsonRpcExecutor jsonRpcExecutor,
       final Tracer tracer,
       final RoutingContext ctx,
-      final JsonRpcConfiguration jsonRpcConfiguration) {
+      final JsonRpcConfiguration jsonRpcConfiguration,
+      final Optional<Executor> batchExecutor) {
     if (isJsonObjectRequest(ctx)) {
       return Optional.of(
           new JsonRpcObjectExecutor(jsonRpcExecutor, tracer, ctx, jsonRpcConfiguration));
     }
     if (isJsonArrayRequest(ctx)) {
       return Optional.of(
-          new JsonRpcArrayExecutor(jsonRpcExecutor, tracer, ctx, jsonRpcConfiguration));
+          new JsonRpcArrayExecutor(
+              jsonRpcExecutor, tracer, ctx, jsonRpcConfiguration, batchExecutor));
     }
     return Optional.empty();
   }
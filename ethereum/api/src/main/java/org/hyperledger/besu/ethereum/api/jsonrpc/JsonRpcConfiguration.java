@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -59,6 +60,8 @@ public class JsonRpcConfiguration {
   private int maxBatchSize;
   private long maxRequestContentLength;
   private boolean prettyJsonEnabled;
+  private boolean virtualThreadsEnabled;
+  private Map<String, Integer> methodConcurrencyLimits = Collections.emptyMap();
 
   public static JsonRpcConfiguration createDefault() {
     final JsonRpcConfiguration config = new JsonRpcConfiguration();
@@ -287,4 +290,20 @@ public class JsonRpcConfiguration {
   public void setMaxRequestContentLength(final long maxRequestContentLength) {
     this.maxRequestContentLength = maxRequestContentLength;
   }
+
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  public void setVirtualThreadsEnabled(final boolean virtualThreadsEnabled) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+  }
+
+  public Map<String, Integer> getMethodConcurrencyLimits() {
+    return methodConcurrencyLimits;
+  }
+
+  public void setMethodConcurrencyLimits(final Map<String, Integer> methodConcurrencyLimits) {
+    this.methodConcurrencyLimits = methodConcurrencyLimits;
+  }
 }
@@ -24,6 +24,8 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.authentication.DefaultAuthentic
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.AuthenticatedJsonRpcProcessor;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.BaseJsonRpcProcessor;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.JsonRpcExecutor;
+import org.hyperledger.besu.ethereum.api.jsonrpc.execution.JsonRpcProcessor;
+import org.hyperledger.besu.ethereum.api.jsonrpc.execution.MethodConcurrencyLimiter;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.TimedJsonRpcProcessor;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.TracedJsonRpcProcessor;
 import org.hyperledger.besu.ethereum.api.jsonrpc.health.HealthService;
@@ -50,6 +52,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 
@@ -124,6 +129,8 @@ public class JsonRpcHttpService {
   private final NatService natService;
   private final Path dataDir;
   private final LabelledMetric<OperationTimer> requestTimer;
+  private final LabelledMetric<OperationTimer> requestWaitTimer;
+  private Optional<ExecutorService> requestExecutor = Optional.empty();
   private TracerProvider tracerProvider;
   private Tracer tracer;
   private final int maxActiveConnections;
@@ -186,6 +193,12 @@ public class JsonRpcHttpService {
             "request_time",
             "Time taken to process a JSON-RPC request",
             "methodName");
+    requestWaitTimer =
+        metricsSystem.createLabelledTimer(
+            BesuMetricCategory.RPC,
+            "request_wait_time",
+            "Time a JSON-RPC request waited for a concurrency permit of its method",
+            "methodName");
 
     metricsSystem.createIntegerGauge(
         BesuMetricCategory.RPC,
@@ -225,6 +238,9 @@ public class JsonRpcHttpService {
     } else {
       this.tracer = OpenTelemetry.noop().getTracer("org.hyperledger.besu.jsonrpc", "1.0.0");
     }
+    if (config.isVirtualThreadsEnabled()) {
+      requestExecutor = Optional.of(Executors.newVirtualThreadPerTaskExecutor());
+    }
     final CompletableFuture<?> resultFuture = new CompletableFuture<>();
     try {
 
@@ -341,31 +357,29 @@ public class JsonRpcHttpService {
         .handler(HandlerFactory.jsonRpcParser())
         .handler(
             HandlerFactory.timeout(new TimeoutOptions(config.getHttpTimeoutSec()), rpcMethods));
-    if (authenticationService.isPresent()) {
-      mainRoute.blockingHandler(
-          HandlerFactory.jsonRpcExecutor(
-              new JsonRpcExecutor(
-                  new AuthenticatedJsonRpcProcessor(
-                      new TimedJsonRpcProcessor(
-                          new TracedJsonRpcProcessor(new BaseJsonRpcProcessor(), metricsSystem),
-                          requestTimer),
-                      authenticationService.get(),
-                      config.getNoAuthRpcApis()),
-                  rpcMethods),
-              tracer,
-              config),
-          false);
+    final JsonRpcProcessor timedProcessor =
+        new TimedJsonRpcProcessor(
+            new TracedJsonRpcProcessor(new BaseJsonRpcProcessor(), metricsSystem),
+            requestTimer,
+            requestWaitTimer,
+            new MethodConcurrencyLimiter(
+                config.getMethodConcurrencyLimits(), config.getHttpTimeoutSec() * 1000));
+    final JsonRpcProcessor processor =
+        authenticationService.isPresent()
+            ? new AuthenticatedJsonRpcProcessor(
+                timedProcessor, authenticationService.get(), config.getNoAuthRpcApis())
+            : timedProcessor;
+    final Handler<RoutingContext> executorHandler =
+        HandlerFactory.jsonRpcExecutor(
+            new JsonRpcExecutor(processor, rpcMethods),
+            tracer,
+            config,
+            requestExecutor.map(Executor.class::cast));
+    if (requestExecutor.isPresent()) {
+      // requests run on virtual threads, so they don't hold the event loop
+      mainRoute.handler(executorHandler);
     } else {
-      mainRoute.blockingHandler(
-          HandlerFactory.jsonRpcExecutor(
-              new JsonRpcExecutor(
-                  new TimedJsonRpcProcessor(
-                      new TracedJsonRpcProcessor(new BaseJsonRpcProcessor(), metricsSystem),
-                      requestTimer),
-                  rpcMethods),
-              tracer,
-              config),
-          false);
+      mainRoute.blockingHandler(executorHandler, false);
     }
 
     if (authenticationService.isPresent()) {
@@ -532,6 +546,7 @@ public class JsonRpcHttpService {
   }
 
   public CompletableFuture<?> stop() {
+    requestExecutor.ifPresent(ExecutorService::shutdown);
     if (httpServer == null) {
       return CompletableFuture.completedFuture(null);
     }
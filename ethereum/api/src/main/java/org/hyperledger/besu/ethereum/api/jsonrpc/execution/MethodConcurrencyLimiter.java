@@ -0,0 +1,88 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.execution;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bounds the number of concurrent invocations of some JSON-RPC methods, so that slow methods can't
+ * take every thread serving requests. Methods without a limit are never held back.
+ */
+public class MethodConcurrencyLimiter {
+
+  private static final MethodConcurrencyLimiter UNLIMITED =
+      new MethodConcurrencyLimiter(Map.of(), 0);
+
+  private final Map<String, Semaphore> permits;
+  private final long timeoutMillis;
+
+  /**
+   * Creates a limiter.
+   *
+   * @param limits the maximum number of concurrent invocations of each limited method
+   * @param timeoutMillis how long an invocation waits for a permit before giving up
+   */
+  public MethodConcurrencyLimiter(final Map<String, Integer> limits, final long timeoutMillis) {
+    this.permits =
+        limits.entrySet().stream()
+            .collect(
+                Collectors.toUnmodifiableMap(
+                    Map.Entry::getKey, entry -> new Semaphore(entry.getValue(), true)));
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * A limiter that doesn't limit any method.
+   *
+   * @return the limiter
+   */
+  public static MethodConcurrencyLimiter unlimited() {
+    return UNLIMITED;
+  }
+
+  /**
+   * Waits for a permit to invoke a method, which must be released once the invocation is done.
+   *
+   * @param method the name of the method
+   * @return true if a permit was acquired, false if the wait timed out
+   */
+  public boolean acquire(final String method) {
+    final Semaphore semaphore = permits.get(method);
+    if (semaphore == null) {
+      return true;
+    }
+    try {
+      return semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Releases the permit acquired for an invocation of a method.
+   *
+   * @param method the name of the method
+   */
+  public void release(final String method) {
+    final Semaphore semaphore = permits.get(method);
+    if (semaphore != null) {
+      semaphore.release();
+    }
+  }
+}
@@ -17,7 +17,10 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.execution;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestId;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.methods.JsonRpcMethod;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcErrorResponse;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 
@@ -27,11 +30,36 @@ public class TimedJsonRpcProcessor implements JsonRpcProcessor {
 
   private final JsonRpcProcessor rpcProcessor;
   private final LabelledMetric<OperationTimer> requestTimer;
+  private final LabelledMetric<OperationTimer> waitTimer;
+  private final MethodConcurrencyLimiter concurrencyLimiter;
 
   public TimedJsonRpcProcessor(
       final JsonRpcProcessor rpcProcessor, final LabelledMetric<OperationTimer> requestTimer) {
+    this(
+        rpcProcessor,
+        requestTimer,
+        NoOpMetricsSystem.NO_OP_LABELLED_1_OPERATION_TIMER,
+        MethodConcurrencyLimiter.unlimited());
+  }
+
+  /**
+   * Creates a processor which times the execution of requests separately from their wait for a
+   * concurrency permit of their method.
+   *
+   * @param rpcProcessor the processor executing the requests
+   * @param requestTimer the timer of the execution, labelled with the method name
+   * @param waitTimer the timer of the wait for a permit, labelled with the method name
+   * @param concurrencyLimiter the limiter of concurrent invocations of each method
+   */
+  public TimedJsonRpcProcessor(
+      final JsonRpcProcessor rpcProcessor,
+      final LabelledMetric<OperationTimer> requestTimer,
+      final LabelledMetric<OperationTimer> waitTimer,
+      final MethodConcurrencyLimiter concurrencyLimiter) {
     this.rpcProcessor = rpcProcessor;
     this.requestTimer = requestTimer;
+    this.waitTimer = waitTimer;
+    this.concurrencyLimiter = concurrencyLimiter;
   }
 
   @Override
@@ -40,9 +68,19 @@ public class TimedJsonRpcProcessor implements JsonRpcProcessor {
       final JsonRpcMethod method,
       final Span metricSpan,
       final JsonRpcRequestContext request) {
+    final String methodName = request.getRequest().getMethod();
+    final boolean acquired;
+    try (final OperationTimer.TimingContext ignored = waitTimer.labels(methodName).startTimer()) {
+      acquired = concurrencyLimiter.acquire(methodName);
+    }
+    if (!acquired) {
+      return new JsonRpcErrorResponse(id, RpcErrorType.TIMEOUT_ERROR);
+    }
     try (final OperationTimer.TimingContext ignored =
-        requestTimer.labels(request.getRequest().getMethod()).startTimer()) {
+        requestTimer.labels(methodName).startTimer()) {
       return rpcProcessor.process(id, method, metricSpan, request);
+    } finally {
+      concurrencyLimiter.release(methodName);
     }
   }
 }
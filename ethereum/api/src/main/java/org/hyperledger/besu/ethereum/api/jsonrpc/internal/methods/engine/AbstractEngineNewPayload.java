@@ -348,6 +348,9 @@ public abstract class AbstractEngineNewPayload extends ExecutionEngineJsonRpcMet
       return respondWith(reqId, blockParam, null, SYNCING);
     }
 
+    // start reading the state touched by the block while it is validated and executed
+    protocolContext.getWorldStateArchive().prefetch(block);
+
     final var latestValidAncestor = mergeCoordinator.getLatestValidAncestor(newBlockHeader);
 
     if (latestValidAncestor.isEmpty()) {
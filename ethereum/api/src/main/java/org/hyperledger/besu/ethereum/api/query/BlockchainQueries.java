@@ -24,6 +24,8 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.api.ApiConfiguration;
 import org.hyperledger.besu.ethereum.api.ImmutableApiConfiguration;
+import org.hyperledger.besu.ethereum.api.query.cache.BitSlicedLogBloomIndex;
+import org.hyperledger.besu.ethereum.api.query.cache.LogIndex;
 import org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.chain.TransactionLocation;
@@ -80,6 +82,7 @@ public class BlockchainQueries {
   private final Optional<EthScheduler> ethScheduler;
   private final ApiConfiguration apiConfig;
   private final MiningConfiguration miningConfiguration;
+  private final Optional<LogIndex> logIndex;
 
   public BlockchainQueries(
       final ProtocolSchedule protocolSchedule,
@@ -135,6 +138,26 @@ public class BlockchainQueries {
       final Optional<EthScheduler> scheduler,
       final ApiConfiguration apiConfig,
       final MiningConfiguration miningConfiguration) {
+    this(
+        protocolSchedule,
+        blockchain,
+        worldStateArchive,
+        cachePath,
+        scheduler,
+        apiConfig,
+        miningConfiguration,
+        Optional.empty());
+  }
+
+  public BlockchainQueries(
+      final ProtocolSchedule protocolSchedule,
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final Optional<Path> cachePath,
+      final Optional<EthScheduler> scheduler,
+      final ApiConfiguration apiConfig,
+      final MiningConfiguration miningConfiguration,
+      final Optional<LogIndex> logIndex) {
     this.protocolSchedule = protocolSchedule;
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
@@ -147,6 +170,7 @@ public class BlockchainQueries {
             : Optional.empty();
     this.apiConfig = apiConfig;
     this.miningConfiguration = miningConfiguration;
+    this.logIndex = logIndex;
   }
 
   public Blockchain getBlockchain() {
@@ -818,6 +842,54 @@ public class BlockchainQueries {
       final long toBlockNumber,
       final LogsQuery query,
       final Supplier<Boolean> isQueryAlive) {
+    final Optional<LogIndex.IndexedRange> indexedRange =
+        logIndex.filter(index -> LogIndex.canServe(query)).flatMap(LogIndex::getIndexedRange);
+    if (indexedRange.isEmpty()) {
+      return matchingLogsByBloom(fromBlockNumber, toBlockNumber, query, isQueryAlive);
+    }
+    final long indexedFrom = Math.max(fromBlockNumber, indexedRange.get().from());
+    final long indexedTo = Math.min(toBlockNumber, indexedRange.get().to());
+    if (indexedFrom > indexedTo) {
+      return matchingLogsByBloom(fromBlockNumber, toBlockNumber, query, isQueryAlive);
+    }
+    final List<LogWithMetadata> result = new ArrayList<>();
+    if (fromBlockNumber < indexedFrom) {
+      result.addAll(matchingLogsByBloom(fromBlockNumber, indexedFrom - 1, query, isQueryAlive));
+    }
+    result.addAll(matchingLogsFromLogIndex(indexedFrom, indexedTo, query, isQueryAlive));
+    if (indexedTo < toBlockNumber) {
+      result.addAll(matchingLogsByBloom(indexedTo + 1, toBlockNumber, query, isQueryAlive));
+    }
+    return result;
+  }
+
+  private List<LogWithMetadata> matchingLogsFromLogIndex(
+      final long fromBlockNumber,
+      final long toBlockNumber,
+      final LogsQuery query,
+      final Supplier<Boolean> isQueryAlive) {
+    try {
+      final List<LogWithMetadata> result = new ArrayList<>();
+      // the index is exact, so only the blocks holding matching logs are read
+      for (final long blockNumber :
+          logIndex.orElseThrow().matchingBlocks(fromBlockNumber, toBlockNumber, query)) {
+        BackendQuery.stopIfExpired(isQueryAlive);
+        final Optional<Hash> blockHash = blockchain.getBlockHashByNumber(blockNumber);
+        if (blockHash.isPresent()) {
+          result.addAll(matchingLogs(blockHash.get(), query, isQueryAlive));
+        }
+      }
+      return result;
+    } catch (final Exception e) {
+      throw new IllegalStateException("Error retrieving matching logs", e);
+    }
+  }
+
+  private List<LogWithMetadata> matchingLogsByBloom(
+      final long fromBlockNumber,
+      final long toBlockNumber,
+      final LogsQuery query,
+      final Supplier<Boolean> isQueryAlive) {
     try {
       final List<LogWithMetadata> result = new ArrayList<>();
       final long startSegment = fromBlockNumber / BLOCKS_PER_BLOOM_CACHE;
@@ -887,6 +959,13 @@ public class BlockchainQueries {
       final Path cacheFile,
       final Supplier<Boolean> isQueryAlive)
       throws Exception {
+    final Optional<BitSlicedLogBloomIndex> index =
+        BitSlicedLogBloomIndex.openForReading(
+            BitSlicedLogBloomIndex.indexFile(
+                cacheFile.getParent(), segmentStart / BLOCKS_PER_BLOOM_CACHE));
+    if (index.isPresent()) {
+      return matchingLogsIndexed(segmentStart, offset, endOffset, query, index.get(), isQueryAlive);
+    }
     final List<LogWithMetadata> results = new ArrayList<>();
     try (final RandomAccessFile raf = new RandomAccessFile(cacheFile.toFile(), "r")) {
       raf.seek(offset * 256);
@@ -918,6 +997,37 @@ public class BlockchainQueries {
     return results;
   }
 
+  private List<LogWithMetadata> matchingLogsIndexed(
+      final long segmentStart,
+      final long offset,
+      final long endOffset,
+      final LogsQuery query,
+      final BitSlicedLogBloomIndex index,
+      final Supplier<Boolean> isQueryAlive)
+      throws Exception {
+    final List<LogWithMetadata> results = new ArrayList<>();
+    final long indexedEndOffset = Math.min(endOffset, index.indexedBlocks() - 1);
+    if (offset <= indexedEndOffset) {
+      for (final int pos : index.matchingBlocks((int) offset, (int) indexedEndOffset, query)) {
+        BackendQuery.stopIfExpired(isQueryAlive);
+        results.addAll(
+            matchingLogs(
+                blockchain.getBlockHashByNumber(segmentStart + pos).orElseThrow(),
+                query,
+                isQueryAlive));
+      }
+    }
+    if (indexedEndOffset < endOffset) {
+      results.addAll(
+          matchingLogsUncached(
+              segmentStart + Math.max(offset, indexedEndOffset + 1),
+              segmentStart + endOffset,
+              query,
+              isQueryAlive));
+    }
+    return results;
+  }
+
   public List<LogWithMetadata> matchingLogs(
       final Hash blockHash, final LogsQuery query, final Supplier<Boolean> isQueryAlive) {
     try {
@@ -83,6 +83,22 @@ public class LogsQuery {
                     topics -> topics.isEmpty() || topics.stream().anyMatch(bloom::couldContain)));
   }
 
+  public List<Address> getAddresses() {
+    return addresses;
+  }
+
+  public List<List<LogTopic>> getTopics() {
+    return topics;
+  }
+
+  public List<LogsBloomFilter> getAddressBlooms() {
+    return addressBlooms;
+  }
+
+  public List<List<LogsBloomFilter>> getTopicsBlooms() {
+    return topicsBlooms;
+  }
+
   public boolean matches(final Log log) {
     return matchesAddresses(log.getLogger()) && matchesTopics(log.getTopics());
   }
@@ -0,0 +1,211 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import static org.hyperledger.besu.ethereum.api.query.cache.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
+
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.evm.log.LogsBloomFilter;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A bit-sliced index of the logs blooms of a segment of {@link
+ * TransactionLogBloomCacher#BLOCKS_PER_BLOOM_CACHE} blocks.
+ *
+ * <p>Instead of one 256 bytes bloom per block, the index stores one bitmap over the blocks of the
+ * segment for each of the 2048 bits of a bloom, so the blocks whose bloom contains all the bits of
+ * an address or a topic are found by and-ing a few bitmaps 64 blocks at a time. The index file is
+ * memory-mapped and starts with the number of blocks indexed so far, which only grows when the
+ * blocks are indexed in order.
+ */
+public class BitSlicedLogBloomIndex {
+
+  static final int BLOOM_BITS = LogsBloomFilter.BYTE_SIZE * 8;
+  static final int WORDS_PER_SLICE = (BLOCKS_PER_BLOOM_CACHE + 63) / 64;
+  // the number of indexed blocks followed by the slices
+  static final long FILE_SIZE = (1L + (long) BLOOM_BITS * WORDS_PER_SLICE) * Long.BYTES;
+
+  private final LongBuffer index;
+
+  private BitSlicedLogBloomIndex(final LongBuffer index) {
+    this.index = index;
+  }
+
+  /**
+   * Gets the file of the index of a segment.
+   *
+   * @param cacheDir the directory of the logs bloom cache
+   * @param segmentNumber the number of the segment
+   * @return the index file of the segment
+   */
+  public static Path indexFile(final Path cacheDir, final long segmentNumber) {
+    return cacheDir.resolve("logBloomBits-" + segmentNumber + ".cache");
+  }
+
+  /**
+   * Opens the index of a segment to update it, creating it if it does not exist.
+   *
+   * @param file the index file
+   * @return the index
+   * @throws IOException if the file cannot be mapped
+   */
+  public static BitSlicedLogBloomIndex openForWriting(final Path file) throws IOException {
+    try (final FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      return new BitSlicedLogBloomIndex(
+          channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE).asLongBuffer());
+    }
+  }
+
+  /**
+   * Opens the index of a segment to query it.
+   *
+   * @param file the index file
+   * @return the index, or empty if the file does not exist or is not a complete index
+   * @throws IOException if the file cannot be mapped
+   */
+  public static Optional<BitSlicedLogBloomIndex> openForReading(final Path file)
+      throws IOException {
+    if (!Files.isRegularFile(file) || Files.size(file) != FILE_SIZE) {
+      return Optional.empty();
+    }
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return Optional.of(
+          new BitSlicedLogBloomIndex(
+              channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE).asLongBuffer()));
+    }
+  }
+
+  /**
+   * Gets the number of blocks indexed from the start of the segment.
+   *
+   * @return the number of indexed blocks
+   */
+  public int indexedBlocks() {
+    return (int) index.get(0);
+  }
+
+  /**
+   * Indexes the logs bloom of a block, replacing the bloom previously indexed for that block, if
+   * any. The blocks after it are no longer considered indexed, as after a reorg.
+   *
+   * @param blockIndex the index of the block in the segment
+   * @param logsBloom the logs bloom of the block
+   */
+  public void put(final int blockIndex, final Bytes logsBloom) {
+    final int word = blockIndex >>> 6;
+    final long blockBit = 1L << (blockIndex & 63);
+    for (int bit = 0; bit < BLOOM_BITS; bit++) {
+      final int position = slicePosition(bit, word);
+      final long current = index.get(position);
+      final long updated = isSet(logsBloom, bit) ? current | blockBit : current & ~blockBit;
+      // only touch the pages whose content changes
+      if (updated != current) {
+        index.put(position, updated);
+      }
+    }
+    // the bits are written before the count, so that readers never see a block not yet indexed
+    if (blockIndex <= indexedBlocks()) {
+      index.put(0, blockIndex + 1);
+    }
+  }
+
+  /**
+   * Finds the blocks of a range of the segment whose logs bloom could match a query, as {@link
+   * LogsQuery#couldMatch(LogsBloomFilter)} would.
+   *
+   * @param fromBlockIndex the index of the first block of the range, inclusive
+   * @param toBlockIndex the index of the last block of the range, inclusive, which must be indexed
+   * @param query the query
+   * @return the indexes of the blocks that could match, in ascending order
+   */
+  public int[] matchingBlocks(
+      final int fromBlockIndex, final int toBlockIndex, final LogsQuery query) {
+    final int[][] addressBits = bitsOf(query.getAddressBlooms());
+    final int[][][] topicsBits =
+        query.getTopicsBlooms().stream()
+            .filter(topics -> !topics.isEmpty())
+            .map(BitSlicedLogBloomIndex::bitsOf)
+            .toArray(int[][][]::new);
+
+    final IntStream.Builder matchingBlocks = IntStream.builder();
+    for (int word = fromBlockIndex >>> 6; word <= toBlockIndex >>> 6; word++) {
+      long candidates = rangeMask(word, fromBlockIndex, toBlockIndex);
+      if (addressBits.length > 0) {
+        candidates &= anyOf(addressBits, word);
+      }
+      for (int i = 0; i < topicsBits.length && candidates != 0; i++) {
+        candidates &= anyOf(topicsBits[i], word);
+      }
+      while (candidates != 0) {
+        matchingBlocks.add((word << 6) + Long.numberOfTrailingZeros(candidates));
+        candidates &= candidates - 1;
+      }
+    }
+    return matchingBlocks.build().toArray();
+  }
+
+  private long anyOf(final int[][] blooms, final int word) {
+    long blocks = 0L;
+    for (final int[] bloomBits : blooms) {
+      long bloomBlocks = -1L;
+      for (int i = 0; i < bloomBits.length && bloomBlocks != 0; i++) {
+        bloomBlocks &= index.get(slicePosition(bloomBits[i], word));
+      }
+      blocks |= bloomBlocks;
+    }
+    return blocks;
+  }
+
+  private static long rangeMask(final int word, final int fromBlockIndex, final int toBlockIndex) {
+    long mask = -1L;
+    if (word == fromBlockIndex >>> 6) {
+      mask &= -1L << (fromBlockIndex & 63);
+    }
+    if (word == toBlockIndex >>> 6) {
+      mask &= -1L >>> (63 - (toBlockIndex & 63));
+    }
+    return mask;
+  }
+
+  private static int[][] bitsOf(final List<LogsBloomFilter> blooms) {
+    return blooms.stream()
+        .map(bloom -> IntStream.range(0, BLOOM_BITS).filter(bit -> isSet(bloom, bit)).toArray())
+        .toArray(int[][]::new);
+  }
+
+  private static boolean isSet(final Bytes bloom, final int bit) {
+    return (bloom.get(bit >>> 3) & (0x80 >>> (bit & 7))) != 0;
+  }
+
+  private static int slicePosition(final int bit, final int word) {
+    return 1 + bit * WORDS_PER_SLICE + word;
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.evm.log.LogTopic;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/**
+ * An exact index of the blocks containing logs of a given address, or with a given topic at a given
+ * position, over a range of canonical blocks.
+ *
+ * <p>Each address or topic has one postings list per bucket of {@code 2^BUCKET_BITS} blocks,
+ * stored under the key {@code kind | address or topic | bucket}, where the kind is 0 for addresses
+ * and 1 + position for topics. A postings list holds the sorted numbers of the blocks of the
+ * bucket, delta encoded as unsigned varints, so it rarely takes more than two bytes per block.
+ */
+public class LogIndex {
+
+  static final int BUCKET_BITS = 12;
+  private static final byte ADDRESS_KIND = 0;
+  private static final byte[] INDEXED_RANGE_KEY = {(byte) 0xff};
+
+  private final KeyValueStorage storage;
+
+  /**
+   * The range of canonical blocks covered by the index. It is empty when {@code to < from}.
+   *
+   * @param from the first indexed block, inclusive
+   * @param to the last indexed block, inclusive
+   */
+  public record IndexedRange(long from, long to) {}
+
+  /**
+   * Instantiates a new log index.
+   *
+   * @param storage the storage of the LOG_INDEX segment
+   */
+  public LogIndex(final KeyValueStorage storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Gets the range of canonical blocks covered by the index.
+   *
+   * @return the indexed range, or empty if the index was never started
+   */
+  public Optional<IndexedRange> getIndexedRange() {
+    return storage
+        .get(INDEXED_RANGE_KEY)
+        .map(Bytes::wrap)
+        .map(range -> new IndexedRange(range.getLong(0), range.getLong(Long.BYTES)));
+  }
+
+  /**
+   * Drops the whole index and starts indexing again from a block.
+   *
+   * @param fromBlockNumber the first block to index
+   */
+  public void reset(final long fromBlockNumber) {
+    storage.clear();
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    putIndexedRange(transaction, new IndexedRange(fromBlockNumber, fromBlockNumber - 1));
+    transaction.commit();
+  }
+
+  /**
+   * Updates the index with the logs of a new canonical head. The blocks of removed logs are taken
+   * out of the postings lists before the blocks of the added logs are put in, so a reorg replacing
+   * blocks at the same heights leaves only the new blocks indexed.
+   *
+   * @param logs the removed and added logs
+   * @param headBlockNumber the number of the new canonical head, which becomes the last indexed
+   *     block
+   */
+  public void update(final List<LogWithMetadata> logs, final long headBlockNumber) {
+    final IndexedRange range =
+        getIndexedRange().orElseThrow(() -> new IllegalStateException("Log index not started"));
+    final Map<Bytes, NavigableSet<Long>> postings = new HashMap<>();
+    for (final LogWithMetadata log : logs) {
+      if (log.isRemoved()) {
+        keysOf(log).forEach(key -> postings(postings, key).remove(log.getBlockNumber()));
+      }
+    }
+    for (final LogWithMetadata log : logs) {
+      if (!log.isRemoved()) {
+        keysOf(log).forEach(key -> postings(postings, key).add(log.getBlockNumber()));
+      }
+    }
+
+    final KeyValueStorageTransaction transaction = storage.startTransaction();
+    postings.forEach(
+        (key, blockNumbers) -> {
+          if (blockNumbers.isEmpty()) {
+            transaction.remove(key.toArrayUnsafe());
+          } else {
+            transaction.put(key.toArrayUnsafe(), encode(key, blockNumbers).toArrayUnsafe());
+          }
+        });
+    putIndexedRange(
+        transaction,
+        new IndexedRange(Math.min(range.from(), headBlockNumber + 1), headBlockNumber));
+    transaction.commit();
+  }
+
+  /**
+   * Whether the index can narrow down the blocks of a query, that is whether the query constrains
+   * the address or at least one topic position.
+   *
+   * @param query the query
+   * @return true if the query has an address or topic constraint
+   */
+  public static boolean canServe(final LogsQuery query) {
+    return !constraints(query).isEmpty();
+  }
+
+  /**
+   * Finds the blocks of a range containing at least one log with one of the addresses and one of
+   * the topics at each position constrained by a query. The range should be within the indexed
+   * range.
+   *
+   * @param fromBlockNumber the first block of the range, inclusive
+   * @param toBlockNumber the last block of the range, inclusive
+   * @param query the query, which must have an address or topic constraint
+   * @return the numbers of the blocks, in ascending order
+   */
+  public NavigableSet<Long> matchingBlocks(
+      final long fromBlockNumber, final long toBlockNumber, final LogsQuery query) {
+    NavigableSet<Long> blockNumbers = null;
+    for (final List<Bytes> prefixes : constraints(query)) {
+      final NavigableSet<Long> anyOf = new TreeSet<>();
+      for (final Bytes prefix : prefixes) {
+        anyOf.addAll(postings(prefix, fromBlockNumber, toBlockNumber));
+      }
+      if (blockNumbers == null) {
+        blockNumbers = anyOf;
+      } else {
+        blockNumbers.retainAll(anyOf);
+      }
+      if (blockNumbers.isEmpty()) {
+        break;
+      }
+    }
+    return Objects.requireNonNull(blockNumbers, "Query without address or topic constraint");
+  }
+
+  private NavigableSet<Long> postings(
+      final Bytes prefix, final long fromBlockNumber, final long toBlockNumber) {
+    final NavigableSet<Long> blockNumbers = new TreeSet<>();
+    try (final Stream<Pair<byte[], byte[]>> entries =
+        storage.streamFromKey(
+            key(prefix, fromBlockNumber).toArrayUnsafe(),
+            key(prefix, toBlockNumber).toArrayUnsafe())) {
+      entries.forEach(entry -> decode(Bytes.wrap(entry.getKey()), entry.getValue(), blockNumbers));
+    }
+    return blockNumbers.subSet(fromBlockNumber, true, toBlockNumber, true);
+  }
+
+  private NavigableSet<Long> postings(
+      final Map<Bytes, NavigableSet<Long>> postings, final Bytes key) {
+    return postings.computeIfAbsent(
+        key,
+        k -> {
+          final NavigableSet<Long> blockNumbers = new TreeSet<>();
+          storage.get(k.toArrayUnsafe()).ifPresent(value -> decode(k, value, blockNumbers));
+          return blockNumbers;
+        });
+  }
+
+  private static List<List<Bytes>> constraints(final LogsQuery query) {
+    final List<List<Bytes>> constraints = new ArrayList<>();
+    if (!query.getAddresses().isEmpty()) {
+      constraints.add(
+          query.getAddresses().stream()
+              .filter(Objects::nonNull)
+              .map(LogIndex::addressPrefix)
+              .toList());
+    }
+    final List<List<LogTopic>> topics = query.getTopics();
+    for (int position = 0; position < topics.size(); position++) {
+      final List<LogTopic> topicsAtPosition = topics.get(position);
+      // like LogsQuery.matches, an empty or null topic matches any topic at that position
+      if (!topicsAtPosition.isEmpty() && !topicsAtPosition.contains(null)) {
+        final int topicPosition = position;
+        constraints.add(
+            topicsAtPosition.stream().map(topic -> topicPrefix(topicPosition, topic)).toList());
+      }
+    }
+    return constraints;
+  }
+
+  private static Stream<Bytes> keysOf(final LogWithMetadata log) {
+    final List<LogTopic> topics = log.getTopics();
+    return Stream.concat(
+            Stream.of(addressPrefix(log.getLogger())),
+            Stream.iterate(0, position -> position < topics.size(), position -> position + 1)
+                .map(position -> topicPrefix(position, topics.get(position))))
+        .map(prefix -> key(prefix, log.getBlockNumber()));
+  }
+
+  private static Bytes addressPrefix(final Address address) {
+    return Bytes.concatenate(Bytes.of(ADDRESS_KIND), address);
+  }
+
+  private static Bytes topicPrefix(final int position, final LogTopic topic) {
+    return Bytes.concatenate(Bytes.of(position + 1), topic);
+  }
+
+  private static Bytes key(final Bytes prefix, final long blockNumber) {
+    return Bytes.concatenate(prefix, Bytes.ofUnsignedLong(blockNumber >>> BUCKET_BITS));
+  }
+
+  private static long bucketStart(final Bytes key) {
+    return key.getLong(key.size() - Long.BYTES) << BUCKET_BITS;
+  }
+
+  static Bytes encode(final Bytes key, final NavigableSet<Long> blockNumbers) {
+    final MutableBytes encoded = MutableBytes.create(blockNumbers.size() * 3);
+    int size = 0;
+    long previous = bucketStart(key);
+    for (final long blockNumber : blockNumbers) {
+      long delta = blockNumber - previous;
+      while ((delta & ~0x7FL) != 0) {
+        encoded.set(size++, (byte) ((delta & 0x7F) | 0x80));
+        delta >>>= 7;
+      }
+      encoded.set(size++, (byte) delta);
+      previous = blockNumber;
+    }
+    return encoded.slice(0, size);
+  }
+
+  static void decode(final Bytes key, final byte[] value, final NavigableSet<Long> blockNumbers) {
+    long blockNumber = bucketStart(key);
+    int i = 0;
+    while (i < value.length) {
+      long delta = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = value[i++];
+        delta |= (b & 0x7FL) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      blockNumber += delta;
+      blockNumbers.add(blockNumber);
+    }
+  }
+
+  private static void putIndexedRange(
+      final KeyValueStorageTransaction transaction, final IndexedRange range) {
+    transaction.put(
+        INDEXED_RANGE_KEY,
+        Bytes.concatenate(Bytes.ofUnsignedLong(range.from()), Bytes.ofUnsignedLong(range.to()))
+            .toArrayUnsafe());
+  }
+}
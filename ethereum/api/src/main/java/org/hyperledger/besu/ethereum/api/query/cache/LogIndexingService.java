@@ -0,0 +1,124 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the {@link LogIndex} in line with the canonical chain, from the chain head at the time the
+ * index is first started. Reorgs are rolled back using the removed logs of the block added events.
+ *
+ * <p>The index is updated on a single background thread, in the order the blocks were added, so
+ * catching up on missed blocks never holds block import.
+ */
+public class LogIndexingService {
+  private static final Logger LOG = LoggerFactory.getLogger(LogIndexingService.class);
+  // beyond that, indexing again from the head is cheaper than catching up on the missed blocks
+  static final long MAX_CATCH_UP_BLOCKS = 1_000L;
+
+  private final Blockchain blockchain;
+  private final LogIndex logIndex;
+  private final ExecutorService indexingExecutor;
+  private OptionalLong blockAddedSubscriptionId = OptionalLong.empty();
+
+  public LogIndexingService(final Blockchain blockchain, final LogIndex logIndex) {
+    this(
+        blockchain,
+        logIndex,
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("log-indexing").setDaemon(true).build()));
+  }
+
+  @VisibleForTesting
+  LogIndexingService(
+      final Blockchain blockchain,
+      final LogIndex logIndex,
+      final ExecutorService indexingExecutor) {
+    this.blockchain = blockchain;
+    this.logIndex = logIndex;
+    this.indexingExecutor = indexingExecutor;
+  }
+
+  public void start() {
+    LOG.info("Starting log indexing service.");
+    final long chainHead = blockchain.getChainHeadBlockNumber();
+    final Optional<LogIndex.IndexedRange> indexedRange = logIndex.getIndexedRange();
+    if (indexedRange.isEmpty()
+        || indexedRange.get().to() > chainHead
+        || chainHead - indexedRange.get().to() > MAX_CATCH_UP_BLOCKS) {
+      LOG.info("Indexing logs from block {}", chainHead + 1);
+      logIndex.reset(chainHead + 1);
+    }
+    // the blocks added while the service was stopped are indexed with the next block
+    blockAddedSubscriptionId = OptionalLong.of(blockchain.observeBlockAdded(this::onBlockAdded));
+  }
+
+  public void stop() {
+    LOG.info("Shutting down log indexing service.");
+    blockAddedSubscriptionId.ifPresent(blockchain::removeObserver);
+    indexingExecutor.shutdownNow();
+  }
+
+  private void onBlockAdded(final BlockAddedEvent event) {
+    if (event.isNewCanonicalHead()) {
+      indexingExecutor.execute(() -> indexNewHead(event));
+    }
+  }
+
+  private void indexNewHead(final BlockAddedEvent event) {
+    final long blockNumber = event.getHeader().getNumber();
+    // a reorg event only carries the logs of the blocks after the common ancestor, so the blocks
+    // missed below them are caught up on from the chain whatever the event type
+    final long lastIndexed = logIndex.getIndexedRange().orElseThrow().to();
+    if (blockNumber - lastIndexed > MAX_CATCH_UP_BLOCKS) {
+      LOG.info("Indexing logs from block {}", blockNumber);
+      logIndex.reset(blockNumber);
+    } else {
+      for (long missed = lastIndexed + 1; missed < blockNumber; missed++) {
+        indexCanonicalBlock(missed);
+      }
+    }
+    logIndex.update(event.getLogsWithMetadata(), blockNumber);
+  }
+
+  private void indexCanonicalBlock(final long blockNumber) {
+    final Optional<Block> block = blockchain.getBlockByNumber(blockNumber);
+    final Optional<List<TransactionReceipt>> receipts =
+        block.flatMap(b -> blockchain.getTxReceipts(b.getHash()));
+    if (block.isEmpty() || receipts.isEmpty()) {
+      // the index must not have holes, so start again after the missing block
+      LOG.warn("Block {} not available, indexing logs from block {}", blockNumber, blockNumber + 1);
+      logIndex.reset(blockNumber + 1);
+      return;
+    }
+    logIndex.update(LogWithMetadata.generate(block.get(), receipts.get(), false), blockNumber);
+  }
+}
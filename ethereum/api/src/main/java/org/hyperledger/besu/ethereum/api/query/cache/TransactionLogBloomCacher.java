@@ -64,6 +64,10 @@ public class TransactionLogBloomCacher {
 
   private final CachingStatus cachingStatus = new CachingStatus();
 
+  // the index of the segment blocks are being added to, kept open between blocks
+  private BitSlicedLogBloomIndex currentSegmentIndex;
+  private long currentSegmentNumber = -1;
+
   public TransactionLogBloomCacher(
       final Blockchain blockchain, final Path cacheDir, final EthScheduler scheduler) {
     this.blockchain = blockchain;
@@ -130,11 +134,13 @@ public class TransactionLogBloomCacher {
       throws IOException {
     long blockNum = startBlock;
     try (final OutputStream out = new FileOutputStream(currentFile)) {
+      final BitSlicedLogBloomIndex index = openIndex(startBlock);
       while (blockNum < stopBlock) {
         final Optional<BlockHeader> maybeHeader = blockchain.getBlockHeader(blockNum);
         if (maybeHeader.isEmpty()) {
           break;
         }
+        indexLogsBloom(index, maybeHeader.get());
         fillCacheFileWithBlock(maybeHeader.get(), out);
         cachingStatus.currentBlock = blockNum;
         blockNum++;
@@ -207,6 +213,7 @@ public class TransactionLogBloomCacher {
       if (isCheckSizeNeeded && blockIndex > nbCachedBlocks) {
         throw new InvalidCacheException();
       }
+      indexLogsBloom(currentSegmentIndex(blockHeader.getNumber()), blockHeader);
       writer.seek(offset);
       writer.write(ensureBloomBitsAreCorrectLength(blockHeader.getLogsBloom().toArray()));
 
@@ -259,7 +266,12 @@ public class TransactionLogBloomCacher {
           final long segmentNumber = blockNum / BLOCKS_PER_BLOOM_CACHE;
           final long fromBlock = segmentNumber * BLOCKS_PER_BLOOM_CACHE;
           final File cacheFile = calculateCacheFileName(fromBlock, cacheDir);
+          final Path indexFile = BitSlicedLogBloomIndex.indexFile(cacheDir, segmentNumber);
           cachedSegments.remove(segmentNumber);
+          if (segmentNumber == currentSegmentNumber) {
+            currentSegmentIndex = null;
+            currentSegmentNumber = -1;
+          }
           if (Files.deleteIfExists(cacheFile.toPath())) {
             LOG.info(
                 "Deleted transaction log bloom cache file: {}/{}", cacheDir, cacheFile.getName());
@@ -269,6 +281,12 @@ public class TransactionLogBloomCacher {
                 cacheDir,
                 cacheFile.getName());
           }
+          if (Files.deleteIfExists(indexFile)) {
+            LOG.info(
+                "Deleted transaction log bloom index file: {}/{}",
+                cacheDir,
+                indexFile.getFileName());
+          }
         } catch (final IOException e) {
           if (e.getMessage().contains(NO_SPACE_LEFT_ON_DEVICE)) {
             LOG.error(e.getMessage());
@@ -297,7 +315,8 @@ public class TransactionLogBloomCacher {
                           final File cacheFile = calculateCacheFileName(startBlock, cacheDir);
                           if (overrideCacheCheck
                               || !cacheFile.isFile()
-                              || cacheFile.length() != EXPECTED_BLOOM_FILE_SIZE) {
+                              || cacheFile.length() != EXPECTED_BLOOM_FILE_SIZE
+                              || !isIndexed(currentSegment)) {
                             generateLogBloomCache(startBlock, startBlock + BLOCKS_PER_BLOOM_CACHE);
                           }
                           cachedSegments.put(currentSegment, true);
@@ -312,6 +331,36 @@ public class TransactionLogBloomCacher {
     }
   }
 
+  private BitSlicedLogBloomIndex openIndex(final long blockNumber) throws IOException {
+    return BitSlicedLogBloomIndex.openForWriting(
+        BitSlicedLogBloomIndex.indexFile(cacheDir, blockNumber / BLOCKS_PER_BLOOM_CACHE));
+  }
+
+  private BitSlicedLogBloomIndex currentSegmentIndex(final long blockNumber) throws IOException {
+    final long segmentNumber = blockNumber / BLOCKS_PER_BLOOM_CACHE;
+    if (currentSegmentIndex == null || segmentNumber != currentSegmentNumber) {
+      currentSegmentIndex = openIndex(blockNumber);
+      currentSegmentNumber = segmentNumber;
+    }
+    return currentSegmentIndex;
+  }
+
+  private void indexLogsBloom(final BitSlicedLogBloomIndex index, final BlockHeader blockHeader) {
+    // the index is updated before the raw cache file, which queries use to know what is cached
+    index.put((int) (blockHeader.getNumber() % BLOCKS_PER_BLOOM_CACHE), blockHeader.getLogsBloom());
+  }
+
+  private boolean isIndexed(final long segmentNumber) {
+    try {
+      return BitSlicedLogBloomIndex.openForReading(
+              BitSlicedLogBloomIndex.indexFile(cacheDir, segmentNumber))
+          .map(index -> index.indexedBlocks() == BLOCKS_PER_BLOOM_CACHE)
+          .orElse(false);
+    } catch (final IOException e) {
+      return false;
+    }
+  }
+
   private void fillCacheFileWithBlock(final BlockHeader blockHeader, final OutputStream fos)
       throws IOException {
     fos.write(ensureBloomBitsAreCorrectLength(blockHeader.getLogsBloom().toArray()));
@@ -0,0 +1,103 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.handlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.JsonResponseStreamer;
+import org.hyperledger.besu.ethereum.api.jsonrpc.JsonRpcConfiguration;
+import org.hyperledger.besu.ethereum.api.jsonrpc.execution.JsonRpcExecutor;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import org.junit.jupiter.api.Test;
+
+class JsonRpcArrayExecutorTest {
+
+  private static final int BATCH_SIZE = 3;
+
+  @Test
+  void keepsTheOrderOfTheBatchWhenElementsCompleteOutOfOrder() throws Exception {
+    // each element waits for the next one to complete, so the batch completes in reverse order
+    final List<CountDownLatch> completed =
+        IntStream.range(0, BATCH_SIZE).mapToObj(i -> new CountDownLatch(1)).toList();
+    final List<Integer> completionOrder = new CopyOnWriteArrayList<>();
+    final JsonRpcExecutor jsonRpcExecutor = mock(JsonRpcExecutor.class);
+    when(jsonRpcExecutor.execute(any(), any(), any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final int id = invocation.<JsonObject>getArgument(4).getInteger("id");
+              if (id + 1 < BATCH_SIZE && !completed.get(id + 1).await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Batch elements did not run concurrently");
+              }
+              completionOrder.add(id);
+              completed.get(id).countDown();
+              return new JsonRpcSuccessResponse(id, "result-" + id);
+            });
+
+    final StringBuilder written = new StringBuilder();
+    final HttpServerResponse response = mock(HttpServerResponse.class);
+    when(response.write(any(Buffer.class)))
+        .thenAnswer(
+            invocation -> {
+              written.append(invocation.<Buffer>getArgument(0).toString());
+              return Future.succeededFuture();
+            });
+
+    final JsonArray batch = new JsonArray();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(new JsonObject().put("jsonrpc", "2.0").put("id", i).put("method", "eth_call"));
+    }
+
+    try (final ExecutorService batchExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+      final JsonRpcArrayExecutor arrayExecutor =
+          new JsonRpcArrayExecutor(
+              jsonRpcExecutor,
+              mock(Tracer.class),
+              mock(RoutingContext.class),
+              mock(JsonRpcConfiguration.class),
+              Optional.of(batchExecutor));
+      try (final JsonResponseStreamer streamer = new JsonResponseStreamer(response, null)) {
+        arrayExecutor.executeRpcRequestBatch(batch, streamer);
+      }
+    }
+
+    assertThat(completionOrder).containsExactly(2, 1, 0);
+    final JsonArray responses = new JsonArray(written.toString());
+    assertThat(responses).hasSize(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      assertThat(responses.getJsonObject(i).getInteger("id")).isEqualTo(i);
+      assertThat(responses.getJsonObject(i).getString("result")).isEqualTo("result-" + i);
+    }
+  }
+}
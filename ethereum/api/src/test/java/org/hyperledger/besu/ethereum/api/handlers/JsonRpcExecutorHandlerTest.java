@@ -14,12 +14,14 @@
  */
 package org.hyperledger.besu.ethereum.api.handlers;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -28,6 +30,11 @@ import org.hyperledger.besu.ethereum.api.jsonrpc.JsonRpcConfiguration;
 import org.hyperledger.besu.ethereum.api.jsonrpc.context.ContextKey;
 import org.hyperledger.besu.ethereum.api.jsonrpc.execution.JsonRpcExecutor;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.opentelemetry.api.trace.Tracer;
 import io.vertx.core.Handler;
@@ -108,4 +115,90 @@ class JsonRpcExecutorHandlerTest {
     verify(mockVertx).setTimer(anyLong(), any());
     verify(mockVertx).cancelTimer(1L);
   }
+
+  @Test
+  void testExecutesOnTheRequestExecutor() {
+    // Arrange
+    final AtomicBoolean ranOnVirtualThread = new AtomicBoolean();
+    when(mockContext.get(eq(ContextKey.REQUEST_BODY_AS_JSON_OBJECT.name()))).thenReturn("{}");
+    when(mockVertx.setTimer(anyLong(), any()))
+        .thenAnswer(
+            invocation -> {
+              ranOnVirtualThread.set(Thread.currentThread().isVirtual());
+              return 1L;
+            });
+    when(mockContext.get("timerId")).thenReturn(1L);
+
+    // Act
+    try (final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+      JsonRpcExecutorHandler.handler(
+              mockExecutor, mockTracer, mockConfig, Optional.of(requestExecutor))
+          .handle(mockContext);
+    }
+
+    // Assert
+    assertThat(ranOnVirtualThread).isTrue();
+    verify(mockVertx).cancelTimer(1L);
+  }
+
+  @Test
+  void testTimeoutHandlingOnTheRequestExecutor() {
+    // Arrange
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Handler<Long>> timerHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+    when(mockContext.get(eq(ContextKey.REQUEST_BODY_AS_JSON_OBJECT.name()))).thenReturn("{}");
+    when(mockVertx.setTimer(anyLong(), timerHandlerCaptor.capture())).thenReturn(1L);
+    when(mockContext.get("timerId")).thenReturn(1L);
+
+    // Act
+    try (final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+      JsonRpcExecutorHandler.handler(
+              mockExecutor, mockTracer, mockConfig, Optional.of(requestExecutor))
+          .handle(mockContext);
+    }
+    timerHandlerCaptor.getValue().handle(1L);
+
+    // Assert
+    verify(mockVertx).setTimer(eq(30000L), any());
+    verify(mockResponse, times(1)).setStatusCode(eq(HttpResponseStatus.REQUEST_TIMEOUT.code()));
+    verify(mockResponse, times(1)).end(contains("Timeout expired"));
+  }
+
+  @Test
+  void testInternalErrorOnUnhandledExceptionOnTheRequestExecutor() {
+    // Arrange
+    when(mockContext.get(eq(ContextKey.REQUEST_BODY_AS_JSON_OBJECT.name()))).thenReturn("{}");
+    when(mockContext.data()).thenThrow(new IllegalStateException("Unexpected"));
+    when(mockVertx.setTimer(anyLong(), any())).thenReturn(1L);
+    when(mockContext.get("timerId")).thenReturn(1L);
+
+    // Act
+    try (final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+      JsonRpcExecutorHandler.handler(
+              mockExecutor, mockTracer, mockConfig, Optional.of(requestExecutor))
+          .handle(mockContext);
+    }
+
+    // Assert
+    verify(mockResponse, times(1)).setStatusCode(eq(HttpResponseStatus.OK.code()));
+    verify(mockResponse, times(1)).end(contains("Internal error"));
+    verify(mockVertx).cancelTimer(1L);
+  }
+
+  @Test
+  void testInternalErrorWhenTheRequestExecutorRejectsTheRequest() {
+    // Arrange
+    final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    requestExecutor.shutdown();
+
+    // Act
+    JsonRpcExecutorHandler.handler(
+            mockExecutor, mockTracer, mockConfig, Optional.of(requestExecutor))
+        .handle(mockContext);
+
+    // Assert
+    verify(mockVertx, never()).setTimer(anyLong(), any());
+    verify(mockResponse, times(1)).setStatusCode(eq(HttpResponseStatus.OK.code()));
+    verify(mockResponse, times(1)).end(contains("Internal error"));
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequest;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestContext;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.JsonRpcRequestId;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcErrorResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.RpcErrorType;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.trace.Span;
+import org.junit.jupiter.api.Test;
+
+public class TimedJsonRpcProcessorTest {
+
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private final JsonRpcProcessor blockingProcessor =
+      (id, method, metricSpan, request) -> {
+        if (request.getRequest().getMethod().equals("eth_call")) {
+          started.countDown();
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return new JsonRpcSuccessResponse(id);
+      };
+
+  private final TimedJsonRpcProcessor processor =
+      new TimedJsonRpcProcessor(
+          blockingProcessor,
+          NoOpMetricsSystem.NO_OP_LABELLED_1_OPERATION_TIMER,
+          NoOpMetricsSystem.NO_OP_LABELLED_1_OPERATION_TIMER,
+          new MethodConcurrencyLimiter(Map.of("eth_call", 1), 100));
+
+  @Test
+  public void timesOutWhenTheMethodLimitIsReached() throws Exception {
+    final CompletableFuture<JsonRpcResponse> first =
+        CompletableFuture.supplyAsync(() -> process("eth_call"));
+    assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+    final JsonRpcResponse second = process("eth_call");
+    assertThat(second).isInstanceOf(JsonRpcErrorResponse.class);
+    assertThat(((JsonRpcErrorResponse) second).getErrorType())
+        .isEqualTo(RpcErrorType.TIMEOUT_ERROR);
+    // other methods aren't held back
+    assertThat(process("eth_blockNumber")).isInstanceOf(JsonRpcSuccessResponse.class);
+
+    release.countDown();
+    assertThat(first.get(10, TimeUnit.SECONDS)).isInstanceOf(JsonRpcSuccessResponse.class);
+    // the permit is released once the first call completes
+    assertThat(process("eth_call")).isInstanceOf(JsonRpcSuccessResponse.class);
+  }
+
+  private JsonRpcResponse process(final String method) {
+    return processor.process(
+        new JsonRpcRequestId(1),
+        null,
+        Span.getInvalid(),
+        new JsonRpcRequestContext(new JsonRpcRequest("2.0", method, new Object[0])));
+  }
+}
@@ -59,6 +59,7 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.mainnet.WithdrawalsValidator;
 import org.hyperledger.besu.ethereum.mainnet.requests.ProhibitedRequestValidator;
 import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.rpc.RpcResponseType;
 
@@ -100,6 +101,8 @@ public abstract class AbstractEngineNewPayloadTest extends AbstractScheduledApiT
 
   @Mock protected EngineCallListener engineCallListener;
 
+  @Mock protected WorldStateArchive worldStateArchive;
+
   @BeforeEach
   @Override
   public void before() {
@@ -112,6 +115,7 @@ public abstract class AbstractEngineNewPayloadTest extends AbstractScheduledApiT
     mockProhibitedRequestsValidator();
     lenient().when(protocolSchedule.getByBlockHeader(any())).thenReturn(protocolSpec);
     lenient().when(ethPeers.peerCount()).thenReturn(1);
+    lenient().when(protocolContext.getWorldStateArchive()).thenReturn(worldStateArchive);
   }
 
   @Test
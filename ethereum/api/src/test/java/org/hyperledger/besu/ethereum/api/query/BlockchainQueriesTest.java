@@ -22,6 +22,8 @@ import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.api.ImmutableApiConfiguration;
+import org.hyperledger.besu.ethereum.api.query.cache.LogIndex;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
@@ -35,8 +37,10 @@ import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.log.LogsBloomFilter;
 import org.hyperledger.besu.evm.worldstate.WorldState;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -45,6 +49,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -410,6 +415,52 @@ public class BlockchainQueriesTest {
     assertThat(logs).isEmpty();
   }
 
+  @Test
+  public void matchingLogsShouldOnlyReadTheBlocksFoundInTheLogIndex() {
+    gen.setBlockOptionsSupplier(() -> BlockOptions.create().setLogsBloom(matchAllBloom()));
+    final BlockchainWithData data = setupBlockchain(5);
+    final LogIndex logIndex = new LogIndex(new InMemoryKeyValueStorage());
+    logIndex.reset(1);
+    // block 2 is left out of the index, so its logs can only be found by the bloom path
+    for (int i = 1; i < 5; i++) {
+      logIndex.update(i == 2 ? List.of() : logs(data.blockData.get(i)), i);
+    }
+    final LogsQuery query = addressesQuery(data, 2, 3);
+
+    assertThat(data.blockchainQueries.matchingLogs(0, 4, query, () -> true))
+        .extracting(LogWithMetadata::getBlockNumber)
+        .containsOnly(2L, 3L);
+    assertThat(withLogIndex(data, logIndex).matchingLogs(0, 4, query, () -> true))
+        .extracting(LogWithMetadata::getBlockNumber)
+        .containsOnly(3L);
+  }
+
+  @Test
+  public void matchingLogsShouldFallBackToTheBloomPathOutsideTheLogIndex() {
+    gen.setBlockOptionsSupplier(() -> BlockOptions.create().setLogsBloom(matchAllBloom()));
+    final BlockchainWithData data = setupBlockchain(5);
+    final LogIndex logIndex = new LogIndex(new InMemoryKeyValueStorage());
+    logIndex.reset(3);
+    for (int i = 3; i < 5; i++) {
+      logIndex.update(logs(data.blockData.get(i)), i);
+    }
+    final BlockchainQueries queries = withLogIndex(data, logIndex);
+    final LogsQuery query = addressesQuery(data, 1, 3);
+
+    // partly indexed
+    assertThat(queries.matchingLogs(0, 4, query, () -> true))
+        .extracting(LogWithMetadata::getBlockNumber)
+        .containsOnly(1L, 3L);
+    // not indexed at all
+    assertThat(queries.matchingLogs(0, 2, query, () -> true))
+        .extracting(LogWithMetadata::getBlockNumber)
+        .containsOnly(1L);
+    // without address or topic constraint
+    assertThat(queries.matchingLogs(0, 4, new LogsQuery.Builder().build(), () -> true))
+        .extracting(LogWithMetadata::getBlockNumber)
+        .containsOnly(1L, 2L, 3L, 4L);
+  }
+
   @Test
   public void getOmmerByBlockHashAndIndexShouldReturnEmptyWhenBlockDoesNotExist() {
     final BlockchainWithData data = setupBlockchain(3);
@@ -580,6 +631,38 @@ public class BlockchainQueriesTest {
     }
   }
 
+  // every block could match, so the bloom path reads the logs of all of them
+  private static LogsBloomFilter matchAllBloom() {
+    final byte[] bloom = new byte[LogsBloomFilter.BYTE_SIZE];
+    Arrays.fill(bloom, (byte) 0xff);
+    return new LogsBloomFilter(Bytes.wrap(bloom));
+  }
+
+  private static List<LogWithMetadata> logs(final BlockData blockData) {
+    return LogWithMetadata.generate(blockData.block, blockData.receipts, false);
+  }
+
+  private static LogsQuery addressesQuery(
+      final BlockchainWithData data, final int... blockNumbers) {
+    final List<Address> addresses =
+        Arrays.stream(blockNumbers)
+            .mapToObj(i -> logs(data.blockData.get(i)).get(0).getLogger())
+            .toList();
+    return new LogsQuery.Builder().addresses(addresses).build();
+  }
+
+  private BlockchainQueries withLogIndex(final BlockchainWithData data, final LogIndex logIndex) {
+    return new BlockchainQueries(
+        Mockito.mock(ProtocolSchedule.class),
+        data.blockchain,
+        data.worldStateArchive,
+        Optional.empty(),
+        Optional.of(scheduler),
+        ImmutableApiConfiguration.builder().build(),
+        MiningConfiguration.newDefault(),
+        Optional.of(logIndex));
+  }
+
   private BlockchainWithData setupBlockchain(final int blocksToAdd) {
     return setupBlockchain(blocksToAdd, Collections.emptyList(), Collections.emptyList());
   }
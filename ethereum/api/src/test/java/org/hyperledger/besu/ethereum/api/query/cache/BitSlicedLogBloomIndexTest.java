@@ -0,0 +1,147 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.log.LogTopic;
+import org.hyperledger.besu.evm.log.LogsBloomFilter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BitSlicedLogBloomIndexTest {
+
+  private static final Address ADDRESS_A = Address.fromHexString("0xa");
+  private static final Address ADDRESS_B = Address.fromHexString("0xb");
+  private static final LogTopic TOPIC = LogTopic.wrap(Bytes32.fromHexStringLenient("0x1"));
+
+  @TempDir private Path cacheDir;
+
+  @Test
+  public void findsTheBlocksWhoseBloomCouldMatch() throws IOException {
+    final BitSlicedLogBloomIndex index = openIndex();
+    for (int i = 0; i < 200; i++) {
+      index.put(i, LogsBloomFilter.empty());
+    }
+    index.put(3, bloom(new Log(ADDRESS_A, Bytes.EMPTY, List.of())));
+    index.put(70, bloom(new Log(ADDRESS_A, Bytes.EMPTY, List.of(TOPIC))));
+    index.put(150, bloom(new Log(ADDRESS_B, Bytes.EMPTY, List.of(TOPIC))));
+
+    final LogsQuery addressA = new LogsQuery.Builder().address(ADDRESS_A).build();
+    final LogsQuery topic = new LogsQuery.Builder().topics(List.of(List.of(TOPIC))).build();
+    final LogsQuery addressAWithTopic =
+        new LogsQuery.Builder().address(ADDRESS_A).topics(List.of(List.of(TOPIC))).build();
+    final LogsQuery anyAddress = new LogsQuery.Builder().addresses(ADDRESS_A, ADDRESS_B).build();
+
+    assertThat(index.indexedBlocks()).isEqualTo(200);
+    assertThat(index.matchingBlocks(0, 199, addressA)).containsExactly(3, 70);
+    assertThat(index.matchingBlocks(0, 199, topic)).containsExactly(70, 150);
+    assertThat(index.matchingBlocks(0, 199, addressAWithTopic)).containsExactly(70);
+    assertThat(index.matchingBlocks(0, 199, anyAddress)).containsExactly(3, 70, 150);
+    assertThat(index.matchingBlocks(4, 150, anyAddress)).containsExactly(70, 150);
+    assertThat(index.matchingBlocks(71, 149, anyAddress)).isEmpty();
+  }
+
+  @Test
+  public void matchesLikeTheBloomOfEveryBlock() throws IOException {
+    final Random random = new Random(42);
+    final Address[] addresses = new Address[20];
+    for (int i = 0; i < addresses.length; i++) {
+      addresses[i] = Address.wrap(Bytes.random(Address.SIZE, random));
+    }
+    final BitSlicedLogBloomIndex index = openIndex();
+    final List<LogsBloomFilter> blooms = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      final LogsBloomFilter.Builder bloom = LogsBloomFilter.builder();
+      for (int j = random.nextInt(4); j > 0; j--) {
+        bloom.insertLog(
+            new Log(addresses[random.nextInt(addresses.length)], Bytes.EMPTY, List.of()));
+      }
+      blooms.add(bloom.build());
+      index.put(i, blooms.get(i));
+    }
+
+    for (final Address address : addresses) {
+      final LogsQuery query = new LogsQuery.Builder().address(address).build();
+      final int[] expected =
+          IntStream.rangeClosed(10, 990).filter(i -> query.couldMatch(blooms.get(i))).toArray();
+      assertThat(index.matchingBlocks(10, 990, query)).containsExactly(expected);
+    }
+  }
+
+  @Test
+  public void reindexingABlockReplacesItsBloomAndDropsTheFollowingBlocks() throws IOException {
+    final BitSlicedLogBloomIndex index = openIndex();
+    final LogsQuery addressA = new LogsQuery.Builder().address(ADDRESS_A).build();
+    final LogsQuery addressB = new LogsQuery.Builder().address(ADDRESS_B).build();
+    for (int i = 0; i < 10; i++) {
+      index.put(i, bloom(new Log(ADDRESS_A, Bytes.EMPTY, List.of())));
+    }
+
+    index.put(5, bloom(new Log(ADDRESS_B, Bytes.EMPTY, List.of())));
+
+    assertThat(index.indexedBlocks()).isEqualTo(6);
+    assertThat(index.matchingBlocks(0, 5, addressA)).containsExactly(0, 1, 2, 3, 4);
+    assertThat(index.matchingBlocks(0, 5, addressB)).containsExactly(5);
+  }
+
+  @Test
+  public void blocksAfterAGapAreNotIndexed() throws IOException {
+    final BitSlicedLogBloomIndex index = openIndex();
+    index.put(0, LogsBloomFilter.empty());
+
+    index.put(2, LogsBloomFilter.empty());
+
+    assertThat(index.indexedBlocks()).isEqualTo(1);
+  }
+
+  @Test
+  public void isReadFromTheMappedFile() throws IOException {
+    final Path file = BitSlicedLogBloomIndex.indexFile(cacheDir, 3);
+    assertThat(BitSlicedLogBloomIndex.openForReading(file)).isEmpty();
+
+    BitSlicedLogBloomIndex.openForWriting(file)
+        .put(0, bloom(new Log(ADDRESS_A, Bytes.EMPTY, List.of())));
+
+    assertThat(BitSlicedLogBloomIndex.openForReading(file))
+        .hasValueSatisfying(
+            index ->
+                assertThat(
+                        index.matchingBlocks(
+                            0, 0, new LogsQuery.Builder().address(ADDRESS_A).build()))
+                    .containsExactly(0));
+  }
+
+  private BitSlicedLogBloomIndex openIndex() throws IOException {
+    return BitSlicedLogBloomIndex.openForWriting(BitSlicedLogBloomIndex.indexFile(cacheDir, 0));
+  }
+
+  private static LogsBloomFilter bloom(final Log log) {
+    return LogsBloomFilter.builder().insertLog(log).build();
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.evm.log.LogTopic;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LogIndexTest {
+
+  private static final Address ADDRESS_A = Address.fromHexString("0xa");
+  private static final Address ADDRESS_B = Address.fromHexString("0xb");
+  private static final LogTopic TOPIC_1 = LogTopic.wrap(Bytes32.fromHexStringLenient("0x1"));
+  private static final LogTopic TOPIC_2 = LogTopic.wrap(Bytes32.fromHexStringLenient("0x2"));
+
+  private LogIndex logIndex;
+
+  @BeforeEach
+  public void setUp() {
+    logIndex = new LogIndex(new InMemoryKeyValueStorage());
+    logIndex.reset(1);
+  }
+
+  @Test
+  public void findsOnlyTheBlocksWithMatchingLogs() {
+    logIndex.update(List.of(log(1, ADDRESS_A, TOPIC_1)), 1);
+    logIndex.update(List.of(), 2);
+    logIndex.update(List.of(log(3, ADDRESS_A, TOPIC_2), log(3, ADDRESS_B, TOPIC_1)), 3);
+    logIndex.update(List.of(log(4, ADDRESS_B, TOPIC_2, TOPIC_1)), 4);
+
+    assertThat(logIndex.getIndexedRange()).contains(new LogIndex.IndexedRange(1, 4));
+    assertThat(logIndex.matchingBlocks(1, 4, query(List.of(ADDRESS_A)))).containsExactly(1L, 3L);
+    assertThat(logIndex.matchingBlocks(2, 4, query(List.of(ADDRESS_A)))).containsExactly(3L);
+    assertThat(logIndex.matchingBlocks(1, 4, query(List.of(ADDRESS_A, ADDRESS_B))))
+        .containsExactly(1L, 3L, 4L);
+    // topics are indexed by position
+    assertThat(logIndex.matchingBlocks(1, 4, query(List.of(), List.of(TOPIC_1))))
+        .containsExactly(1L, 3L);
+    assertThat(logIndex.matchingBlocks(1, 4, query(List.of(), List.of(), List.of(TOPIC_1))))
+        .containsExactly(4L);
+    // a block matches when one of its logs has the address and another one the topic
+    assertThat(logIndex.matchingBlocks(1, 4, query(List.of(ADDRESS_A), List.of(TOPIC_1))))
+        .containsExactly(1L, 3L);
+    assertThat(logIndex.matchingBlocks(1, 4, query(List.of(ADDRESS_B), List.of(TOPIC_2))))
+        .containsExactly(3L, 4L);
+  }
+
+  @Test
+  public void ignoresWildcardTopics() {
+    logIndex.update(List.of(log(1, ADDRESS_A, TOPIC_1, TOPIC_2)), 1);
+    logIndex.update(List.of(log(2, ADDRESS_A, TOPIC_2, TOPIC_2)), 2);
+
+    final List<LogTopic> wildcard = new ArrayList<>();
+    wildcard.add(null);
+    assertThat(LogIndex.canServe(query(List.of(), wildcard, List.of()))).isFalse();
+    assertThat(LogIndex.canServe(query(List.of(), wildcard, List.of(TOPIC_2)))).isTrue();
+    assertThat(logIndex.matchingBlocks(1, 2, query(List.of(), wildcard, List.of(TOPIC_2))))
+        .containsExactly(1L, 2L);
+  }
+
+  @Test
+  public void rollsBackTheBlocksOfRemovedLogs() {
+    logIndex.update(List.of(log(1, ADDRESS_A, TOPIC_1)), 1);
+    logIndex.update(List.of(log(2, ADDRESS_A, TOPIC_1)), 2);
+    logIndex.update(List.of(log(3, ADDRESS_A, TOPIC_1)), 3);
+
+    // the new block 2 has a log of another address, and there is no block 3 anymore
+    logIndex.update(
+        List.of(
+            removedLog(2, ADDRESS_A, TOPIC_1),
+            removedLog(3, ADDRESS_A, TOPIC_1),
+            log(2, ADDRESS_B, TOPIC_1)),
+        2);
+
+    assertThat(logIndex.getIndexedRange()).contains(new LogIndex.IndexedRange(1, 2));
+    assertThat(logIndex.matchingBlocks(1, 3, query(List.of(ADDRESS_A)))).containsExactly(1L);
+    assertThat(logIndex.matchingBlocks(1, 3, query(List.of(ADDRESS_B)))).containsExactly(2L);
+    assertThat(logIndex.matchingBlocks(1, 3, query(List.of(), List.of(TOPIC_1))))
+        .containsExactly(1L, 2L);
+  }
+
+  @Test
+  public void findsBlocksAcrossBuckets() {
+    final long bucketSize = 1L << LogIndex.BUCKET_BITS;
+    final NavigableSet<Long> expected = new TreeSet<>();
+    for (long blockNumber = 1; blockNumber < 3 * bucketSize; blockNumber += 997) {
+      logIndex.update(List.of(log(blockNumber, ADDRESS_A, TOPIC_1)), blockNumber);
+      expected.add(blockNumber);
+    }
+
+    assertThat(logIndex.matchingBlocks(1, 3 * bucketSize, query(List.of(ADDRESS_A))))
+        .containsExactlyElementsOf(expected);
+    assertThat(logIndex.matchingBlocks(bucketSize, 2 * bucketSize, query(List.of(ADDRESS_A))))
+        .containsExactlyElementsOf(expected.subSet(bucketSize, true, 2 * bucketSize, true));
+  }
+
+  @Test
+  public void encodesPostingsAsDeltaVarints() {
+    final Bytes key = Bytes.concatenate(Bytes.of(0), ADDRESS_A, Bytes.ofUnsignedLong(2));
+    final long bucketStart = 2L << LogIndex.BUCKET_BITS;
+    final NavigableSet<Long> blockNumbers =
+        new TreeSet<>(List.of(bucketStart, bucketStart + 1, bucketStart + 200));
+
+    final Bytes encoded = LogIndex.encode(key, blockNumbers);
+    final NavigableSet<Long> decoded = new TreeSet<>();
+    LogIndex.decode(key, encoded.toArrayUnsafe(), decoded);
+
+    assertThat(encoded).isEqualTo(Bytes.fromHexString("0x0001c701"));
+    assertThat(decoded).isEqualTo(blockNumbers);
+  }
+
+  @SafeVarargs
+  private static LogsQuery query(final List<Address> addresses, final List<LogTopic>... topics) {
+    return new LogsQuery(addresses, Arrays.asList(topics));
+  }
+
+  private static LogWithMetadata log(
+      final long blockNumber, final Address address, final LogTopic... topics) {
+    return log(blockNumber, address, false, topics);
+  }
+
+  private static LogWithMetadata removedLog(
+      final long blockNumber, final Address address, final LogTopic... topics) {
+    return log(blockNumber, address, true, topics);
+  }
+
+  private static LogWithMetadata log(
+      final long blockNumber,
+      final Address address,
+      final boolean removed,
+      final LogTopic... topics) {
+    return new LogWithMetadata(
+        0, blockNumber, Hash.ZERO, Hash.ZERO, 0, address, Bytes.EMPTY, List.of(topics), removed);
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryBlockchain;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator.BlockOptions;
+import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LogIndexingServiceTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final Map<Hash, List<TransactionReceipt>> receipts = new HashMap<>();
+  private List<Block> blocks;
+  private MutableBlockchain blockchain;
+  private LogIndex logIndex;
+  private LogIndexingService logIndexingService;
+
+  @BeforeEach
+  public void setUp() {
+    // blocks 0 to 4
+    blocks = gen.blockSequence(5);
+    blockchain = createInMemoryBlockchain(blocks.get(0));
+    blocks
+        .subList(1, blocks.size())
+        .forEach(block -> blockchain.appendBlock(block, receipts(block)));
+    logIndex = new LogIndex(new InMemoryKeyValueStorage());
+    // the blocks are indexed on the calling thread
+    logIndexingService =
+        new LogIndexingService(blockchain, logIndex, MoreExecutors.newDirectExecutorService());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    logIndexingService.stop();
+  }
+
+  @Test
+  public void startsIndexingFromTheChainHead() {
+    logIndexingService.start();
+
+    assertThat(logIndex.getIndexedRange()).contains(new LogIndex.IndexedRange(5, 4));
+
+    final Block block = appendBlock(blocks.get(4));
+
+    assertThat(logIndex.getIndexedRange()).contains(new LogIndex.IndexedRange(5, 5));
+    assertThat(blocksWithLogsOf(block)).containsExactly(5L);
+  }
+
+  @Test
+  public void resumesFromTheStoredRangeAndCatchesUpOnMissedBlocks() {
+    logIndex.reset(1);
+    logIndex.update(logs(blocks.get(1)), 1);
+
+    logIndexingService.start();
+
+    assertThat(logIndex.getIndexedRange()).contains(new LogIndex.IndexedRange(1, 1));
+
+    final Block block = appendBlock(blocks.get(4));
+
+    assertThat(logIndex.getIndexedRange()).contains(new LogIndex.IndexedRange(1, 5));
+    for (long blockNumber = 1; blockNumber <= 4; blockNumber++) {
+      assertThat(blocksWithLogsOf(blocks.get((int) blockNumber))).containsExactly(blockNumber);
+    }
+    assertThat(blocksWithLogsOf(block)).containsExactly(5L);
+  }
+
+  @Test
+  public void startsAgainFromTheChainHeadWhenTheStoredRangeIsAheadOfTheChain() {
+    logIndex.reset(10);
+    logIndex.update(List.of(), 20);
+
+    logIndexingService.start();
+
+    assertThat(logIndex.getIndexedRange()).contains(new LogIndex.IndexedRange(5, 4));
+  }
+
+  @Test
+  public void catchesUpOnMissedBlocksOnAReorg() {
+    logIndex.reset(1);
+    logIndex.update(logs(blocks.get(1)), 1);
+    logIndexingService.start();
+
+    // replaces block 4 with a heavier block, without a head advancement first
+    final Block fork =
+        gen.block(
+            new BlockOptions()
+                .setParentHash(blocks.get(3).getHash())
+                .setBlockNumber(4)
+                .setDifficulty(blocks.get(4).getHeader().getDifficulty().add(10L)));
+    blockchain.appendBlock(fork, receipts(fork));
+
+    assertThat(blockchain.getChainHeadHash()).isEqualTo(fork.getHash());
+    assertThat(logIndex.getIndexedRange()).contains(new LogIndex.IndexedRange(1, 4));
+    for (long blockNumber = 1; blockNumber <= 3; blockNumber++) {
+      assertThat(blocksWithLogsOf(blocks.get((int) blockNumber))).containsExactly(blockNumber);
+    }
+    assertThat(blocksWithLogsOf(fork)).containsExactly(4L);
+    assertThat(blocksWithLogsOf(blocks.get(4))).isEmpty();
+  }
+
+  @Test
+  public void rollsBackTheRemovedBlocksOfAReorg() {
+    logIndexingService.start();
+    final Block block = appendBlock(blocks.get(4));
+
+    final Block fork =
+        gen.block(
+            new BlockOptions()
+                .setParentHash(blocks.get(4).getHash())
+                .setBlockNumber(5)
+                .setDifficulty(block.getHeader().getDifficulty().add(10L)));
+    blockchain.appendBlock(fork, receipts(fork));
+
+    assertThat(logIndex.getIndexedRange()).contains(new LogIndex.IndexedRange(5, 5));
+    assertThat(blocksWithLogsOf(block)).isEmpty();
+    assertThat(blocksWithLogsOf(fork)).containsExactly(5L);
+  }
+
+  private Block appendBlock(final Block parent) {
+    final Block block =
+        gen.block(
+            new BlockOptions()
+                .setParentHash(parent.getHash())
+                .setBlockNumber(parent.getHeader().getNumber() + 1));
+    blockchain.appendBlock(block, receipts(block));
+    return block;
+  }
+
+  private NavigableSet<Long> blocksWithLogsOf(final Block block) {
+    final LogIndex.IndexedRange range = logIndex.getIndexedRange().orElseThrow();
+    final List<Address> addresses = logs(block).stream().map(LogWithMetadata::getLogger).toList();
+    return logIndex.matchingBlocks(range.from(), range.to(), new LogsQuery(addresses, List.of()));
+  }
+
+  private List<LogWithMetadata> logs(final Block block) {
+    return LogWithMetadata.generate(block, receipts(block), false);
+  }
+
+  private List<TransactionReceipt> receipts(final Block block) {
+    return receipts.computeIfAbsent(block.getHash(), hash -> gen.receipts(block));
+  }
+}
@@ -128,12 +128,34 @@ public class TransactionLogBloomCacherTest {
   }
 
   @Test
-  public void shouldSplitLogsIntoSeveralFiles() {
+  public void shouldSplitLogsIntoSeveralFiles() throws IOException {
 
     when(blockchain.getChainHeadBlockNumber()).thenReturn(200003L);
     assertThat(cacheDir.toFile().list().length).isEqualTo(0);
     transactionLogBloomCacher.cacheAll();
-    assertThat(cacheDir.toFile().list().length).isEqualTo(2);
+    // a raw cache file and an index file per segment
+    assertThat(cacheDir.toFile().list().length).isEqualTo(4);
+    for (int segment = 0; segment < 2; segment++) {
+      assertThat(
+              BitSlicedLogBloomIndex.openForReading(
+                  BitSlicedLogBloomIndex.indexFile(cacheDir, segment)))
+          .hasValueSatisfying(
+              index -> assertThat(index.indexedBlocks()).isEqualTo(BLOCKS_PER_BLOOM_CACHE));
+    }
+  }
+
+  @Test
+  public void shouldRemoveTheIndexWithTheCacheFileOfASegment() throws IOException {
+
+    when(blockchain.getChainHeadBlockNumber()).thenReturn(200003L);
+    transactionLogBloomCacher.cacheAll();
+
+    transactionLogBloomCacher.removeSegments(0L, 0L);
+
+    assertThat(cacheDir.resolve("logBloom-0.cache")).doesNotExist();
+    assertThat(BitSlicedLogBloomIndex.indexFile(cacheDir, 0)).doesNotExist();
+    assertThat(cacheDir.resolve("logBloom-1.cache")).exists();
+    assertThat(BitSlicedLogBloomIndex.indexFile(cacheDir, 1)).exists();
   }
 
   @Test
@@ -150,7 +172,7 @@ public class TransactionLogBloomCacherTest {
         header, Optional.empty(), Optional.of(logBloom));
 
     assertThat(logBloom.length()).isEqualTo(BLOOM_BITS_LENGTH * 4);
-    assertThat(cacheDir.toFile().list().length).isEqualTo(1);
+    assertThat(cacheDir.toFile().list().length).isEqualTo(2);
   }
 
   @Test
@@ -174,7 +196,7 @@ public class TransactionLogBloomCacherTest {
     }
 
     assertThat(logBloom.length()).isEqualTo(BLOOM_BITS_LENGTH * 5);
-    assertThat(cacheDir.toFile().list().length).isEqualTo(1);
+    assertThat(cacheDir.toFile().list().length).isEqualTo(2);
   }
 
   @Test
@@ -194,7 +216,7 @@ public class TransactionLogBloomCacherTest {
     assertThat(logBloom.length()).isEqualTo(BLOOM_BITS_LENGTH * BLOCKS_PER_BLOOM_CACHE);
     assertThat(logBloom1.length()).isEqualTo(0);
 
-    assertThat(cacheDir.toFile().list().length).isEqualTo(2);
+    assertThat(cacheDir.toFile().list().length).isEqualTo(3);
   }
 
   @Test
@@ -233,8 +255,11 @@ public class TransactionLogBloomCacherTest {
     transactionLogBloomCacher.cacheLogsBloomForBlockHeader(
         forkBranch.get(1), Optional.empty(), Optional.of(logBloom));
     assertThat(logBloom.length()).isEqualTo(BLOOM_BITS_LENGTH * 2);
+    assertThat(
+            BitSlicedLogBloomIndex.openForReading(BitSlicedLogBloomIndex.indexFile(cacheDir, 0)))
+        .hasValueSatisfying(index -> assertThat(index.indexedBlocks()).isEqualTo(2));
 
-    assertThat(cacheDir.toFile().list().length).isEqualTo(1);
+    assertThat(cacheDir.toFile().list().length).isEqualTo(2);
   }
 
   private void createLogBloomCache(final File logBloom) throws IOException {
@@ -0,0 +1,135 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static java.util.Collections.emptyList;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiAccount;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.OptimisticRocksDBColumnarKeyValueStorage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Replays the account reads of a block against RocksDB, decoding the accounts either from a copied
+ * value or straight from the storage buffer. Run with -Pprofilers=gc to compare allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountReadBenchmark {
+
+  private static final int ACCOUNT_COUNT = 100_000;
+  private static final int READS_PER_BLOCK = 500;
+
+  private final Random random = new Random(42);
+  private Path storageDirectory;
+  private SegmentedKeyValueStorage storage;
+  private Address[] blockReads;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    storageDirectory = Files.createTempDirectory("account-read-benchmark");
+    storage =
+        new OptimisticRocksDBColumnarKeyValueStorage(
+            new RocksDBConfigurationBuilder().databaseDir(storageDirectory).build(),
+            List.of(ACCOUNT_INFO_STATE),
+            emptyList(),
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+    final SegmentedKeyValueStorageTransaction transaction = storage.startTransaction();
+    for (int i = 0; i < ACCOUNT_COUNT; i++) {
+      final PmtStateTrieAccountValue account =
+          new PmtStateTrieAccountValue(
+              i, Wei.of(random.nextLong(Long.MAX_VALUE)), Hash.EMPTY_TRIE_HASH, Hash.EMPTY);
+      transaction.put(
+          ACCOUNT_INFO_STATE,
+          address(i).addressHash().toArrayUnsafe(),
+          RLP.encode(account::writeTo).toArrayUnsafe());
+    }
+    transaction.commit();
+  }
+
+  @Setup(Level.Invocation)
+  public void selectBlockReads() {
+    blockReads = new Address[READS_PER_BLOCK];
+    for (int i = 0; i < READS_PER_BLOCK; i++) {
+      blockReads[i] = address(random.nextInt(ACCOUNT_COUNT));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    storage.close();
+    MoreFiles.deleteRecursively(storageDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public void decodeCopiedValue(final Blackhole blackhole) {
+    for (final Address address : blockReads) {
+      blackhole.consume(
+          storage
+              .get(ACCOUNT_INFO_STATE, address.addressHash().toArrayUnsafe())
+              .map(bytes -> decode(address, Bytes.wrap(bytes))));
+    }
+  }
+
+  @Benchmark
+  public void decodeStorageBuffer(final Blackhole blackhole) {
+    for (final Address address : blockReads) {
+      blackhole.consume(
+          storage.getAndMap(
+              ACCOUNT_INFO_STATE,
+              address.addressHash().toArrayUnsafe(),
+              bytes -> decode(address, bytes)));
+    }
+  }
+
+  private static BonsaiAccount decode(final Address address, final Bytes encoded) {
+    return BonsaiAccount.fromRLP(null, address, encoded, false, null);
+  }
+
+  private static Address address(final int i) {
+    return Address.fromHexString(String.format("0x%040x", i));
+  }
+}
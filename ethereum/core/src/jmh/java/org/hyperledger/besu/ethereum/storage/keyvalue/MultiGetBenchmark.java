@@ -0,0 +1,117 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static java.util.Collections.emptyList;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+
+import org.hyperledger.besu.crypto.Hash;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.OptimisticRocksDBColumnarKeyValueStorage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Compares reading a batch of keys from RocksDB one by one and with a single multi-get. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultiGetBenchmark {
+
+  private static final int ENTRY_COUNT = 100_000;
+  private static final int VALUE_SIZE = 80;
+
+  @Param({"16", "64", "256"})
+  public int batchSize;
+
+  private final Random random = new Random(42);
+  private Path storageDirectory;
+  private SegmentedKeyValueStorage storage;
+  private List<byte[]> batch;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    storageDirectory = Files.createTempDirectory("multiget-benchmark");
+    storage =
+        new OptimisticRocksDBColumnarKeyValueStorage(
+            new RocksDBConfigurationBuilder().databaseDir(storageDirectory).build(),
+            List.of(ACCOUNT_INFO_STATE),
+            emptyList(),
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+    final SegmentedKeyValueStorageTransaction transaction = storage.startTransaction();
+    final byte[] value = new byte[VALUE_SIZE];
+    for (int i = 0; i < ENTRY_COUNT; i++) {
+      random.nextBytes(value);
+      transaction.put(ACCOUNT_INFO_STATE, key(i), value.clone());
+    }
+    transaction.commit();
+  }
+
+  @Setup(Level.Invocation)
+  public void selectBatch() {
+    // half of the keys are missing, as for accounts that do not exist yet
+    batch = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      batch.add(key(random.nextInt(ENTRY_COUNT * 2)));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    storage.close();
+    MoreFiles.deleteRecursively(storageDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public void get(final Blackhole blackhole) {
+    for (final byte[] key : batch) {
+      blackhole.consume(storage.get(ACCOUNT_INFO_STATE, key));
+    }
+  }
+
+  @Benchmark
+  public List<Optional<byte[]>> multiGet() {
+    return storage.multiGet(ACCOUNT_INFO_STATE, batch);
+  }
+
+  private static byte[] key(final int i) {
+    return Hash.keccak256(Bytes.ofUnsignedInt(i)).toArrayUnsafe();
+  }
+}
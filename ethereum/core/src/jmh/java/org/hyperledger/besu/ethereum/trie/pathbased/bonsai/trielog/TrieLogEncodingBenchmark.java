@@ -0,0 +1,106 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogLayer;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serializes and deserializes a trie log layer shaped like a mainnet block, with transaction
+ * senders whose nonce and balance change, and contracts whose storage changes. The {@code storage
+ * trie-log migrate} subcommand reports the sizes of the layers of an existing database in each
+ * encoding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrieLogEncodingBenchmark {
+
+  @Param({"150"})
+  private int transactionCount;
+
+  @Param({"RLP", "COMPACT"})
+  private String encoding;
+
+  private TrieLogFactoryImpl trieLogFactory;
+  private TrieLogLayer layer;
+  private byte[] serializedLayer;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final Random random = new Random(42);
+    layer = new TrieLogLayer();
+    layer.setBlockHash(Hash.wrap(Bytes32.random(random)));
+    for (int i = 0; i < transactionCount; i++) {
+      final long nonce = random.nextInt(100_000);
+      final Wei fee = Wei.of(random.nextInt(10_000_000) * 1_000_000_000L);
+      final Wei balance = fee.add(Wei.of(random.nextLong(Long.MAX_VALUE)));
+      layer.addAccountChange(
+          Address.wrap(Bytes.random(Address.SIZE, random)),
+          new PmtStateTrieAccountValue(nonce, balance, Hash.EMPTY_TRIE_HASH, Hash.EMPTY),
+          new PmtStateTrieAccountValue(
+              nonce + 1, balance.subtract(fee), Hash.EMPTY_TRIE_HASH, Hash.EMPTY));
+
+      final Address contract = Address.wrap(Bytes.random(Address.SIZE, random));
+      final Hash codeHash = Hash.wrap(Bytes32.random(random));
+      layer.addAccountChange(
+          contract,
+          new PmtStateTrieAccountValue(1, Wei.ZERO, Hash.wrap(Bytes32.random(random)), codeHash),
+          new PmtStateTrieAccountValue(1, Wei.ZERO, Hash.wrap(Bytes32.random(random)), codeHash));
+      for (int j = 0; j < 3; j++) {
+        layer.addStorageChange(
+            contract,
+            new StorageSlotKey(Hash.wrap(Bytes32.random(random)), Optional.empty()),
+            UInt256.valueOf(random.nextLong(Long.MAX_VALUE)),
+            UInt256.valueOf(random.nextLong(Long.MAX_VALUE)));
+      }
+    }
+    layer.freeze();
+
+    trieLogFactory = new TrieLogFactoryImpl(encoding.equals("COMPACT"));
+    serializedLayer = trieLogFactory.serialize(layer);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return trieLogFactory.serialize(layer);
+  }
+
+  @Benchmark
+  public TrieLogLayer deserialize() {
+    return trieLogFactory.deserialize(serializedLayer);
+  }
+}
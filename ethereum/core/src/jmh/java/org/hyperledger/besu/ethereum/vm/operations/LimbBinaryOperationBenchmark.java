@@ -0,0 +1,137 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
+import org.hyperledger.besu.evm.operation.AddOperation;
+import org.hyperledger.besu.evm.operation.AndOperation;
+import org.hyperledger.besu.evm.operation.EqOperation;
+import org.hyperledger.besu.evm.operation.GtOperation;
+import org.hyperledger.besu.evm.operation.LtOperation;
+import org.hyperledger.besu.evm.operation.MulOperation;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.operation.SLtOperation;
+import org.hyperledger.besu.evm.operation.SarOperation;
+import org.hyperledger.besu.evm.operation.ShlOperation;
+import org.hyperledger.besu.evm.operation.ShrOperation;
+import org.hyperledger.besu.evm.operation.SubOperation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link Bytes} based operand stack with {@link LimbOperandStack} for the binary
+ * opcodes that have a limb implementation. Both variants push the same random operands.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(value = TimeUnit.NANOSECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class LimbBinaryOperationBenchmark {
+
+  protected static final int SAMPLE_SIZE = 30_000;
+
+  @Param({"ADD", "SUB", "MUL", "LT", "GT", "SLT", "EQ", "AND", "SHL", "SHR", "SAR"})
+  private String opcode;
+
+  protected Bytes[] aPool;
+  protected Bytes[] bPool;
+  protected int index;
+  protected MessageFrame frame;
+  protected LimbOperandStack stack;
+
+  @Setup()
+  public void setUp() {
+    frame = BenchmarkHelper.createMessageCallFrame();
+    stack = new LimbOperandStack(MessageFrame.DEFAULT_MAX_STACK_SIZE);
+    aPool = new Bytes[SAMPLE_SIZE];
+    bPool = new Bytes[SAMPLE_SIZE];
+    BenchmarkHelper.fillPool(aPool);
+    BenchmarkHelper.fillPool(bPool);
+    index = 0;
+  }
+
+  @Benchmark
+  public void executeOperation(final Blackhole blackhole) {
+    frame.pushStackItem(bPool[index]);
+    frame.pushStackItem(aPool[index]);
+
+    blackhole.consume(invoke(frame));
+
+    frame.popStackItem();
+
+    index = (index + 1) % SAMPLE_SIZE;
+  }
+
+  @Benchmark
+  public void executeLimbOperation(final Blackhole blackhole) {
+    stack.push(bPool[index]);
+    stack.push(aPool[index]);
+
+    blackhole.consume(invoke(stack));
+
+    stack.drop(1);
+
+    index = (index + 1) % SAMPLE_SIZE;
+  }
+
+  private Operation.OperationResult invoke(final MessageFrame frame) {
+    return switch (opcode) {
+      case "ADD" -> AddOperation.staticOperation(frame);
+      case "SUB" -> SubOperation.staticOperation(frame);
+      case "MUL" -> MulOperation.staticOperation(frame);
+      case "LT" -> LtOperation.staticOperation(frame);
+      case "GT" -> GtOperation.staticOperation(frame);
+      case "SLT" -> SLtOperation.staticOperation(frame);
+      case "EQ" -> EqOperation.staticOperation(frame);
+      case "AND" -> AndOperation.staticOperation(frame);
+      case "SHL" -> ShlOperation.staticOperation(frame);
+      case "SHR" -> ShrOperation.staticOperation(frame);
+      case "SAR" -> SarOperation.staticOperation(frame);
+      default -> throw new IllegalArgumentException("Unsupported opcode " + opcode);
+    };
+  }
+
+  private Operation.OperationResult invoke(final LimbOperandStack stack) {
+    return switch (opcode) {
+      case "ADD" -> AddOperation.staticOperation(stack);
+      case "SUB" -> SubOperation.staticOperation(stack);
+      case "MUL" -> MulOperation.staticOperation(stack);
+      case "LT" -> LtOperation.staticOperation(stack);
+      case "GT" -> GtOperation.staticOperation(stack);
+      case "SLT" -> SLtOperation.staticOperation(stack);
+      case "EQ" -> EqOperation.staticOperation(stack);
+      case "AND" -> AndOperation.staticOperation(stack);
+      case "SHL" -> ShlOperation.staticOperation(stack);
+      case "SHR" -> ShrOperation.staticOperation(stack);
+      case "SAR" -> SarOperation.staticOperation(stack);
+      default -> throw new IllegalArgumentException("Unsupported opcode " + opcode);
+    };
+  }
+}
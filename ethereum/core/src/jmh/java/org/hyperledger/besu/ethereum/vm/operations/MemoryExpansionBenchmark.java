@@ -0,0 +1,100 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import org.hyperledger.besu.evm.frame.Memory;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Workloads dominated by memory expansion: a fresh memory is grown to the target size each run. */
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(value = TimeUnit.MICROSECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class MemoryExpansionBenchmark {
+
+  // 1 KiB, 64 KiB, 1 MiB
+  @Param({"1024", "65536", "1048576"})
+  public int memorySize;
+
+  // bytes written by each step, 32 is a word by word MSTORE loop
+  @Param({"32", "1024"})
+  public int stepSize;
+
+  private Bytes32 word;
+  private Bytes chunk;
+
+  @Setup
+  public void setUp() {
+    final Random random = new Random(42);
+    final byte[] bytes = new byte[stepSize];
+    random.nextBytes(bytes);
+    chunk = Bytes.wrap(bytes);
+    word = Bytes32.wrap(bytes, 0);
+  }
+
+  @Benchmark
+  public void mstoreLoop(final Blackhole blackhole) {
+    final Memory memory = new Memory();
+    for (long offset = 0; offset < memorySize; offset += stepSize) {
+      memory.setWord(offset, word);
+    }
+    blackhole.consume(memory);
+  }
+
+  @Benchmark
+  public void copyLoop(final Blackhole blackhole) {
+    final Memory memory = new Memory();
+    for (long offset = 0; offset < memorySize; offset += stepSize) {
+      memory.setBytes(offset, 0, stepSize, chunk);
+    }
+    blackhole.consume(memory);
+  }
+
+  @Benchmark
+  public void mcopyLoop(final Blackhole blackhole) {
+    final Memory memory = new Memory();
+    memory.setBytes(0, stepSize, chunk);
+    for (long offset = stepSize; offset < memorySize; offset += stepSize) {
+      memory.copy(offset, offset - stepSize, stepSize);
+    }
+    blackhole.consume(memory);
+  }
+
+  @Benchmark
+  public void readAfterGrowth(final Blackhole blackhole) {
+    final Memory memory = new Memory();
+    memory.setWord(memorySize - Bytes32.SIZE, word);
+    for (long offset = 0; offset < memorySize; offset += stepSize) {
+      blackhole.consume(memory.getMutableBytes(offset, stepSize));
+    }
+  }
+}
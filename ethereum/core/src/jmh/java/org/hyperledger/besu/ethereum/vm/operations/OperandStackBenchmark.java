@@ -15,6 +15,7 @@
 package org.hyperledger.besu.ethereum.vm.operations;
 
 import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
 import org.hyperledger.besu.evm.internal.OperandStack;
 
 import java.util.concurrent.TimeUnit;
@@ -55,4 +56,49 @@ public class OperandStackBenchmark {
       }
     }
   }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+  public void fillUpLimbs() {
+    for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+      LimbOperandStack stack = new LimbOperandStack(MessageFrame.DEFAULT_MAX_STACK_SIZE);
+      for (int j = 0; j < stackDepth; j++) {
+        stack.push(BYTES);
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+  public void dupSwapPop() {
+    OperandStack stack = new OperandStack(MessageFrame.DEFAULT_MAX_STACK_SIZE);
+    for (int j = 0; j < stackDepth; j++) {
+      stack.push(BYTES);
+    }
+    for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+      if (!stack.isFull()) {
+        stack.push(stack.get(0));
+        stack.pop();
+      }
+      final Bytes tmp = stack.get(0);
+      stack.set(0, stack.get(stackDepth - 1));
+      stack.set(stackDepth - 1, tmp);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+  public void dupSwapPopLimbs() {
+    LimbOperandStack stack = new LimbOperandStack(MessageFrame.DEFAULT_MAX_STACK_SIZE);
+    for (int j = 0; j < stackDepth; j++) {
+      stack.push(BYTES);
+    }
+    for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+      if (!stack.isFull()) {
+        stack.dup(1);
+        stack.drop(1);
+      }
+      stack.swap(stackDepth - 1);
+    }
+  }
 }
@@ -312,8 +312,11 @@ public class BlockHeader extends SealableBlockHeader
 
   public static BlockHeader readFrom(
       final RLPInput input, final BlockHeaderFunctions blockHeaderFunctions) {
-    final RLPInput headerRlp = input.readAsRlp();
+    // read the fields straight from the input rather than from a new input over the header
+    final Bytes rawRlp = input.currentListAsBytesNoCopy(false);
+    final RLPInput headerRlp = input;
     if (headerRlp.enterList() == 0) {
+      headerRlp.leaveList();
       return null;
     }
 
@@ -372,13 +375,16 @@ public class BlockHeader extends SealableBlockHeader
         requestsHash,
         balHash,
         blockHeaderFunctions,
-        Optional.of(headerRlp.raw()));
+        Optional.of(rawRlp));
   }
 
   public static BlockHeader readFrom(
       final RLPInput input, final BlockHeaderFunctions blockHeaderFunctions, final Hash knownHash) {
-    final RLPInput headerRlp = input.readAsRlp();
+    // read the fields straight from the input rather than from a new input over the header
+    final Bytes rawRlp = input.currentListAsBytesNoCopy(false);
+    final RLPInput headerRlp = input;
     if (headerRlp.enterList() == 0) {
+      headerRlp.leaveList();
       return null;
     }
 
@@ -438,7 +444,7 @@ public class BlockHeader extends SealableBlockHeader
         balHash,
         knownHash,
         blockHeaderFunctions,
-        Optional.of(headerRlp.raw()));
+        Optional.of(rawRlp));
   }
 
   @Override
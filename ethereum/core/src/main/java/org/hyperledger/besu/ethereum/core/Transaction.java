@@ -49,10 +49,12 @@ import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.ethereum.rlp.RLPOutput;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -478,11 +480,61 @@ public class Transaction
                 () ->
                     new IllegalStateException(
                         "Cannot recover public key from signature for " + this));
+    return cacheSender(publicKey);
+  }
+
+  private Address cacheSender(final SECPPublicKey publicKey) {
     final Address calculatedSender = Address.extract(Hash.hash(publicKey.getEncodedBytes()));
     senderCache.put(getHash(), calculatedSender);
     return calculatedSender;
   }
 
+  /**
+   * Recovers in parallel the senders of a batch of transactions, for example all the transactions
+   * of a message received from a peer, so that the following calls to {@link #getSender()} do not
+   * recover them one at a time. The transactions whose sender cannot be recovered are left as they
+   * are, and {@link #getSender()} reports the failure when called on them.
+   *
+   * @param transactions the transactions
+   * @param executor the executor to spread the recoveries on
+   */
+  public static void recoverSenders(
+      final Collection<Transaction> transactions, final Executor executor) {
+    final List<Transaction> toRecover = new ArrayList<>(transactions.size());
+    for (final Transaction transaction : transactions) {
+      if (transaction.sender == null) {
+        final Address cachedSender = senderCache.getIfPresent(transaction.getHash());
+        if (cachedSender != null) {
+          transaction.sender = cachedSender;
+        } else {
+          toRecover.add(transaction);
+        }
+      }
+    }
+    if (toRecover.size() < 2) {
+      // nothing to spread, the sender is recovered on demand
+      return;
+    }
+
+    final List<Bytes32> dataHashes = new ArrayList<>(toRecover.size());
+    final List<SECPSignature> signatures = new ArrayList<>(toRecover.size());
+    for (final Transaction transaction : toRecover) {
+      dataHashes.add(transaction.getOrComputeSenderRecoveryHash());
+      signatures.add(transaction.signature);
+    }
+    final List<Optional<SECPPublicKey>> publicKeys =
+        toRecover
+            .getFirst()
+            .signatureAlgorithm
+            .recoverPublicKeysFromSignatures(dataHashes, signatures, executor);
+    for (int i = 0; i < toRecover.size(); i++) {
+      final Transaction transaction = toRecover.get(i);
+      publicKeys
+          .get(i)
+          .ifPresent(publicKey -> transaction.sender = transaction.cacheSender(publicKey));
+    }
+  }
+
   /**
    * Returns the public key extracted from the signature.
    *
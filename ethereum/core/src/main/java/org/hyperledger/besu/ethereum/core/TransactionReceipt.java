@@ -140,6 +140,26 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
         maybeRevertReason);
   }
 
+  /**
+   * Creates a transaction receipt whose logs and logs bloom filter are provided by a subclass
+   * overriding {@link #getLogsList()} and {@link #getBloomFilter()}, for instance to decode them
+   * only when they are accessed.
+   *
+   * @param transactionType the transaction type
+   * @param stateRoot the state root for a state root-encoded transaction receipt, otherwise null
+   * @param status the status code for a status-encoded transaction receipt, otherwise -1
+   * @param cumulativeGasUsed the total amount of gas consumed in the block after this transaction
+   * @param revertReason the revert reason for a failed transaction (if applicable)
+   */
+  protected TransactionReceipt(
+      final TransactionType transactionType,
+      final Hash stateRoot,
+      final int status,
+      final long cumulativeGasUsed,
+      final Optional<Bytes> revertReason) {
+    this(transactionType, stateRoot, status, cumulativeGasUsed, null, null, revertReason);
+  }
+
   private TransactionReceipt(
       final TransactionType transactionType,
       final Hash stateRoot,
@@ -194,7 +214,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
    */
   @Override
   public List<? extends org.hyperledger.besu.plugin.data.Log> getLogs() {
-    return logs.stream().map(LogsWrapper::new).collect(Collectors.toList());
+    return getLogsList().stream().map(LogsWrapper::new).collect(Collectors.toList());
   }
 
   /**
@@ -244,7 +264,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
       return false;
     }
     final TransactionReceipt other = (TransactionReceipt) obj;
-    return logs.equals(other.getLogsList())
+    return getLogsList().equals(other.getLogsList())
         && Objects.equals(stateRoot, other.stateRoot)
         && cumulativeGasUsed == other.getCumulativeGasUsed()
         && status == other.status;
@@ -252,7 +272,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
 
   @Override
   public int hashCode() {
-    return Objects.hash(logs, stateRoot, cumulativeGasUsed);
+    return Objects.hash(getLogsList(), stateRoot, cumulativeGasUsed);
   }
 
   @Override
@@ -260,8 +280,8 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
     return MoreObjects.toStringHelper(this)
         .add("stateRoot", stateRoot)
         .add("cumulativeGasUsed", cumulativeGasUsed)
-        .add("logs", logs)
-        .add("bloomFilter", bloomFilter)
+        .add("logs", getLogsList())
+        .add("bloomFilter", getBloomFilter())
         .add("status", status)
         .add("transactionReceiptType", transactionReceiptType)
         .toString();
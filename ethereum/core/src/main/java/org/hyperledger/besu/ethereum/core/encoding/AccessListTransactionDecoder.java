@@ -40,7 +40,11 @@ class AccessListTransactionDecoder {
   }
 
   public static Transaction decode(final Bytes input) {
-    final RLPInput txRlp = RLP.input(input.slice(1)); // Skip the transaction type byte
+    // Skip the transaction type byte
+    return RLP.decode(input.slice(1), txRlp -> decode(input, txRlp));
+  }
+
+  private static Transaction decode(final Bytes input, final RLPInput txRlp) {
     txRlp.enterList();
     final Transaction.Builder preSignatureTransactionBuilder =
         Transaction.builder()
@@ -45,7 +45,11 @@ public class BlobPooledTransactionDecoder {
    * @return the decoded transaction
    */
   public static Transaction decode(final Bytes input) {
-    final RLPInput txRlp = RLP.input(input.slice(1)); // Skip the transaction type byte
+    // Skip the transaction type byte
+    return RLP.decode(input.slice(1), txRlp -> decode(input, txRlp));
+  }
+
+  private static Transaction decode(final Bytes input, final RLPInput txRlp) {
     txRlp.enterList();
     int versionId = 0;
     final Transaction.Builder builder = Transaction.builder();
@@ -53,11 +53,15 @@ public class BlobTransactionDecoder {
 
   private static Transaction readTransactionPayload(final Bytes input) {
     final Transaction.Builder builder = Transaction.builder();
-    final RLPInput txRlp = RLP.input(input.slice(1)); // Skip the transaction type byte
     builder.sizeForBlockInclusion(input.size()).hash(Hash.hash(input));
     // blob tx without blobs cannot be announced, so sizeForAnnouncement is not set
-    readTransactionPayloadInner(builder, txRlp);
-    return builder.build();
+    // Skip the transaction type byte
+    return RLP.decode(
+        input.slice(1),
+        txRlp -> {
+          readTransactionPayloadInner(builder, txRlp);
+          return builder.build();
+        });
   }
 
   /**
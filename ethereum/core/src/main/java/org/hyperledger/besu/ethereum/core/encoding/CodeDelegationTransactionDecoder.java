@@ -42,7 +42,11 @@ public class CodeDelegationTransactionDecoder {
   }
 
   public static Transaction decode(final Bytes input) {
-    final RLPInput txRlp = RLP.input(input.slice(1)); // Skip the transaction type byte
+    // Skip the transaction type byte
+    return RLP.decode(input.slice(1), txRlp -> decode(input, txRlp));
+  }
+
+  private static Transaction decode(final Bytes input, final RLPInput txRlp) {
     txRlp.enterList();
     final BigInteger chainId = txRlp.readBigIntegerScalar();
     final Transaction.Builder builder =
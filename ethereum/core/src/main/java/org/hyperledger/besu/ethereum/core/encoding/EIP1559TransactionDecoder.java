@@ -40,7 +40,11 @@ public class EIP1559TransactionDecoder {
   }
 
   public static Transaction decode(final Bytes input) {
-    final RLPInput txRlp = RLP.input(input.slice(1)); // Skip the transaction type byte
+    // Skip the transaction type byte
+    return RLP.decode(input.slice(1), txRlp -> decode(input, txRlp));
+  }
+
+  private static Transaction decode(final Bytes input, final RLPInput txRlp) {
     txRlp.enterList();
     final BigInteger chainId = txRlp.readBigIntegerScalar();
     final Transaction.Builder builder =
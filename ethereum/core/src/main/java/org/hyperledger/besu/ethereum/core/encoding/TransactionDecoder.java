@@ -116,7 +116,7 @@ public class TransactionDecoder {
       return decodeTypedTransaction(opaqueBytes, transactionType.get(), context);
     } else {
       // If the transaction type is not present, decode the opaque bytes as RLP
-      return decodeRLP(RLP.input(opaqueBytes), context);
+      return RLP.decode(opaqueBytes, input -> decodeRLP(input, context));
     }
   }
 
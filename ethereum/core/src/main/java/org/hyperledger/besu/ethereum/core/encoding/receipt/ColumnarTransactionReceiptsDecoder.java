@@ -0,0 +1,185 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core.encoding.receipt;
+
+import static org.hyperledger.besu.ethereum.core.encoding.receipt.ColumnarTransactionReceiptsEncoder.FLAG_BLOOM_FILTERS;
+import static org.hyperledger.besu.ethereum.core.encoding.receipt.ColumnarTransactionReceiptsEncoder.FLAG_COMPACTED_LOGS;
+import static org.hyperledger.besu.ethereum.core.encoding.receipt.ColumnarTransactionReceiptsEncoder.RECEIPT_REVERT_REASON;
+import static org.hyperledger.besu.ethereum.core.encoding.receipt.ColumnarTransactionReceiptsEncoder.RECEIPT_STATE_ROOT;
+import static org.hyperledger.besu.ethereum.core.encoding.receipt.ColumnarTransactionReceiptsEncoder.RECEIPT_STATUS_SUCCESS;
+import static org.hyperledger.besu.ethereum.core.encoding.receipt.ColumnarTransactionReceiptsEncoder.VERSION;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
+import org.hyperledger.besu.evm.log.LogsBloomFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Decodes the receipts of a block written by {@link ColumnarTransactionReceiptsEncoder}. The small
+ * fields are read right away, while the logs of each receipt are only decoded when accessed.
+ */
+public class ColumnarTransactionReceiptsDecoder {
+
+  private ColumnarTransactionReceiptsDecoder() {}
+
+  /**
+   * Whether stored receipts use the columnar encoding rather than an RLP list.
+   *
+   * @param encoded the stored receipts of a block
+   * @return true if the receipts are in the columnar encoding
+   */
+  public static boolean isColumnar(final Bytes encoded) {
+    return !encoded.isEmpty() && encoded.get(0) == VERSION;
+  }
+
+  /**
+   * Decodes the receipts of a block.
+   *
+   * @param encoded the encoded receipts
+   * @return the receipts, whose logs are decoded on first access
+   */
+  public static List<TransactionReceipt> decode(final Bytes encoded) {
+    if (!isColumnar(encoded)) {
+      throw new RLPException("Receipts are not in the columnar encoding");
+    }
+    final Reader reader = new Reader(encoded, 1);
+    final int flags = reader.readByte();
+    final boolean compactedLogs = (flags & FLAG_COMPACTED_LOGS) != 0;
+    final boolean hasBloomFilters = (flags & FLAG_BLOOM_FILTERS) != 0;
+    final int count = reader.readSize();
+
+    final int types = reader.skip(count);
+    final int receiptFlags = reader.skip(count);
+    final long[] cumulativeGasUsed = new long[count];
+    long gasUsed = 0;
+    for (int i = 0; i < count; i++) {
+      gasUsed += reader.readVarint();
+      cumulativeGasUsed[i] = gasUsed;
+    }
+    final int[] logsSizes = new int[count];
+    for (int i = 0; i < count; i++) {
+      logsSizes[i] = reader.readSize();
+    }
+    final int[] revertReasonsSizes = new int[count];
+    int stateRootCount = 0;
+    for (int i = 0; i < count; i++) {
+      final int receiptFlag = encoded.get(receiptFlags + i);
+      if ((receiptFlag & RECEIPT_REVERT_REASON) != 0) {
+        revertReasonsSizes[i] = reader.readSize();
+      }
+      if ((receiptFlag & RECEIPT_STATE_ROOT) != 0) {
+        stateRootCount++;
+      }
+    }
+    final int bloomFilters =
+        reader.skip(hasBloomFilters ? (long) count * LogsBloomFilter.BYTE_SIZE : 0);
+    int stateRoot = reader.skip((long) stateRootCount * Bytes32.SIZE);
+    int logsStart = reader.position;
+    for (int i = 0; i < count; i++) {
+      reader.skip(logsSizes[i]);
+    }
+    int revertReasonStart = reader.position;
+    for (int i = 0; i < count; i++) {
+      reader.skip(revertReasonsSizes[i]);
+    }
+    if (reader.position != encoded.size()) {
+      throw new RLPException("Malformed columnar receipts");
+    }
+
+    final List<TransactionReceipt> receipts = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final int type = encoded.get(types + i) & 0xff;
+      final int receiptFlag = encoded.get(receiptFlags + i);
+      final Hash receiptStateRoot;
+      if ((receiptFlag & RECEIPT_STATE_ROOT) != 0) {
+        receiptStateRoot = Hash.wrap(Bytes32.wrap(encoded.slice(stateRoot, Bytes32.SIZE)));
+        stateRoot += Bytes32.SIZE;
+      } else {
+        receiptStateRoot = null;
+      }
+      receipts.add(
+          new LazyTransactionReceipt(
+              type == 0 ? TransactionType.FRONTIER : TransactionType.of(type),
+              receiptStateRoot,
+              receiptStateRoot != null ? -1 : receiptFlag & RECEIPT_STATUS_SUCCESS,
+              cumulativeGasUsed[i],
+              encoded.slice(logsStart, logsSizes[i]),
+              compactedLogs,
+              hasBloomFilters
+                  ? Optional.of(
+                      encoded.slice(
+                          bloomFilters + i * LogsBloomFilter.BYTE_SIZE, LogsBloomFilter.BYTE_SIZE))
+                  : Optional.empty(),
+              (receiptFlag & RECEIPT_REVERT_REASON) != 0
+                  ? Optional.of(encoded.slice(revertReasonStart, revertReasonsSizes[i]))
+                  : Optional.empty()));
+      logsStart += logsSizes[i];
+      revertReasonStart += revertReasonsSizes[i];
+    }
+    return receipts;
+  }
+
+  private static class Reader {
+    private final Bytes encoded;
+    private int position;
+
+    private Reader(final Bytes encoded, final int position) {
+      this.encoded = encoded;
+      this.position = position;
+    }
+
+    private int readByte() {
+      return encoded.get(skip(1)) & 0xff;
+    }
+
+    private long readVarint() {
+      long value = 0;
+      for (int shift = 0; shift < Long.SIZE; shift += 7) {
+        final int b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new RLPException("Malformed columnar receipts");
+    }
+
+    private int readSize() {
+      final long size = readVarint();
+      if (size > encoded.size()) {
+        throw new RLPException("Malformed columnar receipts");
+      }
+      return (int) size;
+    }
+
+    /** Returns the current position and moves past the given number of bytes. */
+    private int skip(final long length) {
+      final int start = position;
+      if (length > encoded.size() - start) {
+        throw new RLPException("Malformed columnar receipts");
+      }
+      position += (int) length;
+      return start;
+    }
+  }
+}
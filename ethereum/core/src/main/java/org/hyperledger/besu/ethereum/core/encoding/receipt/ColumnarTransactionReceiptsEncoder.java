@@ -0,0 +1,155 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core.encoding.receipt;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Encodes the receipts of a block in columns, so that the small fields of every receipt are read
+ * without decoding any log, and the logs of each receipt can be decoded on their own.
+ *
+ * <pre>
+ * version: 1 byte, {@link #VERSION}, which can't be the first byte of an RLP list
+ * flags: 1 byte, {@code FLAG_BLOOM_FILTERS} or {@code FLAG_COMPACTED_LOGS}
+ * count: varint
+ * transaction types: count bytes
+ * receipt flags: count bytes, the status and whether there is a state root or a revert reason
+ * gas used: count varints, the increase of the cumulative gas over the previous receipt
+ * logs sizes: count varints
+ * revert reasons sizes: one varint for each receipt with a revert reason
+ * bloom filters: count * 256 bytes, when flagged
+ * state roots: 32 bytes for each state root-encoded receipt
+ * logs: the RLP list of the logs of each receipt
+ * revert reasons: the bytes of each revert reason
+ * </pre>
+ *
+ * Varints are unsigned LEB128.
+ */
+public class ColumnarTransactionReceiptsEncoder {
+
+  /** The version of the encoding. */
+  public static final byte VERSION = 1;
+
+  static final int FLAG_BLOOM_FILTERS = 1;
+  static final int FLAG_COMPACTED_LOGS = 2;
+  static final int RECEIPT_STATUS_SUCCESS = 1;
+  static final int RECEIPT_STATE_ROOT = 2;
+  static final int RECEIPT_REVERT_REASON = 4;
+
+  private ColumnarTransactionReceiptsEncoder() {}
+
+  /**
+   * Whether the receipts fit the encoding, which stores the status of a status-encoded receipt as
+   * a single bit, and the cumulative gas as increments.
+   *
+   * @param receipts the receipts of a block
+   * @return true if the receipts can be encoded
+   */
+  public static boolean canEncode(final List<TransactionReceipt> receipts) {
+    long cumulativeGasUsed = 0;
+    for (final TransactionReceipt receipt : receipts) {
+      if (receipt.getStateRoot() == null && receipt.getStatus() != 0 && receipt.getStatus() != 1) {
+        return false;
+      }
+      if (receipt.getCumulativeGasUsed() < cumulativeGasUsed) {
+        return false;
+      }
+      cumulativeGasUsed = receipt.getCumulativeGasUsed();
+    }
+    return true;
+  }
+
+  /**
+   * Encodes the receipts of a block.
+   *
+   * @param receipts the receipts of a block, which must fit the encoding
+   * @param compactedLogs whether to drop the bloom filters and write the logs compacted
+   * @return the encoded receipts
+   */
+  public static Bytes encode(final List<TransactionReceipt> receipts, final boolean compactedLogs) {
+    checkArgument(canEncode(receipts), "Receipts do not fit the columnar encoding");
+    final List<Bytes> logs = new ArrayList<>(receipts.size());
+    for (final TransactionReceipt receipt : receipts) {
+      logs.add(
+          RLP.encode(
+              out ->
+                  out.writeList(
+                      receipt.getLogsList(), (log, logOut) -> log.writeTo(logOut, compactedLogs))));
+    }
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(VERSION);
+    out.write(compactedLogs ? FLAG_COMPACTED_LOGS : FLAG_BLOOM_FILTERS);
+    writeVarint(out, receipts.size());
+    for (final TransactionReceipt receipt : receipts) {
+      out.write(receipt.getTransactionType().getEthSerializedType());
+    }
+    for (final TransactionReceipt receipt : receipts) {
+      int receiptFlags = receipt.getRevertReason().isPresent() ? RECEIPT_REVERT_REASON : 0;
+      if (receipt.getStateRoot() != null) {
+        receiptFlags |= RECEIPT_STATE_ROOT;
+      } else if (receipt.getStatus() == 1) {
+        receiptFlags |= RECEIPT_STATUS_SUCCESS;
+      }
+      out.write(receiptFlags);
+    }
+    long cumulativeGasUsed = 0;
+    for (final TransactionReceipt receipt : receipts) {
+      writeVarint(out, receipt.getCumulativeGasUsed() - cumulativeGasUsed);
+      cumulativeGasUsed = receipt.getCumulativeGasUsed();
+    }
+    for (final Bytes receiptLogs : logs) {
+      writeVarint(out, receiptLogs.size());
+    }
+    for (final TransactionReceipt receipt : receipts) {
+      receipt.getRevertReason().ifPresent(revertReason -> writeVarint(out, revertReason.size()));
+    }
+    if (!compactedLogs) {
+      for (final TransactionReceipt receipt : receipts) {
+        out.writeBytes(receipt.getBloomFilter().toArrayUnsafe());
+      }
+    }
+    for (final TransactionReceipt receipt : receipts) {
+      if (receipt.getStateRoot() != null) {
+        out.writeBytes(receipt.getStateRoot().toArrayUnsafe());
+      }
+    }
+    for (final Bytes receiptLogs : logs) {
+      out.writeBytes(receiptLogs.toArrayUnsafe());
+    }
+    for (final TransactionReceipt receipt : receipts) {
+      receipt.getRevertReason().ifPresent(revertReason -> out.writeBytes(revertReason.toArray()));
+    }
+    return Bytes.wrap(out.toByteArray());
+  }
+
+  private static void writeVarint(final ByteArrayOutputStream out, final long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.write((int) (remaining & 0x7F) | 0x80);
+      remaining >>>= 7;
+    }
+    out.write((int) remaining);
+  }
+}
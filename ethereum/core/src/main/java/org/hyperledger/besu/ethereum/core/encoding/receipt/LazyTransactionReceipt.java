@@ -0,0 +1,69 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core.encoding.receipt;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.evm.log.Log;
+import org.hyperledger.besu.evm.log.LogsBloomFilter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A transaction receipt read from the columnar encoding, which only decodes its logs when they are
+ * first accessed. When the encoding has no bloom filter, it is built from the logs on first access
+ * too.
+ */
+class LazyTransactionReceipt extends TransactionReceipt {
+
+  private final Supplier<List<Log>> logs;
+  private final Supplier<LogsBloomFilter> bloomFilter;
+
+  LazyTransactionReceipt(
+      final TransactionType transactionType,
+      final Hash stateRoot,
+      final int status,
+      final long cumulativeGasUsed,
+      final Bytes encodedLogs,
+      final boolean compactedLogs,
+      final Optional<Bytes> bloomFilter,
+      final Optional<Bytes> revertReason) {
+    super(transactionType, stateRoot, status, cumulativeGasUsed, revertReason);
+    this.logs =
+        Suppliers.memoize(
+            () -> RLP.input(encodedLogs).readList(in -> Log.readFrom(in, compactedLogs)));
+    this.bloomFilter =
+        bloomFilter.isPresent()
+            ? Suppliers.ofInstance(new LogsBloomFilter(bloomFilter.get()))
+            : Suppliers.memoize(() -> LogsBloomFilter.builder().insertLogs(getLogsList()).build());
+  }
+
+  @Override
+  public List<Log> getLogsList() {
+    return logs.get();
+  }
+
+  @Override
+  public LogsBloomFilter getBloomFilter() {
+    return bloomFilter.get();
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.AccountChanges;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.BalanceChange;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.CodeChange;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.NonceChange;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.SlotChanges;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.SlotRead;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.StorageChange;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.worldstate.AbstractWorldUpdater;
+import org.hyperledger.besu.evm.worldstate.UpdateTrackingAccount;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * The state every transaction of a block starts from, as described by the block access list.
+ *
+ * <p>The block access list gives the value written by each transaction to every account field and
+ * storage slot. The state before transaction {@code n} is therefore known without executing the
+ * transactions before it: it is the state at the start of the block updated with the last value
+ * written by the transactions {@code 0..n-1}. This removes every dependency between the
+ * transactions, which can all be executed concurrently without speculation, as long as each of
+ * them writes exactly what the block access list announces.
+ */
+public class BlockAccessListPreState {
+
+  private final BlockAccessList blockAccessList;
+  private final Map<Integer, Set<StateWrite>> writesByTransaction = new HashMap<>();
+
+  public BlockAccessListPreState(final BlockAccessList blockAccessList) {
+    this.blockAccessList = blockAccessList;
+    for (final AccountChanges accountChanges : blockAccessList.getAccountChanges()) {
+      final Address address = accountChanges.address();
+      accountChanges
+          .balanceChanges()
+          .forEach(
+              change ->
+                  addWrite(
+                      change.txIndex(), new BalanceWrite(address, toWei(change.postBalance()))));
+      accountChanges
+          .nonceChanges()
+          .forEach(
+              change -> addWrite(change.txIndex(), new NonceWrite(address, change.newNonce())));
+      accountChanges
+          .codeChanges()
+          .forEach(change -> addWrite(change.txIndex(), new CodeWrite(address, change.newCode())));
+      for (final SlotChanges slotChanges : accountChanges.storageChanges()) {
+        slotChanges
+            .changes()
+            .forEach(
+                change ->
+                    addWrite(
+                        change.txIndex(),
+                        new SlotWrite(address, slotChanges.slot(), change.newValue())));
+      }
+    }
+  }
+
+  /**
+   * Applies to the updater the values written by the transactions before the given one.
+   *
+   * @param updater the updater holding the state at the start of the block
+   * @param transactionLocation the location of the transaction in the block
+   */
+  public void applyTo(final WorldUpdater updater, final int transactionLocation) {
+    for (final AccountChanges accountChanges : blockAccessList.getAccountChanges()) {
+      final Optional<BalanceChange> balance =
+          lastBefore(accountChanges.balanceChanges(), BalanceChange::txIndex, transactionLocation);
+      final Optional<NonceChange> nonce =
+          lastBefore(accountChanges.nonceChanges(), NonceChange::txIndex, transactionLocation);
+      final Optional<CodeChange> code =
+          lastBefore(accountChanges.codeChanges(), CodeChange::txIndex, transactionLocation);
+      final Map<UInt256, UInt256> storage = new HashMap<>();
+      for (final SlotChanges slotChanges : accountChanges.storageChanges()) {
+        lastBefore(slotChanges.changes(), StorageChange::txIndex, transactionLocation)
+            .ifPresent(
+                change ->
+                    storage.put(slotChanges.slot().getSlotKey().orElseThrow(), change.newValue()));
+      }
+      if (balance.isEmpty() && nonce.isEmpty() && code.isEmpty() && storage.isEmpty()) {
+        continue;
+      }
+      final MutableAccount account = updater.getOrCreate(accountChanges.address());
+      balance.ifPresent(change -> account.setBalance(toWei(change.postBalance())));
+      nonce.ifPresent(change -> account.setNonce(change.newNonce()));
+      code.ifPresent(change -> account.setCode(change.newCode()));
+      storage.forEach(account::setStorageValue);
+    }
+  }
+
+  /**
+   * Checks that a transaction executed on its pre-state wrote exactly what the block access list
+   * announces for it. Otherwise, the pre-state of the following transactions cannot be trusted.
+   *
+   * @param transactionLocation the location of the transaction in the block
+   * @param transactionUpdater the updater holding the changes of the transaction, whose wrapped
+   *     accounts still give access to the pre-state
+   * @return true if the writes of the transaction match the block access list
+   */
+  public boolean matchesWrites(
+      final int transactionLocation, final AbstractWorldUpdater<?, ?> transactionUpdater) {
+    if (!transactionUpdater.getDeletedAccountAddresses().isEmpty()) {
+      // the block access list has no way to describe a deletion
+      return false;
+    }
+    final Set<StateWrite> writes = new HashSet<>();
+    for (final UpdateTrackingAccount<?> updated : transactionUpdater.getUpdatedAccounts()) {
+      if (updated.getStorageWasCleared()) {
+        return false;
+      }
+      final Address address = updated.getAddress();
+      final Account prior = updated.getWrappedAccount();
+      if (!updated.getBalance().equals(prior == null ? Wei.ZERO : prior.getBalance())) {
+        writes.add(new BalanceWrite(address, updated.getBalance()));
+      }
+      if (updated.getNonce() != (prior == null ? 0L : prior.getNonce())) {
+        writes.add(new NonceWrite(address, updated.getNonce()));
+      }
+      if (updated.codeWasUpdated()
+          && !updated.getCode().equals(prior == null ? Bytes.EMPTY : prior.getCode())) {
+        writes.add(new CodeWrite(address, updated.getCode()));
+      }
+      for (final Map.Entry<UInt256, UInt256> slot : updated.getUpdatedStorage().entrySet()) {
+        final UInt256 priorValue =
+            prior == null ? UInt256.ZERO : prior.getStorageValue(slot.getKey());
+        if (!slot.getValue().equals(priorValue)) {
+          writes.add(new SlotWrite(address, new StorageSlotKey(slot.getKey()), slot.getValue()));
+        }
+      }
+    }
+    return writes.equals(writesByTransaction.getOrDefault(transactionLocation, Set.of()));
+  }
+
+  /**
+   * Returns every storage slot listed in the block access list, read or written, by account.
+   * Accounts listed without any slot are mapped to an empty set.
+   *
+   * @return the listed storage slots by account
+   */
+  public Map<Address, Set<UInt256>> getListedSlots() {
+    final Map<Address, Set<UInt256>> slots = new HashMap<>();
+    for (final AccountChanges accountChanges : blockAccessList.getAccountChanges()) {
+      final Set<UInt256> accountSlots =
+          slots.computeIfAbsent(accountChanges.address(), __ -> new HashSet<>());
+      accountChanges.storageChanges().stream()
+          .map(SlotChanges::slot)
+          .forEach(slot -> slot.getSlotKey().ifPresent(accountSlots::add));
+      accountChanges.storageReads().stream()
+          .map(SlotRead::slot)
+          .forEach(slot -> slot.getSlotKey().ifPresent(accountSlots::add));
+    }
+    return slots;
+  }
+
+  private void addWrite(final int transactionLocation, final StateWrite write) {
+    writesByTransaction.computeIfAbsent(transactionLocation, __ -> new HashSet<>()).add(write);
+  }
+
+  private static <T> Optional<T> lastBefore(
+      final List<T> changes, final ToIntFunction<T> txIndex, final int transactionLocation) {
+    T last = null;
+    for (final T change : changes) {
+      final int index = txIndex.applyAsInt(change);
+      if (index < transactionLocation && (last == null || index >= txIndex.applyAsInt(last))) {
+        last = change;
+      }
+    }
+    return Optional.ofNullable(last);
+  }
+
+  private static Wei toWei(final Bytes postBalance) {
+    return Wei.fromHexString(postBalance.toHexString());
+  }
+
+  private sealed interface StateWrite {}
+
+  private record BalanceWrite(Address address, Wei balance) implements StateWrite {}
+
+  private record NonceWrite(Address address, long nonce) implements StateWrite {}
+
+  private record CodeWrite(Address address, Bytes code) implements StateWrite {}
+
+  private record SlotWrite(Address address, StorageSlotKey slot, UInt256 value)
+      implements StateWrite {}
+}
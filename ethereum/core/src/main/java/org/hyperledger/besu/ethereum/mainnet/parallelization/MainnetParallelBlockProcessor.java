@@ -38,6 +38,7 @@ import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.Histogram;
 
 import java.util.Optional;
 import java.util.concurrent.Executor;
@@ -52,6 +53,9 @@ public class MainnetParallelBlockProcessor extends MainnetBlockProcessor {
 
   private final Optional<Counter> confirmedParallelizedTransactionCounter;
   private final Optional<Counter> conflictingButCachedTransactionCounter;
+  private final Optional<Counter> reExecutedTransactionCounter;
+  private final Optional<Counter> blockAccessListTransactionCounter;
+  private final Histogram parallelizedTransactionsRatio;
 
   private static final int NCPU = Runtime.getRuntime().availableProcessors();
   private static final Executor executor = Executors.newFixedThreadPool(NCPU);
@@ -84,6 +88,27 @@ public class MainnetParallelBlockProcessor extends MainnetBlockProcessor {
                 BesuMetricCategory.BLOCK_PROCESSING,
                 "conflicted_transactions_counter",
                 "Counter for the number of conflicted transactions during block processing"));
+
+    this.reExecutedTransactionCounter =
+        Optional.of(
+            metricsSystem.createCounter(
+                BesuMetricCategory.BLOCK_PROCESSING,
+                "reexecuted_transactions_counter",
+                "Counter for the number of conflicted transactions re-executed in parallel"));
+
+    this.blockAccessListTransactionCounter =
+        Optional.of(
+            metricsSystem.createCounter(
+                BesuMetricCategory.BLOCK_PROCESSING,
+                "block_access_list_parallelized_transactions_counter",
+                "Counter for the number of transactions executed on the block access list state"));
+
+    this.parallelizedTransactionsRatio =
+        metricsSystem.createHistogram(
+            BesuMetricCategory.BLOCK_PROCESSING,
+            "parallelized_transactions_ratio",
+            "Share of the transactions of each block whose parallel execution result was used",
+            new double[] {0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9, 1.0});
   }
 
   @Override
@@ -98,14 +123,14 @@ public class MainnetParallelBlockProcessor extends MainnetBlockProcessor {
       final BlockHashLookup blockHashLookup,
       final Optional<TransactionAccessList> transactionAccessList) {
 
-    TransactionProcessingResult transactionProcessingResult = null;
-
     if (preProcessingContext.isPresent()) {
-      final ParallelizedPreProcessingContext parallelizedPreProcessingContext =
-          (ParallelizedPreProcessingContext) preProcessingContext.get();
-      transactionProcessingResult =
-          parallelizedPreProcessingContext
-              .parallelizedConcurrentTransactionProcessor()
+      final ParallelizedConcurrentTransactionProcessor parallelizedConcurrentTransactionProcessor =
+          ((ParallelizedPreProcessingContext) preProcessingContext.get())
+              .parallelizedConcurrentTransactionProcessor();
+      parallelizedConcurrentTransactionProcessor.scheduleReExecutions(
+          blockProcessingContext.getWorldState(), location);
+      TransactionProcessingResult transactionProcessingResult =
+          parallelizedConcurrentTransactionProcessor
               .applyParallelizedTransactionResult(
                   blockProcessingContext.getWorldState(),
                   miningBeneficiary,
@@ -113,23 +138,43 @@ public class MainnetParallelBlockProcessor extends MainnetBlockProcessor {
                   location,
                   confirmedParallelizedTransactionCounter,
                   conflictingButCachedTransactionCounter)
+              .or(
+                  () ->
+                      parallelizedConcurrentTransactionProcessor.applyReExecutedTransactionResult(
+                          transactionUpdater,
+                          miningBeneficiary,
+                          location,
+                          reExecutedTransactionCounter,
+                          blockAccessListTransactionCounter))
               .orElse(null);
-    }
-
-    if (transactionProcessingResult == null) {
-      return super.getTransactionProcessingResult(
-          preProcessingContext,
-          blockProcessingContext,
-          transactionUpdater,
-          blobGasPrice,
-          miningBeneficiary,
-          transaction,
-          location,
-          blockHashLookup,
-          transactionAccessList);
-    } else {
+      if (transactionProcessingResult == null) {
+        transactionProcessingResult =
+            super.getTransactionProcessingResult(
+                preProcessingContext,
+                blockProcessingContext,
+                transactionUpdater,
+                blobGasPrice,
+                miningBeneficiary,
+                transaction,
+                location,
+                blockHashLookup,
+                transactionAccessList);
+        parallelizedConcurrentTransactionProcessor.recordTransactionWrites(
+            location, transactionUpdater);
+      }
       return transactionProcessingResult;
     }
+
+    return super.getTransactionProcessingResult(
+        preProcessingContext,
+        blockProcessingContext,
+        transactionUpdater,
+        blobGasPrice,
+        miningBeneficiary,
+        transaction,
+        location,
+        blockHashLookup,
+        transactionAccessList);
   }
 
   @Override
@@ -144,7 +189,11 @@ public class MainnetParallelBlockProcessor extends MainnetBlockProcessor {
             blockchain,
             worldState,
             block,
-            new ParallelTransactionPreprocessing(transactionProcessor, executor));
+            new ParallelTransactionPreprocessing(
+                transactionProcessor,
+                executor,
+                Optional.of(worldState),
+                block.getBody().getBlockAccessList()));
 
     if (blockProcessingResult.isFailed()) {
       // Fallback to non-parallel processing if there is a block processing exception .
@@ -157,6 +206,12 @@ public class MainnetParallelBlockProcessor extends MainnetBlockProcessor {
       }
       return super.processBlock(protocolContext, blockchain, worldState, block);
     }
+    final int transactionCount = block.getBody().getTransactions().size();
+    if (transactionCount > 0) {
+      parallelizedTransactionsRatio.observe(
+          blockProcessingResult.getNbParallelizedTransactions().orElse(0)
+              / (double) transactionCount);
+    }
     return blockProcessingResult;
   }
 
@@ -0,0 +1,174 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedAccount;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.evm.worldstate.AbstractWorldUpdater;
+import org.hyperledger.besu.evm.worldstate.UpdateTrackingAccount;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks, for every account and storage slot written so far in a block, the location of the last
+ * transaction that wrote it.
+ *
+ * <p>This is the version information of a multi-version state: a transaction speculatively executed
+ * on the block state as it was before transaction {@code base} only observed the versions written
+ * by transactions {@code 0..base-1}. Its result can be reused for transaction {@code location} if
+ * none of the entries it read was written by the transactions {@code base..location-1}.
+ *
+ * <p>The index is only accessed by the thread processing the block.
+ */
+public class MultiVersionStateIndex {
+
+  private static final int NEVER = -1;
+
+  private final Map<Address, Integer> accountWrites = new HashMap<>();
+  private final Map<Address, Map<StorageSlotKey, Integer>> storageWrites = new HashMap<>();
+  private final Map<Address, Integer> storageClears = new HashMap<>();
+  private int untrackedWrite = NEVER;
+
+  /**
+   * Records the writes of a transaction that are buffered in an updater, before it is committed.
+   *
+   * @param location the location of the transaction in the block
+   * @param transactionUpdater the updater holding the changes of the transaction
+   */
+  public void recordWrites(
+      final int location, final AbstractWorldUpdater<?, ?> transactionUpdater) {
+    for (final Address deleted : transactionUpdater.getDeletedAccountAddresses()) {
+      accountWrites.put(deleted, location);
+      storageClears.put(deleted, location);
+    }
+    for (final UpdateTrackingAccount<?> updated : transactionUpdater.getUpdatedAccounts()) {
+      final Address address = updated.getAddress();
+      accountWrites.put(address, location);
+      if (updated.getStorageWasCleared()) {
+        storageClears.put(address, location);
+      }
+      if (!updated.getUpdatedStorage().isEmpty()) {
+        final Map<StorageSlotKey, Integer> slots =
+            storageWrites.computeIfAbsent(address, __ -> new HashMap<>());
+        updated
+            .getUpdatedStorage()
+            .keySet()
+            .forEach(slotKey -> slots.put(new StorageSlotKey(slotKey), location));
+      }
+    }
+  }
+
+  /**
+   * Records the writes of a speculatively executed transaction from its own accumulator.
+   *
+   * @param location the location of the transaction in the block
+   * @param transactionAccumulator the accumulator the transaction was executed in
+   */
+  public void recordWrites(
+      final int location, final PathBasedWorldStateUpdateAccumulator<?> transactionAccumulator) {
+    transactionAccumulator
+        .getAccountsToUpdate()
+        .forEach(
+            (address, value) -> {
+              if (isAccountChanged(value)) {
+                accountWrites.put(address, location);
+              }
+            });
+    transactionAccumulator
+        .getStorageToClear()
+        .forEach(address -> storageClears.put(address, location));
+    transactionAccumulator
+        .getStorageToUpdate()
+        .forEach(
+            (address, slots) ->
+                slots.forEach(
+                    (slotKey, value) -> {
+                      if (!value.isUnchanged()) {
+                        storageWrites
+                            .computeIfAbsent(address, __ -> new HashMap<>())
+                            .put(slotKey, location);
+                      }
+                    }));
+  }
+
+  /**
+   * Records a write to a single account, e.g. the mining beneficiary reward.
+   *
+   * @param location the location of the transaction in the block
+   * @param address the written account
+   */
+  public void recordAccountWrite(final int location, final Address address) {
+    accountWrites.put(address, location);
+  }
+
+  /**
+   * Records that a transaction wrote state that could not be tracked. Every speculative result
+   * executed before it is then considered stale.
+   *
+   * @param location the location of the transaction in the block
+   */
+  public void recordUntrackedWrites(final int location) {
+    untrackedWrite = location;
+  }
+
+  /**
+   * Checks that nothing in the read set was written by a transaction at or after {@code base}.
+   *
+   * @param readSet what the speculative execution read
+   * @param base the location of the first transaction not included in the executed-on state
+   * @return true if the speculative result is still valid
+   */
+  public boolean isValid(final TransactionReadSet readSet, final int base) {
+    if (untrackedWrite >= base) {
+      return false;
+    }
+    for (final Address address : readSet.getAccounts()) {
+      if (accountWrites.getOrDefault(address, NEVER) >= base) {
+        return false;
+      }
+    }
+    for (final Map.Entry<Address, Set<StorageSlotKey>> entry : readSet.getStorage().entrySet()) {
+      final Address address = entry.getKey();
+      if (storageClears.getOrDefault(address, NEVER) >= base) {
+        return false;
+      }
+      final Map<StorageSlotKey, Integer> slots = storageWrites.get(address);
+      if (slots != null) {
+        for (final StorageSlotKey slotKey : entry.getValue()) {
+          if (slots.getOrDefault(slotKey, NEVER) >= base) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isAccountChanged(final PathBasedValue<? extends PathBasedAccount> value) {
+    final PathBasedAccount prior = value.getPrior();
+    final PathBasedAccount updated = value.getUpdated();
+    if (prior == null || updated == null) {
+      return prior != updated || value.isLastStepCleared();
+    }
+    return prior.getNonce() != updated.getNonce()
+        || !prior.getBalance().equals(updated.getBalance())
+        || !prior.getCodeHash().equals(updated.getCodeHash());
+  }
+}
@@ -18,12 +18,15 @@ import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.mainnet.AbstractBlockProcessor.PreprocessingContext;
 import org.hyperledger.besu.ethereum.mainnet.AbstractBlockProcessor.PreprocessingFunction;
 import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
 import org.hyperledger.besu.ethereum.mainnet.parallelization.MainnetParallelBlockProcessor.ParallelizedPreProcessingContext;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.PathBasedWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
 
 import java.util.List;
@@ -34,11 +37,23 @@ public class ParallelTransactionPreprocessing implements PreprocessingFunction {
 
   private final MainnetTransactionProcessor transactionProcessor;
   private final Executor executor;
+  private final Optional<MutableWorldState> worldState;
+  private final Optional<BlockAccessList> blockAccessList;
 
   public ParallelTransactionPreprocessing(
       final MainnetTransactionProcessor transactionProcessor, final Executor executor) {
+    this(transactionProcessor, executor, Optional.empty(), Optional.empty());
+  }
+
+  public ParallelTransactionPreprocessing(
+      final MainnetTransactionProcessor transactionProcessor,
+      final Executor executor,
+      final Optional<MutableWorldState> worldState,
+      final Optional<BlockAccessList> blockAccessList) {
     this.transactionProcessor = transactionProcessor;
     this.executor = executor;
+    this.worldState = worldState;
+    this.blockAccessList = blockAccessList;
   }
 
   @Override
@@ -52,16 +67,32 @@ public class ParallelTransactionPreprocessing implements PreprocessingFunction {
     if ((protocolContext.getWorldStateArchive() instanceof PathBasedWorldStateProvider)) {
       ParallelizedConcurrentTransactionProcessor parallelizedConcurrentTransactionProcessor =
           new ParallelizedConcurrentTransactionProcessor(transactionProcessor);
-      // runAsyncBlock, if activated, facilitates the non-blocking parallel execution
-      // of transactions in the background through an optimistic strategy.
-      parallelizedConcurrentTransactionProcessor.runAsyncBlock(
-          protocolContext,
-          blockHeader,
-          transactions,
-          miningBeneficiary,
-          blockHashLookup,
-          blobGasPrice,
-          executor);
+      if (blockAccessList.isPresent()
+          && worldState.filter(PathBasedWorldState.class::isInstance).isPresent()) {
+        // the block access list gives the exact state each transaction starts from, so they can
+        // all be executed in parallel without speculation.
+        parallelizedConcurrentTransactionProcessor.runAsyncBlockWithAccessList(
+            protocolContext,
+            blockHeader,
+            transactions,
+            miningBeneficiary,
+            blockHashLookup,
+            blobGasPrice,
+            executor,
+            worldState.get(),
+            blockAccessList.get());
+      } else {
+        // runAsyncBlock, if activated, facilitates the non-blocking parallel execution
+        // of transactions in the background through an optimistic strategy.
+        parallelizedConcurrentTransactionProcessor.runAsyncBlock(
+            protocolContext,
+            blockHeader,
+            transactions,
+            miningBeneficiary,
+            blockHashLookup,
+            blobGasPrice,
+            executor);
+      }
       return Optional.of(
           new ParallelizedPreProcessingContext(parallelizedConcurrentTransactionProcessor));
     }
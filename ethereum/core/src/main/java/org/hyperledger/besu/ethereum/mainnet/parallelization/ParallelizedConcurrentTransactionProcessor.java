@@ -22,30 +22,53 @@ import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
 import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.WorldStateQueryParams;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.evm.account.MutableAccount;
 import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
 import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.AbstractWorldUpdater;
+import org.hyperledger.besu.evm.worldstate.StackedUpdater;
+import org.hyperledger.besu.evm.worldstate.UpdateTrackingAccount;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 import org.hyperledger.besu.evm.worldstate.WorldView;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.tuweni.units.bigints.UInt256;
 
 /**
  * Optimizes transaction processing by executing transactions in parallel within a given block.
  * Transactions are executed optimistically in a non-blocking manner. After execution, the class
  * checks for potential conflicts among transactions to ensure data integrity before applying the
  * results to the world state.
+ *
+ * <p>When a conflict is detected, the transactions that follow it are re-executed in parallel on a
+ * snapshot of the block state, in the spirit of Block-STM. Each re-execution records its read set,
+ * and its result is reused only if none of the accounts and slots it read was written by the
+ * transactions applied after the snapshot, as tracked by the {@link MultiVersionStateIndex}.
+ *
+ * <p>When the block carries a block access list, no speculation is needed: every transaction is
+ * executed on the exact state it starts from, derived from the block access list by {@link
+ * BlockAccessListPreState}, and the results stay valid as long as the writes applied to the block
+ * match the block access list.
  */
 @SuppressWarnings({"unchecked", "rawtypes"})
 public class ParallelizedConcurrentTransactionProcessor {
@@ -59,6 +82,25 @@ public class ParallelizedConcurrentTransactionProcessor {
 
   private CompletableFuture<Void>[] completableFuturesForBackgroundTransactions;
 
+  private static final int RE_EXECUTION_WINDOW = Runtime.getRuntime().availableProcessors();
+  private static final int PREFETCH_BATCH_SIZE = 64;
+
+  // only accessed by the thread processing the block
+  private final MultiVersionStateIndex multiVersionStateIndex = new MultiVersionStateIndex();
+  private final Map<Integer, CompletableFuture<ReExecutedTransactionContext>>
+      reExecutedTransactionContextByLocation = new HashMap<>();
+  private boolean hasPendingConflict;
+  private Optional<BlockAccessListPreState> blockAccessListPreState = Optional.empty();
+  private boolean isBlockAccessListConsistent = true;
+
+  private ProtocolContext protocolContext;
+  private BlockHeader blockHeader;
+  private List<Transaction> transactions;
+  private Address miningBeneficiary;
+  private BlockHashLookup blockHashLookup;
+  private Wei blobGasPrice;
+  private Executor executor;
+
   /**
    * Constructs a PreloadConcurrentTransactionProcessor with a specified transaction processor. This
    * processor is responsible for the individual processing of transactions.
@@ -102,6 +144,13 @@ public class ParallelizedConcurrentTransactionProcessor {
       final BlockHashLookup blockHashLookup,
       final Wei blobGasPrice,
       final Executor executor) {
+    this.protocolContext = protocolContext;
+    this.blockHeader = blockHeader;
+    this.transactions = transactions;
+    this.miningBeneficiary = miningBeneficiary;
+    this.blockHashLookup = blockHashLookup;
+    this.blobGasPrice = blobGasPrice;
+    this.executor = executor;
 
     completableFuturesForBackgroundTransactions = new CompletableFuture[transactions.size()];
     for (int i = 0; i < transactions.size(); i++) {
@@ -124,6 +173,93 @@ public class ParallelizedConcurrentTransactionProcessor {
     }
   }
 
+  /**
+   * Executes all the transactions of a block in parallel, each one on the state it starts from as
+   * described by the block access list of the block. The accounts and slots listed in the block
+   * access list are first loaded in batches into the block accumulator, so that neither these
+   * executions nor the block processing read them from the database again.
+   *
+   * @param protocolContext the current context of the protocol
+   * @param blockHeader Header of the current block containing the transactions.
+   * @param transactions List of transactions to be processed.
+   * @param miningBeneficiary Address of the beneficiary to receive mining rewards.
+   * @param blockHashLookup Function for block hash lookup.
+   * @param blobGasPrice Gas price for blob transactions.
+   * @param executor The executor to use for asynchronous execution.
+   * @param worldState the world state of the block, once the pre-execution system calls are done
+   * @param blockAccessList the block access list of the block
+   */
+  public void runAsyncBlockWithAccessList(
+      final ProtocolContext protocolContext,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary,
+      final BlockHashLookup blockHashLookup,
+      final Wei blobGasPrice,
+      final Executor executor,
+      final MutableWorldState worldState,
+      final BlockAccessList blockAccessList) {
+    this.protocolContext = protocolContext;
+    this.blockHeader = blockHeader;
+    this.transactions = transactions;
+    this.miningBeneficiary = miningBeneficiary;
+    this.blockHashLookup = blockHashLookup;
+    this.blobGasPrice = blobGasPrice;
+    this.executor = executor;
+    completableFuturesForBackgroundTransactions = new CompletableFuture[transactions.size()];
+
+    final BlockAccessListPreState preState = new BlockAccessListPreState(blockAccessList);
+    this.blockAccessListPreState = Optional.of(preState);
+    final PathBasedWorldStateUpdateAccumulator blockAccumulator =
+        (PathBasedWorldStateUpdateAccumulator) ((PathBasedWorldState) worldState).updater();
+    prefetch(blockAccumulator, preState.getListedSlots());
+
+    final PathBasedWorldStateUpdateAccumulator<?> snapshot = blockAccumulator.detachedCopy();
+    for (int i = 0; i < transactions.size(); i++) {
+      final int transactionLocation = i;
+      reExecutedTransactionContextByLocation.put(
+          transactionLocation,
+          CompletableFuture.supplyAsync(
+              () ->
+                  reExecuteTransaction(
+                      snapshot, transactionLocation, transactionLocation, Optional.of(preState)),
+              executor));
+    }
+  }
+
+  private void prefetch(
+      final PathBasedWorldStateUpdateAccumulator blockAccumulator,
+      final Map<Address, Set<UInt256>> slotsByAccount) {
+    final List<Map.Entry<Address, Set<UInt256>>> entries =
+        new ArrayList<>(slotsByAccount.entrySet());
+    final List<CompletableFuture<PathBasedWorldStateUpdateAccumulator<?>>> batches =
+        new ArrayList<>();
+    for (int from = 0; from < entries.size(); from += PREFETCH_BATCH_SIZE) {
+      final List<Map.Entry<Address, Set<UInt256>>> batch =
+          entries.subList(from, Math.min(entries.size(), from + PREFETCH_BATCH_SIZE));
+      batches.add(
+          CompletableFuture.supplyAsync(
+              () -> withChainHeadWorldState(ws -> readBatch(ws, batch)), executor));
+    }
+    for (final CompletableFuture<PathBasedWorldStateUpdateAccumulator<?>> batch : batches) {
+      final PathBasedWorldStateUpdateAccumulator<?> batchAccumulator = batch.join();
+      if (batchAccumulator != null) {
+        blockAccumulator.importPriorStateFromSource(batchAccumulator);
+      }
+    }
+  }
+
+  private static PathBasedWorldStateUpdateAccumulator<?> readBatch(
+      final BonsaiWorldState ws, final List<Map.Entry<Address, Set<UInt256>>> batch) {
+    final PathBasedWorldStateUpdateAccumulator<?> batchAccumulator =
+        (PathBasedWorldStateUpdateAccumulator<?>) ws.updater();
+    for (final Map.Entry<Address, Set<UInt256>> entry : batch) {
+      batchAccumulator.get(entry.getKey());
+      entry.getValue().forEach(slot -> batchAccumulator.getStorageValue(entry.getKey(), slot));
+    }
+    return batchAccumulator;
+  }
+
   @VisibleForTesting
   public void runTransaction(
       final ProtocolContext protocolContext,
@@ -258,6 +394,8 @@ public class ParallelizedConcurrentTransactionProcessor {
         }
 
         blockAccumulator.importStateChangesFromSource(transactionAccumulator);
+        multiVersionStateIndex.recordWrites(transactionLocation, transactionAccumulator);
+        multiVersionStateIndex.recordAccountWrite(transactionLocation, miningBeneficiary);
 
         if (confirmedParallelizedTransactionCounter.isPresent()) {
           confirmedParallelizedTransactionCounter.get().inc();
@@ -267,6 +405,7 @@ public class ParallelizedConcurrentTransactionProcessor {
         return Optional.of(transactionProcessingResult);
       } else {
         blockAccumulator.importPriorStateFromSource(transactionAccumulator);
+        hasPendingConflict = true;
         if (conflictingButCachedTransactionCounter.isPresent())
           conflictingButCachedTransactionCounter.get().inc();
         // If there is a conflict, we return an empty result to signal the block processor to
@@ -283,4 +422,260 @@ public class ParallelizedConcurrentTransactionProcessor {
     }
     return Optional.empty();
   }
+
+  /**
+   * Schedules the re-execution of the upcoming transactions whose optimistic result is known to be
+   * stale, if a conflict was detected since the last call. The re-executions run in parallel on a
+   * snapshot of the block state containing all the transactions before {@code
+   * transactionLocation}.
+   *
+   * @param worldState the world state of the block being processed
+   * @param transactionLocation the location of the next transaction to be applied
+   */
+  public void scheduleReExecutions(
+      final MutableWorldState worldState, final int transactionLocation) {
+    if (!hasPendingConflict || transactions == null) {
+      return;
+    }
+    hasPendingConflict = false;
+    final PathBasedWorldStateUpdateAccumulator blockAccumulator =
+        (PathBasedWorldStateUpdateAccumulator) ((PathBasedWorldState) worldState).updater();
+    final List<Integer> staleLocations = new ArrayList<>();
+    final int end = Math.min(transactions.size(), transactionLocation + 1 + RE_EXECUTION_WINDOW);
+    for (int location = transactionLocation + 1; location < end; location++) {
+      if (isKnownStale(location, blockAccumulator)) {
+        staleLocations.add(location);
+      }
+    }
+    if (staleLocations.isEmpty()) {
+      return;
+    }
+    final PathBasedWorldStateUpdateAccumulator<?> snapshot = blockAccumulator.detachedCopy();
+    for (final int location : staleLocations) {
+      reExecutedTransactionContextByLocation.put(
+          location,
+          CompletableFuture.supplyAsync(
+              () ->
+                  reExecuteTransaction(snapshot, transactionLocation, location, Optional.empty()),
+              executor));
+    }
+  }
+
+  private boolean isKnownStale(
+      final int transactionLocation, final PathBasedWorldStateUpdateAccumulator blockAccumulator) {
+    final CompletableFuture<ReExecutedTransactionContext> reExecution =
+        reExecutedTransactionContextByLocation.get(transactionLocation);
+    if (reExecution != null) {
+      // a re-execution still running may be valid, a failed one would fail again
+      final ReExecutedTransactionContext context =
+          reExecution.isDone() ? reExecution.getNow(null) : null;
+      return context != null && !isValid(context);
+    }
+    final ParallelizedTransactionContext parallelizedTransactionContext =
+        parallelizedTransactionContextByLocation.get(transactionLocation);
+    return parallelizedTransactionContext != null
+        && (!parallelizedTransactionContext.transactionProcessingResult().isSuccessful()
+            || transactionCollisionDetector.hasCollision(
+                transactions.get(transactionLocation),
+                miningBeneficiary,
+                parallelizedTransactionContext,
+                blockAccumulator));
+  }
+
+  private ReExecutedTransactionContext reExecuteTransaction(
+      final PathBasedWorldStateUpdateAccumulator<?> snapshot,
+      final int base,
+      final int transactionLocation,
+      final Optional<BlockAccessListPreState> preState) {
+    return withChainHeadWorldState(
+        ws -> {
+          final PathBasedWorldStateUpdateAccumulator stateUpdater =
+              (PathBasedWorldStateUpdateAccumulator) ws.updater();
+          stateUpdater.importStateChangesFromSource(snapshot);
+          preState.ifPresent(
+              blockAccessList -> {
+                blockAccessList.applyTo(stateUpdater, transactionLocation);
+                stateUpdater.commit();
+              });
+          final TransactionReadSet readSet = new TransactionReadSet();
+          stateUpdater.setReadListener(readSet);
+          // the changes of the transaction are kept apart so they can be replayed
+          final StackedUpdater<?, ?> transactionUpdater =
+              new StackedUpdater<>(stateUpdater, stateUpdater.getEvmConfiguration());
+          final AtomicReference<Wei> miningBeneficiaryReward = new AtomicReference<>(Wei.ZERO);
+          final AtomicBoolean isMiningBeneficiaryTouchedPreReward = new AtomicBoolean();
+          final Transaction transaction = transactions.get(transactionLocation);
+          final TransactionProcessingResult result =
+              transactionProcessor.processTransaction(
+                  transactionUpdater,
+                  blockHeader,
+                  transaction.detachedCopy(),
+                  miningBeneficiary,
+                  new OperationTracer() {
+                    @Override
+                    public void traceBeforeRewardTransaction(
+                        final WorldView worldView,
+                        final org.hyperledger.besu.datatypes.Transaction tx,
+                        final Wei miningReward) {
+                      isMiningBeneficiaryTouchedPreReward.set(
+                          readSet.containsAccount(miningBeneficiary));
+                      miningBeneficiaryReward.set(miningReward);
+                      // the reward is credited when the result is applied
+                      stateUpdater.setReadListener(null);
+                    }
+                  },
+                  blockHashLookup,
+                  TransactionValidationParams.processingBlock(),
+                  blobGasPrice);
+          return new ReExecutedTransactionContext(
+              base,
+              readSet,
+              transactionUpdater,
+              result,
+              miningBeneficiaryReward.get(),
+              isMiningBeneficiaryTouchedPreReward.get(),
+              preState.isPresent());
+        });
+  }
+
+  private <T> T withChainHeadWorldState(final Function<BonsaiWorldState, T> action) {
+    final BlockHeader chainHeadHeader = protocolContext.getBlockchain().getChainHeadHeader();
+    if (!chainHeadHeader.getHash().equals(blockHeader.getParentHash())) {
+      return null;
+    }
+    try (BonsaiWorldState ws =
+        (BonsaiWorldState)
+            protocolContext
+                .getWorldStateArchive()
+                .getWorldState(
+                    WorldStateQueryParams.withBlockHeaderAndNoUpdateNodeHead(chainHeadHeader))
+                .orElse(null)) {
+      if (ws == null) {
+        return null;
+      }
+      ws.disableCacheMerkleTrieLoader();
+      return action.apply(ws);
+    } catch (Exception ex) {
+      // no op as failing to get worldstate
+      return null;
+    }
+  }
+
+  private boolean isValid(final ReExecutedTransactionContext context) {
+    if (context.isSeededFromBlockAccessList()) {
+      // the pre-state is exact as long as the previous transactions wrote what was announced
+      return isBlockAccessListConsistent;
+    }
+    return multiVersionStateIndex.isValid(context.readSet(), context.base());
+  }
+
+  /**
+   * Applies the result of a transaction re-executed after a conflict, if nothing it read was
+   * written since the snapshot it was executed on. The changes are replayed onto the transaction
+   * updater, so they are committed by the block processor as if the transaction ran sequentially.
+   *
+   * @param transactionUpdater the updater of the transaction in the block being processed
+   * @param miningBeneficiary Address of the beneficiary for mining rewards.
+   * @param transactionLocation Index of the transaction within the block.
+   * @param reExecutedTransactionCounter Metric counter for re-executed transactions
+   * @param blockAccessListTransactionCounter Metric counter for transactions executed on the state
+   *     described by the block access list
+   * @return Optional containing the transaction processing result if applied, or empty if the
+   *     transaction needs to be executed sequentially.
+   */
+  public Optional<TransactionProcessingResult> applyReExecutedTransactionResult(
+      final WorldUpdater transactionUpdater,
+      final Address miningBeneficiary,
+      final int transactionLocation,
+      final Optional<Counter> reExecutedTransactionCounter,
+      final Optional<Counter> blockAccessListTransactionCounter) {
+    final CompletableFuture<ReExecutedTransactionContext> reExecution =
+        reExecutedTransactionContextByLocation.remove(transactionLocation);
+    if (reExecution == null) {
+      return Optional.empty();
+    }
+    final ReExecutedTransactionContext context = reExecution.join();
+    if (context == null
+        || !context.transactionProcessingResult().isSuccessful()
+        || !isValid(context)) {
+      hasPendingConflict = true;
+      return Optional.empty();
+    }
+
+    final AbstractWorldUpdater<?, ?> reExecutionUpdater = context.transactionUpdater();
+    reExecutionUpdater.getDeletedAccountAddresses().forEach(transactionUpdater::deleteAccount);
+    for (final UpdateTrackingAccount<?> updated : reExecutionUpdater.getUpdatedAccounts()) {
+      final Address address = updated.getAddress();
+      if (address.equals(miningBeneficiary)
+          && !context.isMiningBeneficiaryTouchedPreRewardByTransaction()) {
+        continue;
+      }
+      MutableAccount account = transactionUpdater.getAccount(address);
+      if (account == null) {
+        account = transactionUpdater.createAccount(address);
+      }
+      account.setNonce(updated.getNonce());
+      account.setBalance(updated.getBalance());
+      if (updated.codeWasUpdated()) {
+        account.setCode(updated.getCode());
+      }
+      if (updated.getStorageWasCleared()) {
+        account.clearStorage();
+      }
+      updated.getUpdatedStorage().forEach(account::setStorageValue);
+    }
+    // the reward was already replayed with the account if the transaction read it beforehand
+    if (!context.isMiningBeneficiaryTouchedPreRewardByTransaction()) {
+      final Wei reward = context.miningBeneficiaryReward();
+      if (!reward.isZero() || !transactionProcessor.getClearEmptyAccounts()) {
+        transactionUpdater.getOrCreate(miningBeneficiary).incrementBalance(reward);
+      }
+    }
+    recordTransactionWrites(transactionLocation, transactionUpdater);
+
+    final TransactionProcessingResult transactionProcessingResult =
+        context.transactionProcessingResult();
+    final Optional<Counter> counter =
+        context.isSeededFromBlockAccessList()
+            ? blockAccessListTransactionCounter
+            : reExecutedTransactionCounter;
+    if (counter.isPresent()) {
+      counter.get().inc();
+      transactionProcessingResult.setIsProcessedInParallel(Optional.of(Boolean.TRUE));
+    }
+    return Optional.of(transactionProcessingResult);
+  }
+
+  /**
+   * Records the writes of a transaction that was applied through the transaction updater, before
+   * the updater is committed, so that the speculative results depending on them are invalidated.
+   *
+   * @param transactionLocation Index of the transaction within the block.
+   * @param transactionUpdater the updater of the transaction in the block being processed
+   */
+  public void recordTransactionWrites(
+      final int transactionLocation, final WorldUpdater transactionUpdater) {
+    if (transactionUpdater instanceof StackedUpdater<?, ?> stackedUpdater) {
+      multiVersionStateIndex.recordWrites(transactionLocation, stackedUpdater);
+      if (isBlockAccessListConsistent
+          && blockAccessListPreState.isPresent()
+          && !blockAccessListPreState.get().matchesWrites(transactionLocation, stackedUpdater)) {
+        isBlockAccessListConsistent = false;
+        hasPendingConflict = true;
+      }
+    } else {
+      // the block updater also holds the changes of the previous transactions
+      multiVersionStateIndex.recordUntrackedWrites(transactionLocation);
+      isBlockAccessListConsistent = false;
+    }
+  }
+
+  private record ReExecutedTransactionContext(
+      int base,
+      TransactionReadSet readSet,
+      AbstractWorldUpdater<?, ?> transactionUpdater,
+      TransactionProcessingResult transactionProcessingResult,
+      Wei miningBeneficiaryReward,
+      boolean isMiningBeneficiaryTouchedPreRewardByTransaction,
+      boolean isSeededFromBlockAccessList) {}
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator.ReadListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The accounts and storage slots a speculatively executed transaction read from the state it was
+ * executed on. A speculative result stays valid as long as none of them is written by a
+ * transaction ordered between the state it was executed on and the transaction itself.
+ */
+public class TransactionReadSet implements ReadListener {
+
+  private final Set<Address> accounts = ConcurrentHashMap.newKeySet();
+  private final Map<Address, Set<StorageSlotKey>> storage = new ConcurrentHashMap<>();
+
+  @Override
+  public void onAccountRead(final Address address) {
+    accounts.add(address);
+  }
+
+  @Override
+  public void onStorageRead(final Address address, final StorageSlotKey storageSlotKey) {
+    storage.computeIfAbsent(address, __ -> ConcurrentHashMap.newKeySet()).add(storageSlotKey);
+  }
+
+  public boolean containsAccount(final Address address) {
+    return accounts.contains(address);
+  }
+
+  public Set<Address> getAccounts() {
+    return accounts;
+  }
+
+  public Map<Address, Set<StorageSlotKey>> getStorage() {
+    return storage;
+  }
+}
@@ -30,6 +30,8 @@ import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.core.Difficulty;
 import org.hyperledger.besu.ethereum.core.SyncBlockBody;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.core.encoding.receipt.ColumnarTransactionReceiptsDecoder;
+import org.hyperledger.besu.ethereum.core.encoding.receipt.ColumnarTransactionReceiptsEncoder;
 import org.hyperledger.besu.ethereum.core.encoding.receipt.TransactionReceiptDecoder;
 import org.hyperledger.besu.ethereum.core.encoding.receipt.TransactionReceiptEncoder;
 import org.hyperledger.besu.ethereum.core.encoding.receipt.TransactionReceiptEncodingConfiguration;
@@ -64,16 +66,27 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   final VariablesStorage variablesStorage;
   final BlockHeaderFunctions blockHeaderFunctions;
   final boolean receiptCompaction;
+  final boolean receiptColumnarEncoding;
 
   public KeyValueStoragePrefixedKeyBlockchainStorage(
       final KeyValueStorage blockchainStorage,
       final VariablesStorage variablesStorage,
       final BlockHeaderFunctions blockHeaderFunctions,
       final boolean receiptCompaction) {
+    this(blockchainStorage, variablesStorage, blockHeaderFunctions, receiptCompaction, false);
+  }
+
+  public KeyValueStoragePrefixedKeyBlockchainStorage(
+      final KeyValueStorage blockchainStorage,
+      final VariablesStorage variablesStorage,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final boolean receiptCompaction,
+      final boolean receiptColumnarEncoding) {
     this.blockchainStorage = blockchainStorage;
     this.variablesStorage = variablesStorage;
     this.blockHeaderFunctions = blockHeaderFunctions;
     this.receiptCompaction = receiptCompaction;
+    this.receiptColumnarEncoding = receiptColumnarEncoding;
     migrateVariables();
   }
 
@@ -111,7 +124,7 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
 
   @Override
   public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
-    return get(TRANSACTION_RECEIPTS_PREFIX, blockHash).map(this::rlpDecodeTransactionReceipts);
+    return get(TRANSACTION_RECEIPTS_PREFIX, blockHash).map(this::decodeTransactionReceipts);
   }
 
   @Override
@@ -133,10 +146,17 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   @Override
   public Updater updater() {
     return new Updater(
-        blockchainStorage.startTransaction(), variablesStorage.updater(), receiptCompaction);
+        blockchainStorage.startTransaction(),
+        variablesStorage.updater(),
+        receiptCompaction,
+        receiptColumnarEncoding);
   }
 
-  private List<TransactionReceipt> rlpDecodeTransactionReceipts(final Bytes bytes) {
+  private List<TransactionReceipt> decodeTransactionReceipts(final Bytes bytes) {
+    // both encodings can be found in the same database, the columnar one starts with its version
+    if (ColumnarTransactionReceiptsDecoder.isColumnar(bytes)) {
+      return ColumnarTransactionReceiptsDecoder.decode(bytes);
+    }
     return RLP.input(bytes).readList(in -> TransactionReceiptDecoder.readFrom(in, true));
   }
 
@@ -262,14 +282,17 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     private final KeyValueStorageTransaction blockchainTransaction;
     private final VariablesStorage.Updater variablesUpdater;
     private final boolean receiptCompaction;
+    private final boolean receiptColumnarEncoding;
 
     Updater(
         final KeyValueStorageTransaction blockchainTransaction,
         final VariablesStorage.Updater variablesUpdater,
-        final boolean receiptCompaction) {
+        final boolean receiptCompaction,
+        final boolean receiptColumnarEncoding) {
       this.blockchainTransaction = blockchainTransaction;
       this.variablesUpdater = variablesUpdater;
       this.receiptCompaction = receiptCompaction;
+      this.receiptColumnarEncoding = receiptColumnarEncoding;
     }
 
     @Override
@@ -296,7 +319,7 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     @Override
     public void putTransactionReceipts(
         final Hash blockHash, final List<TransactionReceipt> transactionReceipts) {
-      set(TRANSACTION_RECEIPTS_PREFIX, blockHash, rlpEncode(transactionReceipts));
+      set(TRANSACTION_RECEIPTS_PREFIX, blockHash, encode(transactionReceipts));
     }
 
     @Override
@@ -380,6 +403,13 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
       blockchainTransaction.remove(Bytes.concatenate(prefix, key).toArrayUnsafe());
     }
 
+    private Bytes encode(final List<TransactionReceipt> receipts) {
+      if (receiptColumnarEncoding && ColumnarTransactionReceiptsEncoder.canEncode(receipts)) {
+        return ColumnarTransactionReceiptsEncoder.encode(receipts, receiptCompaction);
+      }
+      return rlpEncode(receipts);
+    }
+
     private Bytes rlpEncode(final List<TransactionReceipt> receipts) {
       return RLP.encode(
           o ->
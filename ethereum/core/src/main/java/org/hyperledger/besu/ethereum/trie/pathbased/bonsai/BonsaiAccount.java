@@ -122,8 +122,9 @@ public class BonsaiAccount extends PathBasedAccount {
 
     final long nonce = in.readLongScalar();
     final Wei balance = Wei.of(in.readUInt256Scalar());
-    final Hash storageRoot = Hash.wrap(in.readBytes32());
-    final Hash codeHash = Hash.wrap(in.readBytes32());
+    // the encoded account may be a view of a reused storage buffer, keep copies of the hashes
+    final Hash storageRoot = Hash.wrap(in.readBytes32().copy());
+    final Hash codeHash = Hash.wrap(in.readBytes32().copy());
 
     in.leaveList();
 
@@ -14,7 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
 
-import static org.hyperledger.besu.metrics.BesuMetricCategory.BLOCKCHAIN;
+import static org.hyperledger.besu.metrics.BesuMetricCategory.BLOCK_PROCESSING;
 
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
@@ -24,30 +24,67 @@ import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.StorageSubscriber;
 import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
 public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
 
-  private static final int ACCOUNT_CACHE_SIZE = 100_000;
-  private static final int STORAGE_CACHE_SIZE = 200_000;
-  private final Cache<Bytes, Bytes> accountNodes =
-      CacheBuilder.newBuilder().recordStats().maximumSize(ACCOUNT_CACHE_SIZE).build();
-  private final Cache<Bytes, Bytes> storageNodes =
-      CacheBuilder.newBuilder().recordStats().maximumSize(STORAGE_CACHE_SIZE).build();
+  // the account trie gets a third of the memory and the storage tries the rest
+  private static final int ACCOUNT_CACHE_SHARE_DIVISOR = 3;
+  private final TrieNodeCache accountNodes;
+  private final TrieNodeCache storageNodes;
+  private final LabelledMetric<OperationTimer> stateRootPhaseTimer;
 
   public BonsaiCachedMerkleTrieLoader(final ObservableMetricsSystem metricsSystem) {
-    metricsSystem.createGuavaCacheCollector(BLOCKCHAIN, "accountsNodes", accountNodes);
-    metricsSystem.createGuavaCacheCollector(BLOCKCHAIN, "storageNodes", storageNodes);
+    this(
+        metricsSystem,
+        PathBasedUnstable.DEFAULT_TRIE_NODE_CACHE_HEAP_SHARE,
+        PathBasedUnstable.DEFAULT_TRIE_NODE_CACHE_PINNED_ACCOUNT_LEVELS);
+  }
+
+  /**
+   * Creates a loader caching the trie nodes in a memory-bound cache.
+   *
+   * @param metricsSystem the metrics system
+   * @param heapShare the share of the maximum heap size the cached nodes can use
+   * @param pinnedAccountLevels the number of top levels of the account trie never evicted
+   */
+  public BonsaiCachedMerkleTrieLoader(
+      final ObservableMetricsSystem metricsSystem,
+      final double heapShare,
+      final int pinnedAccountLevels) {
+    final long maxBytes = (long) (Runtime.getRuntime().maxMemory() * heapShare);
+    final long accountMaxBytes = maxBytes / ACCOUNT_CACHE_SHARE_DIVISOR;
+    this.accountNodes = new TrieNodeCache(accountMaxBytes, pinnedAccountLevels);
+    this.storageNodes = new TrieNodeCache(maxBytes - accountMaxBytes, 0);
+    accountNodes.setupMetricsSystem(metricsSystem, "account");
+    storageNodes.setupMetricsSystem(metricsSystem, "storage");
+    this.stateRootPhaseTimer =
+        metricsSystem.createLabelledTimer(
+            BLOCK_PROCESSING,
+            "state_root_phase_time",
+            "Time taken by each phase of the state root computation",
+            "phase");
+  }
+
+  /**
+   * Starts timing a phase of the state root computation of a world state using this loader.
+   *
+   * @param phase the name of the phase
+   * @return the timing context to close at the end of the phase
+   */
+  public OperationTimer.TimingContext startStateRootPhaseTimer(final String phase) {
+    return stateRootPhaseTimer.labels(phase).startTimer();
   }
 
   public void preLoadAccount(
@@ -70,7 +107,7 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
               (location, hash) -> {
                 Optional<Bytes> node =
                     getAccountStateTrieNode(worldStateKeyValueStorage, location, hash);
-                node.ifPresent(bytes -> accountNodes.put(Hash.hash(bytes), bytes));
+                node.ifPresent(bytes -> accountNodes.put(location, hash, bytes));
                 return node;
               },
               worldStateRootHash,
@@ -92,6 +129,11 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
         () -> cacheStorageNodes(worldStateKeyValueStorage, account, slotKey));
   }
 
+  @VisibleForTesting
+  TrieNodeCache getAccountNodes() {
+    return accountNodes;
+  }
+
   @VisibleForTesting
   public void cacheStorageNodes(
       final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
@@ -111,7 +153,7 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
                             Optional<Bytes> node =
                                 getAccountStorageTrieNode(
                                     worldStateKeyValueStorage, accountHash, location, hash);
-                            node.ifPresent(bytes -> storageNodes.put(Hash.hash(bytes), bytes));
+                            node.ifPresent(bytes -> storageNodes.put(location, hash, bytes));
                             return node;
                           },
                           Hash.hash(storageRoot),
@@ -134,8 +176,18 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
     if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
     } else {
-      return Optional.ofNullable(accountNodes.getIfPresent(nodeHash))
-          .or(() -> worldStateKeyValueStorage.getAccountStateTrieNode(location, nodeHash));
+      return accountNodes
+          .get(location, nodeHash)
+          .or(
+              () -> {
+                final Optional<Bytes> node =
+                    worldStateKeyValueStorage.getAccountStateTrieNode(location, nodeHash);
+                // the pinned levels are read by every lookup, keep them once loaded
+                if (accountNodes.isPinned(location)) {
+                  node.ifPresent(bytes -> accountNodes.put(location, nodeHash, bytes));
+                }
+                return node;
+              });
     }
   }
 
@@ -147,7 +199,8 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
     if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
     } else {
-      return Optional.ofNullable(storageNodes.getIfPresent(nodeHash))
+      return storageNodes
+          .get(location, nodeHash)
           .or(
               () ->
                   worldStateKeyValueStorage.getAccountStorageTrieNode(
@@ -14,6 +14,8 @@
  */
 package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
 
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 
@@ -25,7 +27,12 @@ public class BonsaiCachedMerkleTrieLoaderModule {
 
   @Provides
   BonsaiCachedMerkleTrieLoader provideCachedMerkleTrieLoaderModule(
-      final MetricsSystem metricsSystem) {
-    return new BonsaiCachedMerkleTrieLoader((ObservableMetricsSystem) metricsSystem);
+      final MetricsSystem metricsSystem, final DataStorageConfiguration dataStorageConfiguration) {
+    final PathBasedUnstable unstable =
+        dataStorageConfiguration.getPathBasedExtraStorageConfiguration().getUnstable();
+    return new BonsaiCachedMerkleTrieLoader(
+        (ObservableMetricsSystem) metricsSystem,
+        unstable.getTrieNodeCacheHeapShare(),
+        unstable.getTrieNodeCachePinnedAccountLevels());
   }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the analysis of contract code by code hash, so that it survives restarts.
+ *
+ * <p>Every value starts with the version of the analysis that produced it. Values written by
+ * another version are ignored, and overwritten once the code has been analyzed again, so changing
+ * the analysis only requires bumping {@link #ANALYSIS_VERSION}. Writes are done in the background,
+ * as the analysis is only an optimization that can always be computed again from the code.
+ */
+public class CodeAnalysisStorage {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CodeAnalysisStorage.class);
+
+  static final byte ANALYSIS_VERSION = 1;
+  private static final Executor writeExecutor =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setNameFormat("code-analysis-writer").setDaemon(true).build());
+
+  private final KeyValueStorage storage;
+
+  public CodeAnalysisStorage(final KeyValueStorage storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Gets the jump destination bit mask of a code, if it has been stored by the current version of
+   * the analysis.
+   *
+   * @param codeHash the hash of the code
+   * @param codeSize the size of the code, to check the stored bit mask against
+   * @return the jump destination bit mask, if stored
+   */
+  public Optional<long[]> getJumpDestBitMask(final Hash codeHash, final int codeSize) {
+    final int bitMaskLength = (codeSize >> 6) + 1;
+    try {
+      return storage
+          .get(codeHash.toArrayUnsafe())
+          .filter(value -> value.length == 1 + bitMaskLength * Long.BYTES)
+          .filter(value -> value[0] == ANALYSIS_VERSION)
+          .map(
+              value -> {
+                final long[] bitMask = new long[bitMaskLength];
+                ByteBuffer.wrap(value, 1, value.length - 1).asLongBuffer().get(bitMask);
+                return bitMask;
+              });
+    } catch (final RuntimeException e) {
+      LOG.atDebug()
+          .setMessage("Failed to read the analysis of code {}")
+          .addArgument(codeHash)
+          .setCause(e)
+          .log();
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Stores the jump destination bit mask of a code in the background.
+   *
+   * @param codeHash the hash of the code
+   * @param bitMask the jump destination bit mask of the code
+   */
+  public void putJumpDestBitMask(final Hash codeHash, final long[] bitMask) {
+    final ByteBuffer value = ByteBuffer.allocate(1 + bitMask.length * Long.BYTES);
+    value.put(ANALYSIS_VERSION).asLongBuffer().put(bitMask);
+    writeExecutor.execute(
+        () -> {
+          try {
+            final KeyValueStorageTransaction transaction = storage.startTransaction();
+            transaction.put(codeHash.toArrayUnsafe(), value.array());
+            transaction.commit();
+          } catch (final RuntimeException e) {
+            LOG.atDebug()
+                .setMessage("Failed to store the analysis of code {}")
+                .addArgument(codeHash)
+                .setCause(e)
+                .log();
+          }
+        });
+  }
+}
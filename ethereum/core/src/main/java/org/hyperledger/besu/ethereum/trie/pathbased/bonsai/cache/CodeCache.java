@@ -18,13 +18,19 @@ import static org.hyperledger.besu.metrics.BesuMetricCategory.BONSAI_CACHE;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.code.CodeV0;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.util.cache.MemoryBoundCache;
 
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+
 /** The Code cache. */
 public class CodeCache implements org.hyperledger.besu.evm.internal.CodeCache {
 
   private final MemoryBoundCache<Hash, Code> cache;
+  private volatile Optional<CodeAnalysisStorage> codeAnalysisStorage = Optional.empty();
 
   // metrics
   private long lastRequestCount = 0;
@@ -84,6 +90,16 @@ public class CodeCache implements org.hyperledger.besu.evm.internal.CodeCache {
         });
   }
 
+  /**
+   * Sets the storage of the analysis of the code, so that code loaded after a restart does not
+   * need to be analyzed again.
+   *
+   * @param codeAnalysisStorage the storage of the analysis of the code
+   */
+  public void setCodeAnalysisStorage(final CodeAnalysisStorage codeAnalysisStorage) {
+    this.codeAnalysisStorage = Optional.of(codeAnalysisStorage);
+  }
+
   /**
    * Gets the code if present in the cache.
    *
@@ -105,4 +121,29 @@ public class CodeCache implements org.hyperledger.besu.evm.internal.CodeCache {
   public void put(final Hash codeHash, final Code code) {
     cache.put(codeHash, code);
   }
+
+  /**
+   * Creates the code with its jump destination analysis, read from the code analysis storage if it
+   * was stored there, or computed and stored otherwise.
+   *
+   * @param codeHash the code hash
+   * @param byteCode the code bytes
+   * @return the code
+   */
+  @Override
+  public Code createCode(final Hash codeHash, final Bytes byteCode) {
+    if (codeAnalysisStorage.isEmpty() || byteCode.isEmpty()) {
+      return new CodeV0(byteCode, codeHash);
+    }
+    final CodeAnalysisStorage storage = codeAnalysisStorage.get();
+    return storage
+        .getJumpDestBitMask(codeHash, byteCode.size())
+        .map(jumpDestBitMask -> new CodeV0(byteCode, codeHash, jumpDestBitMask))
+        .orElseGet(
+            () -> {
+              final CodeV0 code = new CodeV0(byteCode, codeHash);
+              storage.putJumpDestBitMask(codeHash, code.getJumpDestBitMask());
+              return code;
+            });
+  }
 }
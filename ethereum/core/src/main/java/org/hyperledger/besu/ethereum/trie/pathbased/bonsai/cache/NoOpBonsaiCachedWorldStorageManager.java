@@ -39,7 +39,7 @@ public class NoOpBonsaiCachedWorldStorageManager extends BonsaiCachedWorldStorag
   }
 
   @Override
-  public synchronized void addCachedLayer(
+  public void addCachedLayer(
       final BlockHeader blockHeader,
       final Hash worldStateRootHash,
       final PathBasedWorldState forWorldState) {
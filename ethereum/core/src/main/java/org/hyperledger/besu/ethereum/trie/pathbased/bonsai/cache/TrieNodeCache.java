@@ -0,0 +1,181 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
+
+import static org.hyperledger.besu.metrics.BesuMetricCategory.BONSAI_CACHE;
+
+import org.hyperledger.besu.metrics.ObservableMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledSuppliedMetric;
+import org.hyperledger.besu.util.cache.MemoryBoundCache;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * A concurrent cache of trie nodes bounded by the memory footprint of the nodes rather than by
+ * their number.
+ *
+ * <p>The nodes of the top levels of the trie are read by every lookup and can be pinned: they are
+ * then kept outside of the evictable cache, indexed by their location so that a new version of a
+ * node replaces the previous one, which bounds the pinned memory to the size of these levels.
+ *
+ * <p>Hits and misses are counted by level, the level of a node being the length of its location.
+ */
+public class TrieNodeCache {
+
+  /** The deepest level with its own hit ratio, deeper levels are counted together with it. */
+  static final int MAX_TRACKED_LEVEL = 16;
+
+  // estimated overhead of a cache entry: the hash key, the node wrapper and the cache bookkeeping
+  private static final int ENTRY_OVERHEAD = Bytes32.SIZE + 96;
+
+  private final MemoryBoundCache<Bytes32, Bytes> nodes;
+  private final int pinnedLevels;
+  private final Map<Bytes, PinnedNode> pinnedNodes = new ConcurrentHashMap<>();
+  private final LongAdder[] hits = new LongAdder[MAX_TRACKED_LEVEL + 1];
+  private final LongAdder[] misses = new LongAdder[MAX_TRACKED_LEVEL + 1];
+
+  /**
+   * Creates a trie node cache.
+   *
+   * @param maxBytes the maximum memory footprint of the evictable nodes
+   * @param pinnedLevels the number of top levels of the trie whose nodes are never evicted
+   */
+  public TrieNodeCache(final long maxBytes, final int pinnedLevels) {
+    this.nodes = new MemoryBoundCache<>(maxBytes, TrieNodeCache::estimateFootprint);
+    this.pinnedLevels = pinnedLevels;
+    for (int level = 0; level <= MAX_TRACKED_LEVEL; level++) {
+      hits[level] = new LongAdder();
+      misses[level] = new LongAdder();
+    }
+  }
+
+  /**
+   * Gets a node from the cache.
+   *
+   * @param location the location of the node in the trie
+   * @param nodeHash the hash of the node
+   * @return the node if it is cached
+   */
+  public Optional<Bytes> get(final Bytes location, final Bytes32 nodeHash) {
+    final int level = trackedLevel(location);
+    final Bytes node;
+    if (isPinned(location)) {
+      final PinnedNode pinned = pinnedNodes.get(location);
+      node = pinned != null && pinned.hash().equals(nodeHash) ? pinned.node() : null;
+    } else {
+      node = nodes.getIfPresent(nodeHash);
+    }
+    (node != null ? hits : misses)[level].increment();
+    return Optional.ofNullable(node);
+  }
+
+  /**
+   * Adds a node to the cache.
+   *
+   * @param location the location of the node in the trie
+   * @param nodeHash the hash of the node
+   * @param node the encoded node
+   */
+  public void put(final Bytes location, final Bytes32 nodeHash, final Bytes node) {
+    if (isPinned(location)) {
+      pinnedNodes.put(location, new PinnedNode(nodeHash, node));
+    } else {
+      nodes.put(nodeHash, node);
+    }
+  }
+
+  /**
+   * Checks whether the node at a location belongs to the pinned levels of the trie.
+   *
+   * @param location the location of the node in the trie
+   * @return true if the node is never evicted once cached
+   */
+  public boolean isPinned(final Bytes location) {
+    return location.size() < pinnedLevels;
+  }
+
+  /**
+   * Gets the ratio of lookups of a level that were served by the cache.
+   *
+   * @param level the level in the trie, deeper levels than {@link #MAX_TRACKED_LEVEL} are counted
+   *     with it
+   * @return the hit ratio of the level, 0 if it was never looked up
+   */
+  public double hitRatio(final int level) {
+    final int trackedLevel = Math.min(level, MAX_TRACKED_LEVEL);
+    final long hitCount = hits[trackedLevel].sum();
+    final long lookupCount = hitCount + misses[trackedLevel].sum();
+    return lookupCount == 0 ? 0 : (double) hitCount / lookupCount;
+  }
+
+  /**
+   * Gets the number of cached nodes, pinned ones included.
+   *
+   * @return the estimated number of cached nodes
+   */
+  public long estimatedSize() {
+    return nodes.estimatedSize() + pinnedNodes.size();
+  }
+
+  /**
+   * Registers the metrics of the cache.
+   *
+   * @param metricsSystem the metrics system to use
+   * @param trie the name of the cached trie, used as a prefix of the metric names
+   */
+  public void setupMetricsSystem(final ObservableMetricsSystem metricsSystem, final String trie) {
+    metricsSystem.createLongGauge(
+        BONSAI_CACHE,
+        trie + "_trie_node_cache_size",
+        "Current number of entries in the " + trie + " trie node cache",
+        this::estimatedSize);
+    metricsSystem.createLongGauge(
+        BONSAI_CACHE,
+        trie + "_trie_node_cache_pinned_size",
+        "Current number of pinned entries in the " + trie + " trie node cache",
+        pinnedNodes::size);
+    metricsSystem.createLongGauge(
+        BONSAI_CACHE,
+        trie + "_trie_node_cache_eviction_weight",
+        "Total weight of evictions from the " + trie + " trie node cache",
+        nodes::evictionWeight);
+    final LabelledSuppliedMetric hitRatio =
+        metricsSystem.createLabelledSuppliedGauge(
+            BONSAI_CACHE,
+            trie + "_trie_node_cache_hit_ratio",
+            "Hit ratio of the " + trie + " trie node cache by trie level",
+            "level");
+    for (int level = 0; level <= MAX_TRACKED_LEVEL; level++) {
+      final int trackedLevel = level;
+      hitRatio.labels(() -> hitRatio(trackedLevel), String.valueOf(level));
+    }
+  }
+
+  private static int trackedLevel(final Bytes location) {
+    return Math.min(location.size(), MAX_TRACKED_LEVEL);
+  }
+
+  private static int estimateFootprint(final Bytes32 nodeHash, final Bytes node) {
+    return node.size() + ENTRY_OVERHEAD;
+  }
+
+  private record PinnedNode(Bytes32 hash, Bytes node) {}
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE;
+
+import org.hyperledger.besu.datatypes.AccessListEntry;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.CodeDelegation;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.worldstate.FlatDbMode;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads ahead of execution the flat state a block is likely to access.
+ *
+ * <p>As soon as a block is received, the accounts known from its transactions (senders,
+ * recipients, access list entries and code delegations) and the storage slots of their access
+ * lists are read from the flat database by batches on a dedicated I/O pool, each batch with a
+ * single multi-get per segment. The values are not kept: the reads only load them in the database
+ * caches, so that the execution of the block then finds them in memory instead of waiting for the
+ * disk one key at a time.
+ */
+public class BonsaiFlatDbPrefetcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BonsaiFlatDbPrefetcher.class);
+
+  static final int BATCH_SIZE = 64;
+  private static final int IO_THREADS = 8;
+  private static final Executor ioExecutor =
+      Executors.newFixedThreadPool(
+          IO_THREADS,
+          new ThreadFactoryBuilder()
+              .setNameFormat("flat-db-prefetcher-%d")
+              .setDaemon(true)
+              .build());
+
+  private final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage;
+
+  public BonsaiFlatDbPrefetcher(final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage) {
+    this.worldStateKeyValueStorage = worldStateKeyValueStorage;
+  }
+
+  /**
+   * Starts reading the state accessed by a block in the background.
+   *
+   * @param block the block about to be executed
+   * @return a future completed when every batch has been read
+   */
+  public CompletableFuture<Void> prefetch(final Block block) {
+    // the keys are collected off the caller thread too, as it may recover the transaction senders
+    return CompletableFuture.supplyAsync(() -> collectKeys(block), ioExecutor)
+        .thenCompose(this::readBatches);
+  }
+
+  private CompletableFuture<Void> readBatches(final Map<Address, Set<StorageSlotKey>> keys) {
+    final List<Map.Entry<Address, Set<StorageSlotKey>>> entries = new ArrayList<>(keys.entrySet());
+    final List<CompletableFuture<Void>> batches = new ArrayList<>();
+    for (int from = 0; from < entries.size(); from += BATCH_SIZE) {
+      final List<Map.Entry<Address, Set<StorageSlotKey>>> batch =
+          entries.subList(from, Math.min(entries.size(), from + BATCH_SIZE));
+      batches.add(CompletableFuture.runAsync(() -> readBatch(batch), ioExecutor));
+    }
+    return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new));
+  }
+
+  /**
+   * Collects the accounts and storage slots a block is known to access before executing it.
+   *
+   * @param block the block
+   * @return the storage slots by account, in the order they are found in the block
+   */
+  @VisibleForTesting
+  static Map<Address, Set<StorageSlotKey>> collectKeys(final Block block) {
+    final Map<Address, Set<StorageSlotKey>> keys = new LinkedHashMap<>();
+    slotsOf(keys, block.getHeader().getCoinbase());
+    for (final Transaction transaction : block.getBody().getTransactions()) {
+      slotsOf(keys, transaction.getSender());
+      transaction.getTo().ifPresent(to -> slotsOf(keys, to));
+      transaction
+          .getAccessList()
+          .ifPresent(
+              accessList -> {
+                for (final AccessListEntry entry : accessList) {
+                  final Set<StorageSlotKey> slots = slotsOf(keys, entry.address());
+                  entry
+                      .storageKeys()
+                      .forEach(key -> slots.add(new StorageSlotKey(UInt256.fromBytes(key))));
+                }
+              });
+      transaction
+          .getCodeDelegationList()
+          .ifPresent(
+              codeDelegations -> {
+                for (final CodeDelegation codeDelegation : codeDelegations) {
+                  codeDelegation.authorizer().ifPresent(authority -> slotsOf(keys, authority));
+                  slotsOf(keys, codeDelegation.address());
+                }
+              });
+    }
+    return keys;
+  }
+
+  private static Set<StorageSlotKey> slotsOf(
+      final Map<Address, Set<StorageSlotKey>> keys, final Address address) {
+    return keys.computeIfAbsent(address, __ -> new LinkedHashSet<>());
+  }
+
+  private void readBatch(final List<Map.Entry<Address, Set<StorageSlotKey>>> batch) {
+    try {
+      if (worldStateKeyValueStorage.getFlatDbMode() == FlatDbMode.ARCHIVE) {
+        // archive entries are keyed by block number too and cannot be read by exact key
+        readOneByOne(batch);
+      } else {
+        multiGet(batch);
+      }
+    } catch (final RuntimeException e) {
+      // the prefetch is only an optimization, the execution reads the state again anyway
+      LOG.atTrace().setMessage("Failed to prefetch the flat state").setCause(e).log();
+    }
+  }
+
+  private void multiGet(final List<Map.Entry<Address, Set<StorageSlotKey>>> batch) {
+    final List<byte[]> accountKeys = new ArrayList<>(batch.size());
+    final List<byte[]> slotKeys = new ArrayList<>();
+    for (final Map.Entry<Address, Set<StorageSlotKey>> entry : batch) {
+      final Hash accountHash = entry.getKey().addressHash();
+      accountKeys.add(accountHash.toArrayUnsafe());
+      for (final StorageSlotKey slotKey : entry.getValue()) {
+        slotKeys.add(Bytes.concatenate(accountHash, slotKey.getSlotHash()).toArrayUnsafe());
+      }
+    }
+    final SegmentedKeyValueStorage storage =
+        worldStateKeyValueStorage.getComposedWorldStateStorage();
+    storage.multiGet(ACCOUNT_INFO_STATE, accountKeys);
+    if (!slotKeys.isEmpty()) {
+      storage.multiGet(ACCOUNT_STORAGE_STORAGE, slotKeys);
+    }
+  }
+
+  private void readOneByOne(final List<Map.Entry<Address, Set<StorageSlotKey>>> batch) {
+    for (final Map.Entry<Address, Set<StorageSlotKey>> entry : batch) {
+      final Hash accountHash = entry.getKey().addressHash();
+      worldStateKeyValueStorage.getAccount(accountHash);
+      for (final StorageSlotKey slotKey : entry.getValue()) {
+        worldStateKeyValueStorage.getStorageValueByStorageSlotKey(accountHash, slotKey);
+      }
+    }
+  }
+}
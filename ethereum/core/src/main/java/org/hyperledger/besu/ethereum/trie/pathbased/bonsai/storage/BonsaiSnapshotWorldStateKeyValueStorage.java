@@ -24,6 +24,7 @@ import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
 
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -80,6 +81,12 @@ public class BonsaiSnapshotWorldStateKeyValueStorage extends BonsaiWorldStateKey
     return isClosedGet() ? Optional.empty() : super.getAccount(accountHash);
   }
 
+  @Override
+  public <T> Optional<T> getAccount(
+      final Hash accountHash, final Function<Bytes, T> accountDecoder) {
+    return isClosedGet() ? Optional.empty() : super.getAccount(accountHash, accountDecoder);
+  }
+
   @Override
   public Optional<Bytes> getCode(final Hash codeHash, final Hash accountHash) {
     return isClosedGet() ? Optional.empty() : super.getCode(codeHash, accountHash);
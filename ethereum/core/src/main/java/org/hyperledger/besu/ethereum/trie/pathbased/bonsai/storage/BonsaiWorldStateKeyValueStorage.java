@@ -43,6 +43,7 @@ import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTran
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -51,6 +52,7 @@ import org.apache.tuweni.bytes.Bytes32;
 public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValueStorage
     implements WorldStateKeyValueStorage {
   protected final BonsaiFlatDbStrategyProvider flatDbStrategyProvider;
+  private final boolean trieLogCompactEncodingEnabled;
 
   public BonsaiWorldStateKeyValueStorage(
       final StorageProvider provider,
@@ -64,6 +66,11 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
     this.flatDbStrategyProvider =
         new BonsaiFlatDbStrategyProvider(metricsSystem, dataStorageConfiguration);
     flatDbStrategyProvider.loadFlatDbStrategy(composedWorldStateStorage);
+    this.trieLogCompactEncodingEnabled =
+        dataStorageConfiguration
+            .getPathBasedExtraStorageConfiguration()
+            .getUnstable()
+            .getTrieLogCompactEncodingEnabled();
   }
 
   public BonsaiWorldStateKeyValueStorage(
@@ -72,6 +79,7 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
       final KeyValueStorage trieLogStorage) {
     super(composedWorldStateStorage, trieLogStorage);
     this.flatDbStrategyProvider = flatDbStrategyProvider;
+    this.trieLogCompactEncodingEnabled = false;
   }
 
   @Override
@@ -84,6 +92,11 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
     return flatDbStrategyProvider.getFlatDbMode();
   }
 
+  @Override
+  public boolean isTrieLogCompactEncodingEnabled() {
+    return trieLogCompactEncodingEnabled;
+  }
+
   public Optional<Bytes> getCode(final Hash codeHash, final Hash accountHash) {
     if (codeHash.equals(Hash.EMPTY)) {
       return Optional.of(Bytes.EMPTY);
@@ -101,6 +114,17 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
             composedWorldStateStorage);
   }
 
+  public <T> Optional<T> getAccount(
+      final Hash accountHash, final Function<Bytes, T> accountDecoder) {
+    return getFlatDbStrategy()
+        .getFlatAccount(
+            this::getWorldStateRootHash,
+            this::getAccountStateTrieNode,
+            accountHash,
+            composedWorldStateStorage,
+            accountDecoder);
+  }
+
   public Optional<Bytes> getAccountStateTrieNode(final Bytes location, final Bytes32 nodeHash) {
     if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
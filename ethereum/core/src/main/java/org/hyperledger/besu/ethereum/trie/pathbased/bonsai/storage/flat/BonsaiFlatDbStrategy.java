@@ -57,6 +57,20 @@ public abstract class BonsaiFlatDbStrategy extends FlatDbStrategy {
       Hash accountHash,
       SegmentedKeyValueStorage storage);
 
+  /*
+   * Retrieves and decodes the account data for the given account hash. The bytes given to the decoder
+   * may be a view of a buffer reused by the storage, so the decoder must copy any part it keeps.
+   */
+  public <T> Optional<T> getFlatAccount(
+      final Supplier<Optional<Bytes>> worldStateRootHashSupplier,
+      final NodeLoader nodeLoader,
+      final Hash accountHash,
+      final SegmentedKeyValueStorage storage,
+      final Function<Bytes, T> accountDecoder) {
+    return getFlatAccount(worldStateRootHashSupplier, nodeLoader, accountHash, storage)
+        .map(accountDecoder);
+  }
+
   /*
    * Retrieves the storage value for the given account hash and storage slot key, using the world state root hash supplier, storage root supplier, and node loader.
    */
@@ -27,6 +27,7 @@ import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -71,6 +72,25 @@ public class BonsaiFullFlatDbStrategy extends BonsaiFlatDbStrategy {
     return accountFound;
   }
 
+  @Override
+  public <T> Optional<T> getFlatAccount(
+      final Supplier<Optional<Bytes>> worldStateRootHashSupplier,
+      final NodeLoader nodeLoader,
+      final Hash accountHash,
+      final SegmentedKeyValueStorage storage,
+      final Function<Bytes, T> accountDecoder) {
+    getAccountCounter.inc();
+    // decode the account straight from the storage buffer, without copying it first
+    final Optional<T> accountFound =
+        storage.getAndMap(ACCOUNT_INFO_STATE, accountHash.toArrayUnsafe(), accountDecoder);
+    if (accountFound.isPresent()) {
+      getAccountFoundInFlatDatabaseCounter.inc();
+    } else {
+      getAccountNotFoundInFlatDatabaseCounter.inc();
+    }
+    return accountFound;
+  }
+
   @Override
   public Optional<Bytes> getFlatStorageValueByStorageSlotKey(
       final Supplier<Optional<Bytes>> worldStateRootHashSupplier,
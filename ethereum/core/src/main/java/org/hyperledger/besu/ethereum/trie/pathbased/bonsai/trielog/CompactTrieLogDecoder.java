@@ -0,0 +1,216 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog;
+
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.ACCOUNT_BALANCE_DECREASE;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.ACCOUNT_SAME_CODE_HASH;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.ACCOUNT_SAME_STORAGE_ROOT;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.CHANGE_ACCOUNT;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.CHANGE_CODE;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.CHANGE_STORAGE;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.FLAG_SNAPPY;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.TUPLE_CLEARED;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.TUPLE_PRIOR;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.TUPLE_UPDATED;
+import static org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.CompactTrieLogEncoder.VERSION;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogLayer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.xerial.snappy.Snappy;
+
+/** Decodes a trie log layer written by {@link CompactTrieLogEncoder}. */
+public class CompactTrieLogDecoder {
+
+  private CompactTrieLogDecoder() {}
+
+  /**
+   * Whether a stored trie log layer uses the compact encoding rather than RLP.
+   *
+   * @param encoded the stored layer
+   * @return true if the layer is in the compact encoding
+   */
+  public static boolean isCompact(final byte[] encoded) {
+    return encoded.length > 0 && encoded[0] == VERSION;
+  }
+
+  /**
+   * Decodes a trie log layer.
+   *
+   * @param encoded the encoded layer
+   * @return the frozen layer
+   */
+  public static TrieLogLayer decode(final byte[] encoded) {
+    if (!isCompact(encoded) || encoded.length < 2) {
+      throw new RLPException("Trie log is not in the compact encoding");
+    }
+    final Reader reader = new Reader(payload(encoded));
+
+    final TrieLogLayer layer = new TrieLogLayer();
+    layer.setBlockHash(reader.readHash());
+    final int addressCount = reader.readSize();
+    for (int i = 0; i < addressCount; i++) {
+      final Address address = Address.wrap(reader.readBytes(Address.SIZE));
+      final int changes = reader.readByte();
+
+      if ((changes & CHANGE_ACCOUNT) != 0) {
+        final int tuple = reader.readByte();
+        final PmtStateTrieAccountValue prior =
+            (tuple & TUPLE_PRIOR) != 0 ? reader.readAccount(null) : null;
+        final PmtStateTrieAccountValue updated =
+            (tuple & TUPLE_UPDATED) != 0 ? reader.readAccount(prior) : null;
+        layer
+            .getAccountChanges()
+            .put(address, new PathBasedValue<>(prior, updated, (tuple & TUPLE_CLEARED) != 0));
+      }
+
+      if ((changes & CHANGE_CODE) != 0) {
+        final int tuple = reader.readByte();
+        final Bytes prior = (tuple & TUPLE_PRIOR) != 0 ? reader.readBytes(reader.readSize()) : null;
+        final Bytes updated =
+            (tuple & TUPLE_UPDATED) != 0 ? reader.readBytes(reader.readSize()) : null;
+        layer
+            .getCodeChanges()
+            .put(address, new PathBasedValue<>(prior, updated, (tuple & TUPLE_CLEARED) != 0));
+      }
+
+      if ((changes & CHANGE_STORAGE) != 0) {
+        final Map<StorageSlotKey, PathBasedValue<UInt256>> storageChanges = new TreeMap<>();
+        final int slotCount = reader.readSize();
+        for (int j = 0; j < slotCount; j++) {
+          final Hash slotHash = reader.readHash();
+          final int tuple = reader.readByte();
+          final UInt256 prior = (tuple & TUPLE_PRIOR) != 0 ? reader.readUInt256() : null;
+          final UInt256 updated = (tuple & TUPLE_UPDATED) != 0 ? reader.readUInt256() : null;
+          storageChanges.put(
+              new StorageSlotKey(slotHash, Optional.empty()),
+              new PathBasedValue<>(prior, updated, (tuple & TUPLE_CLEARED) != 0));
+        }
+        layer.getStorageChanges().put(address, storageChanges);
+      }
+    }
+    if (!reader.isDone()) {
+      throw new RLPException("Malformed compact trie log");
+    }
+    layer.freeze();
+    return layer;
+  }
+
+  private static Bytes payload(final byte[] encoded) {
+    if ((encoded[1] & FLAG_SNAPPY) == 0) {
+      return Bytes.wrap(encoded, 2, encoded.length - 2);
+    }
+    try {
+      return Bytes.wrap(Snappy.uncompress(Bytes.wrap(encoded, 2, encoded.length - 2).toArray()));
+    } catch (final IOException e) {
+      throw new RLPException("Malformed compact trie log: " + e.getMessage());
+    }
+  }
+
+  private static class Reader {
+    private final Bytes encoded;
+    private int position;
+
+    private Reader(final Bytes encoded) {
+      this.encoded = encoded;
+    }
+
+    private boolean isDone() {
+      return position == encoded.size();
+    }
+
+    private int readByte() {
+      return readBytes(1).get(0) & 0xff;
+    }
+
+    private Bytes readBytes(final int length) {
+      if (length > encoded.size() - position) {
+        throw new RLPException("Malformed compact trie log");
+      }
+      final Bytes bytes = encoded.slice(position, length);
+      position += length;
+      return bytes;
+    }
+
+    private long readVarint() {
+      long value = 0;
+      for (int shift = 0; shift < Long.SIZE; shift += 7) {
+        final int b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new RLPException("Malformed compact trie log");
+    }
+
+    private int readSize() {
+      final long size = readVarint();
+      if (size > encoded.size()) {
+        throw new RLPException("Malformed compact trie log");
+      }
+      return (int) size;
+    }
+
+    private Hash readHash() {
+      return Hash.wrap(Bytes32.wrap(readBytes(Bytes32.SIZE)));
+    }
+
+    private UInt256 readUInt256() {
+      final int size = readByte();
+      if (size > Bytes32.SIZE) {
+        throw new RLPException("Malformed compact trie log");
+      }
+      return UInt256.fromBytes(readBytes(size));
+    }
+
+    /** Reads an account written against a base account, the empty account when null. */
+    private PmtStateTrieAccountValue readAccount(final PmtStateTrieAccountValue base) {
+      final int flags = readByte();
+      final long zigzagNonceDelta = readVarint();
+      final long nonceDelta = (zigzagNonceDelta >>> 1) ^ -(zigzagNonceDelta & 1);
+      final Wei balanceDelta = Wei.of(readUInt256());
+      final long baseNonce = base != null ? base.getNonce() : 0;
+      final Wei baseBalance = base != null ? base.getBalance() : Wei.ZERO;
+      final Hash baseStorageRoot = base != null ? base.getStorageRoot() : Hash.EMPTY_TRIE_HASH;
+      final Hash baseCodeHash = base != null ? base.getCodeHash() : Hash.EMPTY;
+
+      final Hash storageRoot =
+          (flags & ACCOUNT_SAME_STORAGE_ROOT) != 0 ? baseStorageRoot : readHash();
+      final Hash codeHash = (flags & ACCOUNT_SAME_CODE_HASH) != 0 ? baseCodeHash : readHash();
+      return new PmtStateTrieAccountValue(
+          baseNonce + nonceDelta,
+          (flags & ACCOUNT_BALANCE_DECREASE) != 0
+              ? baseBalance.subtract(balanceDelta)
+              : baseBalance.add(balanceDelta),
+          storageRoot,
+          codeHash);
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog;
+
+import org.hyperledger.besu.datatypes.AccountValue;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Encodes a trie log layer more compactly than RLP. Each updated account is written as the
+ * difference with its prior value: the nonce and balance as deltas, and the storage root and code
+ * hash only when they changed. Accounts without a prior value are written against the empty
+ * account. The whole layer is then compressed with Snappy, when that makes it smaller.
+ *
+ * <pre>
+ * version: 1 byte, {@link #VERSION}, which can't be the first byte of an RLP list
+ * flags: 1 byte, {@code FLAG_SNAPPY} when the rest of the layer is compressed
+ * block hash: 32 bytes
+ * address count: varint
+ * for each address, in order:
+ *   address: 20 bytes
+ *   changes: 1 byte, {@code CHANGE_ACCOUNT}, {@code CHANGE_CODE} or {@code CHANGE_STORAGE}
+ *   account change: tuple flags, then the prior and the updated accounts when present
+ *   code change: tuple flags, then the varint size and bytes of the prior and updated codes
+ *   storage changes: varint count, then for each slot its 32 bytes hash, tuple flags, and the
+ *     1 byte size and minimal bytes of the prior and updated values
+ * account, against a base account:
+ *   account flags: 1 byte, whether the storage root and code hash are the base ones and whether
+ *     the balance decreased
+ *   nonce: zigzag varint, the difference with the base nonce
+ *   balance: 1 byte size and minimal bytes of the difference with the base balance
+ *   storage root, code hash: 32 bytes each, unless the base ones
+ * </pre>
+ *
+ * Tuple flags are 1 byte, {@code TUPLE_PRIOR}, {@code TUPLE_UPDATED} or {@code TUPLE_CLEARED}.
+ * Varints are unsigned LEB128.
+ */
+public class CompactTrieLogEncoder {
+
+  /** The version of the encoding. */
+  public static final byte VERSION = 1;
+
+  static final int FLAG_SNAPPY = 1;
+  static final int CHANGE_ACCOUNT = 1;
+  static final int CHANGE_CODE = 2;
+  static final int CHANGE_STORAGE = 4;
+  static final int TUPLE_PRIOR = 1;
+  static final int TUPLE_UPDATED = 2;
+  static final int TUPLE_CLEARED = 4;
+  static final int ACCOUNT_SAME_STORAGE_ROOT = 1;
+  static final int ACCOUNT_SAME_CODE_HASH = 2;
+  static final int ACCOUNT_BALANCE_DECREASE = 4;
+
+  private CompactTrieLogEncoder() {}
+
+  /**
+   * Encodes a trie log layer.
+   *
+   * @param layer the layer
+   * @param compress whether to compress the layer with Snappy when that makes it smaller
+   * @return the encoded layer
+   */
+  public static byte[] encode(final TrieLog layer, final boolean compress) {
+    layer.freeze();
+
+    final Set<Address> addresses = new TreeSet<>();
+    addresses.addAll(layer.getAccountChanges().keySet());
+    addresses.addAll(layer.getCodeChanges().keySet());
+    addresses.addAll(layer.getStorageChanges().keySet());
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.writeBytes(layer.getBlockHash().toArrayUnsafe());
+    writeVarint(out, addresses.size());
+    for (final Address address : addresses) {
+      out.writeBytes(address.toArrayUnsafe());
+
+      final TrieLog.LogTuple<AccountValue> accountChange = layer.getAccountChanges().get(address);
+      final TrieLog.LogTuple<Bytes> codeChange = layer.getCodeChanges().get(address);
+      final Map<StorageSlotKey, TrieLog.LogTuple<UInt256>> storageChanges =
+          layer.getStorageChanges().get(address);
+      final boolean hasAccountChange = accountChange != null && !accountChange.isUnchanged();
+      final boolean hasCodeChange = codeChange != null && !codeChange.isUnchanged();
+      out.write(
+          (hasAccountChange ? CHANGE_ACCOUNT : 0)
+              | (hasCodeChange ? CHANGE_CODE : 0)
+              | (storageChanges != null ? CHANGE_STORAGE : 0));
+
+      if (hasAccountChange) {
+        final AccountValue prior = accountChange.getPrior();
+        final AccountValue updated = accountChange.getUpdated();
+        writeTupleFlags(out, accountChange);
+        if (prior != null) {
+          writeAccount(out, prior, null);
+        }
+        if (updated != null) {
+          writeAccount(out, updated, prior);
+        }
+      }
+
+      if (hasCodeChange) {
+        writeTupleFlags(out, codeChange);
+        if (codeChange.getPrior() != null) {
+          writeVarint(out, codeChange.getPrior().size());
+          out.writeBytes(codeChange.getPrior().toArrayUnsafe());
+        }
+        if (codeChange.getUpdated() != null) {
+          writeVarint(out, codeChange.getUpdated().size());
+          out.writeBytes(codeChange.getUpdated().toArrayUnsafe());
+        }
+      }
+
+      if (storageChanges != null) {
+        writeVarint(out, storageChanges.size());
+        for (final Map.Entry<StorageSlotKey, TrieLog.LogTuple<UInt256>> slotChange :
+            storageChanges.entrySet()) {
+          // like the RLP encoding, only the slot hash is kept
+          out.writeBytes(slotChange.getKey().getSlotHash().toArrayUnsafe());
+          final TrieLog.LogTuple<UInt256> value = slotChange.getValue();
+          writeTupleFlags(out, value);
+          if (value.getPrior() != null) {
+            writeMinimalBytes(out, value.getPrior().toMinimalBytes());
+          }
+          if (value.getUpdated() != null) {
+            writeMinimalBytes(out, value.getUpdated().toMinimalBytes());
+          }
+        }
+      }
+    }
+
+    final byte[] payload = out.toByteArray();
+    final byte[] compressed = compress ? compress(payload) : null;
+    final boolean useCompressed = compressed != null && compressed.length < payload.length;
+    final byte[] body = useCompressed ? compressed : payload;
+    final byte[] encoded = new byte[body.length + 2];
+    encoded[0] = VERSION;
+    encoded[1] = (byte) (useCompressed ? FLAG_SNAPPY : 0);
+    System.arraycopy(body, 0, encoded, 2, body.length);
+    return encoded;
+  }
+
+  private static void writeTupleFlags(
+      final ByteArrayOutputStream out, final TrieLog.LogTuple<?> tuple) {
+    out.write(
+        (tuple.getPrior() != null ? TUPLE_PRIOR : 0)
+            | (tuple.getUpdated() != null ? TUPLE_UPDATED : 0)
+            | (tuple.isLastStepCleared() ? TUPLE_CLEARED : 0));
+  }
+
+  /** Writes an account as the difference with a base account, the empty account when null. */
+  private static void writeAccount(
+      final ByteArrayOutputStream out, final AccountValue account, final AccountValue base) {
+    final long baseNonce = base != null ? base.getNonce() : 0;
+    final Wei baseBalance = base != null ? base.getBalance() : Wei.ZERO;
+    final Hash baseStorageRoot = base != null ? base.getStorageRoot() : Hash.EMPTY_TRIE_HASH;
+    final Hash baseCodeHash = base != null ? base.getCodeHash() : Hash.EMPTY;
+
+    final boolean sameStorageRoot = account.getStorageRoot().equals(baseStorageRoot);
+    final boolean sameCodeHash = account.getCodeHash().equals(baseCodeHash);
+    final boolean balanceDecrease = account.getBalance().compareTo(baseBalance) < 0;
+    out.write(
+        (sameStorageRoot ? ACCOUNT_SAME_STORAGE_ROOT : 0)
+            | (sameCodeHash ? ACCOUNT_SAME_CODE_HASH : 0)
+            | (balanceDecrease ? ACCOUNT_BALANCE_DECREASE : 0));
+    final long nonceDelta = account.getNonce() - baseNonce;
+    writeVarint(out, (nonceDelta << 1) ^ (nonceDelta >> 63));
+    writeMinimalBytes(
+        out,
+        balanceDecrease
+            ? baseBalance.subtract(account.getBalance()).toMinimalBytes()
+            : account.getBalance().subtract(baseBalance).toMinimalBytes());
+    if (!sameStorageRoot) {
+      out.writeBytes(account.getStorageRoot().toArrayUnsafe());
+    }
+    if (!sameCodeHash) {
+      out.writeBytes(account.getCodeHash().toArrayUnsafe());
+    }
+  }
+
+  private static void writeMinimalBytes(final ByteArrayOutputStream out, final Bytes value) {
+    out.write(value.size());
+    out.writeBytes(value.toArrayUnsafe());
+  }
+
+  private static void writeVarint(final ByteArrayOutputStream out, final long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.write((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    out.write((int) remaining);
+  }
+
+  private static byte[] compress(final byte[] payload) {
+    try {
+      return Snappy.compress(payload);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -43,6 +43,22 @@ import org.apache.tuweni.units.bigints.UInt256;
 
 public class TrieLogFactoryImpl implements TrieLogFactory {
 
+  private final boolean compactEncodingEnabled;
+
+  public TrieLogFactoryImpl() {
+    this(false);
+  }
+
+  /**
+   * Creates a factory serializing layers in RLP, or with {@link CompactTrieLogEncoder}. Layers in
+   * either encoding are deserialized.
+   *
+   * @param compactEncodingEnabled whether to serialize layers in the compact encoding
+   */
+  public TrieLogFactoryImpl(final boolean compactEncodingEnabled) {
+    this.compactEncodingEnabled = compactEncodingEnabled;
+  }
+
   @Override
   public TrieLogLayer create(final TrieLogAccumulator accumulator, final BlockHeader blockHeader) {
     TrieLogLayer layer = new TrieLogLayer();
@@ -85,11 +101,29 @@ public class TrieLogFactoryImpl implements TrieLogFactory {
 
   @Override
   public byte[] serialize(final TrieLog layer) {
+    if (compactEncodingEnabled) {
+      return CompactTrieLogEncoder.encode(layer, true);
+    }
     final BytesValueRLPOutput rlpLog = new BytesValueRLPOutput();
     writeTo(layer, rlpLog);
     return rlpLog.encoded().toArrayUnsafe();
   }
 
+  /**
+   * Re-encodes a serialized layer in the given encoding, unless it is already in that encoding.
+   *
+   * @param trieLog the serialized layer, in RLP or in the compact encoding
+   * @param compactEncodingEnabled whether to return the layer in the compact encoding, else in RLP
+   * @return the serialized layer in the given encoding
+   */
+  public static byte[] reencode(final byte[] trieLog, final boolean compactEncodingEnabled) {
+    if (CompactTrieLogDecoder.isCompact(trieLog) == compactEncodingEnabled) {
+      return trieLog;
+    }
+    final TrieLogFactoryImpl trieLogFactory = new TrieLogFactoryImpl(compactEncodingEnabled);
+    return trieLogFactory.serialize(trieLogFactory.deserialize(trieLog));
+  }
+
   public static void writeTo(final TrieLog layer, final RLPOutput output) {
     layer.freeze();
 
@@ -143,6 +177,9 @@ public class TrieLogFactoryImpl implements TrieLogFactory {
 
   @Override
   public TrieLogLayer deserialize(final byte[] bytes) {
+    if (CompactTrieLogDecoder.isCompact(bytes)) {
+      return CompactTrieLogDecoder.decode(bytes);
+    }
     return readFrom(new BytesValueRLPInput(Bytes.wrap(bytes), false));
   }
 
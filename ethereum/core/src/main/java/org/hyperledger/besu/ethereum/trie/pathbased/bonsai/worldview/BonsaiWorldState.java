@@ -25,6 +25,7 @@ import org.hyperledger.besu.ethereum.trie.MerkleTrie;
 import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
 import org.hyperledger.besu.ethereum.trie.NoOpMerkleTrie;
 import org.hyperledger.besu.ethereum.trie.NodeLoader;
+import org.hyperledger.besu.ethereum.trie.StoredMerkleTrie;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiAccount;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.BonsaiCachedMerkleTrieLoader;
@@ -43,6 +44,7 @@ import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator
 import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
 import org.hyperledger.besu.evm.account.Account;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
@@ -50,9 +52,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
 import jakarta.validation.constraints.NotNull;
@@ -63,6 +65,10 @@ import org.apache.tuweni.units.bigints.UInt256;
 
 public class BonsaiWorldState extends PathBasedWorldState {
 
+  // updates and hashes the tries of the state root computation, shared by all the world states
+  private static final ForkJoinPool STATE_ROOT_POOL =
+      new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
   protected BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader;
   private final CodeCache codeCache;
 
@@ -130,23 +136,30 @@ public class BonsaiWorldState extends PathBasedWorldState {
       final Optional<BonsaiWorldStateKeyValueStorage.Updater> maybeStateUpdater,
       final BonsaiWorldStateUpdateAccumulator worldStateUpdater) {
 
-    clearStorage(maybeStateUpdater, worldStateUpdater);
+    try (final OperationTimer.TimingContext ignored = startStateRootPhaseTimer("clear_storage")) {
+      clearStorage(maybeStateUpdater, worldStateUpdater);
+    }
 
     // This must be done before updating the accounts so
-    // that we can get the storage state hash
-    Stream<Map.Entry<Address, StorageConsumingMap<StorageSlotKey, PathBasedValue<UInt256>>>>
-        storageStream = worldStateUpdater.getStorageToUpdate().entrySet().stream();
-    if (maybeStateUpdater.isEmpty()) {
-      storageStream =
-          storageStream
-              .parallel(); // if we are not updating the state updater we can use parallel stream
+    // that we can get the storage state hash.
+    // The storage tries of the accounts are independent and are updated and hashed in parallel,
+    // the state updater being safe to use concurrently for the storage.
+    try (final OperationTimer.TimingContext ignored = startStateRootPhaseTimer("storage_tries")) {
+      STATE_ROOT_POOL
+          .submit(
+              () ->
+                  worldStateUpdater.getStorageToUpdate().entrySet().parallelStream()
+                      .forEach(
+                          addressMapEntry ->
+                              updateAccountStorageState(
+                                  maybeStateUpdater, worldStateUpdater, addressMapEntry)))
+          .join();
     }
-    storageStream.forEach(
-        addressMapEntry ->
-            updateAccountStorageState(maybeStateUpdater, worldStateUpdater, addressMapEntry));
 
     // Third update the code.  This has the side effect of ensuring a code hash is calculated.
-    updateCode(maybeStateUpdater, worldStateUpdater);
+    try (final OperationTimer.TimingContext ignored = startStateRootPhaseTimer("code")) {
+      updateCode(maybeStateUpdater, worldStateUpdater);
+    }
 
     // next walk the account trie
     final MerkleTrie<Bytes, Bytes> accountTrie =
@@ -157,21 +170,28 @@ public class BonsaiWorldState extends PathBasedWorldState {
             worldStateRootHash);
 
     // for manicured tries and composting, collect branches here (not implemented)
-    updateTheAccounts(maybeStateUpdater, worldStateUpdater, accountTrie);
+    try (final OperationTimer.TimingContext ignored = startStateRootPhaseTimer("account_trie")) {
+      updateTheAccounts(maybeStateUpdater, worldStateUpdater, accountTrie);
+    }
 
-    // TODO write to a cache and then generate a layer update from that and the
-    // DB tx updates.  Right now it is just DB updates.
-    maybeStateUpdater.ifPresent(
-        bonsaiUpdater ->
-            accountTrie.commit(
-                (location, hash, value) ->
-                    writeTrieNode(
-                        TRIE_BRANCH_STORAGE,
-                        bonsaiUpdater.getWorldStateTransaction(),
-                        location,
-                        value)));
-    final Bytes32 rootHash = accountTrie.getRootHash();
-    return Hash.wrap(rootHash);
+    try (final OperationTimer.TimingContext ignored =
+        startStateRootPhaseTimer("account_trie_commit")) {
+      // hash the dirty nodes in parallel, committing and getting the root then reuse their hashes
+      final Bytes32 rootHash = computeRootHash(accountTrie);
+
+      // TODO write to a cache and then generate a layer update from that and the
+      // DB tx updates.  Right now it is just DB updates.
+      maybeStateUpdater.ifPresent(
+          bonsaiUpdater ->
+              accountTrie.commit(
+                  (location, hash, value) ->
+                      writeTrieNode(
+                          TRIE_BRANCH_STORAGE,
+                          bonsaiUpdater.getWorldStateTransaction(),
+                          location,
+                          value)));
+      return Hash.wrap(rootHash);
+    }
   }
 
   private void updateTheAccounts(
@@ -291,6 +311,7 @@ public class BonsaiWorldState extends PathBasedWorldState {
 
       final BonsaiAccount accountUpdated = accountValue.getUpdated();
       if (accountUpdated != null) {
+        computeRootHash(storageTrie);
         maybeStateUpdater.ifPresent(
             bonsaiUpdater ->
                 storageTrie.commit(
@@ -388,8 +409,9 @@ public class BonsaiWorldState extends PathBasedWorldState {
   @Override
   public Account get(final Address address) {
     return getWorldStateStorage()
-        .getAccount(address.addressHash())
-        .map(bytes -> BonsaiAccount.fromRLP(accumulator, address, bytes, true, codeCache))
+        .getAccount(
+            address.addressHash(),
+            bytes -> BonsaiAccount.fromRLP(accumulator, address, bytes, true, codeCache))
         .orElse(null);
   }
 
@@ -466,6 +488,17 @@ public class BonsaiWorldState extends PathBasedWorldState {
     this.bonsaiCachedMerkleTrieLoader = new NoopBonsaiCachedMerkleTrieLoader();
   }
 
+  private Bytes32 computeRootHash(final MerkleTrie<Bytes, Bytes> trie) {
+    if (trie instanceof StoredMerkleTrie<Bytes, Bytes> storedTrie) {
+      return storedTrie.getRootHash(STATE_ROOT_POOL);
+    }
+    return trie.getRootHash();
+  }
+
+  private OperationTimer.TimingContext startStateRootPhaseTimer(final String phase) {
+    return bonsaiCachedMerkleTrieLoader.startStateRootPhaseTimer(phase);
+  }
+
   private MerkleTrie<Bytes, Bytes> createTrie(final NodeLoader nodeLoader, final Bytes32 rootHash) {
     if (worldStateConfig.isTrieDisabled()) {
       return new NoOpMerkleTrie<>();
@@ -204,8 +204,12 @@ public abstract class PathBasedAccount implements MutableAccount, AccountValue {
 
     // cache miss get the code from the disk, set it and put it in the cache
     final Bytes byteCode = context.getCode(address, codeHash).orElse(Bytes.EMPTY);
-    code = new CodeV0(byteCode, codeHash);
-    Optional.ofNullable(codeCache).ifPresent(c -> c.put(codeHash, code));
+    if (codeCache == null) {
+      code = new CodeV0(byteCode, codeHash);
+    } else {
+      code = codeCache.createCode(codeHash, byteCode);
+      codeCache.put(codeHash, code);
+    }
 
     return code;
   }
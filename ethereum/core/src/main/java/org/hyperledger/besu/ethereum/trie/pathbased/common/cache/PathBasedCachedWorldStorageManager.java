@@ -15,6 +15,8 @@
 package org.hyperledger.besu.ethereum.trie.pathbased.common.cache;
 
 import static org.hyperledger.besu.ethereum.trie.pathbased.common.provider.WorldStateQueryParams.withBlockHeaderAndNoUpdateNodeHead;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_CACHED_LAYERS_HEAP_SHARE;
+import static org.hyperledger.besu.metrics.BesuMetricCategory.BONSAI_CACHE;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
@@ -23,17 +25,27 @@ import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorld
 import org.hyperledger.besu.ethereum.trie.pathbased.common.StorageSubscriber;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.PathBasedWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedLayeredWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedSnapshotWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.metrics.ObservableMetricsSystem;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledSuppliedMetric;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 import com.github.benmanes.caffeine.cache.Cache;
@@ -42,8 +54,22 @@ import org.apache.tuweni.bytes.Bytes32;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Caches the world states of recent blocks, the canonical head and the fork tips being built on.
+ *
+ * <p>The cache is bounded both by its number of layers and by their estimated memory footprint.
+ * When either bound is exceeded the least recently used layers no other cached layer is built on
+ * are evicted, except for the layer of the head world state. The footprint only covers the changes
+ * the fork layers keep on the heap: a layer reading a database snapshot is counted as a small fixed
+ * overhead, whatever the database keeps pinned for the snapshot. Hits are counted by depth, the
+ * number of blocks between the head and the cached layer.
+ */
 public abstract class PathBasedCachedWorldStorageManager implements StorageSubscriber {
   public static final long RETAINED_LAYERS = 512; // at least 256 + typical rollbacks
+
+  /** The lowest depth of each bucket of the hit counts. */
+  static final int[] HIT_DEPTH_BUCKETS = {0, 1, 2, 4, 8, 16, 32, 64, 128, 256};
+
   private static final Logger LOG =
       LoggerFactory.getLogger(PathBasedCachedWorldStorageManager.class);
   private final PathBasedWorldStateProvider archive;
@@ -57,6 +83,14 @@ public abstract class PathBasedCachedWorldStorageManager implements StorageSubsc
 
   private final PathBasedWorldStateKeyValueStorage rootWorldStateStorage;
   private final Map<Bytes32, PathBasedCachedWorldView> cachedWorldStatesByHash;
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final AtomicLong accessClock = new AtomicLong();
+  private volatile Counter evictionsCounter = NoOpMetricsSystem.NO_OP_COUNTER;
+  private final LongAdder[] hitsByDepth = new LongAdder[HIT_DEPTH_BUCKETS.length];
+  private volatile long maxCachedLayersBytes =
+      (long) (Runtime.getRuntime().maxMemory() * DEFAULT_CACHED_LAYERS_HEAP_SHARE);
+  private volatile Hash headBlockHash = Hash.ZERO;
+  private volatile long headBlockNumber;
 
   protected PathBasedCachedWorldStorageManager(
       final PathBasedWorldStateProvider archive,
@@ -70,73 +104,218 @@ public abstract class PathBasedCachedWorldStorageManager implements StorageSubsc
     this.archive = archive;
     this.evmConfiguration = evmConfiguration;
     this.worldStateConfig = worldStateConfig;
+    for (int i = 0; i < hitsByDepth.length; i++) {
+      hitsByDepth[i] = new LongAdder();
+    }
   }
 
-  public synchronized void addCachedLayer(
+  /**
+   * Sets the share of the maximum heap size the cached layers can use.
+   *
+   * @param heapShare the share of the maximum heap size
+   */
+  public void setCachedLayersHeapShare(final double heapShare) {
+    this.maxCachedLayersBytes = (long) (Runtime.getRuntime().maxMemory() * heapShare);
+  }
+
+  /**
+   * Registers the metrics of the cached layers.
+   *
+   * @param metricsSystem the metrics system to use
+   */
+  public void setupMetricsSystem(final ObservableMetricsSystem metricsSystem) {
+    metricsSystem.createLongGauge(
+        BONSAI_CACHE,
+        "cached_layers",
+        "Current number of cached world state layers",
+        cachedWorldStatesByHash::size);
+    metricsSystem.createLongGauge(
+        BONSAI_CACHE,
+        "cached_layers_bytes",
+        "Estimated memory footprint of the cached world state layers",
+        this::getCachedLayersMemoryFootprint);
+    evictionsCounter =
+        metricsSystem.createCounter(
+            BONSAI_CACHE,
+            "cached_layers_evictions",
+            "Total number of world state layers evicted from the cache");
+    final LabelledSuppliedMetric hits =
+        metricsSystem.createLabelledSuppliedCounter(
+            BONSAI_CACHE,
+            "cached_layers_hits",
+            "Number of world states served by a cached layer, by depth below the head",
+            "depth");
+    for (int i = 0; i < HIT_DEPTH_BUCKETS.length; i++) {
+      hits.labels(hitsByDepth[i]::sum, depthBucketLabel(i));
+    }
+  }
+
+  public void addCachedLayer(
       final BlockHeader blockHeader,
       final Hash worldStateRootHash,
       final PathBasedWorldState forWorldState) {
     final Optional<PathBasedCachedWorldView> cachedPathBasedWorldView =
         Optional.ofNullable(this.cachedWorldStatesByHash.get(blockHeader.getBlockHash()));
+    if (forWorldState.isModifyingHeadWorldState()) {
+      headBlockHash = blockHeader.getHash();
+      headBlockNumber = blockHeader.getNumber();
+    }
     if (cachedPathBasedWorldView.isPresent()) {
       // only replace if it is a layered storage
       if (forWorldState.isModifyingHeadWorldState()
           && cachedPathBasedWorldView.get().getWorldStateStorage()
               instanceof PathBasedLayeredWorldStateKeyValueStorage) {
-        LOG.atDebug()
-            .setMessage("updating layered world state for block {}, state root hash {}")
-            .addArgument(blockHeader::toLogString)
-            .addArgument(worldStateRootHash::toShortHexString)
-            .log();
-        cachedPathBasedWorldView
-            .get()
-            .updateWorldStateStorage(
-                createSnapshotKeyValueStorage(forWorldState.getWorldStateStorage()));
+        // an eviction closes the layers it removes, so it is held off while the storage is
+        // replaced, and a layer evicted in the meantime is left closed
+        evictionLock.lock();
+        try {
+          if (cachedWorldStatesByHash.get(blockHeader.getBlockHash())
+              == cachedPathBasedWorldView.get()) {
+            LOG.atDebug()
+                .setMessage("updating layered world state for block {}, state root hash {}")
+                .addArgument(blockHeader::toLogString)
+                .addArgument(worldStateRootHash::toShortHexString)
+                .log();
+            cachedPathBasedWorldView
+                .get()
+                .updateWorldStateStorage(
+                    createSnapshotKeyValueStorage(forWorldState.getWorldStateStorage()));
+          }
+        } finally {
+          evictionLock.unlock();
+        }
       }
+      cachedPathBasedWorldView.get().setLastAccess(accessClock.incrementAndGet());
     } else {
       LOG.atDebug()
           .setMessage("adding layered world state for block {}, state root hash {}")
           .addArgument(blockHeader::toLogString)
           .addArgument(worldStateRootHash::toShortHexString)
           .log();
+      final PathBasedCachedWorldView newWorldView;
       if (forWorldState.isModifyingHeadWorldState()) {
-        cachedWorldStatesByHash.put(
-            blockHeader.getHash(),
+        newWorldView =
             new PathBasedCachedWorldView(
-                blockHeader, createSnapshotKeyValueStorage(forWorldState.getWorldStateStorage())));
+                blockHeader, createSnapshotKeyValueStorage(forWorldState.getWorldStateStorage()));
       } else {
         // otherwise, add the layer to the cache
-        cachedWorldStatesByHash.put(
-            blockHeader.getHash(),
+        newWorldView =
             new PathBasedCachedWorldView(
                 blockHeader,
                 ((PathBasedLayeredWorldStateKeyValueStorage) forWorldState.getWorldStateStorage())
-                    .clone()));
+                    .clone());
+      }
+      newWorldView.setLastAccess(accessClock.incrementAndGet());
+      if (cachedWorldStatesByHash.putIfAbsent(blockHeader.getHash(), newWorldView) != null) {
+        // another thread cached this block first
+        newWorldView.close();
+      } else {
+        // add stateroot -> blockHeader cache entry
+        stateRootToBlockHeaderCache.put(blockHeader.getStateRoot(), blockHeader);
+      }
+    }
+    evictCachedLayers();
+  }
+
+  private void evictCachedLayers() {
+    // a single thread evicts at a time, the others leave it to the next added layer
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      long cachedBytes = getCachedLayersMemoryFootprint();
+      if (cachedWorldStatesByHash.size() <= RETAINED_LAYERS
+          && cachedBytes <= maxCachedLayersBytes) {
+        return;
+      }
+      // a layer stays open, and its changes on the heap, as long as the cached layers built on it
+      // are: only the layers no other cached layer is built on are evicted, least recently used
+      // first, which in turn may leave their parent evictable
+      final Map<PathBasedWorldStateKeyValueStorage, PathBasedCachedWorldView> layersByStorage =
+          new IdentityHashMap<>();
+      cachedWorldStatesByHash
+          .values()
+          .forEach(layer -> layersByStorage.put(layer.getWorldStateStorage(), layer));
+      final Map<PathBasedCachedWorldView, Integer> childCounts = new IdentityHashMap<>();
+      for (final PathBasedWorldStateKeyValueStorage storage : layersByStorage.keySet()) {
+        parentLayer(storage, layersByStorage)
+            .ifPresent(parent -> childCounts.merge(parent, 1, Integer::sum));
       }
-      // add stateroot -> blockHeader cache entry
-      stateRootToBlockHeaderCache.put(blockHeader.getStateRoot(), blockHeader);
+      final PriorityQueue<PathBasedCachedWorldView> evictable =
+          new PriorityQueue<>(Comparator.comparingLong(PathBasedCachedWorldView::getLastAccess));
+      layersByStorage.values().stream()
+          .filter(layer -> !childCounts.containsKey(layer))
+          .forEach(evictable::add);
+      while ((cachedWorldStatesByHash.size() > RETAINED_LAYERS
+              || cachedBytes > maxCachedLayersBytes)
+          && !evictable.isEmpty()) {
+        final PathBasedCachedWorldView layer = evictable.poll();
+        if (layer.getBlockHash().equals(headBlockHash)
+            || !cachedWorldStatesByHash.remove(layer.getBlockHash(), layer)) {
+          continue;
+        }
+        LOG.atTrace()
+            .setMessage("evicting cached layer for block {}, {} bytes")
+            .addArgument(layer::getBlockHash)
+            .addArgument(layer::getMemoryFootprint)
+            .log();
+        cachedBytes -= layer.getMemoryFootprint();
+        evictionsCounter.inc();
+        parentLayer(layer.getWorldStateStorage(), layersByStorage)
+            .filter(parent -> childCounts.merge(parent, -1, Integer::sum) == 0)
+            .ifPresent(evictable::add);
+        layer.close();
+      }
+    } finally {
+      evictionLock.unlock();
     }
-    scrubCachedLayers(blockHeader.getNumber());
   }
 
-  private synchronized void scrubCachedLayers(final long newMaxHeight) {
-    if (cachedWorldStatesByHash.size() > RETAINED_LAYERS) {
-      final long waterline = newMaxHeight - RETAINED_LAYERS;
-      cachedWorldStatesByHash.values().stream()
-          .filter(layer -> layer.getBlockNumber() < waterline)
-          .toList()
-          .forEach(
-              layer -> {
-                cachedWorldStatesByHash.remove(layer.getBlockHash());
-                layer.close();
-              });
+  private static Optional<PathBasedCachedWorldView> parentLayer(
+      final PathBasedWorldStateKeyValueStorage storage,
+      final Map<PathBasedWorldStateKeyValueStorage, PathBasedCachedWorldView> layersByStorage) {
+    if (storage instanceof PathBasedSnapshotWorldStateKeyValueStorage snapshotStorage) {
+      return Optional.ofNullable(layersByStorage.get(snapshotStorage.getParentWorldStateStorage()));
     }
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the estimated memory footprint of the cached layers.
+   *
+   * @return the estimated footprint in bytes
+   */
+  public long getCachedLayersMemoryFootprint() {
+    return cachedWorldStatesByHash.values().stream()
+        .mapToLong(PathBasedCachedWorldView::getMemoryFootprint)
+        .sum();
+  }
+
+  private PathBasedCachedWorldView recordHit(final PathBasedCachedWorldView cached) {
+    cached.setLastAccess(accessClock.incrementAndGet());
+    final long depth = Math.max(0, headBlockNumber - cached.getBlockNumber());
+    int bucket = HIT_DEPTH_BUCKETS.length - 1;
+    while (HIT_DEPTH_BUCKETS[bucket] > depth) {
+      bucket--;
+    }
+    hitsByDepth[bucket].increment();
+    return cached;
+  }
+
+  static String depthBucketLabel(final int bucket) {
+    final int lowest = HIT_DEPTH_BUCKETS[bucket];
+    if (bucket == HIT_DEPTH_BUCKETS.length - 1) {
+      return lowest + "+";
+    }
+    final int highest = HIT_DEPTH_BUCKETS[bucket + 1] - 1;
+    return lowest == highest ? String.valueOf(lowest) : lowest + "-" + highest;
   }
 
   public Optional<PathBasedWorldState> getWorldState(final Hash blockHash) {
     if (cachedWorldStatesByHash.containsKey(blockHash)) {
       // return a new worldstate using worldstate storage and an isolated copy of the updater
       return Optional.ofNullable(cachedWorldStatesByHash.get(blockHash))
+          .map(this::recordHit)
           .map(
               cached ->
                   createWorldState(
@@ -160,7 +339,6 @@ public abstract class PathBasedCachedWorldStorageManager implements StorageSubsc
 
     return Optional.ofNullable(
             cachedWorldStatesByHash.get(blockHeader.getParentHash())) // search parent block
-        .map(PathBasedCachedWorldView::getWorldStateStorage)
         .or(
             () -> {
               // or else search the nearest state in the cache
@@ -175,9 +353,10 @@ public abstract class PathBasedCachedWorldStorageManager implements StorageSubsc
                   .sorted(
                       Comparator.comparingLong(
                           view -> Math.abs(blockHeader.getNumber() - view.getBlockNumber())))
-                  .map(PathBasedCachedWorldView::getWorldStateStorage)
                   .findFirst();
             })
+        .map(this::recordHit)
+        .map(PathBasedCachedWorldView::getWorldStateStorage)
         .map(
             storage ->
                 createWorldState( // wrap the state in a layered worldstate
@@ -235,6 +414,7 @@ public abstract class PathBasedCachedWorldStorageManager implements StorageSubsc
         .flatMap(
             header ->
                 Optional.ofNullable(cachedWorldStatesByHash.get(header.getHash()))
+                    .map(this::recordHit)
                     .map(PathBasedCachedWorldView::getWorldStateStorage)
                     .or(
                         () -> {
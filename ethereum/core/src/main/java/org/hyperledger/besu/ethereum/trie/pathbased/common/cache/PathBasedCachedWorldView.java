@@ -18,14 +18,21 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.StorageSubscriber;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class PathBasedCachedWorldView implements StorageSubscriber {
+  // heap footprint of a view, on top of the changes of a layer. The database files and blocks a
+  // snapshot keeps pinned are not counted: the memory budget of the views only covers the heap.
+  static final long VIEW_OVERHEAD = 1024;
+
   private PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage;
   private final BlockHeader blockHeader;
   private long worldViewSubscriberId;
+  private volatile long memoryFootprint;
+  private volatile long lastAccess;
   private static final Logger LOG = LoggerFactory.getLogger(PathBasedCachedWorldView.class);
 
   public PathBasedCachedWorldView(
@@ -33,6 +40,7 @@ public class PathBasedCachedWorldView implements StorageSubscriber {
     this.blockHeader = blockHeader;
     this.worldStateKeyValueStorage = worldView;
     this.worldViewSubscriberId = worldStateKeyValueStorage.subscribe(this);
+    this.memoryFootprint = estimateMemoryFootprint(worldView);
   }
 
   public PathBasedWorldStateKeyValueStorage getWorldStateStorage() {
@@ -47,6 +55,18 @@ public class PathBasedCachedWorldView implements StorageSubscriber {
     return blockHeader.getHash();
   }
 
+  public long getMemoryFootprint() {
+    return memoryFootprint;
+  }
+
+  public long getLastAccess() {
+    return lastAccess;
+  }
+
+  public void setLastAccess(final long lastAccess) {
+    this.lastAccess = lastAccess;
+  }
+
   public synchronized void close() {
     worldStateKeyValueStorage.unSubscribe(this.worldViewSubscriberId);
     try {
@@ -63,6 +83,7 @@ public class PathBasedCachedWorldView implements StorageSubscriber {
     final PathBasedWorldStateKeyValueStorage oldWorldStateStorage = this.worldStateKeyValueStorage;
     this.worldStateKeyValueStorage = newWorldStateStorage;
     this.worldViewSubscriberId = newSubscriberId;
+    this.memoryFootprint = estimateMemoryFootprint(newWorldStateStorage);
     try {
       oldWorldStateStorage.close();
     } catch (final Exception e) {
@@ -72,4 +93,14 @@ public class PathBasedCachedWorldView implements StorageSubscriber {
           e);
     }
   }
+
+  private static long estimateMemoryFootprint(
+      final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage) {
+    // a layer keeps the changes of its block on the heap, on top of its parent storage
+    if (worldStateKeyValueStorage.getComposedWorldStateStorage()
+        instanceof SegmentedInMemoryKeyValueStorage inMemoryStorage) {
+      return VIEW_OVERHEAD + inMemoryStorage.estimateMemoryFootprint();
+    }
+    return VIEW_OVERHEAD;
+  }
 }
@@ -26,7 +26,9 @@ import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
 import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.cache.PathBasedCachedWorldStorageManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogLayer;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogManager;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogMerger;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
@@ -73,7 +75,8 @@ public abstract class PathBasedWorldStateProvider implements WorldStateArchive {
             blockchain,
             worldStateKeyValueStorage,
             maxLayersToLoad.orElse(PathBasedCachedWorldStorageManager.RETAINED_LAYERS),
-            pluginContext));
+            pluginContext,
+            worldStateKeyValueStorage.isTrieLogCompactEncodingEnabled()));
   }
 
   public PathBasedWorldStateProvider(
@@ -287,15 +290,23 @@ public abstract class PathBasedWorldStateProvider implements WorldStateArchive {
         final PathBasedWorldStateUpdateAccumulator<?> pathBasedUpdater =
             (PathBasedWorldStateUpdateAccumulator<?>) mutableState.updater();
         try {
+          // merge the layers so that each account and slot is rolled once
+          final TrieLogMerger merger = new TrieLogMerger();
           for (final TrieLog rollBack : rollBacks) {
-            LOG.debug("Attempting Rollback of {}", rollBack.getBlockHash());
-            pathBasedUpdater.rollBack(rollBack);
+            LOG.debug("Merging Rollback of {}", rollBack.getBlockHash());
+            merger.rollBack(rollBack);
           }
           for (int i = rollForwards.size() - 1; i >= 0; i--) {
             final var forward = rollForwards.get(i);
-            LOG.debug("Attempting Rollforward of {}", rollForwards.get(i).getBlockHash());
-            pathBasedUpdater.rollForward(forward);
+            LOG.debug("Merging Rollforward of {}", rollForwards.get(i).getBlockHash());
+            merger.rollForward(forward);
           }
+          final TrieLogLayer merged = merger.build(blockHash);
+          LOG.debug(
+              "Rolling {} merged trie logs, {} accounts changed",
+              merger.getLayerCount(),
+              merged.getAccountChanges().size());
+          pathBasedUpdater.rollForward(merged);
           pathBasedUpdater.commit();
 
           mutableState.persist(blockchain.getBlockHeader(blockHash).get());
@@ -119,6 +119,10 @@ public abstract class PathBasedWorldStateKeyValueStorage
     return trieLogStorage.streamKeys().limit(limit);
   }
 
+  public boolean isTrieLogCompactEncodingEnabled() {
+    return false;
+  }
+
   public Optional<Bytes> getStateTrieNode(final Bytes location) {
     return composedWorldStateStorage
         .get(TRIE_BRANCH_STORAGE, location.toArrayUnsafe())
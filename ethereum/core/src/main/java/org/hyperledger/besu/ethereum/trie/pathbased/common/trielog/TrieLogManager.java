@@ -48,16 +48,29 @@ public class TrieLogManager {
   protected final Subscribers<TrieLogEvent.TrieLogObserver> trieLogObservers = Subscribers.create();
 
   protected final TrieLogFactory trieLogFactory;
+  // the encoding raw layers saved by plugins are stored in, plugins always read and write RLP
+  private final boolean compactEncodingEnabled;
 
   public TrieLogManager(
       final Blockchain blockchain,
       final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage,
       final long maxLayersToLoad,
       final ServiceManager pluginContext) {
+    this(blockchain, worldStateKeyValueStorage, maxLayersToLoad, pluginContext, false);
+  }
+
+  public TrieLogManager(
+      final Blockchain blockchain,
+      final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage,
+      final long maxLayersToLoad,
+      final ServiceManager pluginContext,
+      final boolean compactEncodingEnabled) {
     this.blockchain = blockchain;
     this.rootWorldStateStorage = worldStateKeyValueStorage;
     this.maxLayersToLoad = maxLayersToLoad;
-    this.trieLogFactory = setupTrieLogFactory(pluginContext);
+    this.trieLogFactory = setupTrieLogFactory(pluginContext, compactEncodingEnabled);
+    this.compactEncodingEnabled =
+        compactEncodingEnabled && trieLogFactory instanceof TrieLogFactoryImpl;
   }
 
   public synchronized void saveTrieLog(
@@ -133,7 +146,8 @@ public class TrieLogManager {
     trieLogObservers.unsubscribe(id);
   }
 
-  private TrieLogFactory setupTrieLogFactory(final ServiceManager pluginContext) {
+  private TrieLogFactory setupTrieLogFactory(
+      final ServiceManager pluginContext, final boolean compactEncodingEnabled) {
     // if we have a TrieLogService from pluginContext, use it.
     var trieLogServicez =
         Optional.ofNullable(pluginContext)
@@ -153,14 +167,16 @@ public class TrieLogManager {
       }
     }
     // Otherwise default to TrieLogFactoryImpl
-    return new TrieLogFactoryImpl();
+    return new TrieLogFactoryImpl(compactEncodingEnabled);
   }
 
   private TrieLogProvider getTrieLogProvider() {
     return new TrieLogProvider() {
       @Override
       public Optional<Bytes> getRawTrieLogLayer(final Hash blockHash) {
-        return rootWorldStateStorage.getTrieLog(blockHash).map(Bytes::wrap);
+        return rootWorldStateStorage
+            .getTrieLog(blockHash)
+            .map(trieLog -> Bytes.wrap(TrieLogFactoryImpl.reencode(trieLog, false)));
       }
 
       @Override
@@ -178,7 +194,9 @@ public class TrieLogManager {
         final PathBasedWorldStateKeyValueStorage.Updater updater = rootWorldStateStorage.updater();
         updater
             .getTrieLogStorageTransaction()
-            .put(blockHash.toArrayUnsafe(), trieLog.toArrayUnsafe());
+            .put(
+                blockHash.toArrayUnsafe(),
+                TrieLogFactoryImpl.reencode(trieLog.toArrayUnsafe(), compactEncodingEnabled));
         updater.commitTrieLogOnly();
         // TODO maybe find a way to have a clean and complete trielog for observers
         trieLogObservers.forEach(
@@ -0,0 +1,216 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.trielog;
+
+import org.hyperledger.besu.datatypes.AccountValue;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedValue;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Merges the trie logs rolled back and rolled forward to move a world state from one block to
+ * another into a single layer, so that each account, code and slot is rolled once from its value
+ * at the first block to its value at the last one.
+ *
+ * <p>Layers must be added in the order they are rolled. Each change is checked against the value
+ * left by the previous layers the same way the world state updater checks it against the state, so
+ * layers that don't follow each other are still rejected. Changes the updater ignores, reads and
+ * deletions of zero slots, are ignored as well.
+ */
+public class TrieLogMerger {
+
+  private final TrieLogLayer merged = new TrieLogLayer();
+  private int layerCount;
+
+  /**
+   * Adds a layer to roll back.
+   *
+   * @param layer the layer
+   * @return this merger
+   * @throws IllegalStateException if the layer doesn't follow the previous ones
+   */
+  public TrieLogMerger rollBack(final TrieLog layer) {
+    layerCount++;
+    layer
+        .getAccountChanges()
+        .forEach(
+            (address, change) ->
+                mergeAccountChange(address, change.getUpdated(), change.getPrior()));
+    layer
+        .getCodeChanges()
+        .forEach(
+            (address, change) -> mergeCodeChange(address, change.getUpdated(), change.getPrior()));
+    layer
+        .getStorageChanges()
+        .forEach(
+            (address, storage) ->
+                storage.forEach(
+                    (storageSlotKey, value) ->
+                        mergeStorageChange(
+                            address, storageSlotKey, value.getUpdated(), value.getPrior())));
+    return this;
+  }
+
+  /**
+   * Adds a layer to roll forward.
+   *
+   * @param layer the layer
+   * @return this merger
+   * @throws IllegalStateException if the layer doesn't follow the previous ones
+   */
+  public TrieLogMerger rollForward(final TrieLog layer) {
+    layerCount++;
+    layer
+        .getAccountChanges()
+        .forEach(
+            (address, change) ->
+                mergeAccountChange(address, change.getPrior(), change.getUpdated()));
+    layer
+        .getCodeChanges()
+        .forEach(
+            (address, change) -> mergeCodeChange(address, change.getPrior(), change.getUpdated()));
+    layer
+        .getStorageChanges()
+        .forEach(
+            (address, storage) ->
+                storage.forEach(
+                    (storageSlotKey, value) ->
+                        mergeStorageChange(
+                            address, storageSlotKey, value.getPrior(), value.getUpdated())));
+    return this;
+  }
+
+  /**
+   * Gets the number of layers merged so far.
+   *
+   * @return the number of layers
+   */
+  public int getLayerCount() {
+    return layerCount;
+  }
+
+  /**
+   * Gets the merged layer, to be rolled forward from the first block.
+   *
+   * @param blockHash the hash of the block the merged layer leads to
+   * @return the frozen merged layer
+   */
+  public TrieLogLayer build(final Hash blockHash) {
+    merged.setBlockHash(blockHash);
+    merged.freeze();
+    return merged;
+  }
+
+  private void mergeAccountChange(
+      final Address address,
+      final AccountValue expectedValue,
+      final AccountValue replacementValue) {
+    if (Objects.equals(expectedValue, replacementValue)) {
+      // non-change, a cached read.
+      return;
+    }
+    final PathBasedValue<AccountValue> accountValue = merged.getAccountChanges().get(address);
+    if (accountValue == null) {
+      merged
+          .getAccountChanges()
+          .put(address, new PathBasedValue<>(expectedValue, replacementValue));
+      return;
+    }
+    final AccountValue existingValue = accountValue.getUpdated();
+    if (expectedValue == null) {
+      if (existingValue != null) {
+        throw new IllegalStateException(
+            String.format(
+                "Expected to create account, but the account exists.  Address=%s", address));
+      }
+    } else if (existingValue == null
+        || existingValue.getNonce() != expectedValue.getNonce()
+        || !Objects.equals(existingValue.getBalance(), expectedValue.getBalance())
+        || !Objects.equals(existingValue.getStorageRoot(), expectedValue.getStorageRoot())) {
+      throw new IllegalStateException(
+          String.format(
+              "Old value of account does not match expected value in merged trie logs. Address=%s",
+              address));
+    }
+    accountValue.setUpdated(replacementValue);
+  }
+
+  private void mergeCodeChange(
+      final Address address, final Bytes expectedCode, final Bytes replacementCode) {
+    if (Objects.equals(expectedCode, replacementCode)) {
+      // non-change, a cached read.
+      return;
+    }
+    final PathBasedValue<Bytes> codeValue = merged.getCodeChanges().get(address);
+    if (codeValue == null) {
+      merged.getCodeChanges().put(address, new PathBasedValue<>(expectedCode, replacementCode));
+      return;
+    }
+    final Bytes existingCode = codeValue.getUpdated();
+    if ((expectedCode == null || expectedCode.isEmpty())
+        && existingCode != null
+        && !existingCode.isEmpty()) {
+      // the updater overwrites the code in this case, keep the same behaviour
+    } else if (!Objects.equals(expectedCode, existingCode)) {
+      throw new IllegalStateException(
+          String.format(
+              "Old value of code does not match expected value in merged trie logs. Address=%s",
+              address));
+    }
+    codeValue.setUpdated(replacementCode);
+  }
+
+  private void mergeStorageChange(
+      final Address address,
+      final StorageSlotKey storageSlotKey,
+      final UInt256 expectedValue,
+      final UInt256 replacementValue) {
+    if (Objects.equals(expectedValue, replacementValue)) {
+      // non-change, a cached read.
+      return;
+    }
+    if (replacementValue == null && expectedValue != null && expectedValue.isZero()) {
+      // corner case on deletes, non-change
+      return;
+    }
+    final Map<StorageSlotKey, PathBasedValue<UInt256>> storageMap =
+        merged.getStorageChanges().computeIfAbsent(address, a -> new TreeMap<>());
+    final PathBasedValue<UInt256> slotValue = storageMap.get(storageSlotKey);
+    if (slotValue == null) {
+      storageMap.put(storageSlotKey, new PathBasedValue<>(expectedValue, replacementValue));
+      return;
+    }
+    final UInt256 existingValue = slotValue.getUpdated();
+    if (!Objects.equals(
+        expectedValue == null ? UInt256.ZERO : expectedValue,
+        existingValue == null ? UInt256.ZERO : existingValue)) {
+      throw new IllegalStateException(
+          String.format(
+              "Old value of slot does not match expected value in merged trie logs. "
+                  + "Account=%s SlotKey=%s",
+              address, storageSlotKey));
+    }
+    slotValue.setUpdated(replacementValue);
+  }
+}
@@ -77,6 +77,8 @@ public abstract class PathBasedWorldStateUpdateAccumulator<ACCOUNT extends PathB
   private final Map<UInt256, Hash> storageKeyHashLookup = new ConcurrentHashMap<>();
   protected boolean isAccumulatorStateChanged;
 
+  private ReadListener readListener;
+
   public PathBasedWorldStateUpdateAccumulator(
       final PathBasedWorldView world,
       final Consumer<PathBasedValue<ACCOUNT>> accountPreloader,
@@ -223,6 +225,29 @@ public abstract class PathBasedWorldStateUpdateAccumulator<ACCOUNT extends PathB
     this.isAccumulatorStateChanged = true;
   }
 
+  /**
+   * Creates a copy of the pending state changes that shares no mutable value with this
+   * accumulator, so it can be read from other threads while this accumulator keeps changing.
+   *
+   * @return the detached copy
+   */
+  public PathBasedWorldStateUpdateAccumulator<ACCOUNT> detachedCopy() {
+    final PathBasedWorldStateUpdateAccumulator<ACCOUNT> copy = copy();
+    copy.reset();
+    copy.importStateChangesFromSource(this);
+    return copy;
+  }
+
+  /**
+   * Registers a listener notified of every account and storage slot read through this
+   * accumulator, whether the value is served from the pending changes or from the world state.
+   *
+   * @param readListener the listener, or null to stop tracking reads
+   */
+  public void setReadListener(final ReadListener readListener) {
+    this.readListener = readListener;
+  }
+
   protected Consumer<PathBasedValue<ACCOUNT>> getAccountPreloader() {
     return accountPreloader;
   }
@@ -306,6 +331,9 @@ public abstract class PathBasedWorldStateUpdateAccumulator<ACCOUNT extends PathB
 
   protected ACCOUNT loadAccount(
       final Address address, final Function<PathBasedValue<ACCOUNT>, ACCOUNT> accountFunction) {
+    if (readListener != null) {
+      readListener.onAccountRead(address);
+    }
     try {
       final PathBasedValue<ACCOUNT> pathBasedValue = accountsToUpdate.get(address);
       if (pathBasedValue == null) {
@@ -535,6 +563,9 @@ public abstract class PathBasedWorldStateUpdateAccumulator<ACCOUNT extends PathB
   @Override
   public Optional<UInt256> getStorageValueByStorageSlotKey(
       final Address address, final StorageSlotKey storageSlotKey) {
+    if (readListener != null) {
+      readListener.onStorageRead(address, storageSlotKey);
+    }
     final Map<StorageSlotKey, PathBasedValue<UInt256>> localAccountStorage =
         storageToUpdate.get(address);
     if (localAccountStorage != null) {
@@ -568,6 +599,9 @@ public abstract class PathBasedWorldStateUpdateAccumulator<ACCOUNT extends PathB
     // TODO maybe log the read into the trie layer?
     StorageSlotKey storageSlotKey =
         new StorageSlotKey(hashAndSaveSlotPreImage(storageKey), Optional.of(storageKey));
+    if (readListener != null) {
+      readListener.onStorageRead(address, storageSlotKey);
+    }
     final Map<StorageSlotKey, PathBasedValue<UInt256>> localAccountStorage =
         storageToUpdate.get(address);
     if (localAccountStorage != null) {
@@ -957,4 +991,11 @@ public abstract class PathBasedWorldStateUpdateAccumulator<ACCOUNT extends PathB
 
   protected abstract void assertCloseEnoughForDiffing(
       final ACCOUNT source, final AccountValue account, final String context);
+
+  /** Receives the accounts and storage slots read through an accumulator. */
+  public interface ReadListener {
+    void onAccountRead(Address address);
+
+    void onStorageRead(Address address, StorageSlotKey storageSlotKey);
+  }
 }
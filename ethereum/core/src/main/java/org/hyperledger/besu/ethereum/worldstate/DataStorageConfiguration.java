@@ -24,6 +24,7 @@ import org.immutables.value.Value;
 public interface DataStorageConfiguration {
 
   boolean DEFAULT_RECEIPT_COMPACTION_ENABLED = true;
+  boolean DEFAULT_RECEIPT_COLUMNAR_ENCODING_ENABLED = false;
   boolean DEFAULT_HISTORY_EXPIRY_PRUNE_ENABLED = false;
 
   DataStorageConfiguration DEFAULT_CONFIG =
@@ -66,6 +67,11 @@ public interface DataStorageConfiguration {
     return DEFAULT_RECEIPT_COMPACTION_ENABLED;
   }
 
+  @Value.Default
+  default boolean getReceiptColumnarEncodingEnabled() {
+    return DEFAULT_RECEIPT_COLUMNAR_ENCODING_ENABLED;
+  }
+
   @Value.Default
   default boolean getHistoryExpiryPruneEnabled() {
     return DEFAULT_HISTORY_EXPIRY_PRUNE_ENABLED;
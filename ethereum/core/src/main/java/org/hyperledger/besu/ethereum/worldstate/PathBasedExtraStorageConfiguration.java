@@ -80,6 +80,10 @@ public interface PathBasedExtraStorageConfiguration {
 
     boolean DEFAULT_FULL_FLAT_DB_ENABLED = true;
     boolean DEFAULT_CODE_USING_CODE_HASH_ENABLED = true;
+    double DEFAULT_TRIE_NODE_CACHE_HEAP_SHARE = 0.02;
+    int DEFAULT_TRIE_NODE_CACHE_PINNED_ACCOUNT_LEVELS = 2;
+    boolean DEFAULT_TRIE_LOG_COMPACT_ENCODING_ENABLED = false;
+    double DEFAULT_CACHED_LAYERS_HEAP_SHARE = 0.2;
 
     @Value.Default
     default boolean getFullFlatDbEnabled() {
@@ -90,5 +94,25 @@ public interface PathBasedExtraStorageConfiguration {
     default boolean getCodeStoredByCodeHashEnabled() {
       return DEFAULT_CODE_USING_CODE_HASH_ENABLED;
     }
+
+    @Value.Default
+    default double getTrieNodeCacheHeapShare() {
+      return DEFAULT_TRIE_NODE_CACHE_HEAP_SHARE;
+    }
+
+    @Value.Default
+    default int getTrieNodeCachePinnedAccountLevels() {
+      return DEFAULT_TRIE_NODE_CACHE_PINNED_ACCOUNT_LEVELS;
+    }
+
+    @Value.Default
+    default boolean getTrieLogCompactEncodingEnabled() {
+      return DEFAULT_TRIE_LOG_COMPACT_ENCODING_ENABLED;
+    }
+
+    @Value.Default
+    default double getCachedLayersHeapShare() {
+      return DEFAULT_CACHED_LAYERS_HEAP_SHARE;
+    }
   }
 }
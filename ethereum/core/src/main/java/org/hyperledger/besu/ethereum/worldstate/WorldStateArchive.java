@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.worldstate;
 
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.proof.WorldStateProof;
@@ -89,6 +90,14 @@ public interface WorldStateArchive extends Closeable {
    */
   void heal(Optional<Address> maybeAccountToRepair, Bytes location);
 
+  /**
+   * Starts loading in the background the state a block is about to access, before it is executed.
+   * This is only a hint, archives that cannot take advantage of it ignore it.
+   *
+   * @param block the block about to be executed
+   */
+  default void prefetch(final Block block) {}
+
   /** A world state healer */
   @FunctionalInterface
   interface WorldStateHealer {
@@ -0,0 +1,121 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core.encoding.receipt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ColumnarTransactionReceiptsTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void decodesTheEncodedReceipts(final boolean compactedLogs) {
+    final List<TransactionReceipt> receipts =
+        List.of(
+            gen.receipt(21_000L),
+            new TransactionReceipt(
+                TransactionType.ACCESS_LIST,
+                0,
+                42_000L,
+                List.of(gen.log(1)),
+                Optional.of(Bytes.fromHexString("0x1122334455667788"))),
+            new TransactionReceipt(
+                Hash.hash(Bytes.of(1)), 63_000L, List.of(gen.log(2)), Optional.empty()),
+            new TransactionReceipt(
+                TransactionType.FRONTIER, 1, 63_000L, List.of(), Optional.empty()),
+            new TransactionReceipt(
+                TransactionType.EIP1559, 1, 4_000_000L, List.of(gen.log(4)), Optional.empty()));
+
+    final Bytes encoded = ColumnarTransactionReceiptsEncoder.encode(receipts, compactedLogs);
+    final List<TransactionReceipt> decoded = ColumnarTransactionReceiptsDecoder.decode(encoded);
+
+    assertThat(ColumnarTransactionReceiptsDecoder.isColumnar(encoded)).isTrue();
+    assertThat(decoded).isEqualTo(receipts);
+    for (int i = 0; i < receipts.size(); i++) {
+      final TransactionReceipt receipt = receipts.get(i);
+      assertThat(decoded.get(i).getTransactionType()).isEqualTo(receipt.getTransactionType());
+      assertThat(decoded.get(i).getTransactionReceiptType())
+          .isEqualTo(receipt.getTransactionReceiptType());
+      assertThat(decoded.get(i).getRevertReason()).isEqualTo(receipt.getRevertReason());
+      assertThat(decoded.get(i).getBloomFilter()).isEqualTo(receipt.getBloomFilter());
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void isSmallerThanTheRlpEncoding(final boolean compactedLogs) {
+    final List<TransactionReceipt> receipts =
+        List.of(
+            gen.receipt(21_000L),
+            gen.receipt(63_000L),
+            gen.receipt(150_000L),
+            gen.receipt(1_000_000L));
+    final TransactionReceiptEncodingConfiguration rlpEncoding =
+        compactedLogs
+            ? TransactionReceiptEncodingConfiguration.STORAGE_WITH_COMPACTION
+            : TransactionReceiptEncodingConfiguration.STORAGE_WITHOUT_COMPACTION;
+    final Bytes rlp =
+        RLP.encode(
+            out ->
+                out.writeList(
+                    receipts,
+                    (receipt, receiptOut) ->
+                        TransactionReceiptEncoder.writeTo(receipt, receiptOut, rlpEncoding)));
+
+    assertThat(ColumnarTransactionReceiptsDecoder.isColumnar(rlp)).isFalse();
+    assertThat(ColumnarTransactionReceiptsEncoder.encode(receipts, compactedLogs).size())
+        .isLessThanOrEqualTo(rlp.size());
+  }
+
+  @Test
+  public void onlyEncodesIncreasingCumulativeGas() {
+    assertThat(
+            ColumnarTransactionReceiptsEncoder.canEncode(
+                List.of(gen.receipt(42_000L), gen.receipt(42_000L))))
+        .isTrue();
+    assertThat(
+            ColumnarTransactionReceiptsEncoder.canEncode(
+                List.of(gen.receipt(42_000L), gen.receipt(21_000L))))
+        .isFalse();
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void rejectsTruncatedEncoding(final boolean compactedLogs) {
+    final Bytes encoded =
+        ColumnarTransactionReceiptsEncoder.encode(List.of(gen.receipt(21_000L)), compactedLogs);
+
+    assertThatThrownBy(
+            () -> ColumnarTransactionReceiptsDecoder.decode(encoded.slice(0, encoded.size() - 1)))
+        .isInstanceOf(RLPException.class);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig.createStatefulConfigWithTrie;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.AccountChanges;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.BalanceChange;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.NonceChange;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.SlotChanges;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.SlotRead;
+import org.hyperledger.besu.ethereum.mainnet.block.access.list.BlockAccessList.StorageChange;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.CodeCache;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoOpBonsaiCachedWorldStorageManager;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoopBonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.NoOpTrieLogManager;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.StackedUpdater;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.List;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BlockAccessListPreStateTest {
+
+  private static final Address SENDER = Address.fromHexString("0x1");
+  private static final Address CONTRACT = Address.fromHexString("0x2");
+  private static final UInt256 SLOT = UInt256.ONE;
+
+  // tx 0 and tx 2 are sent by SENDER, tx 1 writes the slot of CONTRACT that tx 2 reads
+  private final BlockAccessList blockAccessList =
+      new BlockAccessList(
+          List.of(
+              new AccountChanges(
+                  SENDER,
+                  List.of(),
+                  List.of(),
+                  List.of(
+                      new BalanceChange(0, Wei.of(90).toBytes()),
+                      new BalanceChange(2, Wei.of(80).toBytes())),
+                  List.of(new NonceChange(0, 1), new NonceChange(2, 2)),
+                  List.of()),
+              new AccountChanges(
+                  CONTRACT,
+                  List.of(
+                      new SlotChanges(
+                          new StorageSlotKey(SLOT),
+                          List.of(new StorageChange(1, UInt256.valueOf(7))))),
+                  List.of(new SlotRead(new StorageSlotKey(UInt256.valueOf(2)))),
+                  List.of(),
+                  List.of(),
+                  List.of())));
+
+  private final BlockAccessListPreState preState = new BlockAccessListPreState(blockAccessList);
+  private BonsaiWorldStateUpdateAccumulator accumulator;
+
+  @BeforeEach
+  void setUp() {
+    final BonsaiWorldStateKeyValueStorage storage =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    final BonsaiWorldState worldState =
+        new BonsaiWorldState(
+            storage,
+            new NoopBonsaiCachedMerkleTrieLoader(),
+            new NoOpBonsaiCachedWorldStorageManager(
+                storage, EvmConfiguration.DEFAULT, new CodeCache()),
+            new NoOpTrieLogManager(),
+            EvmConfiguration.DEFAULT,
+            createStatefulConfigWithTrie(),
+            new CodeCache());
+    accumulator = (BonsaiWorldStateUpdateAccumulator) worldState.updater();
+    accumulator.createAccount(SENDER, 0, Wei.of(100));
+    accumulator.commit();
+  }
+
+  @Test
+  void appliesOnlyTheWritesOfPreviousTransactions() {
+    preState.applyTo(accumulator, 2);
+
+    final Account sender = accumulator.get(SENDER);
+    assertThat(sender.getBalance()).isEqualTo(Wei.of(90));
+    assertThat(sender.getNonce()).isEqualTo(1);
+    assertThat(accumulator.get(CONTRACT).getStorageValue(SLOT)).isEqualTo(UInt256.valueOf(7));
+  }
+
+  @Test
+  void firstTransactionStartsFromTheBlockState() {
+    preState.applyTo(accumulator, 0);
+
+    assertThat(accumulator.get(SENDER).getBalance()).isEqualTo(Wei.of(100));
+    assertThat(accumulator.get(CONTRACT)).isNull();
+  }
+
+  @Test
+  void matchesWritesAnnouncedForTheTransaction() {
+    preState.applyTo(accumulator, 2);
+    final StackedUpdater<?, ?> transactionUpdater =
+        new StackedUpdater<>(accumulator, EvmConfiguration.DEFAULT);
+    final MutableAccount sender = transactionUpdater.getAccount(SENDER);
+    sender.setBalance(Wei.of(80));
+    sender.setNonce(2);
+    // reading a slot is not a write
+    transactionUpdater.getAccount(CONTRACT).getStorageValue(SLOT);
+
+    assertThat(preState.matchesWrites(2, transactionUpdater)).isTrue();
+    assertThat(preState.matchesWrites(0, transactionUpdater)).isFalse();
+  }
+
+  @Test
+  void detectsWritesMissingFromTheBlockAccessList() {
+    preState.applyTo(accumulator, 2);
+    final StackedUpdater<?, ?> transactionUpdater =
+        new StackedUpdater<>(accumulator, EvmConfiguration.DEFAULT);
+    final MutableAccount sender = transactionUpdater.getAccount(SENDER);
+    sender.setBalance(Wei.of(80));
+    sender.setNonce(2);
+    transactionUpdater.getAccount(CONTRACT).setStorageValue(SLOT, UInt256.valueOf(8));
+
+    assertThat(preState.matchesWrites(2, transactionUpdater)).isFalse();
+  }
+
+  @Test
+  void listsReadAndWrittenSlots() {
+    assertThat(preState.getListedSlots().get(SENDER)).isEmpty();
+    assertThat(preState.getListedSlots().get(CONTRACT))
+        .containsExactlyInAnyOrder(SLOT, UInt256.valueOf(2));
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig.createStatefulConfigWithTrie;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.CodeCache;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoOpBonsaiCachedWorldStorageManager;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoopBonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.NoOpTrieLogManager;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.StackedUpdater;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MultiVersionStateIndexTest {
+
+  private static final Address SENDER = Address.fromHexString("0x1");
+  private static final Address CONTRACT = Address.fromHexString("0x2");
+
+  private final MultiVersionStateIndex index = new MultiVersionStateIndex();
+  private BonsaiWorldStateUpdateAccumulator accumulator;
+
+  @BeforeEach
+  void setUp() {
+    final BonsaiWorldStateKeyValueStorage storage =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    final BonsaiWorldState worldState =
+        new BonsaiWorldState(
+            storage,
+            new NoopBonsaiCachedMerkleTrieLoader(),
+            new NoOpBonsaiCachedWorldStorageManager(
+                storage, EvmConfiguration.DEFAULT, new CodeCache()),
+            new NoOpTrieLogManager(),
+            EvmConfiguration.DEFAULT,
+            createStatefulConfigWithTrie(),
+            new CodeCache());
+    accumulator = (BonsaiWorldStateUpdateAccumulator) worldState.updater();
+  }
+
+  @Test
+  void readListenerRecordsAccountsAndSlots() {
+    final TransactionReadSet readSet = new TransactionReadSet();
+    accumulator.setReadListener(readSet);
+
+    accumulator.get(SENDER);
+    accumulator.getStorageValue(CONTRACT, UInt256.ONE);
+
+    assertThat(readSet.containsAccount(SENDER)).isTrue();
+    assertThat(readSet.getStorage().get(CONTRACT)).containsExactly(new StorageSlotKey(UInt256.ONE));
+  }
+
+  @Test
+  void readsAreInvalidatedByWritesAtOrAfterBase() {
+    final TransactionReadSet readSet = new TransactionReadSet();
+    readSet.onAccountRead(SENDER);
+
+    index.recordAccountWrite(2, SENDER);
+
+    assertThat(index.isValid(readSet, 3)).isTrue();
+    assertThat(index.isValid(readSet, 2)).isFalse();
+    assertThat(index.isValid(readSet, 0)).isFalse();
+  }
+
+  @Test
+  void storageWritesOnlyInvalidateTheWrittenSlots() {
+    final StackedUpdater<?, ?> transactionUpdater =
+        new StackedUpdater<>(accumulator, EvmConfiguration.DEFAULT);
+    final MutableAccount contract = transactionUpdater.createAccount(CONTRACT, 0, Wei.ZERO);
+    contract.setStorageValue(UInt256.ONE, UInt256.valueOf(42));
+    index.recordWrites(1, transactionUpdater);
+
+    final TransactionReadSet otherSlot = new TransactionReadSet();
+    otherSlot.onStorageRead(CONTRACT, new StorageSlotKey(UInt256.valueOf(2)));
+    final TransactionReadSet sameSlot = new TransactionReadSet();
+    sameSlot.onStorageRead(CONTRACT, new StorageSlotKey(UInt256.ONE));
+
+    assertThat(index.isValid(otherSlot, 0)).isTrue();
+    assertThat(index.isValid(sameSlot, 0)).isFalse();
+    assertThat(index.isValid(sameSlot, 2)).isTrue();
+  }
+
+  @Test
+  void clearedStorageInvalidatesAllSlotsOfTheAccount() {
+    final StackedUpdater<?, ?> transactionUpdater =
+        new StackedUpdater<>(accumulator, EvmConfiguration.DEFAULT);
+    transactionUpdater.createAccount(CONTRACT, 0, Wei.ZERO).clearStorage();
+    index.recordWrites(1, transactionUpdater);
+
+    final TransactionReadSet readSet = new TransactionReadSet();
+    readSet.onStorageRead(CONTRACT, new StorageSlotKey(UInt256.valueOf(7)));
+
+    assertThat(index.isValid(readSet, 1)).isFalse();
+  }
+
+  @Test
+  void untrackedWritesInvalidateEveryEarlierBase() {
+    final TransactionReadSet readSet = new TransactionReadSet();
+    index.recordUntrackedWrites(4);
+
+    assertThat(index.isValid(readSet, 4)).isFalse();
+    assertThat(index.isValid(readSet, 5)).isTrue();
+  }
+}
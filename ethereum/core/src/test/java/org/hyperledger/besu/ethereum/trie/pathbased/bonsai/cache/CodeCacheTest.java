@@ -0,0 +1,87 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.code.CodeV0;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+class CodeCacheTest {
+
+  // PUSH1 0x03 JUMP JUMPDEST STOP, repeated so that the code spans several bit mask entries
+  private static final Bytes CODE = Bytes.fromHexString("0x6003565b00".repeat(30));
+  private static final Hash CODE_HASH = Hash.hash(CODE);
+
+  @Test
+  void storesTheJumpDestAnalysisOfNewCode() {
+    final CodeAnalysisStorage storage = new CodeAnalysisStorage(new InMemoryKeyValueStorage());
+    final CodeCache codeCache = new CodeCache();
+    codeCache.setCodeAnalysisStorage(storage);
+
+    final CodeV0 code = (CodeV0) codeCache.createCode(CODE_HASH, CODE);
+
+    await()
+        .untilAsserted(
+            () ->
+                assertThat(storage.getJumpDestBitMask(CODE_HASH, CODE.size()))
+                    .hasValueSatisfying(
+                        bitMask -> assertThat(bitMask).isEqualTo(code.getJumpDestBitMask())));
+  }
+
+  @Test
+  void reusesTheStoredJumpDestAnalysisAfterRestart() {
+    final InMemoryKeyValueStorage keyValueStorage = new InMemoryKeyValueStorage();
+    final long[] storedBitMask = {1L, 2L, 3L};
+    new CodeAnalysisStorage(keyValueStorage).putJumpDestBitMask(CODE_HASH, storedBitMask);
+    final CodeAnalysisStorage storage = new CodeAnalysisStorage(keyValueStorage);
+    await().until(() -> storage.getJumpDestBitMask(CODE_HASH, CODE.size()).isPresent());
+
+    final CodeCache codeCache = new CodeCache();
+    codeCache.setCodeAnalysisStorage(storage);
+
+    // the stored bit mask is used as is rather than computed again
+    assertThat(((CodeV0) codeCache.createCode(CODE_HASH, CODE)).getJumpDestBitMask())
+        .isEqualTo(storedBitMask);
+  }
+
+  @Test
+  void ignoresAnalysisStoredByAnotherVersion() {
+    final InMemoryKeyValueStorage keyValueStorage = new InMemoryKeyValueStorage();
+    final byte[] value = new byte[1 + 3 * Long.BYTES];
+    value[0] = CodeAnalysisStorage.ANALYSIS_VERSION + 1;
+    final var transaction = keyValueStorage.startTransaction();
+    transaction.put(CODE_HASH.toArrayUnsafe(), value);
+    transaction.commit();
+
+    assertThat(new CodeAnalysisStorage(keyValueStorage).getJumpDestBitMask(CODE_HASH, CODE.size()))
+        .isEmpty();
+  }
+
+  @Test
+  void ignoresAnalysisOfAnotherSize() {
+    final InMemoryKeyValueStorage keyValueStorage = new InMemoryKeyValueStorage();
+    final CodeAnalysisStorage storage = new CodeAnalysisStorage(keyValueStorage);
+    storage.putJumpDestBitMask(CODE_HASH, new long[] {1L});
+    await().until(() -> storage.getJumpDestBitMask(CODE_HASH, 1).isPresent());
+
+    assertThat(storage.getJumpDestBitMask(CODE_HASH, CODE.size())).isEmpty();
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+class TrieNodeCacheTest {
+
+  private static final Bytes ROOT_LOCATION = Bytes.EMPTY;
+  private static final Bytes LEAF_LOCATION = Bytes.of(1, 2, 3);
+
+  @Test
+  void cachesNodesByHash() {
+    final TrieNodeCache cache = new TrieNodeCache(1024 * 1024, 0);
+    final Bytes node = Bytes.of(1, 2, 3, 4);
+
+    cache.put(LEAF_LOCATION, Hash.hash(node), node);
+
+    assertThat(cache.get(LEAF_LOCATION, Hash.hash(node))).contains(node);
+    assertThat(cache.get(LEAF_LOCATION, Hash.hash(Bytes.of(5)))).isEmpty();
+  }
+
+  @Test
+  void pinnedNodesAreReplacedByNewerVersionAtSameLocation() {
+    final TrieNodeCache cache = new TrieNodeCache(1024 * 1024, 1);
+    final Bytes oldRoot = Bytes.of(1);
+    final Bytes newRoot = Bytes.of(2);
+
+    cache.put(ROOT_LOCATION, Hash.hash(oldRoot), oldRoot);
+    cache.put(ROOT_LOCATION, Hash.hash(newRoot), newRoot);
+
+    assertThat(cache.isPinned(ROOT_LOCATION)).isTrue();
+    assertThat(cache.isPinned(LEAF_LOCATION)).isFalse();
+    assertThat(cache.get(ROOT_LOCATION, Hash.hash(newRoot))).contains(newRoot);
+    assertThat(cache.get(ROOT_LOCATION, Hash.hash(oldRoot))).isEmpty();
+    assertThat(cache.estimatedSize()).isEqualTo(1);
+  }
+
+  @Test
+  void pinnedNodesSurviveEvictions() {
+    // room for a single evictable node
+    final TrieNodeCache cache = new TrieNodeCache(1024, 1);
+    final Bytes root = Bytes.of(1);
+    cache.put(ROOT_LOCATION, Hash.hash(root), root);
+
+    for (int i = 0; i < 100; i++) {
+      final Bytes node = Bytes.ofUnsignedInt(i);
+      cache.put(LEAF_LOCATION, Hash.hash(node), node);
+    }
+
+    assertThat(cache.get(ROOT_LOCATION, Hash.hash(root))).contains(root);
+  }
+
+  @Test
+  void tracksHitRatioByLevel() {
+    final TrieNodeCache cache = new TrieNodeCache(1024 * 1024, 0);
+    final Bytes node = Bytes.of(1);
+    cache.put(LEAF_LOCATION, Hash.hash(node), node);
+
+    cache.get(LEAF_LOCATION, Hash.hash(node));
+    cache.get(LEAF_LOCATION, Hash.hash(Bytes.of(2)));
+    cache.get(ROOT_LOCATION, Hash.hash(Bytes.of(3)));
+
+    assertThat(cache.hitRatio(LEAF_LOCATION.size())).isEqualTo(0.5);
+    assertThat(cache.hitRatio(ROOT_LOCATION.size())).isEqualTo(0);
+    assertThat(cache.hitRatio(1)).isEqualTo(0);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.AccessListEntry;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+class BonsaiFlatDbPrefetcherTest {
+
+  private static final Address COINBASE = Address.fromHexString("0xc0");
+  private static final Address RECIPIENT = Address.fromHexString("0x01");
+  private static final Address CONTRACT = Address.fromHexString("0x02");
+  private static final Address DELEGATE = Address.fromHexString("0x03");
+
+  @Test
+  void collectsAccountsAndSlotsKnownBeforeExecution() {
+    final KeyPair senderKeys = SignatureAlgorithmFactory.getInstance().generateKeyPair();
+    final KeyPair authorityKeys = SignatureAlgorithmFactory.getInstance().generateKeyPair();
+    final Bytes32 slot = Bytes32.fromHexStringLenient("0x05");
+
+    final Transaction transaction =
+        new TransactionTestFixture()
+            .type(TransactionType.DELEGATE_CODE)
+            .to(Optional.of(RECIPIENT))
+            .accessList(List.of(new AccessListEntry(CONTRACT, List.of(slot))))
+            .codeDelegations(
+                List.of(
+                    TransactionTestFixture.createSignedCodeDelegation(
+                        BigInteger.valueOf(1337), DELEGATE, 0, authorityKeys)))
+            .createTransaction(senderKeys);
+    final Block block =
+        new Block(
+            new BlockHeaderTestFixture().coinbase(COINBASE).buildHeader(),
+            new BlockBody(List.of(transaction), List.of()));
+
+    final Map<Address, Set<StorageSlotKey>> keys = BonsaiFlatDbPrefetcher.collectKeys(block);
+
+    assertThat(keys)
+        .containsOnlyKeys(
+            COINBASE,
+            transaction.getSender(),
+            RECIPIENT,
+            CONTRACT,
+            Address.extract(authorityKeys.getPublicKey()),
+            DELEGATE);
+    assertThat(keys.get(CONTRACT)).containsExactly(new StorageSlotKey(UInt256.fromBytes(slot)));
+    assertThat(keys.get(RECIPIENT)).isEmpty();
+  }
+}
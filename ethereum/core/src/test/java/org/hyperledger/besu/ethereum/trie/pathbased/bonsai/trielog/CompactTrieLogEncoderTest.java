@@ -0,0 +1,135 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogLayer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class CompactTrieLogEncoderTest {
+
+  private static final Address SENDER = Address.fromHexString("0x01");
+  private static final Address CONTRACT = Address.fromHexString("0x02");
+  private static final Address CREATED = Address.fromHexString("0x03");
+  private static final Address DELETED = Address.fromHexString("0x04");
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void decodesTheEncodedLayer(final boolean compress) {
+    final TrieLogLayer layer = layer();
+
+    final byte[] encoded = CompactTrieLogEncoder.encode(layer, compress);
+
+    assertThat(CompactTrieLogDecoder.isCompact(encoded)).isTrue();
+    assertThat(CompactTrieLogDecoder.decode(encoded)).isEqualTo(layer);
+  }
+
+  @Test
+  public void isSmallerThanTheRlpEncoding() {
+    final TrieLogLayer layer = layer();
+    final byte[] rlp = new TrieLogFactoryImpl().serialize(layer);
+
+    assertThat(CompactTrieLogDecoder.isCompact(rlp)).isFalse();
+    assertThat(CompactTrieLogEncoder.encode(layer, false).length).isLessThan(rlp.length);
+  }
+
+  @Test
+  public void deserializesBothEncodings() {
+    final TrieLogLayer layer = layer();
+    final TrieLogFactoryImpl compactFactory = new TrieLogFactoryImpl(true);
+    final TrieLogFactoryImpl rlpFactory = new TrieLogFactoryImpl();
+
+    assertThat(rlpFactory.deserialize(compactFactory.serialize(layer))).isEqualTo(layer);
+    assertThat(compactFactory.deserialize(rlpFactory.serialize(layer))).isEqualTo(layer);
+  }
+
+  @Test
+  public void keepsTheClearedFlags() {
+    final TrieLogLayer layer = new TrieLogLayer().setBlockHash(Hash.ZERO);
+    layer
+        .getAccountChanges()
+        .put(DELETED, new PathBasedValue<>(account(1, Wei.ONE, Hash.EMPTY), null, true));
+    final Map<StorageSlotKey, PathBasedValue<UInt256>> storageChanges = new TreeMap<>();
+    storageChanges.put(slot(1), new PathBasedValue<>(UInt256.ONE, null, true));
+    layer.getStorageChanges().put(DELETED, storageChanges);
+    layer.freeze();
+
+    assertThat(CompactTrieLogDecoder.decode(CompactTrieLogEncoder.encode(layer, true)))
+        .isEqualTo(layer);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void rejectsTruncatedEncoding(final boolean compress) {
+    final byte[] encoded = CompactTrieLogEncoder.encode(layer(), compress);
+
+    assertThatThrownBy(
+            () -> CompactTrieLogDecoder.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+        .isInstanceOf(RLPException.class);
+  }
+
+  private static TrieLogLayer layer() {
+    final Hash codeHash = Hash.hash(Bytes.fromHexString("0x6001"));
+    final TrieLogLayer layer =
+        new TrieLogLayer()
+            .setBlockHash(Hash.hash(Bytes.of(1)))
+            .addAccountChange(
+                SENDER,
+                account(7, Wei.fromEth(3), Hash.EMPTY),
+                account(8, Wei.fromEth(2), Hash.EMPTY))
+            .addAccountChange(
+                CONTRACT,
+                new PmtStateTrieAccountValue(1, Wei.ONE, Hash.hash(Bytes.of(2)), codeHash),
+                new PmtStateTrieAccountValue(1, Wei.of(5), Hash.hash(Bytes.of(3)), codeHash))
+            .addAccountChange(CREATED, null, account(1, Wei.ZERO, codeHash))
+            .addAccountChange(DELETED, account(Long.MAX_VALUE, Wei.MAX_WEI, Hash.EMPTY), null)
+            .addCodeChange(CREATED, null, Bytes.fromHexString("0x6001"), Hash.ZERO)
+            .addStorageChange(CONTRACT, slot(1), UInt256.ONE, UInt256.valueOf(2))
+            .addStorageChange(CONTRACT, slot(2), null, UInt256.MAX_VALUE)
+            .addStorageChange(CONTRACT, slot(3), UInt256.ZERO, null)
+            .addStorageChange(CREATED, slot(1), null, UInt256.ONE);
+    layer.freeze();
+    return layer;
+  }
+
+  private static PmtStateTrieAccountValue account(
+      final long nonce, final Wei balance, final Hash codeHash) {
+    return new PmtStateTrieAccountValue(nonce, balance, Hash.EMPTY_TRIE_HASH, codeHash);
+  }
+
+  private static StorageSlotKey slot(final int index) {
+    return new StorageSlotKey(Hash.hash(Bytes32.leftPad(Bytes.of(index))), Optional.empty());
+  }
+}
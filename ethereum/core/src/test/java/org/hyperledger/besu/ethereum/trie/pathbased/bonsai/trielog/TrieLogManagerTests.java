@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -27,22 +28,32 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.CodeCache;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogLayer;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogManager;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.ServiceManager;
+import org.hyperledger.besu.plugin.services.TrieLogService;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLogProvider;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.tuweni.bytes.Bytes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -73,9 +84,13 @@ class TrieLogManagerTests {
 
   @BeforeEach
   public void setup() {
-    when(bonsaiWorldState.getWorldStateStorage()).thenReturn(bonsaiWorldStateKeyValueStorage);
-    when(bonsaiWorldStateKeyValueStorage.updater()).thenReturn(mockedUpdater);
-    when(mockedUpdater.getTrieLogStorageTransaction()).thenReturn(mockedTrieLogTransaction);
+    lenient()
+        .when(bonsaiWorldState.getWorldStateStorage())
+        .thenReturn(bonsaiWorldStateKeyValueStorage);
+    lenient().when(bonsaiWorldStateKeyValueStorage.updater()).thenReturn(mockedUpdater);
+    lenient()
+        .when(mockedUpdater.getTrieLogStorageTransaction())
+        .thenReturn(mockedTrieLogTransaction);
 
     trieLogManager = new TrieLogManager(blockchain, bonsaiWorldStateKeyValueStorage, 512, null);
   }
@@ -107,4 +122,35 @@ class TrieLogManagerTests {
     verify(mockedTrieLogTransaction, times(1))
         .put(eq(blockHeader.getBlockHash().toArrayUnsafe()), any());
   }
+
+  @Test
+  void pluginsReadAndWriteRlpTrieLogsWhenTheyAreStoredCompact() {
+    final BonsaiWorldStateKeyValueStorage worldStateStorage =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    final TrieLogService trieLogService = mock(TrieLogService.class);
+    when(trieLogService.getObservers()).thenReturn(List.of());
+    when(trieLogService.getTrieLogFactory()).thenReturn(Optional.empty());
+    final ServiceManager serviceManager = mock(ServiceManager.class);
+    when(serviceManager.getService(TrieLogService.class)).thenReturn(Optional.of(trieLogService));
+    new TrieLogManager(blockchain, worldStateStorage, 512, serviceManager, true);
+    final ArgumentCaptor<TrieLogProvider> provider = ArgumentCaptor.forClass(TrieLogProvider.class);
+    verify(trieLogService).configureTrieLogProvider(provider.capture());
+
+    final Bytes rlpTrieLog =
+        Bytes.wrap(
+            new TrieLogFactoryImpl()
+                .serialize(new TrieLogLayer().setBlockHash(blockHeader.getBlockHash())));
+    provider
+        .getValue()
+        .saveRawTrieLogLayer(blockHeader.getBlockHash(), blockHeader.getNumber(), rlpTrieLog);
+
+    assertThat(worldStateStorage.getTrieLog(blockHeader.getBlockHash()))
+        .hasValueSatisfying(
+            trieLog -> assertThat(CompactTrieLogDecoder.isCompact(trieLog)).isTrue());
+    assertThat(provider.getValue().getRawTrieLogLayer(blockHeader.getBlockHash()))
+        .contains(rlpTrieLog);
+  }
 }
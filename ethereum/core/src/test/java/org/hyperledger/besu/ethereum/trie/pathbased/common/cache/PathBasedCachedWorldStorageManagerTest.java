@@ -0,0 +1,205 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.metrics.BesuMetricCategory.BONSAI_CACHE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateLayerStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.PathBasedWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.metrics.ObservableMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledSuppliedMetric;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+class PathBasedCachedWorldStorageManagerTest {
+
+  private static final int ENTRIES_BY_LAYER = 1_000;
+
+  private final PathBasedCachedWorldStorageManager cachedWorldStorageManager =
+      new PathBasedCachedWorldStorageManager(
+          mock(PathBasedWorldStateProvider.class),
+          mock(PathBasedWorldStateKeyValueStorage.class),
+          new ConcurrentHashMap<>(),
+          EvmConfiguration.DEFAULT,
+          WorldStateConfig.createStatefulConfigWithTrie()) {
+        @Override
+        public PathBasedWorldState createWorldState(
+            final PathBasedWorldStateProvider archive,
+            final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage,
+            final EvmConfiguration evmConfiguration) {
+          return mock(PathBasedWorldState.class);
+        }
+
+        @Override
+        public PathBasedWorldStateKeyValueStorage createLayeredKeyValueStorage(
+            final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage) {
+          return worldStateKeyValueStorage;
+        }
+
+        @Override
+        public PathBasedWorldStateKeyValueStorage createSnapshotKeyValueStorage(
+            final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage) {
+          return worldStateKeyValueStorage;
+        }
+      };
+
+  @Test
+  void measuresTheFootprintOfTheLayers() {
+    addLayer(header(1), false);
+    final long layerFootprint = cachedWorldStorageManager.getCachedLayersMemoryFootprint();
+    addLayer(header(2), false);
+
+    assertThat(layerFootprint).isGreaterThan(ENTRIES_BY_LAYER * 2 * 32L);
+    assertThat(cachedWorldStorageManager.getCachedLayersMemoryFootprint())
+        .isEqualTo(2 * layerFootprint);
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedLayersOverTheBudget() {
+    final BlockHeader head = header(10);
+    final BlockHeader recentlyRead = header(9);
+    final BlockHeader leastRecentlyUsed = header(8);
+    final BlockHeader added = header(7);
+    addLayer(head, true);
+    final long layerFootprint = cachedWorldStorageManager.getCachedLayersMemoryFootprint();
+    // room for the head and two layers
+    cachedWorldStorageManager.setCachedLayersHeapShare(
+        (3.5 * layerFootprint) / Runtime.getRuntime().maxMemory());
+
+    addLayer(recentlyRead, false);
+    addLayer(leastRecentlyUsed, false);
+    assertThat(cachedWorldStorageManager.getWorldState(recentlyRead.getHash())).isPresent();
+    addLayer(added, false);
+
+    assertThat(cachedWorldStorageManager.contains(head.getHash())).isTrue();
+    assertThat(cachedWorldStorageManager.contains(recentlyRead.getHash())).isTrue();
+    assertThat(cachedWorldStorageManager.contains(added.getHash())).isTrue();
+    assertThat(cachedWorldStorageManager.contains(leastRecentlyUsed.getHash())).isFalse();
+  }
+
+  @Test
+  void evictsTheLayersOtherLayersAreBuiltOnLast() {
+    final BlockHeader head = header(10);
+    final BlockHeader parent = header(11);
+    final BlockHeader child = header(12);
+    final BlockHeader added = header(13);
+    addLayer(head, true);
+    final long layerFootprint = cachedWorldStorageManager.getCachedLayersMemoryFootprint();
+    // room for the head and two layers
+    cachedWorldStorageManager.setCachedLayersHeapShare(
+        (3.5 * layerFootprint) / Runtime.getRuntime().maxMemory());
+
+    final BonsaiWorldStateLayerStorage parentStorage = addLayer(parent, false);
+    addLayer(child, false, parentStorage);
+    addLayer(added, false);
+
+    // evicting the least recently used layer would not free it, as the child is built on it
+    assertThat(cachedWorldStorageManager.contains(parent.getHash())).isTrue();
+    assertThat(cachedWorldStorageManager.contains(child.getHash())).isFalse();
+    assertThat(cachedWorldStorageManager.contains(added.getHash())).isTrue();
+  }
+
+  @Test
+  void neverEvictsTheHeadLayer() {
+    final BlockHeader head = header(10);
+    addLayer(head, true);
+    cachedWorldStorageManager.setCachedLayersHeapShare(0);
+
+    addLayer(header(9), false);
+
+    assertThat(cachedWorldStorageManager.contains(head.getHash())).isTrue();
+    assertThat(cachedWorldStorageManager.contains(header(9).getHash())).isFalse();
+  }
+
+  @Test
+  void countsEvictions() {
+    final Counter evictions = mock(Counter.class);
+    final ObservableMetricsSystem metricsSystem = mock(ObservableMetricsSystem.class);
+    when(metricsSystem.createCounter(eq(BONSAI_CACHE), eq("cached_layers_evictions"), anyString()))
+        .thenReturn(evictions);
+    when(metricsSystem.createLabelledSuppliedCounter(any(), anyString(), anyString(), any()))
+        .thenReturn(mock(LabelledSuppliedMetric.class));
+    cachedWorldStorageManager.setupMetricsSystem(metricsSystem);
+    addLayer(header(10), true);
+    cachedWorldStorageManager.setCachedLayersHeapShare(0);
+
+    addLayer(header(9), false);
+
+    verify(evictions).inc();
+  }
+
+  @Test
+  void labelsTheHitDepthBuckets() {
+    assertThat(PathBasedCachedWorldStorageManager.depthBucketLabel(0)).isEqualTo("0");
+    assertThat(PathBasedCachedWorldStorageManager.depthBucketLabel(1)).isEqualTo("1");
+    assertThat(PathBasedCachedWorldStorageManager.depthBucketLabel(2)).isEqualTo("2-3");
+    assertThat(PathBasedCachedWorldStorageManager.depthBucketLabel(8)).isEqualTo("128-255");
+    assertThat(PathBasedCachedWorldStorageManager.depthBucketLabel(9)).isEqualTo("256+");
+  }
+
+  private BonsaiWorldStateLayerStorage addLayer(
+      final BlockHeader blockHeader, final boolean isHead) {
+    return addLayer(blockHeader, isHead, null);
+  }
+
+  private BonsaiWorldStateLayerStorage addLayer(
+      final BlockHeader blockHeader,
+      final boolean isHead,
+      final BonsaiWorldStateLayerStorage parentStorage) {
+    final SegmentedInMemoryKeyValueStorage layerStorage = new SegmentedInMemoryKeyValueStorage();
+    final SegmentedKeyValueStorageTransaction tx = layerStorage.startTransaction();
+    for (int i = 0; i < ENTRIES_BY_LAYER; i++) {
+      final byte[] key = new byte[32];
+      key[0] = (byte) (i >> 8);
+      key[1] = (byte) i;
+      tx.put(ACCOUNT_INFO_STATE, key, new byte[32]);
+    }
+    tx.commit();
+
+    final BonsaiWorldStateLayerStorage worldStateStorage = mock(BonsaiWorldStateLayerStorage.class);
+    when(worldStateStorage.getComposedWorldStateStorage()).thenReturn(layerStorage);
+    when(worldStateStorage.clone()).thenReturn(worldStateStorage);
+    when(worldStateStorage.getParentWorldStateStorage()).thenReturn(parentStorage);
+    final PathBasedWorldState worldState = mock(PathBasedWorldState.class);
+    when(worldState.isModifyingHeadWorldState()).thenReturn(isHead);
+    when(worldState.getWorldStateStorage()).thenReturn(worldStateStorage);
+
+    cachedWorldStorageManager.addCachedLayer(blockHeader, blockHeader.getStateRoot(), worldState);
+    return worldStateStorage;
+  }
+
+  private static BlockHeader header(final long number) {
+    return new BlockHeaderTestFixture().number(number).buildHeader();
+  }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.trielog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig.createStatefulConfigWithTrie;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.AccountValue;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.CodeCache;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedAccount;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedValue;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+public class TrieLogMergerTest {
+
+  private static final Address ACCOUNT = Address.fromHexString("0x01");
+  private static final Address CREATED = Address.fromHexString("0x02");
+  private static final StorageSlotKey SLOT = new StorageSlotKey(UInt256.ONE);
+  private static final Hash TARGET = Hash.hash(Bytes.of(3));
+
+  private static final Address RECREATED = Address.fromHexString("0x03");
+  private static final StorageSlotKey CREATED_SLOT = new StorageSlotKey(UInt256.valueOf(2));
+  private static final StorageSlotKey RESTORED_SLOT = new StorageSlotKey(UInt256.valueOf(3));
+  private static final StorageSlotKey ZERO_SLOT = new StorageSlotKey(UInt256.valueOf(4));
+  private static final Bytes RECREATED_CODE = Bytes.of(1, 2, 3);
+  private static final Hash FORK_STORAGE_ROOT = Hash.hash(Bytes.of(4));
+
+  @Test
+  public void mergesRollForwardsIntoTheNetChange() {
+    final TrieLogLayer first =
+        new TrieLogLayer()
+            .setBlockHash(Hash.hash(Bytes.of(1)))
+            .addAccountChange(ACCOUNT, account(1, 10), account(2, 9))
+            .addStorageChange(ACCOUNT, SLOT, UInt256.ONE, UInt256.valueOf(2));
+    final TrieLogLayer second =
+        new TrieLogLayer()
+            .setBlockHash(TARGET)
+            .addAccountChange(ACCOUNT, account(2, 9), account(3, 8))
+            .addAccountChange(CREATED, null, account(0, 1))
+            .addStorageChange(ACCOUNT, SLOT, UInt256.valueOf(2), UInt256.ONE);
+
+    final TrieLogLayer merged =
+        new TrieLogMerger().rollForward(first).rollForward(second).build(TARGET);
+
+    assertThat(merged.getBlockHash()).isEqualTo(TARGET);
+    assertThat(merged.getAccountChanges())
+        .containsEntry(ACCOUNT, new PathBasedValue<>(account(1, 10), account(3, 8)))
+        .containsEntry(CREATED, new PathBasedValue<>(null, account(0, 1)));
+    assertThat(merged.getStorageChanges(ACCOUNT))
+        .containsEntry(SLOT, new PathBasedValue<>(UInt256.ONE, UInt256.ONE));
+  }
+
+  @Test
+  public void mergesRollBacksWithRollForwards() {
+    final TrieLogLayer fork =
+        new TrieLogLayer()
+            .setBlockHash(Hash.hash(Bytes.of(1)))
+            .addAccountChange(ACCOUNT, account(1, 10), account(2, 5))
+            .addCodeChange(CREATED, null, Bytes.of(1), Hash.hash(Bytes.of(1)));
+    final TrieLogLayer canonical =
+        new TrieLogLayer()
+            .setBlockHash(TARGET)
+            .addAccountChange(ACCOUNT, account(1, 10), account(2, 7));
+
+    final TrieLogMerger merger = new TrieLogMerger().rollBack(fork).rollForward(canonical);
+    final TrieLogLayer merged = merger.build(TARGET);
+
+    assertThat(merger.getLayerCount()).isEqualTo(2);
+    assertThat(merged.getAccountChanges())
+        .containsEntry(ACCOUNT, new PathBasedValue<>(account(2, 5), account(2, 7)));
+    assertThat(merged.getCodeChanges())
+        .containsEntry(CREATED, new PathBasedValue<>(Bytes.of(1), null));
+  }
+
+  @Test
+  public void rejectsLayersThatDoNotFollowEachOther() {
+    final TrieLogLayer first =
+        new TrieLogLayer()
+            .setBlockHash(Hash.hash(Bytes.of(1)))
+            .addAccountChange(ACCOUNT, account(1, 10), account(2, 9))
+            .addStorageChange(ACCOUNT, SLOT, UInt256.ONE, UInt256.valueOf(2));
+    final TrieLogLayer unrelatedAccount =
+        new TrieLogLayer()
+            .setBlockHash(TARGET)
+            .addAccountChange(ACCOUNT, account(5, 9), account(6, 8));
+    final TrieLogLayer unrelatedSlot =
+        new TrieLogLayer()
+            .setBlockHash(TARGET)
+            .addStorageChange(ACCOUNT, SLOT, UInt256.valueOf(3), UInt256.ONE);
+
+    assertThatThrownBy(() -> new TrieLogMerger().rollForward(first).rollForward(unrelatedAccount))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> new TrieLogMerger().rollForward(first).rollForward(unrelatedSlot))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void rollsTheSameStateAsTheLayersRolledOneByOne() {
+    final BonsaiWorldState sequentialState = createWorldState();
+    final BonsaiWorldState mergedState = createWorldState();
+    final Hash accountRoot = ((AccountValue) sequentialState.get(ACCOUNT)).getStorageRoot();
+    final Hash recreatedRoot = ((AccountValue) sequentialState.get(RECREATED)).getStorageRoot();
+
+    // the world state is at the head of a fork that is rolled back before two canonical blocks
+    final TrieLogLayer fork =
+        new TrieLogLayer()
+            .setBlockHash(Hash.hash(Bytes.of(1)))
+            .addAccountChange(
+                ACCOUNT, account(1, 10, FORK_STORAGE_ROOT), account(5, 5, accountRoot))
+            .addStorageChange(ACCOUNT, SLOT, UInt256.ONE, UInt256.valueOf(7));
+    final TrieLogLayer first =
+        new TrieLogLayer()
+            .setBlockHash(Hash.hash(Bytes.of(2)))
+            .addAccountChange(
+                ACCOUNT, account(1, 10, FORK_STORAGE_ROOT), account(2, 9, FORK_STORAGE_ROOT))
+            .addStorageChange(ACCOUNT, SLOT, UInt256.ONE, UInt256.valueOf(2))
+            .addStorageChange(ACCOUNT, CREATED_SLOT, null, UInt256.valueOf(5))
+            .addStorageChange(ACCOUNT, RESTORED_SLOT, UInt256.valueOf(9), UInt256.valueOf(10))
+            .addAccountChange(RECREATED, account(1, 5, recreatedRoot), null)
+            .addCodeChange(RECREATED, RECREATED_CODE, null, Hash.hash(Bytes.of(2)))
+            .addStorageChange(RECREATED, SLOT, UInt256.valueOf(3), null);
+    final TrieLogLayer second =
+        new TrieLogLayer()
+            .setBlockHash(TARGET)
+            .addAccountChange(
+                ACCOUNT, account(2, 9, FORK_STORAGE_ROOT), account(3, 8, FORK_STORAGE_ROOT))
+            .addStorageChange(ACCOUNT, SLOT, UInt256.valueOf(2), UInt256.ONE)
+            .addStorageChange(ACCOUNT, CREATED_SLOT, UInt256.valueOf(5), UInt256.ZERO)
+            .addStorageChange(ACCOUNT, RESTORED_SLOT, UInt256.valueOf(10), UInt256.valueOf(9))
+            .addStorageChange(ACCOUNT, ZERO_SLOT, UInt256.ZERO, null)
+            .addAccountChange(RECREATED, null, account(0, 7, Hash.EMPTY_TRIE_HASH))
+            .addCodeChange(RECREATED, null, Bytes.of(4, 5), TARGET)
+            .addStorageChange(RECREATED, SLOT, null, UInt256.valueOf(4));
+
+    final BonsaiWorldStateUpdateAccumulator sequentialUpdater =
+        (BonsaiWorldStateUpdateAccumulator) sequentialState.updater();
+    sequentialUpdater.rollBack(fork);
+    sequentialUpdater.rollForward(first);
+    sequentialUpdater.rollForward(second);
+
+    final BonsaiWorldStateUpdateAccumulator mergedUpdater =
+        (BonsaiWorldStateUpdateAccumulator) mergedState.updater();
+    mergedUpdater.rollForward(
+        new TrieLogMerger().rollBack(fork).rollForward(first).rollForward(second).build(TARGET));
+
+    assertThat(netChanges(mergedUpdater.getAccountsToUpdate(), PathBasedAccount::serializeAccount))
+        .isEqualTo(
+            netChanges(sequentialUpdater.getAccountsToUpdate(), PathBasedAccount::serializeAccount))
+        .containsOnlyKeys(ACCOUNT, RECREATED);
+    assertThat(netChanges(mergedUpdater.getCodeToUpdate(), Function.identity()))
+        .isEqualTo(netChanges(sequentialUpdater.getCodeToUpdate(), Function.identity()))
+        .containsEntry(RECREATED, Optional.of(Bytes.of(4, 5)));
+    assertThat(netStorageChanges(mergedUpdater))
+        .isEqualTo(netStorageChanges(sequentialUpdater))
+        .containsEntry(
+            ACCOUNT,
+            Map.of(SLOT, Optional.of(UInt256.ONE), CREATED_SLOT, Optional.of(UInt256.ZERO)))
+        .containsEntry(RECREATED, Map.of(SLOT, Optional.of(UInt256.valueOf(4))));
+
+    sequentialUpdater.commit();
+    sequentialState.persist(null);
+    mergedUpdater.commit();
+    mergedState.persist(null);
+    assertThat(mergedState.rootHash()).isEqualByComparingTo(sequentialState.rootHash());
+  }
+
+  private static BonsaiWorldState createWorldState() {
+    final BonsaiWorldState worldState =
+        new BonsaiWorldState(
+            InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive(
+                mock(Blockchain.class)),
+            new BonsaiWorldStateKeyValueStorage(
+                new InMemoryKeyValueStorageProvider(),
+                new NoOpMetricsSystem(),
+                DataStorageConfiguration.DEFAULT_BONSAI_CONFIG),
+            EvmConfiguration.DEFAULT,
+            createStatefulConfigWithTrie(),
+            new CodeCache());
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.createAccount(ACCOUNT, 5, Wei.of(5));
+    account.setStorageValue(UInt256.ONE, UInt256.valueOf(7));
+    account.setStorageValue(UInt256.valueOf(3), UInt256.valueOf(9));
+    final MutableAccount recreated = updater.createAccount(RECREATED, 1, Wei.of(5));
+    recreated.setCode(RECREATED_CODE);
+    recreated.setStorageValue(UInt256.ONE, UInt256.valueOf(3));
+    updater.commit();
+    worldState.persist(null);
+    return worldState;
+  }
+
+  /** The changes of an accumulator that write a new value, whatever they were rolled from. */
+  private static <K, V, R> Map<K, Optional<R>> netChanges(
+      final Map<K, ? extends PathBasedValue<V>> changes, final Function<V, R> valueOf) {
+    final Map<K, Optional<R>> netChanges = new HashMap<>();
+    changes.forEach(
+        (key, change) -> {
+          final Optional<R> prior = Optional.ofNullable(change.getPrior()).map(valueOf);
+          final Optional<R> updated = Optional.ofNullable(change.getUpdated()).map(valueOf);
+          if (!prior.equals(updated)) {
+            netChanges.put(key, updated);
+          }
+        });
+    return netChanges;
+  }
+
+  private static Map<Address, Map<StorageSlotKey, Optional<UInt256>>> netStorageChanges(
+      final BonsaiWorldStateUpdateAccumulator accumulator) {
+    final Map<Address, Map<StorageSlotKey, Optional<UInt256>>> netChanges = new HashMap<>();
+    accumulator
+        .getStorageToUpdate()
+        .forEach(
+            (address, slots) -> {
+              final Map<StorageSlotKey, Optional<UInt256>> slotChanges =
+                  netChanges(slots, Function.identity());
+              if (!slotChanges.isEmpty()) {
+                netChanges.put(address, slotChanges);
+              }
+            });
+    return netChanges;
+  }
+
+  private static PmtStateTrieAccountValue account(final long nonce, final long balance) {
+    return account(nonce, balance, Hash.EMPTY_TRIE_HASH);
+  }
+
+  private static PmtStateTrieAccountValue account(
+      final long nonce, final long balance, final Hash storageRoot) {
+    return new PmtStateTrieAccountValue(nonce, Wei.of(balance), storageRoot, Hash.EMPTY);
+  }
+}
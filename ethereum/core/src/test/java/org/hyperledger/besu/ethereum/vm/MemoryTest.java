@@ -240,4 +240,60 @@ public class MemoryTest {
     assertThat(memory.getWord(32)).isEqualTo(Bytes32.ZERO);
     assertThat(memory.getWord(64)).isEqualTo(Bytes32.ZERO);
   }
+
+  @Test
+  public void shouldReadAndWriteWordsAcrossPageBoundaries() {
+    // memory is paged in 4 KiB pages, these words straddle the first and second boundary
+    memory.setWord(4090, WORD1);
+    memory.setWord(8180, WORD2);
+
+    assertThat(memory.getWord(4090)).isEqualTo(WORD1);
+    assertThat(memory.getWord(8180)).isEqualTo(WORD2);
+    assertThat(memory.getBytes(4090, 4122)).isEqualTo(memory.getBytesWithoutGrowth(4090, 4122));
+    assertThat(memory.getMutableBytes(4080, 64).slice(10, 32)).isEqualTo(WORD1);
+  }
+
+  @Test
+  public void shouldGrowWithoutLosingContents() {
+    memory.setWord(0, WORD1);
+    memory.setWord(1_000_000, WORD2);
+
+    assertThat(memory.getActiveWords()).isEqualTo((1_000_000 + 32) / 32);
+    assertThat(memory.getWord(0)).isEqualTo(WORD1);
+    assertThat(memory.getWord(500_000)).isEqualTo(Bytes32.ZERO);
+    assertThat(memory.getWord(1_000_000)).isEqualTo(WORD2);
+  }
+
+  @Test
+  public void shouldReadZerosPastWrittenPagesWithoutGrowth() {
+    memory.setWord(0, WORD1);
+
+    assertThat(memory.getBytesWithoutGrowth(16, 10_000))
+        .isEqualTo(Bytes.concatenate(WORD1.slice(16), Bytes.wrap(new byte[10_000 - 16])));
+    assertThat(memory.getActiveWords()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldCopyOverlappingRangesAcrossPages() {
+    final Bytes value = Bytes.concatenate(WORD1, WORD2, WORD3, WORD4);
+    memory.setBytes(4050, value.size(), value);
+
+    memory.copy(4070, 4050, value.size());
+    assertThat(memory.getBytes(4070, value.size())).isEqualTo(value);
+
+    memory.copy(4030, 4070, value.size());
+    assertThat(memory.getBytes(4030, value.size())).isEqualTo(value);
+  }
+
+  @Test
+  public void shouldCompareActiveContents() {
+    final Memory other = new Memory();
+    memory.setWord(8000, WORD1);
+    other.setWord(8000, WORD1);
+
+    assertThat(memory).isEqualTo(other).hasSameHashCodeAs(other);
+
+    other.setWord(9000, Bytes32.ZERO);
+    assertThat(memory).isNotEqualTo(other);
+  }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions.layered;
+
+import static org.hyperledger.besu.plugin.data.TransactionSelectionResult.BLOCK_FULL;
+import static org.hyperledger.besu.plugin.data.TransactionSelectionResult.SELECTED;
+
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.MiningConfiguration;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.eth.transactions.BlobCache;
+import org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionAddedResult;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolMetrics;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolReplacementHandler;
+import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the throughput of adding transactions to the layered pool from 16 concurrent producers,
+ * as the transactions message processors do during a mempool flood, while a block selector keeps
+ * draining the pool by selecting and then confirming a block worth of transactions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LayeredPendingTransactionsBenchmark {
+
+  private static final int TRANSACTIONS_PER_PRODUCER = 5_000;
+  private static final int TRANSACTIONS_PER_BLOCK = 200;
+  private static final FeeMarket FEE_MARKET = FeeMarket.london(0L);
+  private static final BlockHeader CHAIN_HEAD =
+      new BlockHeaderTestFixture().baseFeePerGas(Wei.of(7)).buildHeader();
+
+  @State(Scope.Group)
+  public static class Pool {
+    EthScheduler ethScheduler;
+    LayeredPendingTransactions pendingTransactions;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final TransactionPoolConfiguration poolConfig = TransactionPoolConfiguration.DEFAULT;
+      final TransactionPoolMetrics txPoolMetrics =
+          new TransactionPoolMetrics(new NoOpMetricsSystem());
+      final BiFunction<PendingTransaction, PendingTransaction, Boolean>
+          transactionReplacementTester =
+              (t1, t2) ->
+                  new TransactionPoolReplacementHandler(
+                          poolConfig.getPriceBump(), poolConfig.getBlobPriceBump())
+                      .shouldReplace(t1, t2, CHAIN_HEAD);
+      ethScheduler = new EthScheduler(1, 1, 1, new NoOpMetricsSystem());
+
+      final SparseTransactions sparseTransactions =
+          new SparseTransactions(
+              poolConfig,
+              ethScheduler,
+              new EndLayer(txPoolMetrics),
+              txPoolMetrics,
+              transactionReplacementTester,
+              new BlobCache());
+      final ReadyTransactions readyTransactions =
+          new ReadyTransactions(
+              poolConfig,
+              ethScheduler,
+              sparseTransactions,
+              txPoolMetrics,
+              transactionReplacementTester,
+              new BlobCache());
+      final BaseFeePrioritizedTransactions prioritizedTransactions =
+          new BaseFeePrioritizedTransactions(
+              poolConfig,
+              () -> CHAIN_HEAD,
+              ethScheduler,
+              readyTransactions,
+              txPoolMetrics,
+              transactionReplacementTester,
+              FEE_MARKET,
+              new BlobCache(),
+              MiningConfiguration.newDefault());
+      pendingTransactions =
+          new LayeredPendingTransactions(poolConfig, prioritizedTransactions, ethScheduler);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      ethScheduler.stop();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Producer {
+    // every transaction has its own sender, so once confirmed it can be added again with nonce 0
+    final List<Transaction> transactions = new ArrayList<>(TRANSACTIONS_PER_PRODUCER);
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      final Random random = new Random();
+      for (int i = 0; i < TRANSACTIONS_PER_PRODUCER; i++) {
+        final KeyPair keys = SignatureAlgorithmFactory.getInstance().generateKeyPair();
+        final long maxPriorityFee = 1 + random.nextInt(100);
+        transactions.add(
+            new TransactionTestFixture()
+                .type(TransactionType.EIP1559)
+                .nonce(0)
+                .maxPriorityFeePerGas(Optional.of(Wei.of(maxPriorityFee)))
+                .maxFeePerGas(Optional.of(Wei.of(100 + maxPriorityFee)))
+                .createTransaction(keys));
+      }
+    }
+
+    Transaction nextTransaction() {
+      final Transaction transaction = transactions.get(next);
+      next = (next + 1) % TRANSACTIONS_PER_PRODUCER;
+      return transaction;
+    }
+  }
+
+  @Benchmark
+  @Group("floodedPool")
+  @GroupThreads(16)
+  public TransactionAddedResult addTransaction(final Pool pool, final Producer producer) {
+    return pool.pendingTransactions.addTransaction(
+        new PendingTransaction.Remote(producer.nextTransaction()), Optional.empty());
+  }
+
+  @Benchmark
+  @Group("floodedPool")
+  @GroupThreads(1)
+  public int selectAndConfirmBlock(final Pool pool) {
+    final List<Transaction> selected = new ArrayList<>(TRANSACTIONS_PER_BLOCK);
+    pool.pendingTransactions.selectTransactions(
+        pendingTransaction -> {
+          if (selected.size() == TRANSACTIONS_PER_BLOCK) {
+            return BLOCK_FULL;
+          }
+          selected.add(pendingTransaction.getTransaction());
+          return SELECTED;
+        });
+    pool.pendingTransactions.manageBlockAdded(CHAIN_HEAD, selected, List.of(), FEE_MARKET);
+    return selected.size();
+  }
+}
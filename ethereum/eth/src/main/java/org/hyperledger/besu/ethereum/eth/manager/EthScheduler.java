@@ -180,6 +180,10 @@ public class EthScheduler {
     return CompletableFuture.supplyAsync(computation, computationExecutor);
   }
 
+  public void executeComputationTask(final Runnable computation) {
+    computationExecutor.execute(computation);
+  }
+
   public CompletableFuture<Void> scheduleFutureTask(
       final Runnable command, final Duration duration) {
     final CompletableFuture<Void> promise = new CompletableFuture<>();
@@ -147,12 +147,13 @@ class EthServer {
     int responseSizeEstimate = RLP.MAX_PREFIX_SIZE;
     final BytesValueRLPOutput rlp = new BytesValueRLPOutput();
     rlp.startList();
-    final Bytes firstEncodedHeader = RLP.encode(firstHeader::writeTo);
-    if (responseSizeEstimate + firstEncodedHeader.size() > maxMessageSize) {
+    final BytesValueRLPOutput firstHeaderRlp = new BytesValueRLPOutput();
+    firstHeader.writeTo(firstHeaderRlp);
+    if (responseSizeEstimate + firstHeaderRlp.encodedSize() > maxMessageSize) {
       return BlockHeadersMessage.create(Collections.emptyList());
     }
-    responseSizeEstimate += firstEncodedHeader.size();
-    rlp.writeRaw(firstEncodedHeader);
+    responseSizeEstimate += firstHeaderRlp.encodedSize();
+    rlp.append(firstHeaderRlp);
     // Collect and encode the remaining headers
     final long numberDelta = reversed ? -(skip + 1) : (skip + 1);
     for (int i = 1; i < maxHeaders; i++) {
@@ -171,7 +172,7 @@ class EthServer {
         break;
       }
       responseSizeEstimate += encodedSize;
-      rlp.writeRaw(headerRlp.encoded());
+      rlp.append(headerRlp);
     }
     rlp.endList();
 
@@ -208,7 +209,7 @@ class EthServer {
         break;
       }
       responseSizeEstimate += encodedSize;
-      rlp.writeRaw(bodyOutput.encoded());
+      rlp.append(bodyOutput);
     }
     rlp.endList();
     return BlockBodiesMessage.createUnsafe(rlp.encoded());
@@ -253,7 +254,7 @@ class EthServer {
       }
 
       responseSizeEstimate += encodedSize;
-      rlp.writeRaw(encodedReceipts.encoded());
+      rlp.append(encodedReceipts);
     }
     rlp.endList();
 
@@ -291,7 +292,7 @@ class EthServer {
       }
 
       responseSizeEstimate += encodedSize;
-      rlp.writeRaw(txRlp.encoded());
+      rlp.append(txRlp);
     }
     rlp.endList();
 
@@ -329,7 +330,7 @@ class EthServer {
       }
 
       responseSizeEstimate += encodedSize;
-      rlp.writeRaw(rlpNodeData.encoded());
+      rlp.append(rlpNodeData);
     }
     rlp.endList();
 
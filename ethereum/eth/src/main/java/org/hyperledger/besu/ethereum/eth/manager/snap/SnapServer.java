@@ -30,7 +30,6 @@ import org.hyperledger.besu.ethereum.eth.messages.snap.TrieNodesMessage;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.SnapSyncConfiguration;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.CompactEncoding;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
@@ -341,14 +340,10 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
                         "storage",
                         stopWatch,
                         maxResponseBytes,
-                        (pair) -> {
-                          var slotRlpOutput = new BytesValueRLPOutput();
-                          slotRlpOutput.startList();
-                          slotRlpOutput.writeBytes(pair.getFirst());
-                          slotRlpOutput.writeBytes(pair.getSecond());
-                          slotRlpOutput.endList();
-                          return slotRlpOutput.encodedSize();
-                        });
+                        (pair) ->
+                            RLP.encodedListSize(
+                                RLP.encodedSize(pair.getFirst())
+                                    + RLP.encodedSize(pair.getSecond())));
 
                 // only honor start and end hash if request is for a single account's storage:
                 Bytes32 startKeyBytes, endKeyBytes;
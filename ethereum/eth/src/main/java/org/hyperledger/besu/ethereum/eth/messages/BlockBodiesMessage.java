@@ -21,8 +21,8 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 
 import java.util.List;
 
@@ -71,12 +71,16 @@ public final class BlockBodiesMessage extends AbstractMessageData {
   public List<BlockBody> bodies(final ProtocolSchedule protocolSchedule) {
     final BlockHeaderFunctions blockHeaderFunctions =
         ScheduleBasedBlockHeaderFunctions.create(protocolSchedule);
-    return new BytesValueRLPInput(data, false)
-        .readList(rlp -> BlockBody.readWrappedBodyFrom(rlp, blockHeaderFunctions, true));
+    return RLP.decode(
+        data,
+        input ->
+            input.readList(rlp -> BlockBody.readWrappedBodyFrom(rlp, blockHeaderFunctions, true)));
   }
 
   public List<SyncBlockBody> syncBodies(final ProtocolSchedule protocolSchedule) {
-    return new BytesValueRLPInput(data, false)
-        .readList(rlp -> SyncBlockBody.readWrappedBodyFrom(rlp, true, protocolSchedule));
+    return RLP.decode(
+        data,
+        input ->
+            input.readList(rlp -> SyncBlockBody.readWrappedBodyFrom(rlp, true, protocolSchedule)));
   }
 }
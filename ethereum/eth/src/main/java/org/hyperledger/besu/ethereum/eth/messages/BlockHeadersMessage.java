@@ -20,8 +20,8 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 
 import java.util.Arrays;
 import java.util.List;
@@ -79,7 +79,7 @@ public final class BlockHeadersMessage extends AbstractMessageData {
   public List<BlockHeader> getHeaders(final ProtocolSchedule protocolSchedule) {
     final BlockHeaderFunctions blockHeaderFunctions =
         ScheduleBasedBlockHeaderFunctions.create(protocolSchedule);
-    return new BytesValueRLPInput(data, false)
-        .readList(rlp -> BlockHeader.readFrom(rlp, blockHeaderFunctions));
+    return RLP.decode(
+        data, input -> input.readList(rlp -> BlockHeader.readFrom(rlp, blockHeaderFunctions)));
   }
 }
@@ -52,6 +52,7 @@ public class SynchronizerConfiguration {
       TimeUnit.SECONDS.toMillis(60);
 
   public static final boolean DEFAULT_CHECKPOINT_POST_MERGE_ENABLED = false;
+  public static final boolean DEFAULT_ADAPTIVE_CONCURRENCY_ENABLED = false;
 
   public static final Boolean DEFAULT_ERA1_IMPORT_PREPIPELINE_ENABLED = Boolean.FALSE;
   public static final URI DEFAULT_ERA1_DATA_URI = URI.create("https://mainnet.era1.nimbus.team/");
@@ -87,6 +88,7 @@ public class SynchronizerConfiguration {
   private final int downloaderParallelism;
   private final int transactionsParallelism;
   private final int computationParallelism;
+  private final boolean adaptiveConcurrencyEnabled;
   private final int maxTrailingPeers;
   private final long worldStateMinMillisBeforeStalling;
   private final long propagationManagerGetBlockTimeoutMillis;
@@ -118,6 +120,7 @@ public class SynchronizerConfiguration {
       final int downloaderParallelism,
       final int transactionsParallelism,
       final int computationParallelism,
+      final boolean adaptiveConcurrencyEnabled,
       final int maxTrailingPeers,
       final long propagationManagerGetBlockTimeoutMillis,
       final boolean checkpointPostMergeEnabled,
@@ -145,6 +148,7 @@ public class SynchronizerConfiguration {
     this.downloaderParallelism = downloaderParallelism;
     this.transactionsParallelism = transactionsParallelism;
     this.computationParallelism = computationParallelism;
+    this.adaptiveConcurrencyEnabled = adaptiveConcurrencyEnabled;
     this.maxTrailingPeers = maxTrailingPeers;
     this.propagationManagerGetBlockTimeoutMillis = propagationManagerGetBlockTimeoutMillis;
     this.checkpointPostMergeEnabled = checkpointPostMergeEnabled;
@@ -270,6 +274,16 @@ public class SynchronizerConfiguration {
     return worldStateTaskCacheSize;
   }
 
+  /**
+   * Whether the download pipelines adjust their parallelism at runtime, up to the configured
+   * parallelism, rather than always using it.
+   *
+   * @return true if adaptive concurrency is enabled
+   */
+  public boolean isAdaptiveConcurrencyEnabled() {
+    return adaptiveConcurrencyEnabled;
+  }
+
   public int getMaxTrailingPeers() {
     return maxTrailingPeers;
   }
@@ -314,6 +328,7 @@ public class SynchronizerConfiguration {
     private int downloaderParallelism = DEFAULT_DOWNLOADER_PARALLELISM;
     private int transactionsParallelism = DEFAULT_TRANSACTIONS_PARALLELISM;
     private int computationParallelism = DEFAULT_COMPUTATION_PARALLELISM;
+    private boolean adaptiveConcurrencyEnabled = DEFAULT_ADAPTIVE_CONCURRENCY_ENABLED;
     private int syncPivotDistance = DEFAULT_PIVOT_DISTANCE_FROM_HEAD;
     private float fastSyncFullValidationRate = DEFAULT_FULL_VALIDATION_RATE;
     private int worldStateHashCountPerRequest = DEFAULT_WORLD_STATE_HASH_COUNT_PER_REQUEST;
@@ -437,6 +452,11 @@ public class SynchronizerConfiguration {
       return this;
     }
 
+    public Builder adaptiveConcurrencyEnabled(final boolean adaptiveConcurrencyEnabled) {
+      this.adaptiveConcurrencyEnabled = adaptiveConcurrencyEnabled;
+      return this;
+    }
+
     public Builder maxTrailingPeers(final int maxTailingPeers) {
       this.maxTrailingPeers = maxTailingPeers;
       return this;
@@ -501,6 +521,7 @@ public class SynchronizerConfiguration {
           downloaderParallelism,
           transactionsParallelism,
           computationParallelism,
+          adaptiveConcurrencyEnabled,
           maxTrailingPeers,
           propagationManagerGetBlockTimeoutMillis,
           checkpointPostMergeEnabled,
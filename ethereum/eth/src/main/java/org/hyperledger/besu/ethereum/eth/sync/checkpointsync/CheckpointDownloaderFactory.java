@@ -148,6 +148,7 @@ public class CheckpointDownloaderFactory extends SnapDownloaderFactory {
             snapTaskCollection,
             syncConfig.getSnapSyncConfiguration(),
             syncConfig.getWorldStateRequestParallelism(),
+            syncConfig.isAdaptiveConcurrencyEnabled(),
             syncConfig.getWorldStateMaxRequestsWithoutProgress(),
             syncConfig.getWorldStateMinMillisBeforeStalling(),
             clock,
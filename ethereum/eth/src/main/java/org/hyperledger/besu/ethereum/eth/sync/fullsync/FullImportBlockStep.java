@@ -57,6 +57,8 @@ public class FullImportBlockStep implements Consumer<Block> {
     }
     final long blockNumber = block.getHeader().getNumber();
     final String blockHash = block.getHash().toHexString();
+    // start reading the state touched by the block while it is validated
+    protocolContext.getWorldStateArchive().prefetch(block);
     final BlockImporter importer =
         protocolSchedule.getByBlockHeader(block.getHeader()).getBlockImporter();
     final BlockImportResult blockImportResult =
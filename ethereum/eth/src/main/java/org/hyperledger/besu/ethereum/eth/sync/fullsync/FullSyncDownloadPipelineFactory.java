@@ -33,9 +33,12 @@ import org.hyperledger.besu.ethereum.mainnet.HeaderValidationMode;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.pipeline.AdaptiveConcurrencyLimit;
+import org.hyperledger.besu.services.pipeline.PipeType;
 import org.hyperledger.besu.services.pipeline.Pipeline;
 import org.hyperledger.besu.services.pipeline.PipelineBuilder;
 
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 
 import org.slf4j.Logger;
@@ -53,6 +56,9 @@ public class FullSyncDownloadPipelineFactory implements DownloadPipelineFactory
       () -> HeaderValidationMode.DETACHED_ONLY;
   private final BetterSyncTargetEvaluator betterSyncTargetEvaluator;
   private final SyncTerminationCondition fullSyncTerminationCondition;
+  // Shared by the pipelines of successive sync targets so each one starts from the learnt limits
+  private final AdaptiveConcurrencyLimit downloadHeadersConcurrency;
+  private final AdaptiveConcurrencyLimit downloadBodiesConcurrency;
 
   public FullSyncDownloadPipelineFactory(
       final SynchronizerConfiguration syncConfig,
@@ -69,6 +75,23 @@ public class FullSyncDownloadPipelineFactory implements DownloadPipelineFactory
     this.fullSyncTerminationCondition = syncTerminationCondition;
     this.betterSyncTargetEvaluator =
         new BetterSyncTargetEvaluator(syncConfig, ethContext.getEthPeers());
+    this.downloadHeadersConcurrency = createConcurrencyLimit(syncConfig);
+    this.downloadBodiesConcurrency = createConcurrencyLimit(syncConfig);
+    AdaptiveConcurrencyLimit.createGauges(
+        metricsSystem,
+        BesuMetricCategory.SYNCHRONIZER,
+        "chain_download_pipeline",
+        Map.of(
+            "downloadHeaders", downloadHeadersConcurrency,
+            "downloadBodies", downloadBodiesConcurrency));
+  }
+
+  private static AdaptiveConcurrencyLimit createConcurrencyLimit(
+      final SynchronizerConfiguration syncConfig) {
+    final int downloaderParallelism = syncConfig.getDownloaderParallelism();
+    return new AdaptiveConcurrencyLimit(
+        syncConfig.isAdaptiveConcurrencyEnabled() ? 1 : downloaderParallelism,
+        downloaderParallelism);
   }
 
   @Override
@@ -122,12 +145,20 @@ public class FullSyncDownloadPipelineFactory implements DownloadPipelineFactory
                 "Number of entries process by each chain download pipeline stage",
                 "step",
                 "action"),
+            metricsSystem.createLabelledCounter(
+                BesuMetricCategory.SYNCHRONIZER,
+                "chain_download_pipeline_stall_micros_total",
+                "Microseconds each chain download pipeline stage waited on a full or empty pipe",
+                "step",
+                "direction"),
             true,
             "fullSync")
-        .thenProcessAsyncOrdered("downloadHeaders", downloadHeadersStep, downloaderParallelism)
+        // every stage runs on a single thread, so the pipes between them don't need locks
+        .withPipeType(PipeType.SINGLE_PRODUCER_SINGLE_CONSUMER)
+        .thenProcessAsyncOrdered("downloadHeaders", downloadHeadersStep, downloadHeadersConcurrency)
         .thenFlatMap("validateHeadersJoin", validateHeadersJoinUpStep, singleHeaderBufferSize)
         .inBatches(headerRequestSize)
-        .thenProcessAsyncOrdered("downloadBodies", downloadBodiesStep, downloaderParallelism)
+        .thenProcessAsyncOrdered("downloadBodies", downloadBodiesStep, downloadBodiesConcurrency)
         .thenFlatMap("extractTxSignatures", extractTxSignaturesStep, singleHeaderBufferSize)
         .andFinishWith("importBlock", importBlockStep);
   }
@@ -65,6 +65,7 @@ public class FullSyncDownloader {
                       metricsSystem,
                       syncConfig.era1DataUri(),
                       syncConfig.era1ImportPrepipelineConcurrency(),
+                      syncConfig.isAdaptiveConcurrencyEnabled(),
                       protocolSchedule,
                       protocolContext,
                       ethContext,
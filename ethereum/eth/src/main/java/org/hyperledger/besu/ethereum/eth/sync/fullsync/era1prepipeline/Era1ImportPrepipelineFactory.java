@@ -25,22 +25,26 @@ import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.services.pipeline.AdaptiveConcurrencyLimit;
 import org.hyperledger.besu.services.pipeline.Pipeline;
 import org.hyperledger.besu.services.pipeline.PipelineBuilder;
 
 import java.net.URI;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 public class Era1ImportPrepipelineFactory implements FileImportPipelineFactory {
+  private static final String ERA1_FILE_READER_STAGE = "ERA1 File Reader";
 
   private final MetricsSystem metricsSystem;
   private final URI era1DataUri;
   private final int concurrency;
+  private final AdaptiveConcurrencyLimit fileReaderConcurrency;
   private final ProtocolSchedule protocolSchedule;
   private final ProtocolContext protocolContext;
   private final EthContext ethContext;
@@ -50,6 +54,7 @@ public class Era1ImportPrepipelineFactory implements FileImportPipelineFactory {
       final MetricsSystem metricsSystem,
       final URI era1DataUri,
       final int concurrency,
+      final boolean adaptiveConcurrencyEnabled,
       final ProtocolSchedule protocolSchedule,
       final ProtocolContext protocolContext,
       final EthContext ethContext,
@@ -57,6 +62,13 @@ public class Era1ImportPrepipelineFactory implements FileImportPipelineFactory {
     this.metricsSystem = metricsSystem;
     this.era1DataUri = era1DataUri;
     this.concurrency = concurrency;
+    this.fileReaderConcurrency =
+        new AdaptiveConcurrencyLimit(adaptiveConcurrencyEnabled ? 1 : concurrency, concurrency);
+    AdaptiveConcurrencyLimit.createGauges(
+        metricsSystem,
+        BesuMetricCategory.SYNCHRONIZER,
+        "era1_file_import_prepipeline",
+        Map.of(ERA1_FILE_READER_STAGE, fileReaderConcurrency));
     this.protocolSchedule = protocolSchedule;
     this.protocolContext = protocolContext;
     this.ethContext = ethContext;
@@ -105,7 +117,7 @@ public class Era1ImportPrepipelineFactory implements FileImportPipelineFactory {
             processedTotalMetric,
             tracingEnabled,
             pipelineName)
-        .thenProcessAsyncOrdered("ERA1 File Reader", era1FileReader, concurrency)
+        .thenProcessAsyncOrdered(ERA1_FILE_READER_STAGE, era1FileReader, fileReaderConcurrency)
         .thenFlatMap(
             "Flat Map Block Lists and Filter Block 0", flatMapBlockListsFunction, concurrency)
         .andFinishWith("Import ERA1 Block", importBlockFunction);
@@ -108,6 +108,7 @@ public class SnapDownloaderFactory extends FastDownloaderFactory {
             snapTaskCollection,
             syncConfig.getSnapSyncConfiguration(),
             syncConfig.getWorldStateRequestParallelism(),
+            syncConfig.isAdaptiveConcurrencyEnabled(),
             syncConfig.getWorldStateMaxRequestsWithoutProgress(),
             syncConfig.getWorldStateMinMillisBeforeStalling(),
             clock,
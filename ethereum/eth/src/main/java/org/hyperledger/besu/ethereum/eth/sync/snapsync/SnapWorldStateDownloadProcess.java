@@ -27,6 +27,7 @@ import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.services.pipeline.AdaptiveConcurrencyLimit;
 import org.hyperledger.besu.services.pipeline.Pipe;
 import org.hyperledger.besu.services.pipeline.Pipeline;
 import org.hyperledger.besu.services.pipeline.PipelineBuilder;
@@ -34,7 +35,9 @@ import org.hyperledger.besu.services.pipeline.WritePipe;
 import org.hyperledger.besu.services.tasks.Task;
 import org.hyperledger.besu.util.ExceptionUtils;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 
@@ -152,6 +155,9 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
 
     private SnapSyncConfiguration snapSyncConfiguration;
     private int maxOutstandingRequests;
+    private boolean adaptiveConcurrencyEnabled;
+    private final Map<String, AdaptiveConcurrencyLimit> downloadConcurrencyLimits =
+        new HashMap<>();
     private SnapWorldDownloadState downloadState;
     private MetricsSystem metricsSystem;
     private LoadLocalDataStep loadLocalDataStep;
@@ -177,6 +183,11 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
       return this;
     }
 
+    public Builder adaptiveConcurrencyEnabled(final boolean adaptiveConcurrencyEnabled) {
+      this.adaptiveConcurrencyEnabled = adaptiveConcurrencyEnabled;
+      return this;
+    }
+
     public Builder loadLocalDataStep(final LoadLocalDataStep loadLocalDataStep) {
       this.loadLocalDataStep = loadLocalDataStep;
       return this;
@@ -274,7 +285,7 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
               .thenProcessAsync(
                   "batchDownloadAccountData",
                   requestTask -> requestDataStep.requestAccount(requestTask),
-                  maxOutstandingRequests)
+                  downloadConcurrency("batchDownloadAccountData"))
               .thenProcess("batchPersistAccountData", task -> persistDataStep.persist(task))
               .andFinishWith("batchAccountDataDownloaded", requestsToComplete::put);
 
@@ -297,7 +308,7 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
               .thenProcessAsyncOrdered(
                   "batchDownloadStorageData",
                   requestTask -> requestDataStep.requestStorage(requestTask),
-                  maxOutstandingRequests)
+                  downloadConcurrency("batchDownloadStorageData"))
               .thenProcess("batchPersistStorageData", task -> persistDataStep.persist(task))
               .andFinishWith(
                   "batchStorageDataDownloaded",
@@ -323,7 +334,7 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
               .thenProcessAsyncOrdered(
                   "batchDownloadLargeStorageData",
                   requestTask -> requestDataStep.requestStorage(List.of(requestTask)),
-                  maxOutstandingRequests)
+                  downloadConcurrency("batchDownloadLargeStorageData"))
               .thenProcess(
                   "batchPersistLargeStorageData",
                   task -> {
@@ -365,7 +376,7 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
               .thenProcessAsyncOrdered(
                   "batchDownloadCodeData",
                   tasks -> requestDataStep.requestCode(tasks),
-                  maxOutstandingRequests)
+                  downloadConcurrency("batchDownloadCodeData"))
               .thenProcess(
                   "batchPersistCodeData",
                   tasks -> {
@@ -401,7 +412,7 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
               .thenProcessAsync(
                   "batchDownloadTrieNodeData",
                   tasks -> requestDataStep.requestTrieNodeByPath(tasks),
-                  maxOutstandingRequests)
+                  downloadConcurrency("batchDownloadTrieNodeData"))
               .thenProcess(
                   "batchPersistTrieNodeData",
                   tasks -> {
@@ -424,7 +435,7 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
               .thenProcessAsync(
                   "batchDownloadFlatAccountData",
                   requestTask -> requestDataStep.requestLocalFlatAccounts(requestTask),
-                  maxOutstandingRequests)
+                  downloadConcurrency("batchDownloadFlatAccountData"))
               .thenProcess(
                   "batchHealAndPersistFlatAccountData",
                   task -> persistDataStep.healFlatDatabase(task))
@@ -443,12 +454,18 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
               .thenProcessAsyncOrdered(
                   "batchDownloadFlatStorageData",
                   requestTask -> requestDataStep.requestLocalFlatStorages(requestTask),
-                  maxOutstandingRequests)
+                  downloadConcurrency("batchDownloadFlatStorageData"))
               .thenProcess(
                   "batchHealAndPersistFlatStorageData",
                   task -> persistDataStep.healFlatDatabase(task))
               .andFinishWith("batchFlatStorageDataDownloaded", requestsToComplete::put);
 
+      AdaptiveConcurrencyLimit.createGauges(
+          metricsSystem,
+          BesuMetricCategory.SYNCHRONIZER,
+          "snap_world_state_pipeline",
+          downloadConcurrencyLimits);
+
       return new SnapWorldStateDownloadProcess(
           fetchAccountDataPipeline,
           fetchStorageDataPipeline,
@@ -460,6 +477,18 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
           completionPipeline,
           requestsToComplete);
     }
+
+    /**
+     * The concurrency of a download stage, which is fixed at the maximum number of outstanding
+     * requests unless adaptive concurrency is enabled.
+     */
+    private AdaptiveConcurrencyLimit downloadConcurrency(final String stageName) {
+      return downloadConcurrencyLimits.computeIfAbsent(
+          stageName,
+          key ->
+              new AdaptiveConcurrencyLimit(
+                  adaptiveConcurrencyEnabled ? 1 : maxOutstandingRequests, maxOutstandingRequests));
+    }
   }
 
   private static void reloadHealWhenNeeded(
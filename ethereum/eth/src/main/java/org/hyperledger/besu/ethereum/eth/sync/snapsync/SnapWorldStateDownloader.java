@@ -63,6 +63,7 @@ public class SnapWorldStateDownloader implements WorldStateDownloader {
   private final InMemoryTasksPriorityQueues<SnapDataRequest> snapTaskCollection;
   private final SnapSyncConfiguration snapSyncConfiguration;
   private final int maxOutstandingRequests;
+  private final boolean adaptiveConcurrencyEnabled;
   private final int maxNodeRequestsWithoutProgress;
   private final ProtocolContext protocolContext;
   private final WorldStateStorageCoordinator worldStateStorageCoordinator;
@@ -78,6 +79,7 @@ public class SnapWorldStateDownloader implements WorldStateDownloader {
       final InMemoryTasksPriorityQueues<SnapDataRequest> snapTaskCollection,
       final SnapSyncConfiguration snapSyncConfiguration,
       final int maxOutstandingRequests,
+      final boolean adaptiveConcurrencyEnabled,
       final int maxNodeRequestsWithoutProgress,
       final long minMillisBeforeStalling,
       final Clock clock,
@@ -90,6 +92,7 @@ public class SnapWorldStateDownloader implements WorldStateDownloader {
     this.snapTaskCollection = snapTaskCollection;
     this.snapSyncConfiguration = snapSyncConfiguration;
     this.maxOutstandingRequests = maxOutstandingRequests;
+    this.adaptiveConcurrencyEnabled = adaptiveConcurrencyEnabled;
     this.maxNodeRequestsWithoutProgress = maxNodeRequestsWithoutProgress;
     this.minMillisBeforeStalling = minMillisBeforeStalling;
     this.clock = clock;
@@ -210,6 +213,7 @@ public class SnapWorldStateDownloader implements WorldStateDownloader {
           SnapWorldStateDownloadProcess.builder()
               .configuration(snapSyncConfiguration)
               .maxOutstandingRequests(maxOutstandingRequests)
+              .adaptiveConcurrencyEnabled(adaptiveConcurrencyEnabled)
               .dynamicPivotBlockSelector(dynamicPivotBlockManager)
               .loadLocalDataStep(
                   new LoadLocalDataStep(
@@ -209,6 +209,9 @@ public class TransactionPool implements BlockAddedObserver {
     final List<Transaction> addedTransactions = new ArrayList<>(initialCount);
     LOG.trace("Adding {} remote transactions", initialCount);
 
+    // recover the senders of the whole batch in parallel, instead of one by one while adding them
+    Transaction.recoverSenders(transactions, ethContext.getScheduler()::executeComputationTask);
+
     final var validationResults =
         sortedBySenderAndNonce(transactions)
             .collect(
@@ -42,10 +42,14 @@ import org.hyperledger.besu.evm.account.AccountState;
 import org.hyperledger.besu.plugin.data.TransactionSelectionResult;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -55,6 +59,14 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 
+/**
+ * Pending transactions organized in layers, see {@link AbstractTransactionsLayer}.
+ *
+ * <p>The layers are not thread safe, so they are guarded by a read/write lock: the operations that
+ * only query the pool, like looking up a transaction that has just been received from a peer or
+ * taking the snapshot of the candidates for block creation, run concurrently under the read lock,
+ * while the operations that modify the layers are serialized under the write lock.
+ */
 public class LayeredPendingTransactions implements PendingTransactions {
   private static final Logger LOG = LoggerFactory.getLogger(LayeredPendingTransactions.class);
   private static final Logger LOG_FOR_REPLAY = LoggerFactory.getLogger("LOG_FOR_REPLAY");
@@ -62,6 +74,7 @@ public class LayeredPendingTransactions implements PendingTransactions {
   private final TransactionPoolConfiguration poolConfig;
   private final AbstractPrioritizedTransactions prioritizedTransactions;
   private final EthScheduler ethScheduler;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
   public LayeredPendingTransactions(
       final TransactionPoolConfiguration poolConfig,
@@ -73,12 +86,17 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized void reset() {
-    prioritizedTransactions.reset();
+  public void reset() {
+    runWithWriteLock(prioritizedTransactions::reset);
   }
 
   @Override
-  public synchronized TransactionAddedResult addTransaction(
+  public TransactionAddedResult addTransaction(
+      final PendingTransaction pendingTransaction, final Optional<Account> maybeSenderAccount) {
+    return withWriteLock(() -> internalAddTransaction(pendingTransaction, maybeSenderAccount));
+  }
+
+  private TransactionAddedResult internalAddTransaction(
       final PendingTransaction pendingTransaction, final Optional<Account> maybeSenderAccount) {
 
     final long stateSenderNonce = maybeSenderAccount.map(AccountState::getNonce).orElse(0L);
@@ -302,24 +320,27 @@ public class LayeredPendingTransactions implements PendingTransactions {
   public void evictOldTransactions() {}
 
   @Override
-  public synchronized List<Transaction> getLocalTransactions() {
-    return prioritizedTransactions.getAllLocal();
+  public List<Transaction> getLocalTransactions() {
+    return withReadLock(prioritizedTransactions::getAllLocal);
   }
 
   @Override
-  public synchronized List<Transaction> getPriorityTransactions() {
-    return prioritizedTransactions.getAllPriority();
+  public List<Transaction> getPriorityTransactions() {
+    return withReadLock(prioritizedTransactions::getAllPriority);
   }
 
   @Override
   public void selectTransactions(final PendingTransactions.TransactionSelector selector) {
-    final Map<Byte, List<SenderPendingTransactions>> candidateTxsByScore;
-    synchronized (this) {
-      // since selecting transactions for block creation is a potential long operation
-      // we want to avoid to keep the lock for all the process, but we just lock to get
-      // the candidate transactions
-      candidateTxsByScore = prioritizedTransactions.getByScore();
-    }
+    // since selecting transactions for block creation is a potential long operation
+    // we want to avoid to keep the lock for all the process, but we just lock to get
+    // the candidate transactions
+    final Map<Byte, List<SenderPendingTransactions>> candidateTxsByScore =
+        withReadLock(prioritizedTransactions::getByScore);
+
+    // discarded and penalized txs are applied to the layers in a single batch at the end, to take
+    // the write lock only once instead of once per tx
+    final List<PendingTransaction> discardedTxs = new ArrayList<>();
+    final List<PendingTransaction> penalizedTxs = new ArrayList<>();
 
     selection:
     for (final var entry : candidateTxsByScore.entrySet()) {
@@ -338,20 +359,10 @@ public class LayeredPendingTransactions implements PendingTransactions {
               .log();
 
           if (selectionResult.discard()) {
-            ethScheduler.scheduleTxWorkerTask(
-                () -> {
-                  synchronized (this) {
-                    prioritizedTransactions.remove(candidatePendingTx, INVALIDATED);
-                  }
-                });
+            discardedTxs.add(candidatePendingTx);
             logDiscardedTransaction(candidatePendingTx, selectionResult);
           } else if (selectionResult.penalize()) {
-            ethScheduler.scheduleTxWorkerTask(
-                () -> {
-                  synchronized (this) {
-                    prioritizedTransactions.penalize(candidatePendingTx);
-                  }
-                });
+            penalizedTxs.add(candidatePendingTx);
             LOG.atTrace()
                 .setMessage("Transaction {} penalized")
                 .addArgument(candidatePendingTx::toTraceLog)
@@ -365,6 +376,16 @@ public class LayeredPendingTransactions implements PendingTransactions {
         }
       }
     }
+
+    if (!discardedTxs.isEmpty() || !penalizedTxs.isEmpty()) {
+      ethScheduler.scheduleTxWorkerTask(
+          () ->
+              runWithWriteLock(
+                  () -> {
+                    discardedTxs.forEach(ptx -> prioritizedTransactions.remove(ptx, INVALIDATED));
+                    penalizedTxs.forEach(prioritizedTransactions::penalize);
+                  }));
+    }
   }
 
   @Override
@@ -373,23 +394,23 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized int size() {
-    return prioritizedTransactions.count();
+  public int size() {
+    return withReadLock(prioritizedTransactions::count);
   }
 
   @Override
-  public synchronized boolean containsTransaction(final Transaction transaction) {
-    return prioritizedTransactions.contains(transaction);
+  public boolean containsTransaction(final Transaction transaction) {
+    return withReadLock(() -> prioritizedTransactions.contains(transaction));
   }
 
   @Override
-  public synchronized Optional<Transaction> getTransactionByHash(final Hash transactionHash) {
-    return prioritizedTransactions.getByHash(transactionHash);
+  public Optional<Transaction> getTransactionByHash(final Hash transactionHash) {
+    return withReadLock(() -> prioritizedTransactions.getByHash(transactionHash));
   }
 
   @Override
-  public synchronized List<PendingTransaction> getPendingTransactions() {
-    return prioritizedTransactions.getAll();
+  public List<PendingTransaction> getPendingTransactions() {
+    return withReadLock(prioritizedTransactions::getAll);
   }
 
   @Override
@@ -432,21 +453,22 @@ public class LayeredPendingTransactions implements PendingTransactions {
 
     final var reorgNonceRangeBySender = nonceRangeBySender(reorgTransactions);
 
-    synchronized (this) {
-      try {
-        prioritizedTransactions.blockAdded(feeMarket, blockHeader, maxConfirmedNonceBySender);
-      } catch (final Throwable throwable) {
-        LOG.warn(
-            "Unexpected error {} when managing added block {}, maxNonceBySender {}, reorgNonceRangeBySender {}",
-            throwable,
-            blockHeader.toLogString(),
-            maxConfirmedNonceBySender,
-            reorgTransactions);
-        LOG.warn("Stack trace", throwable);
-      }
+    runWithWriteLock(
+        () -> {
+          try {
+            prioritizedTransactions.blockAdded(feeMarket, blockHeader, maxConfirmedNonceBySender);
+          } catch (final Throwable throwable) {
+            LOG.warn(
+                "Unexpected error {} when managing added block {}, maxNonceBySender {}, reorgNonceRangeBySender {}",
+                throwable,
+                blockHeader.toLogString(),
+                maxConfirmedNonceBySender,
+                reorgTransactions);
+            LOG.warn("Stack trace", throwable);
+          }
 
-      logBlockHeaderForReplay(blockHeader, maxConfirmedNonceBySender, reorgNonceRangeBySender);
-    }
+          logBlockHeaderForReplay(blockHeader, maxConfirmedNonceBySender, reorgNonceRangeBySender);
+        });
   }
 
   private void logBlockHeaderForReplay(
@@ -547,13 +569,39 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized String toTraceLog() {
+  public String toTraceLog() {
     return "";
   }
 
   @Override
-  public synchronized String logStats() {
-    return prioritizedTransactions.logStats();
+  public String logStats() {
+    return withReadLock(prioritizedTransactions::logStats);
+  }
+
+  private <T> T withReadLock(final Supplier<T> operation) {
+    return withLock(lock.readLock(), operation);
+  }
+
+  private <T> T withWriteLock(final Supplier<T> operation) {
+    return withLock(lock.writeLock(), operation);
+  }
+
+  private void runWithWriteLock(final Runnable operation) {
+    withLock(
+        lock.writeLock(),
+        () -> {
+          operation.run();
+          return null;
+        });
+  }
+
+  private static <T> T withLock(final Lock lock, final Supplier<T> operation) {
+    lock.lock();
+    try {
+      return operation.get();
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
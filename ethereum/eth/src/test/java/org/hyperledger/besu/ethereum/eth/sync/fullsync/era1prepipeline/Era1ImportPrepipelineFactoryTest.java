@@ -87,6 +87,7 @@ public class Era1ImportPrepipelineFactoryTest {
             metricsSystem,
             testFileUri,
             4,
+            false,
             protocolSchedule,
             protocolContext,
             ethContext,
@@ -547,6 +547,32 @@ public class LayeredPendingTransactionsTest extends BaseTransactionPoolTest {
         .containsExactly(transaction0);
   }
 
+  @Test
+  public void discardedAndPenalizedTransactionsAreAppliedTogetherAfterSelection() {
+    final Transaction transactionSender2 = createTransaction(0, KEYS2);
+    final var pendingTx0 = createRemotePendingTransaction(transaction0);
+    final var pendingTxSender2 = createRemotePendingTransaction(transactionSender2);
+    pendingTransactions.addTransaction(pendingTx0, Optional.empty());
+    pendingTransactions.addTransaction(pendingTxSender2, Optional.empty());
+
+    final var droppedTxCollector = new DroppedTransactionCollector();
+    pendingTransactions.subscribeDroppedTransactions(droppedTxCollector);
+
+    pendingTransactions.selectTransactions(
+        pendingTx ->
+            pendingTx.equals(pendingTx0)
+                ? TransactionSelectionResult.invalid(UPFRONT_COST_EXCEEDS_BALANCE.name())
+                : TransactionSelectionResult.invalidPenalized(
+                    GAS_PRICE_BELOW_CURRENT_BASE_FEE.name()));
+
+    assertThat(droppedTxCollector.droppedTransactions)
+        .containsExactly(entry(transaction0, INVALIDATED));
+    assertThat(pendingTransactions.getPendingTransactions())
+        .map(PendingTransaction::getTransaction)
+        .containsExactly(transactionSender2);
+    assertThat(pendingTxSender2.getScore()).isLessThan(pendingTx0.getScore());
+  }
+
   @Test
   public void returnEmptyOptionalAsMaximumNonceWhenNoTransactionsPresent() {
     assertThat(pendingTransactions.getNextNonceForSender(SENDER1)).isEmpty();
@@ -284,14 +284,17 @@ public class Framer {
     // Write message data to ByteBuf, decompressing as necessary
     final Bytes data;
     if (compressionEnabled) {
-      final byte[] compressedMessageData = Arrays.copyOfRange(frameData, 1, frameData.length - pad);
-      final int uncompressedLength = compressor.uncompressedLength(compressedMessageData);
+      // decompress straight from the frame, after the id
+      final int compressedLength = frameSize - LENGTH_MESSAGE_ID;
+      final int uncompressedLength =
+          compressor.uncompressedLength(frameData, LENGTH_MESSAGE_ID, compressedLength);
       if (uncompressedLength >= LENGTH_MAX_MESSAGE_FRAME) {
         throw error("Message size %s in excess of maximum length.", uncompressedLength);
       }
       Bytes _data;
       try {
-        final byte[] decompressedMessageData = compressor.decompress(compressedMessageData);
+        final byte[] decompressedMessageData =
+            compressor.decompress(frameData, LENGTH_MESSAGE_ID, compressedLength);
         _data = Bytes.wrap(decompressedMessageData);
         compressionSuccessful = true;
       } catch (final FramingException fe) {
@@ -336,11 +339,14 @@ public class Framer {
         message.getSize() < LENGTH_MAX_MESSAGE_FRAME, "Message size in excess of maximum length.");
     // Compress message
     if (compressionEnabled) {
-      // Extract data from message
-      // Compress data
-      final byte[] compressed = compressor.compress(message.getData().toArrayUnsafe());
-      // Construct new, compressed message
-      frameMessage(new RawMessage(message.getCode(), Bytes.wrap(compressed)), output);
+      // Compress data straight into the frame, after the id, the rest of it being the zero padding
+      final byte[] uncompressed = message.getData().toArrayUnsafe();
+      final int maxFrameSize =
+          LENGTH_MESSAGE_ID + compressor.maxCompressedLength(uncompressed.length);
+      final byte[] frame = new byte[maxFrameSize + padding16(maxFrameSize)];
+      final int compressedLength =
+          compressor.compress(uncompressed, 0, uncompressed.length, frame, LENGTH_MESSAGE_ID);
+      writeFrame(message.getCode(), frame, LENGTH_MESSAGE_ID + compressedLength, output);
     } else {
       frameMessage(message, output);
     }
@@ -349,9 +355,28 @@ public class Framer {
   @VisibleForTesting
   void frameMessage(final MessageData message, final ByteBuf buf) {
     final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
+    final byte[] frame = new byte[frameSize + padding16(frameSize)];
+    message.getData().copyTo(MutableBytes.wrap(frame), LENGTH_MESSAGE_ID);
+    writeFrame(message.getCode(), frame, frameSize, buf);
+  }
+
+  /**
+   * Encrypts a frame in place and writes it to the buffer, preceded by its header and followed by
+   * its MAC.
+   *
+   * @param code The message code.
+   * @param frame The frame, with the message data after the id and zero-filled up to at least the
+   *     next 16-byte boundary after the frame size.
+   * @param frameSize The size of the frame, id included.
+   * @param buf The buffer to write the framed data to.
+   */
+  private void writeFrame(
+      final int code, final byte[] frame, final int frameSize, final ByteBuf buf) {
     final int pad = padding16(frameSize);
+    final int paddedFrameSize = frameSize + pad;
+    buf.ensureWritable(LENGTH_FULL_HEADER + paddedFrameSize + LENGTH_MAC);
 
-    final byte id = (byte) message.getCode();
+    final byte id = (byte) code;
 
     // Generate the header data.
     final byte[] h = new byte[LENGTH_HEADER_DATA];
@@ -369,25 +394,20 @@ public class Framer {
     hMac = Arrays.copyOf(hMac, LENGTH_MAC);
     buf.writeBytes(h).writeBytes(hMac);
 
-    // Encrypt payload.
-    final MutableBytes f = MutableBytes.create(frameSize + pad);
-
+    // Encrypt payload, zero-padded to 16-byte boundary.
     final Bytes bv = id == 0 ? RLP.NULL : RLP.encodeOne(Bytes.of(id));
     assert bv.size() == 1;
-    f.set(0, bv.get(0));
-
-    // Zero-padded to 16-byte boundary.
-    message.getData().copyTo(f, 1);
-    encryptor.processBytes(f.toArrayUnsafe(), 0, f.size(), f.toArrayUnsafe(), 0);
+    frame[0] = bv.get(0);
+    encryptor.processBytes(frame, 0, paddedFrameSize, frame, 0);
 
     // Calculate the frame MAC.
     final byte[] fMacSeed =
-        Arrays.copyOf(secrets.updateEgress(f.toArrayUnsafe()).getEgressMac(), LENGTH_MAC);
+        Arrays.copyOf(secrets.updateEgress(frame, 0, paddedFrameSize).getEgressMac(), LENGTH_MAC);
     byte[] fMac = new byte[16];
     macEncryptor.processBlock(fMacSeed, 0, fMac, 0);
     fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
 
-    buf.writeBytes(f.toArrayUnsafe()).writeBytes(fMac);
+    buf.writeBytes(frame, 0, paddedFrameSize).writeBytes(fMac);
   }
 
   private static int padding16(final int size) {
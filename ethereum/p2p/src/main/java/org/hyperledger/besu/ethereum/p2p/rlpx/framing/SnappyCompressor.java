@@ -45,6 +45,63 @@ public class SnappyCompressor {
     }
   }
 
+  /**
+   * Compresses a range of the input into the output, without allocating intermediate arrays.
+   *
+   * @param uncompressed the array holding the data to compress
+   * @param offset the offset of the data to compress
+   * @param length the length of the data to compress
+   * @param output the array to write the compressed data to, with at least {@link
+   *     #maxCompressedLength(int)} bytes available from the output offset
+   * @param outputOffset the offset to write the compressed data at
+   * @return the length of the compressed data
+   */
+  public int compress(
+      final byte[] uncompressed,
+      final int offset,
+      final int length,
+      final byte[] output,
+      final int outputOffset) {
+    checkNotNull(uncompressed, "input data must not be null");
+    try {
+      return Snappy.compress(uncompressed, offset, length, output, outputOffset);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy compression failed", e);
+    }
+  }
+
+  /**
+   * Decompresses a range of the input into a new array.
+   *
+   * @param compressed the array holding the data to decompress
+   * @param offset the offset of the data to decompress
+   * @param length the length of the data to decompress
+   * @return the decompressed data
+   */
+  public byte[] decompress(final byte[] compressed, final int offset, final int length) {
+    checkNotNull(compressed, "input data must not be null");
+    try {
+      final byte[] uncompressed = new byte[Snappy.uncompressedLength(compressed, offset, length)];
+      Snappy.uncompress(compressed, offset, length, uncompressed, 0);
+      return uncompressed;
+    } catch (final IOException e) {
+      throw new FramingException("Snappy decompression failed", e);
+    }
+  }
+
+  public int maxCompressedLength(final int uncompressedLength) {
+    return Snappy.maxCompressedLength(uncompressedLength);
+  }
+
+  public int uncompressedLength(final byte[] compressed, final int offset, final int length) {
+    checkNotNull(compressed, "input data must not be null");
+    try {
+      return Snappy.uncompressedLength(compressed, offset, length);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy uncompressedLength failed", e);
+    }
+  }
+
   public int uncompressedLength(final byte[] compressed) {
     checkNotNull(compressed, "input data must not be null");
     try {
@@ -76,6 +76,19 @@ public class HandshakeSecrets {
     return this;
   }
 
+  /**
+   * Updates the egress mac with a range of the provided bytes.
+   *
+   * @param bytes The array holding the bytes of the outgoing message.
+   * @param offset The offset of the bytes of the outgoing message.
+   * @param length The length of the bytes of the outgoing message.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateEgress(final byte[] bytes, final int offset, final int length) {
+    egressMac.update(bytes, offset, length);
+    return this;
+  }
+
   /**
    * Updates the ingress mac with the provided bytes.
    *
@@ -35,6 +35,19 @@ public class SnappyCompressorTest {
     assertThat(snappy.decompress(snappy.compress(data))).isEqualTo(data);
   }
 
+  @Test
+  public void roundTripWithinLargerArrays() {
+    final byte[] data = "Sample text placed within a larger array".getBytes(StandardCharsets.UTF_8);
+    final byte[] input = new byte[data.length + 3];
+    System.arraycopy(data, 0, input, 2, data.length);
+
+    final byte[] output = new byte[1 + snappy.maxCompressedLength(data.length)];
+    final int compressedLength = snappy.compress(input, 2, data.length, output, 1);
+
+    assertThat(snappy.uncompressedLength(output, 1, compressedLength)).isEqualTo(data.length);
+    assertThat(snappy.decompress(output, 1, compressedLength)).isEqualTo(data);
+  }
+
   @Test
   public void roundTripEmptyByteArray() {
     final byte[] data = new byte[0];
@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.rlp;
 
 import org.hyperledger.besu.ethereum.rlp.util.RLPTestUtil;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -61,11 +62,21 @@ public class RLPBench {
 
   volatile Object toEncode;
   volatile Bytes toDecode;
+  volatile ByteBuffer toDecodeDirect;
+  // the same data split in two buffers, as a composite network buffer
+  volatile ByteBuffer[] toDecodeSplit;
 
   @Setup(Level.Trial)
   public void prepare() {
     toEncode = generate(depth, width, size);
     toDecode = RLPTestUtil.encode(toEncode);
+    toDecodeDirect =
+        ByteBuffer.allocateDirect(toDecode.size()).put(toDecode.toArrayUnsafe()).flip();
+    final int half = toDecode.size() / 2;
+    toDecodeSplit =
+        new ByteBuffer[] {
+          toDecodeDirect.duplicate().limit(half), toDecodeDirect.duplicate().position(half)
+        };
   }
 
   @Benchmark
@@ -77,4 +88,26 @@ public class RLPBench {
   public Object getBenchmarkDecoding() {
     return RLPTestUtil.decode(toDecode);
   }
+
+  @Benchmark
+  public Object getBenchmarkDecodingCopiedFromDirectBuffer() {
+    final byte[] copy = new byte[toDecodeDirect.remaining()];
+    toDecodeDirect.duplicate().get(copy);
+    return RLPTestUtil.decode(Bytes.wrap(copy));
+  }
+
+  @Benchmark
+  public Object getBenchmarkDecodingFromDirectBuffer() {
+    return RLPTestUtil.decode(RLP.input(toDecodeDirect));
+  }
+
+  @Benchmark
+  public Object getBenchmarkDecodingFromSplitBuffers() {
+    return RLPTestUtil.decode(RLP.input(toDecodeSplit));
+  }
+
+  @Benchmark
+  public Object getBenchmarkDecodingWithReusedInput() {
+    return RLP.decode(toDecode, RLPTestUtil::decode);
+  }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.Bytes48;
+
+/**
+ * An {@link RLPInput} that reads RLP encoded data straight from {@link ByteBuffer}s, heap or
+ * direct, without first copying them into a {@link Bytes}. The data may be split across several
+ * buffers, as the {@code nioBuffers()} of a composite Netty buffer, which are then read in turn.
+ *
+ * <p>The values read are views of the buffers, as with {@link BytesValueRLPInput}, except for
+ * values spanning two buffers which are copied: the buffers must not be modified or released while
+ * the values are in use.
+ */
+public class ByteBufferRLPInput extends AbstractRLPInput {
+
+  private final boolean shouldFitExactly;
+  // The RLP encoded data, split in non-empty buffers indexed from 0, in big endian order.
+  private ByteBuffer[] buffers = new ByteBuffer[1];
+  private int bufferCount;
+  // The offset in the input of the first byte of each buffer, and the size of the input.
+  private long[] bufferStarts = new long[2];
+  // The buffer read last, as the input is mostly read in order.
+  private int lastBuffer;
+
+  public ByteBufferRLPInput(final ByteBuffer buffer, final boolean lenient) {
+    this(buffer, lenient, true);
+  }
+
+  public ByteBufferRLPInput(
+      final ByteBuffer buffer, final boolean lenient, final boolean shouldFitExactly) {
+    this(new ByteBuffer[] {buffer}, lenient, shouldFitExactly);
+  }
+
+  public ByteBufferRLPInput(
+      final ByteBuffer[] buffers, final boolean lenient, final boolean shouldFitExactly) {
+    super(lenient);
+    this.shouldFitExactly = shouldFitExactly;
+    setInput(buffers);
+  }
+
+  /**
+   * Points this input to other buffers, from their position to their limit, to decode them without
+   * creating a new input.
+   *
+   * @param buffers the buffers holding the RLP encoded data
+   */
+  void setInput(final ByteBuffer... buffers) {
+    int count = 0;
+    for (final ByteBuffer buffer : buffers) {
+      if (buffer.hasRemaining()) {
+        count++;
+      }
+    }
+    if (count > this.buffers.length) {
+      this.buffers = new ByteBuffer[count];
+      this.bufferStarts = new long[count + 1];
+    }
+    // release the buffers of the previous input
+    Arrays.fill(this.buffers, count, this.buffers.length, null);
+    long size = 0;
+    int index = 0;
+    for (final ByteBuffer buffer : buffers) {
+      if (buffer.hasRemaining()) {
+        // the slice is indexed from the position of the buffer, in big endian order
+        this.buffers[index] = buffer.slice();
+        this.bufferStarts[index] = size;
+        size += buffer.remaining();
+        index++;
+      }
+    }
+    this.bufferStarts[count] = size;
+    bufferCount = count;
+    lastBuffer = 0;
+    init(size, shouldFitExactly);
+  }
+
+  private int bufferIndex(final long offset) {
+    int index = lastBuffer;
+    if (offset < bufferStarts[index] || offset >= bufferStarts[index + 1]) {
+      index = Arrays.binarySearch(bufferStarts, 0, bufferCount, offset);
+      // not a start of a buffer: the insertion point is after the buffer holding the offset
+      index = index >= 0 ? index : -index - 2;
+      lastBuffer = index;
+    }
+    return index;
+  }
+
+  private int offsetInBuffer(final int index, final long offset) {
+    return (int) (offset - bufferStarts[index]);
+  }
+
+  private boolean isInBuffer(final int index, final long offset, final int length) {
+    return offset + length <= bufferStarts[index + 1];
+  }
+
+  @Override
+  protected byte inputByte(final long offset) {
+    final int index = bufferIndex(offset);
+    return buffers[index].get(offsetInBuffer(index, offset));
+  }
+
+  @Override
+  protected Bytes inputSlice(final long offset, final int length) {
+    if (length == 0) {
+      return Bytes.EMPTY;
+    }
+    final int index = bufferIndex(offset);
+    final ByteBuffer buffer = buffers[index];
+    final int start = offsetInBuffer(index, offset);
+    if (!isInBuffer(index, offset, length)) {
+      return Bytes.wrap(copy(offset, length));
+    } else if (buffer.hasArray()) {
+      // a single view of the array rather than a view of the buffer
+      return Bytes.wrap(buffer.array(), buffer.arrayOffset() + start, length);
+    } else {
+      return Bytes.wrapByteBuffer(buffer, start, length);
+    }
+  }
+
+  private byte[] copy(final long offset, final int length) {
+    final byte[] copy = new byte[length];
+    int copied = 0;
+    while (copied < length) {
+      final int index = bufferIndex(offset + copied);
+      final int start = offsetInBuffer(index, offset + copied);
+      final int chunk = Math.min(length - copied, buffers[index].limit() - start);
+      buffers[index].get(start, copy, copied, chunk);
+      copied += chunk;
+    }
+    return copy;
+  }
+
+  @Override
+  protected Bytes32 inputSlice32(final long offset) {
+    final int index = bufferIndex(offset);
+    final ByteBuffer buffer = buffers[index];
+    if (buffer.hasArray() && isInBuffer(index, offset, 32)) {
+      return Bytes32.wrap(buffer.array(), buffer.arrayOffset() + offsetInBuffer(index, offset));
+    }
+    return Bytes32.wrap(inputSlice(offset, 32));
+  }
+
+  @Override
+  protected Bytes48 inputSlice48(final long offset) {
+    return Bytes48.wrap(inputSlice(offset, 48));
+  }
+
+  @Override
+  protected String inputHex(final long offset, final int length) {
+    return inputSlice(offset, length).toUnprefixedHexString();
+  }
+
+  @Override
+  protected BigInteger getUnsignedBigInteger(final long offset, final int length) {
+    return inputSlice(offset, length).toUnsignedBigInteger();
+  }
+
+  @Override
+  protected int getInt(final long offset) {
+    final int index = bufferIndex(offset);
+    if (isInBuffer(index, offset, 4)) {
+      return buffers[index].getInt(offsetInBuffer(index, offset));
+    }
+    return Bytes.wrap(copy(offset, 4)).getInt(0);
+  }
+
+  @Override
+  protected long getLong(final long offset) {
+    final int index = bufferIndex(offset);
+    if (isInBuffer(index, offset, 8)) {
+      return buffers[index].getLong(offsetInBuffer(index, offset));
+    }
+    return Bytes.wrap(copy(offset, 8)).getLong(0);
+  }
+
+  @Override
+  public Bytes raw() {
+    return inputSlice(0, Math.toIntExact(bufferStarts[bufferCount]));
+  }
+}
@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.rlp;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -96,6 +97,41 @@ public class BytesValueRLPOutput implements RLPOutput {
     payloadSizes[currentList()] += v.size();
   }
 
+  /**
+   * Appends the items written to another output as if they had been written to this one, without
+   * encoding them first. This is how a response can be built from items that are first written to
+   * their own output to check their encoded size: the items are only encoded once, along with the
+   * rest of this output.
+   *
+   * <p>The other output must not be written to afterwards, as the appended values are shared.
+   *
+   * @param other the output whose items to append to this output.
+   * @throws IllegalStateException if some opened list of the other output haven't been closed.
+   */
+  public void append(final BytesValueRLPOutput other) {
+    checkState(
+        stackSize > 1 || values.isEmpty(), "Terminated RLP output, cannot add more elements");
+    checkState(
+        other.stackSize == 1, "A list has been entered (startList()) but not left (endList())");
+
+    final int valuesOffset = values.size();
+    values.addAll(other.values);
+    other.rlpEncoded.stream().forEach(i -> rlpEncoded.set(valuesOffset + i));
+
+    // The lists of the other output come after all the lists of this one, in the same order as
+    // their markers in 'values'.
+    final int otherListsCount = other.listsCount - 1;
+    if (listsCount + otherListsCount > payloadSizes.length) {
+      payloadSizes =
+          Arrays.copyOf(
+              payloadSizes, Math.max((payloadSizes.length * 3) / 2, listsCount + otherListsCount));
+    }
+    System.arraycopy(other.payloadSizes, 1, payloadSizes, listsCount, otherListsCount);
+    listsCount += otherListsCount;
+
+    payloadSizes[currentList()] += other.payloadSizes[0];
+  }
+
   @Override
   public void startList() {
     values.add(LIST_MARKER);
@@ -191,6 +227,22 @@ public class BytesValueRLPOutput implements RLPOutput {
         offset);
   }
 
+  /**
+   * Write the rlp encoded value to the provided {@link ByteBuffer}, from its current position, and
+   * advance its position past the written data.
+   *
+   * @param buffer the buffer to which the rlp-data will be written, which must have at least
+   *     {@link #encodedSize()} bytes remaining
+   */
+  public void writeEncoded(final ByteBuffer buffer) {
+    final int size = encodedSize();
+    if (size == 0) {
+      return;
+    }
+    writeEncoded(MutableBytes.wrapByteBuffer(buffer, buffer.position(), size));
+    buffer.position(buffer.position() + size);
+  }
+
   /**
    * Computes the final encoded data.
    *
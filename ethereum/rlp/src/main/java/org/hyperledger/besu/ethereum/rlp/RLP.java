@@ -16,7 +16,9 @@ package org.hyperledger.besu.ethereum.rlp;
 
 import static java.lang.String.format;
 
+import java.nio.ByteBuffer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.MutableBytes;
@@ -63,6 +65,48 @@ public abstract class RLP {
     return new BytesValueRLPInput(encoded, lenient);
   }
 
+  /**
+   * Creates a new strict {@link RLPInput} decoding the RLP encoded value straight from the
+   * remaining bytes of the buffers, without copying them. The value may be split across several
+   * buffers, as the {@code nioBuffers()} of a composite Netty buffer.
+   *
+   * @param encoded The buffers holding the RLP encoded data, each from its position to its limit.
+   * @return A newly created {@link RLPInput} to decode {@code encoded}.
+   * @throws MalformedRLPInputException if {@code encoded} doesn't contain a single RLP encoded item
+   */
+  public static RLPInput input(final ByteBuffer... encoded) {
+    return new ByteBufferRLPInput(encoded, false, true);
+  }
+
+  /**
+   * Decodes an RLP encoded value with a strict {@link RLPInput} reused by the current thread,
+   * rather than a newly created one. The input must not be used once the decoder returns.
+   *
+   * @param encoded The RLP encoded data.
+   * @param decoder The function decoding the value from the input.
+   * @param <T> The type of the decoded value.
+   * @return The decoded value.
+   * @throws MalformedRLPInputException if {@code encoded} doesn't contain a single RLP encoded item
+   */
+  public static <T> T decode(final Bytes encoded, final Function<RLPInput, T> decoder) {
+    return ReusableRLPInputs.decode(encoded, decoder);
+  }
+
+  /**
+   * Decodes an RLP encoded value straight from the remaining bytes of the buffer, with a strict
+   * {@link RLPInput} reused by the current thread. The input must not be used once the decoder
+   * returns.
+   *
+   * @param encoded The buffer holding the RLP encoded data, from its position to its limit.
+   * @param decoder The function decoding the value from the input.
+   * @param <T> The type of the decoded value.
+   * @return The decoded value.
+   * @throws MalformedRLPInputException if {@code encoded} doesn't contain a single RLP encoded item
+   */
+  public static <T> T decode(final ByteBuffer encoded, final Function<RLPInput, T> decoder) {
+    return ReusableRLPInputs.decode(encoded, decoder);
+  }
+
   /**
    * Creates a {@link RLPOutput}, pass it to the provided consumer for writing, and then return the
    * RLP encoded result of that writing.
@@ -199,6 +243,27 @@ public abstract class RLP {
     }
   }
 
+  /**
+   * Computes the size of the RLP encoding of a byte string, without encoding it.
+   *
+   * @param value the value to encode
+   * @return the size of the RLP encoding of the value, as written by {@link
+   *     RLPOutput#writeBytes(Bytes)}
+   */
+  public static int encodedSize(final Bytes value) {
+    return RLPEncodingHelpers.elementSize(value);
+  }
+
+  /**
+   * Computes the size of the RLP encoding of a list, without encoding it.
+   *
+   * @param payloadSize the sum of the encoded sizes of the items of the list
+   * @return the size of the RLP encoding of the list, header included
+   */
+  public static int encodedListSize(final int payloadSize) {
+    return RLPEncodingHelpers.listSize(payloadSize);
+  }
+
   /**
    * Given a {@link Bytes} containing rlp-encoded data, determines the full length of the encoded
    * value (including the prefix) by inspecting the prefixed metadata.
@@ -193,6 +193,22 @@ public interface RLPInput {
    */
   UInt256 readUInt256Scalar();
 
+  /**
+   * Reads a scalar from the input into the four 64-bit limbs of a 256-bit value, least significant
+   * limb first, without allocating the value.
+   *
+   * @param limbs The array receiving the limbs, of at least 4 elements.
+   * @throws RLPException if the next item to read is a list, the input is at the end of its current
+   *     list (and {@link #leaveList()} hasn't been called) or if the next item is either too big to
+   *     fit a {@link UInt256} or has leading zeros.
+   */
+  default void readUInt256Limbs(final long[] limbs) {
+    final UInt256 value = readUInt256Scalar();
+    for (int i = 0; i < 4; i++) {
+      limbs[i] = value.getLong(24 - i * 8);
+    }
+  }
+
   /**
    * Reads the next item of this input (which must be exactly 1 byte) as a byte.
    *
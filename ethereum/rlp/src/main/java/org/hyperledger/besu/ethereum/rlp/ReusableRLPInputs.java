@@ -0,0 +1,84 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * The RLP inputs of a thread, reused from one decoded value to the next. A decoder may decode
+ * other values while it runs, so the thread keeps an input for each level of nesting.
+ */
+final class ReusableRLPInputs {
+  private static final ThreadLocal<ReusableRLPInputs> INPUTS =
+      ThreadLocal.withInitial(ReusableRLPInputs::new);
+
+  private BytesValueRLPInput[] bytesInputs = new BytesValueRLPInput[4];
+  private ByteBufferRLPInput[] bufferInputs = new ByteBufferRLPInput[4];
+  private int depth;
+
+  private ReusableRLPInputs() {}
+
+  static <T> T decode(final Bytes encoded, final Function<RLPInput, T> decoder) {
+    final ReusableRLPInputs inputs = INPUTS.get();
+    final int depth = inputs.enter();
+    BytesValueRLPInput input = inputs.bytesInputs[depth];
+    try {
+      if (input == null) {
+        input = new BytesValueRLPInput(encoded, false);
+        inputs.bytesInputs[depth] = input;
+      } else {
+        input.setInput(encoded);
+      }
+      return decoder.apply(input);
+    } finally {
+      if (input != null) {
+        input.setInput(Bytes.EMPTY);
+      }
+      inputs.depth--;
+    }
+  }
+
+  static <T> T decode(final ByteBuffer encoded, final Function<RLPInput, T> decoder) {
+    final ReusableRLPInputs inputs = INPUTS.get();
+    final int depth = inputs.enter();
+    ByteBufferRLPInput input = inputs.bufferInputs[depth];
+    try {
+      if (input == null) {
+        input = new ByteBufferRLPInput(encoded, false);
+        inputs.bufferInputs[depth] = input;
+      } else {
+        input.setInput(encoded);
+      }
+      return decoder.apply(input);
+    } finally {
+      if (input != null) {
+        input.setInput();
+      }
+      inputs.depth--;
+    }
+  }
+
+  private int enter() {
+    if (depth == bytesInputs.length) {
+      bytesInputs = Arrays.copyOf(bytesInputs, depth * 2);
+      bufferInputs = Arrays.copyOf(bufferInputs, depth * 2);
+    }
+    return depth++;
+  }
+}
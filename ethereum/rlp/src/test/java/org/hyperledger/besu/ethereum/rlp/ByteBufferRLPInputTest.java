@@ -0,0 +1,160 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.ethereum.rlp.util.RLPTestUtil;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+public class ByteBufferRLPInputTest {
+
+  private static ByteBuffer direct(final Bytes bytes) {
+    return ByteBuffer.allocateDirect(bytes.size()).put(bytes.toArrayUnsafe()).flip();
+  }
+
+  @Test
+  public void decodesLikeBytesInput() {
+    final Bytes encoded = RLPTestUtil.randomRLPValue(42).encoded();
+
+    assertThat(RLPTestUtil.decode(RLP.input(direct(encoded))))
+        .isEqualTo(RLPTestUtil.decode(encoded));
+  }
+
+  @Test
+  public void readsFromThePositionOfTheBuffer() {
+    final Bytes32 hash = Bytes32.fromHexStringLenient("0x1234");
+    final Bytes encoded =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeLongScalar(1_000_000L);
+              out.writeBytes(hash);
+              out.writeLong(-1L);
+              out.endList();
+            });
+    final ByteBuffer buffer = direct(Bytes.concatenate(Bytes.of(0xff, 0xff), encoded));
+    buffer.position(2);
+
+    final RLPInput in = RLP.input(buffer);
+    in.enterList();
+    assertThat(in.readLongScalar()).isEqualTo(1_000_000L);
+    assertThat(in.readBytes32()).isEqualTo(hash);
+    assertThat(in.readLong()).isEqualTo(-1L);
+    in.leaveList();
+    assertThat(in.isDone()).isTrue();
+    assertThat(buffer.position()).isEqualTo(2);
+    assertThat(in.raw()).isEqualTo(encoded);
+  }
+
+  @Test
+  public void skipsListsWithoutReadingThem() {
+    final Bytes encoded =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.startList();
+              out.writeIntScalar(1);
+              out.writeIntScalar(2);
+              out.endList();
+              out.writeIntScalar(3);
+              out.endList();
+            });
+
+    final RLPInput in = RLP.input(direct(encoded));
+    in.enterList();
+    in.skipNext();
+    assertThat(in.readIntScalar()).isEqualTo(3);
+    in.leaveList();
+  }
+
+  @Test
+  public void decodesAcrossSeveralBuffers() {
+    final Bytes encoded = RLPTestUtil.randomRLPValue(7).encoded();
+    final int third = encoded.size() / 3;
+    final ByteBuffer[] buffers = {
+      direct(encoded.slice(0, third)),
+      ByteBuffer.allocate(0),
+      ByteBuffer.wrap(encoded.slice(third, third).toArray()),
+      direct(encoded.slice(2 * third))
+    };
+
+    final RLPInput in = RLP.input(buffers);
+    assertThat(in.raw()).isEqualTo(encoded);
+    assertThat(RLPTestUtil.decode(in)).isEqualTo(RLPTestUtil.decode(encoded));
+  }
+
+  @Test
+  public void readsUInt256Limbs() {
+    final List<UInt256> values =
+        List.of(
+            UInt256.ZERO,
+            UInt256.ONE,
+            UInt256.valueOf(BigInteger.TWO.pow(64)),
+            UInt256.fromHexString("0x1234567890abcdef1234567890abcdef12345678"),
+            UInt256.MAX_VALUE);
+    final Bytes encoded =
+        RLP.encode(out -> out.writeList(values, (value, o) -> o.writeUInt256Scalar(value)));
+
+    final RLPInput in = RLP.input(direct(encoded));
+    final long[] limbs = new long[4];
+    in.enterList();
+    for (final UInt256 value : values) {
+      in.readUInt256Limbs(limbs);
+      assertThat(limbs)
+          .containsExactly(
+              value.getLong(24), value.getLong(16), value.getLong(8), value.getLong(0));
+    }
+    in.leaveList();
+  }
+
+  @Test
+  public void reusesTheInputsOfTheThread() {
+    final Bytes inner = RLP.encode(out -> out.writeLongScalar(42));
+    final Bytes outer =
+        RLP.encode(out -> out.writeList(List.of(inner), (value, o) -> o.writeBytes(value)));
+    final Function<RLPInput, Long> decoder =
+        in -> {
+          in.enterList();
+          final long value = RLP.decode(in.readBytes(), RLPInput::readLongScalar);
+          in.leaveList();
+          return value;
+        };
+
+    assertThat(RLP.decode(outer, decoder)).isEqualTo(42L);
+    assertThat(RLP.decode(direct(outer), decoder)).isEqualTo(42L);
+    // the inputs were left in a clean state
+    assertThat(RLP.decode(outer, decoder)).isEqualTo(42L);
+    assertThatThrownBy(() -> RLP.decode(Bytes.fromHexString("0x0102"), RLPInput::readBytes))
+        .isInstanceOf(MalformedRLPInputException.class);
+    assertThat(RLP.decode(direct(outer), decoder)).isEqualTo(42L);
+  }
+
+  @Test
+  public void rejectsExtraDataAfterTheItem() {
+    assertThatThrownBy(() -> RLP.input(direct(Bytes.fromHexString("0x0102"))))
+        .isInstanceOf(MalformedRLPInputException.class);
+  }
+}
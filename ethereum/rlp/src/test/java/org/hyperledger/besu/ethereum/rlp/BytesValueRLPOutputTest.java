@@ -17,6 +17,8 @@ package org.hyperledger.besu.ethereum.rlp;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.nio.ByteBuffer;
+
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.jupiter.api.Test;
@@ -353,4 +355,83 @@ public class BytesValueRLPOutputTest {
     // so 0xc0 + size then payloads
     assertThat(out.encoded()).isEqualTo(h("0xc52cc203123b"));
   }
+
+  @Test
+  public void appendedOutputsEncodeLikeDirectWrites() {
+    final BytesValueRLPOutput expected = new BytesValueRLPOutput();
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    expected.startList();
+    out.startList();
+    for (int i = 0; i < 20; i++) {
+      writeItem(expected, i);
+      final BytesValueRLPOutput item = new BytesValueRLPOutput();
+      writeItem(item, i);
+      out.append(item);
+    }
+    expected.endList();
+    out.endList();
+
+    assertThat(out.encodedSize()).isEqualTo(expected.encodedSize());
+    assertThat(out.encoded()).isEqualTo(expected.encoded());
+  }
+
+  private static void writeItem(final RLPOutput out, final int i) {
+    out.startList();
+    out.writeIntScalar(i);
+    out.writeRaw(h("0xc101"));
+    out.startList();
+    out.writeBytes(Bytes.repeat((byte) i, 60));
+    out.endList();
+    out.endList();
+  }
+
+  @Test
+  public void appendSingleElementOutput() {
+    final BytesValueRLPOutput element = new BytesValueRLPOutput();
+    element.writeBytes(h("0x0102"));
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.append(element);
+
+    assertThat(out.encoded()).isEqualTo(h("0x820102"));
+  }
+
+  @Test
+  public void appendUnterminatedOutput() {
+    final BytesValueRLPOutput unterminated = new BytesValueRLPOutput();
+    unterminated.startList();
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.startList();
+
+    assertThatThrownBy(() -> out.append(unterminated)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void writeEncodedToByteBuffer() {
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.startList();
+    out.writeByte((byte) 0x2c);
+    out.writeBytes(h("0x0312"));
+    out.endList();
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(out.encodedSize() + 2);
+    buffer.put((byte) 0xff);
+
+    out.writeEncoded(buffer);
+
+    assertThat(buffer.position()).isEqualTo(out.encodedSize() + 1);
+    assertThat(Bytes.wrapByteBuffer(buffer.flip())).isEqualTo(h("0xffc42c820312"));
+  }
+
+  @Test
+  public void encodedSizesMatchEncoding() {
+    final Bytes shortValue = h("0x0102");
+    final Bytes longValue = Bytes.repeat((byte) 1, 100);
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.startList();
+    out.writeBytes(shortValue);
+    out.writeBytes(longValue);
+    out.endList();
+
+    final int payloadSize = RLP.encodedSize(shortValue) + RLP.encodedSize(longValue);
+    assertThat(RLP.encodedListSize(payloadSize)).isEqualTo(out.encodedSize());
+  }
 }
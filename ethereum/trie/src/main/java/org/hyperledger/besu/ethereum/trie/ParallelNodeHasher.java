@@ -0,0 +1,87 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Hashes the dirty nodes of a trie with a fork-join pool.
+ *
+ * <p>Every node caches its hash once computed. The dirty subtrees found above a given depth are
+ * hashed by separate tasks, and each node is hashed after its children, from their cached hashes.
+ * Nodes that were loaded from storage are never dirty and are not visited. The hashes are the same
+ * as when computed on a single thread, only the order in which they are computed differs.
+ */
+public final class ParallelNodeHasher {
+
+  /** The depth of the dirty subtrees hashed by separate tasks, 256 subtrees at most. */
+  public static final int DEFAULT_PARALLEL_DEPTH = 2;
+
+  private ParallelNodeHasher() {}
+
+  /**
+   * Computes the hash of a node, hashing its dirty descendants in parallel.
+   *
+   * @param root the node to hash
+   * @param pool the pool running the hashing tasks
+   * @param parallelDepth the depth under which subtrees are hashed by a single task
+   * @param <V> the type of the values stored in the trie
+   * @return the hash of the node
+   */
+  public static <V> Bytes32 hash(
+      final Node<V> root, final ForkJoinPool pool, final int parallelDepth) {
+    if (root.isDirty()) {
+      pool.invoke(new HashTask<>(root, 0, parallelDepth));
+    }
+    return root.getHash();
+  }
+
+  private static class HashTask<V> extends RecursiveAction {
+
+    private final Node<V> node;
+    private final int depth;
+    private final int parallelDepth;
+
+    private HashTask(final Node<V> node, final int depth, final int parallelDepth) {
+      this.node = node;
+      this.depth = depth;
+      this.parallelDepth = parallelDepth;
+    }
+
+    @Override
+    protected void compute() {
+      if (depth < parallelDepth) {
+        final List<HashTask<V>> subtasks = new ArrayList<>();
+        for (final Node<V> child : node.getChildren()) {
+          if (child.isDirty()) {
+            subtasks.add(new HashTask<>(child, depth + 1, parallelDepth));
+          }
+        }
+        if (subtasks.size() > 1) {
+          invokeAll(subtasks);
+        } else {
+          subtasks.forEach(HashTask::compute);
+        }
+      }
+      // the encoded reference of a node includes its hash when the node is referenced by hash
+      node.getEncodedBytesRef();
+    }
+  }
+}
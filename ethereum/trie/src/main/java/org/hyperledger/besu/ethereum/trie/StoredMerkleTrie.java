@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -202,6 +203,16 @@ public abstract class StoredMerkleTrie<K extends Bytes, V> implements MerkleTrie
     return root.getHash();
   }
 
+  /**
+   * Computes the root hash, hashing the dirty subtrees of the trie in parallel.
+   *
+   * @param pool the pool running the hashing tasks
+   * @return the root hash, identical to {@link #getRootHash()}
+   */
+  public Bytes32 getRootHash(final ForkJoinPool pool) {
+    return ParallelNodeHasher.hash(root, pool, ParallelNodeHasher.DEFAULT_PARALLEL_DEPTH);
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "[" + getRootHash() + "]";
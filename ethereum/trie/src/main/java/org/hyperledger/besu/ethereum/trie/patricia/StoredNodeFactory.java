@@ -123,7 +123,7 @@ public class StoredNodeFactory<V> implements NodeFactory<V> {
   private Node<V> decode(final Bytes location, final Bytes rlp, final Supplier<String> errMessage)
       throws MerkleTrieException {
     try {
-      return decode(location, RLP.input(rlp), errMessage);
+      return RLP.decode(rlp, nodeRLPs -> decode(location, nodeRLPs, errMessage));
     } catch (final RLPException ex) {
       throw new MerkleTrieException(errMessage.get(), ex);
     }
@@ -0,0 +1,84 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.crypto.Hash.keccak256;
+
+import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelNodeHasherTest {
+
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+  private final MerkleStorage merkleStorage =
+      new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void computesTheSameRootHashAsSequentialHashing() {
+    final StoredMerklePatriciaTrie<Bytes32, Bytes> sequential = createEmptyTrie();
+    final StoredMerklePatriciaTrie<Bytes32, Bytes> parallel = createEmptyTrie();
+    for (int i = 0; i < 1_000; i++) {
+      final Bytes32 key = keccak(i);
+      sequential.put(key, Bytes.ofUnsignedInt(i));
+      parallel.put(key, Bytes.ofUnsignedInt(i));
+    }
+
+    assertThat(parallel.getRootHash(pool)).isEqualTo(sequential.getRootHash());
+  }
+
+  @Test
+  void onlyHashesTheNodesUpdatedSinceTheLastCommit() {
+    final StoredMerklePatriciaTrie<Bytes32, Bytes> trie = createEmptyTrie();
+    for (int i = 0; i < 1_000; i++) {
+      trie.put(keccak(i), Bytes.ofUnsignedInt(i));
+    }
+    trie.commit(merkleStorage::put);
+
+    final StoredMerklePatriciaTrie<Bytes32, Bytes> reloaded = createTrie(trie.getRootHash());
+    reloaded.put(keccak(1), Bytes.of(1));
+    reloaded.remove(keccak(2));
+    trie.put(keccak(1), Bytes.of(1));
+    trie.remove(keccak(2));
+
+    assertThat(reloaded.getRootHash(pool)).isEqualTo(trie.getRootHash());
+  }
+
+  private StoredMerklePatriciaTrie<Bytes32, Bytes> createEmptyTrie() {
+    return createTrie(MerkleTrie.EMPTY_TRIE_NODE_HASH);
+  }
+
+  private StoredMerklePatriciaTrie<Bytes32, Bytes> createTrie(final Bytes32 rootHash) {
+    return new StoredMerklePatriciaTrie<>(
+        merkleStorage::get, rootHash, Function.identity(), Function.identity());
+  }
+
+  private static Bytes32 keccak(final int i) {
+    return keccak256(Bytes.ofUnsignedInt(i));
+  }
+}
@@ -19,7 +19,9 @@ import static org.hyperledger.besu.evm.operation.PushOperation.PUSH_BASE;
 import static org.hyperledger.besu.evm.operation.SwapOperation.SWAP_BASE;
 
 import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.code.BasicBlocks;
 import org.hyperledger.besu.evm.code.CodeFactory;
+import org.hyperledger.besu.evm.code.CodeV0;
 import org.hyperledger.besu.evm.code.EOFLayout;
 import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
 import org.hyperledger.besu.evm.frame.MessageFrame;
@@ -29,6 +31,7 @@ import org.hyperledger.besu.evm.internal.EvmConfiguration;
 import org.hyperledger.besu.evm.internal.JumpDestOnlyCodeCache;
 import org.hyperledger.besu.evm.internal.OverflowException;
 import org.hyperledger.besu.evm.internal.UnderflowException;
+import org.hyperledger.besu.evm.internal.Words;
 import org.hyperledger.besu.evm.operation.AddModOperation;
 import org.hyperledger.besu.evm.operation.AddOperation;
 import org.hyperledger.besu.evm.operation.AndOperation;
@@ -37,6 +40,7 @@ import org.hyperledger.besu.evm.operation.ChainIdOperation;
 import org.hyperledger.besu.evm.operation.CountLeadingZerosOperation;
 import org.hyperledger.besu.evm.operation.DivOperation;
 import org.hyperledger.besu.evm.operation.DupOperation;
+import org.hyperledger.besu.evm.operation.EqOperation;
 import org.hyperledger.besu.evm.operation.ExpOperation;
 import org.hyperledger.besu.evm.operation.GtOperation;
 import org.hyperledger.besu.evm.operation.InvalidOperation;
@@ -60,6 +64,9 @@ import org.hyperledger.besu.evm.operation.SDivOperation;
 import org.hyperledger.besu.evm.operation.SGtOperation;
 import org.hyperledger.besu.evm.operation.SLtOperation;
 import org.hyperledger.besu.evm.operation.SModOperation;
+import org.hyperledger.besu.evm.operation.SarOperation;
+import org.hyperledger.besu.evm.operation.ShlOperation;
+import org.hyperledger.besu.evm.operation.ShrOperation;
 import org.hyperledger.besu.evm.operation.SignExtendOperation;
 import org.hyperledger.besu.evm.operation.StopOperation;
 import org.hyperledger.besu.evm.operation.SubOperation;
@@ -86,6 +93,13 @@ public class EVM {
   protected static final OperationResult UNDERFLOW_RESPONSE =
       new OperationResult(0L, ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS);
 
+  // Results of basic block instructions, their gas has already been paid on block entry
+  private static final OperationResult BLOCK_JUMP_RESPONSE = new OperationResult(0L, null, 0);
+  private static final OperationResult INVALID_JUMP_RESPONSE =
+      new OperationResult(0L, ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
+  private static final OperationResult INSUFFICIENT_GAS_RESPONSE =
+      new OperationResult(0L, ExceptionalHaltReason.INSUFFICIENT_GAS);
+
   private final OperationRegistry operations;
   private final GasCalculator gasCalculator;
   private final Operation endOfScriptStop;
@@ -98,6 +112,7 @@ public class EVM {
   private final boolean enableOsaka;
 
   private final JumpDestOnlyCodeCache jumpDestOnlyCodeCache;
+  private final boolean enableBasicBlocks;
 
   /**
    * Instantiates a new Evm.
@@ -118,6 +133,7 @@ public class EVM {
     this.evmConfiguration = evmConfiguration;
     this.evmSpecVersion = evmSpecVersion;
     this.jumpDestOnlyCodeCache = new JumpDestOnlyCodeCache(evmConfiguration);
+    this.enableBasicBlocks = evmConfiguration.basicBlockExecution();
 
     codeFactory =
         new CodeFactory(
@@ -211,6 +227,10 @@ public class EVM {
     evmSpecVersion.maybeWarnVersion();
 
     var operationTracer = tracing == OperationTracer.NO_TRACING ? null : tracing;
+    if (enableBasicBlocks && operationTracer == null && frame.getCode() instanceof CodeV0 codeV0) {
+      runBasicBlocksToHalt(frame, codeV0.getBasicBlocks(this));
+      return;
+    }
     byte[] code = frame.getCode().getBytes().toArrayUnsafe();
     Operation[] operationArray = operations.getOperations();
     while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
@@ -365,6 +385,180 @@ public class EVM {
     }
   }
 
+  /**
+   * Runs legacy code from its pre-decoded basic blocks. When the gas and stack needs of a whole
+   * block are met on entry the block runs with a single gas deduction and no per opcode checks,
+   * otherwise it is stepped through opcode by opcode so that halts happen at the exact same place
+   * and with the same reason as in {@link #runToHalt}. Only used when tracing is disabled.
+   */
+  private void runBasicBlocksToHalt(final MessageFrame frame, final BasicBlocks blocks) {
+    final byte[] code = frame.getCode().getBytes().toArrayUnsafe();
+    final Operation[] operationArray = operations.getOperations();
+    final int maxStackSize = frame.getMaxStackSize();
+    while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+      final int block = blocks.blockAt(frame.getPC());
+      if (block >= 0
+          && blocks.canRunUnchecked(
+              block, frame.stackSize(), maxStackSize, frame.getRemainingGas())) {
+        frame.decrementRemainingGas(blocks.gasCost(block));
+        runBlock(frame, blocks, block, code, operationArray);
+      } else {
+        step(frame, code, operationArray);
+      }
+    }
+  }
+
+  private void runBlock(
+      final MessageFrame frame,
+      final BasicBlocks blocks,
+      final int block,
+      final byte[] code,
+      final Operation[] operationArray) {
+    final int first = blocks.firstInstruction(block);
+    final int end = first + blocks.instructionCount(block);
+    for (int i = first; i < end; i++) {
+      final int opcode = blocks.opcode(i);
+      final int pc = blocks.pc(i);
+      frame.setCurrentOperation(operationArray[code[pc] & 0xff]);
+      final OperationResult result =
+          switch (opcode) {
+            case 0x00 -> StopOperation.staticOperation(frame);
+            case 0x01 -> AddOperation.staticOperation(frame);
+            case 0x02 -> MulOperation.staticOperation(frame);
+            case 0x03 -> SubOperation.staticOperation(frame);
+            case 0x04 -> DivOperation.staticOperation(frame);
+            case 0x05 -> SDivOperation.staticOperation(frame);
+            case 0x06 -> ModOperation.staticOperation(frame);
+            case 0x07 -> SModOperation.staticOperation(frame);
+            case 0x08 -> AddModOperation.staticOperation(frame);
+            case 0x09 -> MulModOperation.staticOperation(frame);
+            case 0x0b -> SignExtendOperation.staticOperation(frame);
+            case 0x10 -> LtOperation.staticOperation(frame);
+            case 0x11 -> GtOperation.staticOperation(frame);
+            case 0x12 -> SLtOperation.staticOperation(frame);
+            case 0x13 -> SGtOperation.staticOperation(frame);
+            case 0x14 -> EqOperation.staticOperation(frame);
+            case 0x15 -> IsZeroOperation.staticOperation(frame);
+            case 0x16 -> AndOperation.staticOperation(frame);
+            case 0x17 -> OrOperation.staticOperation(frame);
+            case 0x18 -> XorOperation.staticOperation(frame);
+            case 0x19 -> NotOperation.staticOperation(frame);
+            case 0x1a -> ByteOperation.staticOperation(frame);
+            case 0x1b -> ShlOperation.staticOperation(frame);
+            case 0x1c -> ShrOperation.staticOperation(frame);
+            case 0x1d -> SarOperation.staticOperation(frame);
+            case 0x1e -> CountLeadingZerosOperation.staticOperation(frame);
+            case 0x50 -> PopOperation.staticOperation(frame);
+            case 0x56 -> JumpOperation.staticOperation(frame);
+            case 0x57 -> JumpiOperation.staticOperation(frame);
+            case 0x5b -> JumpDestOperation.JUMPDEST_SUCCESS;
+            case 0x5f -> Push0Operation.staticOperation(frame);
+            case BasicBlocks.PUSH_JUMP -> {
+              final int target = blocks.argument(i);
+              if (target == BasicBlocks.INVALID_TARGET) {
+                yield INVALID_JUMP_RESPONSE;
+              }
+              frame.setPC(target);
+              yield BLOCK_JUMP_RESPONSE;
+            }
+            case BasicBlocks.PUSH_JUMPI -> {
+              if (frame.popStackItem().isZero()) {
+                frame.setPC(blocks.nextPc(i));
+                yield BLOCK_JUMP_RESPONSE;
+              }
+              final int target = blocks.argument(i);
+              if (target == BasicBlocks.INVALID_TARGET) {
+                yield INVALID_JUMP_RESPONSE;
+              }
+              frame.setPC(target);
+              yield BLOCK_JUMP_RESPONSE;
+            }
+            case BasicBlocks.DUP_SWAP -> {
+              final int indices = blocks.argument(i);
+              DupOperation.staticOperation(frame, indices >>> 8);
+              SwapOperation.staticOperation(frame, indices & 0xff);
+              frame.setPC(blocks.nextPc(i));
+              yield BLOCK_JUMP_RESPONSE;
+            }
+            case BasicBlocks.PUSH_MSTORE ->
+                storeImmediate(frame, blocks.immediate(i), blocks.nextPc(i));
+            default -> {
+              if (opcode >= 0x80 && opcode <= 0x8f) {
+                yield DupOperation.staticOperation(frame, opcode - DupOperation.DUP_BASE);
+              } else if (opcode >= 0x90 && opcode <= 0x9f) {
+                yield SwapOperation.staticOperation(frame, opcode - SWAP_BASE);
+              }
+              // PUSH1-32, with the immediate decoded once by the analysis
+              frame.pushStackItem(blocks.immediate(i));
+              frame.setPC(blocks.nextPc(i));
+              yield BLOCK_JUMP_RESPONSE;
+            }
+          };
+      final ExceptionalHaltReason haltReason = result.getHaltReason();
+      if (haltReason != null) {
+        LOG.trace("MessageFrame evaluation halted because of {}", haltReason);
+        frame.setExceptionalHaltReason(Optional.of(haltReason));
+        frame.setState(State.EXCEPTIONAL_HALT);
+        return;
+      }
+      if (frame.getState() != State.CODE_EXECUTING) {
+        return;
+      }
+      frame.setPC(frame.getPC() + result.getPcIncrement());
+    }
+  }
+
+  /**
+   * The MSTORE half of a PUSH+MSTORE superinstruction. The static part of the MSTORE cost was paid
+   * on block entry, only the memory expansion is charged here.
+   */
+  private OperationResult storeImmediate(
+      final MessageFrame frame, final Bytes location, final int nextPc) {
+    final long offset = Words.clampedToLong(location);
+    final Bytes value = frame.popStackItem();
+    final long expansionCost =
+        gasCalculator.mStoreOperationGasCost(frame, offset)
+            - gasCalculator.getVeryLowTierGasCost();
+    if (frame.decrementRemainingGas(expansionCost) < 0) {
+      return INSUFFICIENT_GAS_RESPONSE;
+    }
+    frame.writeMemoryRightAligned(offset, 32, value, true);
+    frame.setPC(nextPc);
+    return BLOCK_JUMP_RESPONSE;
+  }
+
+  /** Executes a single operation with its own gas and stack checks. */
+  private void step(final MessageFrame frame, final byte[] code, final Operation[] operationArray) {
+    Operation currentOperation;
+    try {
+      currentOperation = operationArray[code[frame.getPC()] & 0xff];
+    } catch (ArrayIndexOutOfBoundsException aiiobe) {
+      currentOperation = endOfScriptStop;
+    }
+    frame.setCurrentOperation(currentOperation);
+
+    OperationResult result;
+    try {
+      result = currentOperation.execute(frame, this);
+    } catch (final OverflowException oe) {
+      result = OVERFLOW_RESPONSE;
+    } catch (final UnderflowException ue) {
+      result = UNDERFLOW_RESPONSE;
+    }
+    final ExceptionalHaltReason haltReason = result.getHaltReason();
+    if (haltReason != null) {
+      LOG.trace("MessageFrame evaluation halted because of {}", haltReason);
+      frame.setExceptionalHaltReason(Optional.of(haltReason));
+      frame.setState(State.EXCEPTIONAL_HALT);
+    } else if (frame.decrementRemainingGas(result.getGasCost()) < 0) {
+      frame.setExceptionalHaltReason(Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
+      frame.setState(State.EXCEPTIONAL_HALT);
+    }
+    if (frame.getState() == State.CODE_EXECUTING) {
+      frame.setPC(frame.getPC() + result.getPcIncrement());
+    }
+  }
+
   /**
    * Get Operations (unsafe)
    *
@@ -387,6 +581,10 @@ public class EVM {
     Code result = jumpDestOnlyCodeCache.getIfPresent(codeHash);
     if (result == null) {
       result = wrapCode(codeBytes);
+      if (enableBasicBlocks && result instanceof CodeV0 codeV0) {
+        // build before caching so the entry is weighed with its analysis
+        codeV0.getBasicBlocks(this);
+      }
       jumpDestOnlyCodeCache.put(codeHash, result);
     }
 
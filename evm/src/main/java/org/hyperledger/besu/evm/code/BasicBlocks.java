@@ -0,0 +1,511 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+import static org.hyperledger.besu.evm.operation.PushOperation.PUSH_BASE;
+import static org.hyperledger.besu.evm.operation.PushOperation.PUSH_MAX;
+
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.DupOperation;
+import org.hyperledger.besu.evm.operation.JumpDestOperation;
+import org.hyperledger.besu.evm.operation.MStoreOperation;
+import org.hyperledger.besu.evm.operation.Operation;
+import org.hyperledger.besu.evm.operation.SwapOperation;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Pre-decoded form of legacy (EOF version 0) code, split into basic blocks.
+ *
+ * <p>A block is a straight line run of fixed cost operations that can only be entered at its first
+ * instruction and is left either by falling through to the next block or by its last instruction
+ * (STOP, JUMP or JUMPI). For each block the sum of the static gas costs and the stack height bounds
+ * are precomputed, so the interpreter can check gas and stack once when entering the block instead
+ * of once per opcode. PUSH immediates are decoded once, and common pairs (PUSH+JUMP, PUSH+JUMPI,
+ * DUP+SWAP and PUSH+MSTORE) are fused into a single superinstruction.
+ *
+ * <p>Operations with a dynamic cost or side effects that depend on the remaining gas (SLOAD, CALL,
+ * GAS, ...) are never part of a block and run through the regular per opcode path. The analysis
+ * depends on the operation registry and gas calculator of the EVM it was built for.
+ */
+public final class BasicBlocks {
+
+  /** Superinstruction: PUSHn immediately followed by JUMP. */
+  public static final int PUSH_JUMP = 0x100;
+
+  /** Superinstruction: PUSHn immediately followed by JUMPI. */
+  public static final int PUSH_JUMPI = 0x101;
+
+  /** Superinstruction: DUPn immediately followed by SWAPm. */
+  public static final int DUP_SWAP = 0x102;
+
+  /** Superinstruction: PUSHn immediately followed by MSTORE. */
+  public static final int PUSH_MSTORE = 0x103;
+
+  /** Marker for a jump target that is not a valid JUMPDEST. */
+  public static final int INVALID_TARGET = -1;
+
+  private static final int NO_BLOCK = -1;
+  private static final int STOP = 0x00;
+  private static final int JUMP = 0x56;
+  private static final int JUMPI = 0x57;
+  private static final int MSTORE = 0x52;
+
+  private final Operation[] builtFor;
+
+  // pc -> index of the block starting there, or NO_BLOCK
+  private final int[] blockAt;
+
+  // per block
+  private final int[] firstInstruction;
+  private final int[] instructionCount;
+  private final long[] gasCost;
+  private final int[] requiredStack;
+  private final int[] maxStackGrowth;
+
+  // per instruction
+  private final int[] opcode;
+  private final int[] pc;
+  private final int[] nextPc;
+  private final int[] argument;
+  private final Bytes[] immediate;
+
+  private BasicBlocks(
+      final Operation[] builtFor,
+      final int[] blockAt,
+      final int[] firstInstruction,
+      final int[] instructionCount,
+      final long[] gasCost,
+      final int[] requiredStack,
+      final int[] maxStackGrowth,
+      final int[] opcode,
+      final int[] pc,
+      final int[] nextPc,
+      final int[] argument,
+      final Bytes[] immediate) {
+    this.builtFor = builtFor;
+    this.blockAt = blockAt;
+    this.firstInstruction = firstInstruction;
+    this.instructionCount = instructionCount;
+    this.gasCost = gasCost;
+    this.requiredStack = requiredStack;
+    this.maxStackGrowth = maxStackGrowth;
+    this.opcode = opcode;
+    this.pc = pc;
+    this.nextPc = nextPc;
+    this.argument = argument;
+    this.immediate = immediate;
+  }
+
+  /**
+   * Splits legacy code into basic blocks.
+   *
+   * @param code the legacy code
+   * @param operations the operation registry of the EVM that will execute the code
+   * @param gasCalculator the gas calculator of the EVM that will execute the code
+   * @return the pre-decoded code
+   */
+  public static BasicBlocks analyze(
+      final CodeV0 code, final Operation[] operations, final GasCalculator gasCalculator) {
+    final Builder builder = new Builder(code, operations, gasCalculator);
+    builder.decode();
+    return builder.build();
+  }
+
+  /**
+   * Was this analysis built for the given operation registry.
+   *
+   * @param operations the operations of an EVM
+   * @return true if the analysis can be used by that EVM
+   */
+  public boolean isBuiltFor(final Operation[] operations) {
+    return builtFor == operations;
+  }
+
+  /**
+   * The block starting at the given pc.
+   *
+   * @param programCounter the pc
+   * @return the block index, or -1 if no block starts at this pc
+   */
+  public int blockAt(final int programCounter) {
+    return programCounter >= 0 && programCounter < blockAt.length
+        ? blockAt[programCounter]
+        : NO_BLOCK;
+  }
+
+  /**
+   * Can the whole block run without any per instruction gas or stack check. When this is false the
+   * block must be executed opcode by opcode so that halts happen at the exact same place.
+   *
+   * @param block the block index
+   * @param stackSize the current stack size
+   * @param maxStackSize the maximum stack size
+   * @param remainingGas the remaining gas
+   * @return true if the block cannot run out of gas, underflow or overflow the stack
+   */
+  public boolean canRunUnchecked(
+      final int block, final int stackSize, final int maxStackSize, final long remainingGas) {
+    return remainingGas >= gasCost[block]
+        && stackSize >= requiredStack[block]
+        && stackSize + maxStackGrowth[block] <= maxStackSize;
+  }
+
+  /**
+   * The sum of the static gas of all instructions in the block.
+   *
+   * @param block the block index
+   * @return the static gas
+   */
+  public long gasCost(final int block) {
+    return gasCost[block];
+  }
+
+  /**
+   * The index of the first instruction of the block.
+   *
+   * @param block the block index
+   * @return the instruction index
+   */
+  public int firstInstruction(final int block) {
+    return firstInstruction[block];
+  }
+
+  /**
+   * The number of instructions in the block, counting a superinstruction once.
+   *
+   * @param block the block index
+   * @return the instruction count
+   */
+  public int instructionCount(final int block) {
+    return instructionCount[block];
+  }
+
+  /**
+   * The opcode of an instruction, or one of the superinstruction constants.
+   *
+   * @param instruction the instruction index
+   * @return the opcode
+   */
+  public int opcode(final int instruction) {
+    return opcode[instruction];
+  }
+
+  /**
+   * The pc of the (first) opcode of an instruction.
+   *
+   * @param instruction the instruction index
+   * @return the pc
+   */
+  public int pc(final int instruction) {
+    return pc[instruction];
+  }
+
+  /**
+   * The pc following an instruction, including immediates and fused opcodes.
+   *
+   * @param instruction the instruction index
+   * @return the pc of the next instruction
+   */
+  public int nextPc(final int instruction) {
+    return nextPc[instruction];
+  }
+
+  /**
+   * The decoded argument of an instruction: the jump target (or {@link #INVALID_TARGET}) for
+   * PUSH_JUMP and PUSH_JUMPI, and {@code dupIndex << 8 | swapIndex} for DUP_SWAP.
+   *
+   * @param instruction the instruction index
+   * @return the argument
+   */
+  public int argument(final int instruction) {
+    return argument[instruction];
+  }
+
+  /**
+   * The pre-decoded PUSH immediate of an instruction, or null if it has none.
+   *
+   * @param instruction the instruction index
+   * @return the immediate
+   */
+  public Bytes immediate(final int instruction) {
+    return immediate[instruction];
+  }
+
+  /**
+   * The number of blocks.
+   *
+   * @return the block count
+   */
+  public int blockCount() {
+    return firstInstruction.length;
+  }
+
+  /**
+   * Approximate heap footprint of the analysis, used to weigh cache entries.
+   *
+   * @return the estimated size in bytes
+   */
+  public int estimatedSize() {
+    int immediates = 0;
+    for (final Bytes bytes : immediate) {
+      if (bytes != null) {
+        immediates += 48 + bytes.size();
+      }
+    }
+    return 4 * blockAt.length + 28 * firstInstruction.length + 24 * opcode.length + immediates;
+  }
+
+  private static final class Builder {
+    private final CodeV0 codeV0;
+    private final byte[] code;
+    private final Operation[] operations;
+    private final GasCalculator gasCalculator;
+
+    private final int[] blockAt;
+    private int blockCount = 0;
+    private int[] firstInstruction = new int[16];
+    private int[] instructionCount = new int[16];
+    private long[] gasCost = new long[16];
+    private int[] requiredStack = new int[16];
+    private int[] maxStackGrowth = new int[16];
+
+    private int instructionTotal = 0;
+    private int[] opcode;
+    private int[] pc;
+    private int[] nextPc;
+    private int[] argument;
+    private Bytes[] immediate;
+
+    // state of the block being built
+    private boolean open = false;
+    private long blockGas;
+    private int height;
+    private int required;
+    private int growth;
+
+    Builder(final CodeV0 codeV0, final Operation[] operations, final GasCalculator gasCalculator) {
+      this.codeV0 = codeV0;
+      this.code = codeV0.getBytes().toArrayUnsafe();
+      this.operations = operations;
+      this.gasCalculator = gasCalculator;
+      this.blockAt = new int[this.code.length];
+      Arrays.fill(blockAt, NO_BLOCK);
+      final int initial = Math.max(16, this.code.length / 2);
+      opcode = new int[initial];
+      pc = new int[initial];
+      nextPc = new int[initial];
+      argument = new int[initial];
+      immediate = new Bytes[initial];
+    }
+
+    void decode() {
+      int current = 0;
+      while (current < code.length) {
+        final int op = code[current] & 0xff;
+        final int next = current + 1 + immediateSize(op);
+        if (!isBlockOperation(op)) {
+          closeBlock();
+          current = next;
+          continue;
+        }
+        if (op == JumpDestOperation.OPCODE) {
+          closeBlock();
+        }
+        if (!open) {
+          openBlock(current);
+        }
+
+        final int following = next < code.length ? code[next] & 0xff : -1;
+        if (isPush(op) && (following == JUMP || following == JUMPI) && isBlockOperation(following)) {
+          final Bytes value = pushImmediate(current, op);
+          account(op);
+          account(following);
+          addInstruction(
+              following == JUMP ? PUSH_JUMP : PUSH_JUMPI,
+              current,
+              next + 1,
+              jumpTarget(value),
+              value);
+          closeBlock();
+          current = next + 1;
+        } else if (isPush(op) && following == MSTORE && isFusableMStore()) {
+          final Bytes value = pushImmediate(current, op);
+          account(op);
+          accountStack(operations[MSTORE]);
+          blockGas += gasCalculator.getVeryLowTierGasCost();
+          addInstruction(PUSH_MSTORE, current, next + 1, 0, value);
+          current = next + 1;
+        } else if (isDup(op) && isSwap(following) && isBlockOperation(following)) {
+          account(op);
+          account(following);
+          addInstruction(
+              DUP_SWAP,
+              current,
+              next + 1,
+              ((op - DupOperation.DUP_BASE) << 8) | (following - SwapOperation.SWAP_BASE),
+              null);
+          current = next + 1;
+        } else {
+          account(op);
+          addInstruction(op, current, next, 0, isPush(op) ? pushImmediate(current, op) : null);
+          if (op == STOP || op == JUMP || op == JUMPI) {
+            closeBlock();
+          }
+          current = next;
+        }
+      }
+      closeBlock();
+    }
+
+    BasicBlocks build() {
+      return new BasicBlocks(
+          operations,
+          blockAt,
+          Arrays.copyOf(firstInstruction, blockCount),
+          Arrays.copyOf(instructionCount, blockCount),
+          Arrays.copyOf(gasCost, blockCount),
+          Arrays.copyOf(requiredStack, blockCount),
+          Arrays.copyOf(maxStackGrowth, blockCount),
+          Arrays.copyOf(opcode, instructionTotal),
+          Arrays.copyOf(pc, instructionTotal),
+          Arrays.copyOf(nextPc, instructionTotal),
+          Arrays.copyOf(argument, instructionTotal),
+          Arrays.copyOf(immediate, instructionTotal));
+    }
+
+    private boolean isBlockOperation(final int op) {
+      final Operation operation = operations[op];
+      return operation != null
+          && operation.getOpcode() == op
+          && operation.getFixedGasCost() >= 0
+          && isSupported(op);
+    }
+
+    /** Opcodes the basic block interpreter has a static, gas check free, implementation for. */
+    private static boolean isSupported(final int op) {
+      return (op >= 0x00 && op <= 0x09)
+          || (op >= 0x0b && op <= 0x1e)
+          || op == 0x50
+          || op == JUMP
+          || op == JUMPI
+          || (op >= JumpDestOperation.OPCODE && op <= 0x9f && op != 0x5c && op != 0x5d && op != 0x5e);
+    }
+
+    private boolean isFusableMStore() {
+      return operations[MSTORE] instanceof MStoreOperation;
+    }
+
+    private int jumpTarget(final Bytes value) {
+      final Bytes trimmed = value.trimLeadingZeros();
+      if (trimmed.size() > 4) {
+        return INVALID_TARGET;
+      }
+      final int target = trimmed.isEmpty() ? 0 : trimmed.toInt();
+      return codeV0.isJumpDestInvalid(target) ? INVALID_TARGET : target;
+    }
+
+    private Bytes pushImmediate(final int at, final int op) {
+      final int size = op - PUSH_BASE;
+      final int start = at + 1;
+      final int available = Math.max(0, Math.min(size, code.length - start));
+      final byte[] value = new byte[size];
+      System.arraycopy(code, start, value, 0, available);
+      return Bytes.wrap(value);
+    }
+
+    private void account(final int op) {
+      final Operation operation = operations[op];
+      blockGas += operation.getFixedGasCost();
+      accountStack(operation);
+    }
+
+    private void accountStack(final Operation operation) {
+      required = Math.max(required, operation.getStackItemsConsumed() - height);
+      height += operation.getStackItemsProduced() - operation.getStackItemsConsumed();
+      growth = Math.max(growth, height);
+    }
+
+    private void openBlock(final int at) {
+      if (blockCount == firstInstruction.length) {
+        final int newLength = blockCount * 2;
+        firstInstruction = Arrays.copyOf(firstInstruction, newLength);
+        instructionCount = Arrays.copyOf(instructionCount, newLength);
+        gasCost = Arrays.copyOf(gasCost, newLength);
+        requiredStack = Arrays.copyOf(requiredStack, newLength);
+        maxStackGrowth = Arrays.copyOf(maxStackGrowth, newLength);
+      }
+      blockAt[at] = blockCount;
+      firstInstruction[blockCount] = instructionTotal;
+      open = true;
+      blockGas = 0;
+      height = 0;
+      required = 0;
+      growth = 0;
+    }
+
+    private void closeBlock() {
+      if (!open) {
+        return;
+      }
+      instructionCount[blockCount] = instructionTotal - firstInstruction[blockCount];
+      gasCost[blockCount] = blockGas;
+      requiredStack[blockCount] = required;
+      maxStackGrowth[blockCount] = growth;
+      blockCount++;
+      open = false;
+    }
+
+    private void addInstruction(
+        final int op,
+        final int at,
+        final int following,
+        final int arg,
+        final Bytes value) {
+      if (instructionTotal == opcode.length) {
+        final int newLength = instructionTotal * 2;
+        opcode = Arrays.copyOf(opcode, newLength);
+        pc = Arrays.copyOf(pc, newLength);
+        nextPc = Arrays.copyOf(nextPc, newLength);
+        argument = Arrays.copyOf(argument, newLength);
+        immediate = Arrays.copyOf(immediate, newLength);
+      }
+      opcode[instructionTotal] = op;
+      pc[instructionTotal] = at;
+      nextPc[instructionTotal] = following;
+      argument[instructionTotal] = arg;
+      immediate[instructionTotal] = value;
+      instructionTotal++;
+    }
+
+    private static int immediateSize(final int op) {
+      return op > PUSH_BASE && op <= PUSH_MAX ? op - PUSH_BASE : 0;
+    }
+
+    private static boolean isPush(final int op) {
+      return op > PUSH_BASE && op <= PUSH_MAX;
+    }
+
+    private static boolean isDup(final int op) {
+      return op > DupOperation.DUP_BASE && op <= DupOperation.DUP_BASE + 16;
+    }
+
+    private static boolean isSwap(final int op) {
+      return op > SwapOperation.SWAP_BASE && op <= SwapOperation.SWAP_BASE + 16;
+    }
+  }
+}
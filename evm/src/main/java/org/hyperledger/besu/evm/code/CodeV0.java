@@ -49,6 +49,9 @@ public class CodeV0 implements Code {
   /** Bit mask for jump destinations, used to optimize JUMP/JUMPI operations */
   private long[] jumpDestBitMask = null;
 
+  /** Pre-decoded basic blocks, built on first use by an EVM with basic block execution enabled */
+  private volatile BasicBlocks basicBlocks = null;
+
   /**
    * Public constructor.
    *
@@ -71,6 +74,19 @@ public class CodeV0 implements Code {
     this.codeSectionZero = new CodeSection(Suppliers.memoize(this::getSize), 0, -1, -1, 0);
   }
 
+  /**
+   * Constructor for code whose jump destinations have already been analyzed.
+   *
+   * @param byteCode The byte representation of the code.
+   * @param codeHash the hash of the bytecode
+   * @param jumpDestBitMask the jump destination bit mask of the bytecode, as returned by {@link
+   *     #getJumpDestBitMask()}
+   */
+  public CodeV0(final Bytes byteCode, final Hash codeHash, final long[] jumpDestBitMask) {
+    this(byteCode, codeHash);
+    this.jumpDestBitMask = jumpDestBitMask;
+  }
+
   /**
    * Returns true if the object is equal to this; otherwise false.
    *
@@ -141,14 +157,10 @@ public class CodeV0 implements Code {
       return true;
     }
 
-    if (jumpDestBitMask == null) {
-      jumpDestBitMask = calculateJumpDestBitMask();
-    }
-
     // This selects which long in the array holds the bit for the given offset:
     //	1)	>>> 6 is equivalent to jumpDestination / 64
     //	2)	Each long holds 64 bits, so this finds the correct chunk
-    final long targetLong = jumpDestBitMask[jumpDestination >>> 6];
+    final long targetLong = getJumpDestBitMask()[jumpDestination >>> 6];
 
     // 1) & 0x3F is jumpDestination % 64
     // 2)	1L << ... gives a mask for the specific bit in that long
@@ -158,6 +170,47 @@ public class CodeV0 implements Code {
     return (targetLong & targetBit) == 0L;
   }
 
+  /**
+   * Gets the bit mask of the valid jump destinations of this code, computing it if needed. Bit
+   * {@code i % 64} of the long at index {@code i / 64} is set when offset {@code i} is a valid
+   * jump destination.
+   *
+   * @return the jump destination bit mask, which must not be modified
+   */
+  public long[] getJumpDestBitMask() {
+    if (jumpDestBitMask == null) {
+      jumpDestBitMask = calculateJumpDestBitMask();
+    }
+    return jumpDestBitMask;
+  }
+
+  /**
+   * Gets the pre-decoded basic blocks of this code for the given EVM, building them if needed. The
+   * analysis depends on the operations and gas schedule of the EVM, so it is rebuilt if a different
+   * EVM asks for it.
+   *
+   * @param evm the EVM that will execute the code
+   * @return the basic blocks
+   */
+  public BasicBlocks getBasicBlocks(final EVM evm) {
+    BasicBlocks result = basicBlocks;
+    if (result == null || !result.isBuiltFor(evm.getOperationsUnsafe())) {
+      result = BasicBlocks.analyze(this, evm.getOperationsUnsafe(), evm.getGasCalculator());
+      basicBlocks = result;
+    }
+    return result;
+  }
+
+  /**
+   * Approximate size of the pre-decoded basic blocks, if they have been built.
+   *
+   * @return the estimated size in bytes, or zero if not built
+   */
+  public int getBasicBlocksSize() {
+    final BasicBlocks result = basicBlocks;
+    return result == null ? 0 : result.estimatedSize();
+  }
+
   @Override
   public boolean isValid() {
     return true;
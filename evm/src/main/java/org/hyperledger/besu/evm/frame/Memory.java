@@ -27,26 +27,36 @@ import org.apache.tuweni.bytes.MutableBytes;
  *
  * <p>Note: this is meant to map to I in Section 9.1 "Basics" and Section 9.4.1 "Machine State" in
  * the Yellow Paper Revision 59dccd.
+ *
+ * <p>Memory is split into fixed size pages that are only allocated once they are written to.
+ * Expanding memory therefore never copies what was already stored, and reading memory that was
+ * never written does not allocate. Reads that fall within a single page are served as views of the
+ * page.
  */
 public class Memory {
 
   // See below.
   private static final long MAX_BYTES = Integer.MAX_VALUE;
 
+  private static final int PAGE_SHIFT = 12;
+  private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
   /**
-   * The data stored within the memory.
+   * The data stored within the memory, one array per page. A null page has never been written to
+   * and only holds zeros.
    *
    * <p>Note that the current Ethereum spec don't put a limit on memory, so we could theoretically
-   * overflow this. A byte array implementation limits us to 2 GiB. But that would cost over 51
-   * trillion gas. So this is likely a reasonable limitation, at least at first.
+   * overflow this. Addressing pages with int offsets limits us to 2 GiB. But that would cost over
+   * 51 trillion gas. So this is likely a reasonable limitation, at least at first.
    */
-  private byte[] memBytes;
+  private byte[][] pages;
 
   private int activeWords;
 
   /** Instantiates a new Memory. */
   public Memory() {
-    memBytes = new byte[0];
+    pages = new byte[0][];
   }
 
   private static RuntimeException overflow(final long v) {
@@ -81,6 +91,78 @@ public class Memory {
     }
   }
 
+  private static void checkRange(final int start, final int length) {
+    if (start > MAX_BYTES - length) throw overflow((long) start + length);
+  }
+
+  private byte[] readablePage(final int index) {
+    return index < pages.length ? pages[index] : null;
+  }
+
+  private byte[] writablePage(final int index) {
+    if (index >= pages.length) {
+      pages = Arrays.copyOf(pages, Math.max(index + 1, pages.length * 2));
+    }
+    byte[] page = pages[index];
+    if (page == null) {
+      page = new byte[PAGE_SIZE];
+      pages[index] = page;
+    }
+    return page;
+  }
+
+  /** Copies memory into {@code target}, pages that were never written read as zeros. */
+  private void read(
+      final int start, final byte[] target, final int targetOffset, final int length) {
+    int done = 0;
+    while (done < length) {
+      final int position = start + done;
+      final int pageOffset = position & PAGE_MASK;
+      final int chunk = Math.min(length - done, PAGE_SIZE - pageOffset);
+      final byte[] page = readablePage(position >>> PAGE_SHIFT);
+      if (page == null) {
+        Arrays.fill(target, targetOffset + done, targetOffset + done + chunk, (byte) 0);
+      } else {
+        System.arraycopy(page, pageOffset, target, targetOffset + done, chunk);
+      }
+      done += chunk;
+    }
+  }
+
+  /** Copies {@code length} bytes of {@code source} into memory without an intermediate array. */
+  private void write(
+      final int start, final Bytes source, final int sourceOffset, final int length) {
+    int done = 0;
+    while (done < length) {
+      final int position = start + done;
+      final int pageOffset = position & PAGE_MASK;
+      final int chunk = Math.min(length - done, PAGE_SIZE - pageOffset);
+      final byte[] page = writablePage(position >>> PAGE_SHIFT);
+      source.slice(sourceOffset + done, chunk).copyTo(MutableBytes.wrap(page), pageOffset);
+      done += chunk;
+    }
+  }
+
+  private void fillZeros(final int start, final int length) {
+    int done = 0;
+    while (done < length) {
+      final int position = start + done;
+      final int pageOffset = position & PAGE_MASK;
+      final int chunk = Math.min(length - done, PAGE_SIZE - pageOffset);
+      final byte[] page = readablePage(position >>> PAGE_SHIFT);
+      if (page != null) {
+        Arrays.fill(page, pageOffset, pageOffset + chunk, (byte) 0);
+      }
+      done += chunk;
+    }
+  }
+
+  private byte[] activeBytes() {
+    final byte[] result = new byte[getActiveBytes()];
+    read(0, result, 0, result.length);
+    return result;
+  }
+
   /**
    * For use in memoryExpansionGasCost() of GasCost. Returns the number of new active words that
    * accommodate at least the number of specified bytes from the provided memory offset.
@@ -130,15 +212,8 @@ public class Memory {
    * @param newActiveWords The new number of active words to expand to.
    */
   private void maybeExpandCapacity(final int newActiveWords) {
+    // Pages are allocated when first written, so growing only moves the active words.
     if (activeWords >= newActiveWords) return;
-
-    int neededSize = newActiveWords * Bytes32.SIZE;
-    if (neededSize > memBytes.length) {
-      int newSize = Math.max(neededSize, memBytes.length * 2);
-      byte[] newMem = new byte[newSize];
-      System.arraycopy(memBytes, 0, newMem, 0, memBytes.length);
-      memBytes = newMem;
-    }
     activeWords = newActiveWords;
   }
 
@@ -154,12 +229,13 @@ public class Memory {
     if (other == this) return true;
     if (!(other instanceof Memory)) return false;
 
-    return Arrays.equals(memBytes, ((Memory) other).memBytes);
+    final Memory that = (Memory) other;
+    return activeWords == that.activeWords && Arrays.equals(activeBytes(), that.activeBytes());
   }
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(memBytes);
+    return Arrays.hashCode(activeBytes());
   }
 
   /**
@@ -199,8 +275,11 @@ public class Memory {
     }
 
     final int start = asByteIndex(location);
+    checkRange(start, length);
     ensureCapacityForBytes(start, length);
-    return Bytes.wrap(Arrays.copyOfRange(memBytes, start, start + length));
+    final byte[] result = new byte[length];
+    read(start, result, 0, length);
+    return Bytes.wrap(result);
   }
 
   /**
@@ -222,24 +301,22 @@ public class Memory {
     }
 
     final int start = asByteIndex(location);
+    checkRange(start, length);
 
-    // Arrays.copyOfRange would throw if start > memBytes.length, so just return the expected
-    // number of zeros without expanding the memory.
-    // Otherwise, just follow the happy path.
-    if (start > memBytes.length) {
-      return Bytes.wrap(new byte[(int) numBytes]);
-    } else {
-      return Bytes.wrap(Arrays.copyOfRange(memBytes, start, start + length));
-    }
+    // Pages past the ones written so far read as zeros, so nothing needs to be expanded.
+    final byte[] result = new byte[length];
+    read(start, result, 0, length);
+    return Bytes.wrap(result);
   }
 
   /**
-   * Returns a copy of bytes from memory.
+   * Returns bytes from memory. When the range lies within a single page the result is a view of
+   * memory, otherwise it is a copy, so the contents must not be relied on once memory changes and
+   * writes to the result are not guaranteed to reach memory.
    *
    * @param location The location in memory to start with.
    * @param numBytes The number of bytes to get.
-   * @return A fresh copy of the bytes from memory starting at {@code location} and extending {@code
-   *     numBytes}.
+   * @return The bytes from memory starting at {@code location} and extending {@code numBytes}.
    */
   public MutableBytes getMutableBytes(final long location, final long numBytes) {
     // Note: if length == 0, we don't require any memory expansion, whatever location is. So
@@ -252,9 +329,16 @@ public class Memory {
     }
 
     final int start = asByteIndex(location);
+    checkRange(start, length);
 
     ensureCapacityForBytes(start, length);
-    return MutableBytes.wrap(memBytes, start, length);
+    final int pageOffset = start & PAGE_MASK;
+    if (pageOffset + length <= PAGE_SIZE) {
+      return MutableBytes.wrap(writablePage(start >>> PAGE_SHIFT), pageOffset, length);
+    }
+    final byte[] result = new byte[length];
+    read(start, result, 0, length);
+    return MutableBytes.wrap(result);
   }
 
   /**
@@ -313,16 +397,14 @@ public class Memory {
     final int start = asByteIndex(location);
     final int length = asByteLength(numBytes);
     final int srcLength = taintedValue.size();
-    final int end = Math.addExact(start, length);
+    checkRange(start, length);
 
     ensureCapacityForBytes(start, length);
     if (srcLength >= length) {
-      System.arraycopy(taintedValue.toArrayUnsafe(), 0, memBytes, start, length);
+      write(start, taintedValue, 0, length);
     } else {
-      Arrays.fill(memBytes, start + srcLength, end, (byte) 0);
-      if (srcLength > 0) {
-        System.arraycopy(taintedValue.toArrayUnsafe(), 0, memBytes, start, srcLength);
-      }
+      fillZeros(start + srcLength, length - srcLength);
+      write(start, taintedValue, 0, srcLength);
     }
   }
 
@@ -353,17 +435,15 @@ public class Memory {
     final int start = asByteIndex(location);
     final int length = asByteLength(numBytes);
     final int srcLength = value.size();
-    final int end = Math.addExact(start, length);
+    checkRange(start, length);
 
     ensureCapacityForBytes(start, length);
     if (srcLength >= length) {
-      System.arraycopy(value.toArrayUnsafe(), 0, memBytes, start, length);
+      write(start, value, 0, length);
     } else {
-      int divider = end - srcLength;
-      Arrays.fill(memBytes, start, divider, (byte) 0);
-      if (srcLength > 0) {
-        System.arraycopy(value.toArrayUnsafe(), 0, memBytes, divider, srcLength);
-      }
+      final int padding = length - srcLength;
+      fillZeros(start, padding);
+      write(start + padding, value, 0, srcLength);
     }
   }
 
@@ -393,8 +473,9 @@ public class Memory {
       return;
     }
 
+    checkRange(location, numBytes);
     ensureCapacityForBytes(location, numBytes);
-    Arrays.fill(memBytes, location, location + numBytes, (byte) 0);
+    fillZeros(location, numBytes);
   }
 
   /**
@@ -406,7 +487,7 @@ public class Memory {
   void setByte(final long location, final byte value) {
     final int start = asByteIndex(location);
     ensureCapacityForBytes(start, 1);
-    memBytes[start] = value;
+    writablePage(start >>> PAGE_SHIFT)[start & PAGE_MASK] = value;
   }
 
   /**
@@ -417,8 +498,11 @@ public class Memory {
    */
   public Bytes32 getWord(final long location) {
     final int start = asByteIndex(location);
+    checkRange(start, Bytes32.SIZE);
     ensureCapacityForBytes(start, Bytes32.SIZE);
-    return Bytes32.wrap(Arrays.copyOfRange(memBytes, start, start + Bytes32.SIZE));
+    final byte[] result = new byte[Bytes32.SIZE];
+    read(start, result, 0, Bytes32.SIZE);
+    return Bytes32.wrap(result);
   }
 
   /**
@@ -432,8 +516,9 @@ public class Memory {
    */
   public void setWord(final long location, final Bytes32 bytes) {
     final int start = asByteIndex(location);
+    checkRange(start, Bytes32.SIZE);
     ensureCapacityForBytes(start, Bytes32.SIZE);
-    System.arraycopy(bytes.toArrayUnsafe(), 0, memBytes, start, Bytes32.SIZE);
+    write(start, bytes, 0, Bytes32.SIZE);
   }
 
   /**
@@ -447,11 +532,50 @@ public class Memory {
    */
   public void copy(final long dst, final long src, final long length) {
     ensureCapacityForBytes(Math.max(dst, src), length);
-    System.arraycopy(memBytes, asByteIndex(src), memBytes, asByteIndex(dst), asByteLength(length));
+    final int numBytes = asByteLength(length);
+    if (numBytes == 0) {
+      return;
+    }
+    final int from = asByteIndex(src);
+    final int to = asByteIndex(dst);
+    checkRange(Math.max(from, to), numBytes);
+
+    // Copy page sized chunks in the direction that never overwrites a source byte before it has
+    // been read, which gives the same result as going through an intermediate buffer.
+    int done = 0;
+    while (done < numBytes) {
+      final int remaining = numBytes - done;
+      final int chunk;
+      final int s;
+      final int d;
+      if (to <= from) {
+        s = from + done;
+        d = to + done;
+        chunk =
+            Math.min(
+                remaining, Math.min(PAGE_SIZE - (s & PAGE_MASK), PAGE_SIZE - (d & PAGE_MASK)));
+      } else {
+        final int sEnd = from + remaining;
+        final int dEnd = to + remaining;
+        chunk =
+            Math.min(
+                remaining, Math.min(((sEnd - 1) & PAGE_MASK) + 1, ((dEnd - 1) & PAGE_MASK) + 1));
+        s = sEnd - chunk;
+        d = dEnd - chunk;
+      }
+      final byte[] source = readablePage(s >>> PAGE_SHIFT);
+      if (source == null) {
+        fillZeros(d, chunk);
+      } else {
+        System.arraycopy(
+            source, s & PAGE_MASK, writablePage(d >>> PAGE_SHIFT), d & PAGE_MASK, chunk);
+      }
+      done += chunk;
+    }
   }
 
   @Override
   public String toString() {
-    return Bytes.wrap(memBytes).toHexString();
+    return Bytes.wrap(activeBytes()).toHexString();
   }
 }
@@ -16,6 +16,9 @@ package org.hyperledger.besu.evm.internal;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.code.CodeV0;
+
+import org.apache.tuweni.bytes.Bytes;
 
 /**
  * CodeCache is an interface for caching bytecode, its size and jump dest analysis. It allows
@@ -37,4 +40,16 @@ public interface CodeCache {
    * @param code the code to store
    */
   void put(final Hash codeHash, final Code code);
+
+  /**
+   * Creates the code for bytes read from the world state, before it is put into the cache.
+   * Implementations may attach an analysis of the code they already know about.
+   *
+   * @param codeHash the hash of the code
+   * @param byteCode the bytes of the code
+   * @return the code
+   */
+  default Code createCode(final Hash codeHash, final Bytes byteCode) {
+    return new CodeV0(byteCode, codeHash);
+  }
 }
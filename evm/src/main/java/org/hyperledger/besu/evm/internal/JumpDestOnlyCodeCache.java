@@ -16,6 +16,7 @@ package org.hyperledger.besu.evm.internal;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.code.CodeV0;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
@@ -26,13 +27,16 @@ import com.github.benmanes.caffeine.cache.Weigher;
  *
  * <p>This cache is used to store code that is only used for jump destinations, which can be large
  * and expensive to compute. The cache is limited by weight, not size, to allow for larger code
- * without exceeding memory limits.
+ * without exceeding memory limits. When basic block execution is enabled the entry also carries the
+ * pre-decoded {@link org.hyperledger.besu.evm.code.BasicBlocks} of legacy code, which are counted in
+ * its weight.
  */
 public class JumpDestOnlyCodeCache {
   static class CodeScale implements Weigher<Hash, Code> {
     @Override
     public int weigh(final Hash key, final Code code) {
-      return ((code.getSize() * 9 + 7) / 8) + key.size();
+      final int basicBlocksSize = code instanceof CodeV0 codeV0 ? codeV0.getBasicBlocksSize() : 0;
+      return ((code.getSize() * 9 + 7) / 8) + key.size() + basicBlocksSize;
     }
   }
 
@@ -0,0 +1,265 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * An operand stack for the Ethereum Virtual Machine (EVM) that stores each 256-bit word as four
+ * {@code long} limbs in a single preallocated {@code long[]}.
+ *
+ * <p>Unlike {@link OperandStack} no object is allocated when a word is pushed, duplicated, swapped
+ * or combined by an arithmetic operation. Words are laid out with the least significant limb first,
+ * so the word at stack index {@code i} (counted from the bottom) occupies {@code words[4 * i]}
+ * (bits 0-63) through {@code words[4 * i + 3]} (bits 192-255).
+ *
+ * <p>Operations that work directly on the limbs obtain the backing array through {@link #words()}
+ * and the position of their operands through {@link #offset(int)}, and then shrink the stack with
+ * {@link #drop(int)}. See {@link UInt256Limbs} for the allocation free arithmetic.
+ */
+public class LimbOperandStack {
+
+  /** The number of {@code long} limbs used to represent a single 256-bit word. */
+  public static final int LIMBS = 4;
+
+  private final long[] words;
+  private final int maxSize;
+  private int top;
+
+  /**
+   * Instantiates a new limb operand stack. The backing array is allocated once with room for
+   * {@code maxSize} words.
+   *
+   * @param maxSize the max size
+   */
+  public LimbOperandStack(final int maxSize) {
+    checkArgument(maxSize > 0, "max size must be positive");
+    checkArgument(maxSize <= Integer.MAX_VALUE / LIMBS, "max size is too large");
+
+    this.words = new long[maxSize * LIMBS];
+    this.maxSize = maxSize;
+    this.top = -1;
+  }
+
+  /**
+   * The backing limb array. Only the first {@code size() * LIMBS} entries hold live words.
+   *
+   * @return the backing array
+   */
+  public long[] words() {
+    return words;
+  }
+
+  /**
+   * The array offset of the least significant limb of the word {@code depth} items below the top
+   * of the stack.
+   *
+   * @param depth the depth, zero being the top of the stack
+   * @return the offset into {@link #words()}
+   * @throws UnderflowException if the stack does not hold more than {@code depth} items
+   */
+  public int offset(final int depth) {
+    if (depth < 0 || depth > top) {
+      throw new UnderflowException();
+    }
+    return (top - depth) * LIMBS;
+  }
+
+  /**
+   * Reserves a new word on top of the stack and returns its offset. The limbs of the new word are
+   * not cleared, the caller is expected to overwrite all four of them.
+   *
+   * @return the offset of the new top word into {@link #words()}
+   * @throws OverflowException if the stack is full
+   */
+  public int reserve() {
+    final int nextTop = top + 1;
+    if (nextTop >= maxSize) {
+      throw new OverflowException();
+    }
+    top = nextTop;
+    return nextTop * LIMBS;
+  }
+
+  /**
+   * Removes the given number of items from the top of the stack without reading them.
+   *
+   * @param items the number of items to remove
+   * @throws UnderflowException when the items to drop is greater than {@link #size()}
+   */
+  public void drop(final int items) {
+    if (items > size()) {
+      throw new UnderflowException();
+    }
+    top -= items;
+  }
+
+  /**
+   * Push a word given as four limbs, least significant first.
+   *
+   * @param l0 bits 0-63
+   * @param l1 bits 64-127
+   * @param l2 bits 128-191
+   * @param l3 bits 192-255
+   */
+  public void push(final long l0, final long l1, final long l2, final long l3) {
+    final int o = reserve();
+    words[o] = l0;
+    words[o + 1] = l1;
+    words[o + 2] = l2;
+    words[o + 3] = l3;
+  }
+
+  /**
+   * Push an unsigned 64-bit value.
+   *
+   * @param value the value
+   */
+  public void push(final long value) {
+    push(value, 0L, 0L, 0L);
+  }
+
+  /**
+   * Push a big-endian value of at most 32 bytes, left padding it with zeros.
+   *
+   * @param value the value
+   */
+  public void push(final Bytes value) {
+    final int size = value.size();
+    checkArgument(size <= Bytes32.SIZE, "value is larger than a word");
+    final int o = reserve();
+    words[o] = 0L;
+    words[o + 1] = 0L;
+    words[o + 2] = 0L;
+    words[o + 3] = 0L;
+    for (int k = 0; k < size; k++) {
+      words[o + (k >>> 3)] |= (value.get(size - 1 - k) & 0xFFL) << ((k & 7) << 3);
+    }
+  }
+
+  /**
+   * Push a big-endian value read straight out of a byte array, as PUSH1-PUSH32 do with immediate
+   * bytes in code. Bytes past the end of the array are treated as zeros, i.e. the value is right
+   * padded up to {@code length} bytes.
+   *
+   * @param source the array holding the value
+   * @param start the index of the most significant byte
+   * @param length the number of bytes in the value, at most 32
+   */
+  public void push(final byte[] source, final int start, final int length) {
+    final int o = reserve();
+    words[o] = 0L;
+    words[o + 1] = 0L;
+    words[o + 2] = 0L;
+    words[o + 3] = 0L;
+    final int available = Math.max(0, Math.min(length, source.length - start));
+    for (int i = 0; i < available; i++) {
+      final int k = length - 1 - i;
+      words[o + (k >>> 3)] |= (source[start + i] & 0xFFL) << ((k & 7) << 3);
+    }
+  }
+
+  /**
+   * Pop the top word, materialising it as bytes. Intended for the boundary with code that still
+   * works with {@link Bytes}, not for the hot path.
+   *
+   * @return the popped word
+   */
+  public Bytes32 pop() {
+    final Bytes32 result = get(0);
+    top--;
+    return result;
+  }
+
+  /**
+   * Read the word {@code depth} items below the top of the stack, materialising it as bytes.
+   *
+   * @param depth the depth, zero being the top of the stack
+   * @return the word
+   */
+  public Bytes32 get(final int depth) {
+    final int o = offset(depth);
+    final byte[] result = new byte[Bytes32.SIZE];
+    for (int k = 0; k < Bytes32.SIZE; k++) {
+      result[Bytes32.SIZE - 1 - k] = (byte) (words[o + (k >>> 3)] >>> ((k & 7) << 3));
+    }
+    return Bytes32.wrap(result);
+  }
+
+  /**
+   * Duplicate the item {@code index} positions from the top (1 based, as in DUP1-DUP16).
+   *
+   * @param index the 1 based position of the item to duplicate
+   */
+  public void dup(final int index) {
+    final int src = offset(index - 1);
+    final int dst = reserve();
+    System.arraycopy(words, src, words, dst, LIMBS);
+  }
+
+  /**
+   * Swap the top item with the one {@code index} positions below it (as in SWAP1-SWAP16).
+   *
+   * @param index the position of the item to exchange with the top
+   */
+  public void swap(final int index) {
+    final int a = offset(0);
+    final int b = offset(index);
+    for (int i = 0; i < LIMBS; i++) {
+      final long tmp = words[a + i];
+      words[a + i] = words[b + i];
+      words[b + i] = tmp;
+    }
+  }
+
+  /**
+   * Size of the stack, in words.
+   *
+   * @return the size
+   */
+  public int size() {
+    return top + 1;
+  }
+
+  /**
+   * Is stack full.
+   *
+   * @return the boolean
+   */
+  public boolean isFull() {
+    return top + 1 >= maxSize;
+  }
+
+  /**
+   * Is stack empty.
+   *
+   * @return the boolean
+   */
+  public boolean isEmpty() {
+    return top < 0;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i <= top; ++i) {
+      builder.append(String.format("%n0x%04X ", i)).append(get(top - i));
+    }
+    return builder.toString();
+  }
+}
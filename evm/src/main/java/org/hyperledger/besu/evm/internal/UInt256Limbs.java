@@ -0,0 +1,403 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.internal;
+
+/**
+ * Static, allocation free, 256-bit arithmetic over words stored as four little-endian {@code long}
+ * limbs, as laid out by {@link LimbOperandStack}.
+ *
+ * <p>Every operation reads its operands from {@code w[a..a+3]} (and {@code w[b..b+3]}) and writes
+ * the result to {@code w[r..r+3]}. All operands are read before the result is written, so {@code r}
+ * may alias either input. Operand order follows the EVM: {@code a} is the item on top of the stack.
+ */
+public interface UInt256Limbs {
+
+  /**
+   * r = a + b (mod 2^256).
+   *
+   * @param w the limb array
+   * @param a offset of the first operand
+   * @param b offset of the second operand
+   * @param r offset of the result
+   */
+  static void add(final long[] w, final int a, final int b, final int r) {
+    final long a0 = w[a], a1 = w[a + 1], a2 = w[a + 2], a3 = w[a + 3];
+    final long b0 = w[b], b1 = w[b + 1], b2 = w[b + 2], b3 = w[b + 3];
+
+    final long r0 = a0 + b0;
+    long carry = carry(r0, a0);
+    final long t1 = a1 + b1;
+    final long r1 = t1 + carry;
+    carry = carry(t1, a1) | carry(r1, t1);
+    final long t2 = a2 + b2;
+    final long r2 = t2 + carry;
+    carry = carry(t2, a2) | carry(r2, t2);
+    final long r3 = a3 + b3 + carry;
+
+    w[r] = r0;
+    w[r + 1] = r1;
+    w[r + 2] = r2;
+    w[r + 3] = r3;
+  }
+
+  /**
+   * r = a - b (mod 2^256).
+   *
+   * @param w the limb array
+   * @param a offset of the minuend
+   * @param b offset of the subtrahend
+   * @param r offset of the result
+   */
+  static void sub(final long[] w, final int a, final int b, final int r) {
+    final long a0 = w[a], a1 = w[a + 1], a2 = w[a + 2], a3 = w[a + 3];
+    final long b0 = w[b], b1 = w[b + 1], b2 = w[b + 2], b3 = w[b + 3];
+
+    final long r0 = a0 - b0;
+    long borrow = carry(a0, b0);
+    final long t1 = a1 - b1;
+    final long r1 = t1 - borrow;
+    borrow = carry(a1, b1) | carry(t1, borrow);
+    final long t2 = a2 - b2;
+    final long r2 = t2 - borrow;
+    borrow = carry(a2, b2) | carry(t2, borrow);
+    final long r3 = a3 - b3 - borrow;
+
+    w[r] = r0;
+    w[r + 1] = r1;
+    w[r + 2] = r2;
+    w[r + 3] = r3;
+  }
+
+  /**
+   * r = a * b (mod 2^256), schoolbook multiplication truncated to the low four limbs.
+   *
+   * @param w the limb array
+   * @param a offset of the first operand
+   * @param b offset of the second operand
+   * @param r offset of the result
+   */
+  static void mul(final long[] w, final int a, final int b, final int r) {
+    final long a0 = w[a], a1 = w[a + 1], a2 = w[a + 2], a3 = w[a + 3];
+    final long b0 = w[b], b1 = w[b + 1], b2 = w[b + 2], b3 = w[b + 3];
+
+    long lo;
+    long hi;
+    long t;
+
+    // a * b0
+    final long r0 = a0 * b0;
+    long c = Math.unsignedMultiplyHigh(a0, b0);
+    lo = a1 * b0;
+    hi = Math.unsignedMultiplyHigh(a1, b0);
+    t = lo + c;
+    long r1 = t;
+    c = hi + carry(t, lo);
+    lo = a2 * b0;
+    hi = Math.unsignedMultiplyHigh(a2, b0);
+    t = lo + c;
+    long r2 = t;
+    c = hi + carry(t, lo);
+    long r3 = a3 * b0 + c;
+
+    // a * b1
+    lo = a0 * b1;
+    hi = Math.unsignedMultiplyHigh(a0, b1);
+    t = r1 + lo;
+    r1 = t;
+    c = hi + carry(t, lo);
+    lo = a1 * b1;
+    hi = Math.unsignedMultiplyHigh(a1, b1);
+    t = lo + c;
+    hi += carry(t, lo);
+    lo = t + r2;
+    r2 = lo;
+    c = hi + carry(lo, t);
+    r3 += a2 * b1 + c;
+
+    // a * b2
+    lo = a0 * b2;
+    hi = Math.unsignedMultiplyHigh(a0, b2);
+    t = r2 + lo;
+    r2 = t;
+    c = hi + carry(t, lo);
+    r3 += a1 * b2 + c;
+
+    // a * b3
+    r3 += a0 * b3;
+
+    w[r] = r0;
+    w[r + 1] = r1;
+    w[r + 2] = r2;
+    w[r + 3] = r3;
+  }
+
+  /**
+   * Unsigned comparison of a and b.
+   *
+   * @param w the limb array
+   * @param a offset of the first operand
+   * @param b offset of the second operand
+   * @return a negative number, zero or a positive number as a is less than, equal to or greater
+   *     than b
+   */
+  static int compareUnsigned(final long[] w, final int a, final int b) {
+    for (int i = 3; i >= 0; i--) {
+      final int cmp = Long.compareUnsigned(w[a + i], w[b + i]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Signed (two's complement) comparison of a and b.
+   *
+   * @param w the limb array
+   * @param a offset of the first operand
+   * @param b offset of the second operand
+   * @return a negative number, zero or a positive number as a is less than, equal to or greater
+   *     than b
+   */
+  static int compareSigned(final long[] w, final int a, final int b) {
+    final int cmp = Long.compare(w[a + 3], w[b + 3]);
+    if (cmp != 0) {
+      return cmp;
+    }
+    for (int i = 2; i >= 0; i--) {
+      final int low = Long.compareUnsigned(w[a + i], w[b + i]);
+      if (low != 0) {
+        return low;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Is the word at offset a zero.
+   *
+   * @param w the limb array
+   * @param a offset of the word
+   * @return true if all limbs are zero
+   */
+  static boolean isZero(final long[] w, final int a) {
+    return (w[a] | w[a + 1] | w[a + 2] | w[a + 3]) == 0L;
+  }
+
+  /**
+   * Store a small unsigned value.
+   *
+   * @param w the limb array
+   * @param r offset of the result
+   * @param value the value, stored in the least significant limb
+   */
+  static void set(final long[] w, final int r, final long value) {
+    w[r] = value;
+    w[r + 1] = 0L;
+    w[r + 2] = 0L;
+    w[r + 3] = 0L;
+  }
+
+  /**
+   * r = a &amp; b.
+   *
+   * @param w the limb array
+   * @param a offset of the first operand
+   * @param b offset of the second operand
+   * @param r offset of the result
+   */
+  static void and(final long[] w, final int a, final int b, final int r) {
+    for (int i = 0; i < 4; i++) {
+      w[r + i] = w[a + i] & w[b + i];
+    }
+  }
+
+  /**
+   * r = a | b.
+   *
+   * @param w the limb array
+   * @param a offset of the first operand
+   * @param b offset of the second operand
+   * @param r offset of the result
+   */
+  static void or(final long[] w, final int a, final int b, final int r) {
+    for (int i = 0; i < 4; i++) {
+      w[r + i] = w[a + i] | w[b + i];
+    }
+  }
+
+  /**
+   * r = a ^ b.
+   *
+   * @param w the limb array
+   * @param a offset of the first operand
+   * @param b offset of the second operand
+   * @param r offset of the result
+   */
+  static void xor(final long[] w, final int a, final int b, final int r) {
+    for (int i = 0; i < 4; i++) {
+      w[r + i] = w[a + i] ^ w[b + i];
+    }
+  }
+
+  /**
+   * r = ~a.
+   *
+   * @param w the limb array
+   * @param a offset of the operand
+   * @param r offset of the result
+   */
+  static void not(final long[] w, final int a, final int r) {
+    for (int i = 0; i < 4; i++) {
+      w[r + i] = ~w[a + i];
+    }
+  }
+
+  /**
+   * The shift distance held in the word at offset a, or -1 if it is 256 or more.
+   *
+   * @param w the limb array
+   * @param a offset of the shift amount
+   * @return the shift in the range 0-255, or -1 if the whole word is shifted out
+   */
+  static int shiftAmount(final long[] w, final int a) {
+    if ((w[a + 1] | w[a + 2] | w[a + 3]) != 0L || Long.compareUnsigned(w[a], 256L) >= 0) {
+      return -1;
+    }
+    return (int) w[a];
+  }
+
+  /**
+   * r = b &lt;&lt; shift, where the shift is taken from the word at a (SHL operand order).
+   *
+   * @param w the limb array
+   * @param a offset of the shift amount
+   * @param b offset of the value
+   * @param r offset of the result
+   */
+  static void shl(final long[] w, final int a, final int b, final int r) {
+    final int shift = shiftAmount(w, a);
+    if (shift < 0) {
+      set(w, r, 0L);
+      return;
+    }
+    final long v0 = w[b], v1 = w[b + 1], v2 = w[b + 2], v3 = w[b + 3];
+    final int limbShift = shift >>> 6;
+    final int bitShift = shift & 63;
+    for (int i = 3; i >= 0; i--) {
+      final int src = i - limbShift;
+      long value = 0L;
+      if (src >= 0) {
+        value = limb(v0, v1, v2, v3, src) << bitShift;
+        if (bitShift != 0 && src > 0) {
+          value |= limb(v0, v1, v2, v3, src - 1) >>> (64 - bitShift);
+        }
+      }
+      w[r + i] = value;
+    }
+  }
+
+  /**
+   * r = b &gt;&gt;&gt; shift, where the shift is taken from the word at a (SHR operand order).
+   *
+   * @param w the limb array
+   * @param a offset of the shift amount
+   * @param b offset of the value
+   * @param r offset of the result
+   */
+  static void shr(final long[] w, final int a, final int b, final int r) {
+    final int shift = shiftAmount(w, a);
+    if (shift < 0) {
+      set(w, r, 0L);
+      return;
+    }
+    shiftRight(w, b, r, shift, 0L);
+  }
+
+  /**
+   * r = b &gt;&gt; shift with sign extension, where the shift is taken from the word at a (SAR
+   * operand order).
+   *
+   * @param w the limb array
+   * @param a offset of the shift amount
+   * @param b offset of the value
+   * @param r offset of the result
+   */
+  static void sar(final long[] w, final int a, final int b, final int r) {
+    final long fill = w[b + 3] < 0 ? -1L : 0L;
+    final int shift = shiftAmount(w, a);
+    if (shift < 0) {
+      w[r] = fill;
+      w[r + 1] = fill;
+      w[r + 2] = fill;
+      w[r + 3] = fill;
+      return;
+    }
+    shiftRight(w, b, r, shift, fill);
+  }
+
+  /**
+   * r = the byte at big-endian index a of the word b, or zero if the index is 32 or more (BYTE
+   * operand order).
+   *
+   * @param w the limb array
+   * @param a offset of the byte index
+   * @param b offset of the value
+   * @param r offset of the result
+   */
+  static void byteAt(final long[] w, final int a, final int b, final int r) {
+    if ((w[a + 1] | w[a + 2] | w[a + 3]) != 0L || Long.compareUnsigned(w[a], 32L) >= 0) {
+      set(w, r, 0L);
+      return;
+    }
+    final int k = 31 - (int) w[a];
+    set(w, r, (w[b + (k >>> 3)] >>> ((k & 7) << 3)) & 0xFFL);
+  }
+
+  private static void shiftRight(
+      final long[] w, final int b, final int r, final int shift, final long fill) {
+    final long v0 = w[b], v1 = w[b + 1], v2 = w[b + 2], v3 = w[b + 3];
+    final int limbShift = shift >>> 6;
+    final int bitShift = shift & 63;
+    for (int i = 0; i < 4; i++) {
+      final int src = i + limbShift;
+      final long lowPart = src <= 3 ? limb(v0, v1, v2, v3, src) : fill;
+      long value = lowPart >>> bitShift;
+      if (bitShift != 0) {
+        final long highPart = src + 1 <= 3 ? limb(v0, v1, v2, v3, src + 1) : fill;
+        value |= highPart << (64 - bitShift);
+      }
+      w[r + i] = value;
+    }
+  }
+
+  private static long limb(
+      final long v0, final long v1, final long v2, final long v3, final int index) {
+    return switch (index) {
+      case 0 -> v0;
+      case 1 -> v1;
+      case 2 -> v2;
+      default -> v3;
+    };
+  }
+
+  /**
+   * One if {@code x < y} unsigned, zero otherwise. Used as the carry out of {@code x = y + z} and
+   * the borrow out of {@code x - y}.
+   */
+  private static long carry(final long x, final long y) {
+    return Long.compareUnsigned(x, y) < 0 ? 1L : 0L;
+  }
+}
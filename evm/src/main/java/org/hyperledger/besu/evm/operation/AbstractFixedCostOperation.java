@@ -62,6 +62,11 @@ abstract class AbstractFixedCostOperation extends AbstractOperation {
     overflowResponse = new OperationResult(gasCost, ExceptionalHaltReason.TOO_MANY_STACK_ITEMS);
   }
 
+  @Override
+  public long getFixedGasCost() {
+    return gasCost;
+  }
+
   @Override
   public final OperationResult execute(final MessageFrame frame, final EVM evm) {
     try {
@@ -17,6 +17,8 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
+import org.hyperledger.besu.evm.internal.UInt256Limbs;
 
 import java.math.BigInteger;
 
@@ -65,4 +67,19 @@ public class AddOperation extends AbstractFixedCostOperation {
 
     return addSuccess;
   }
+
+  /**
+   * Performs ADD on a {@link LimbOperandStack} without allocating.
+   *
+   * @param stack the limb stack
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final LimbOperandStack stack) {
+    final long[] w = stack.words();
+    final int a = stack.offset(0);
+    final int b = stack.offset(1);
+    UInt256Limbs.add(w, a, b, b);
+    stack.drop(1);
+    return addSuccess;
+  }
 }
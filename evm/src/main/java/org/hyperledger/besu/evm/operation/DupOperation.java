@@ -18,6 +18,7 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
 
 /** The Dup operation. */
 public class DupOperation extends AbstractFixedCostOperation {
@@ -70,4 +71,17 @@ public class DupOperation extends AbstractFixedCostOperation {
 
     return dupSuccess;
   }
+
+  /**
+   * Performs Dup operation on a {@link LimbOperandStack}.
+   *
+   * @param stack the limb stack
+   * @param index the index
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final LimbOperandStack stack, final int index) {
+    stack.dup(index);
+
+    return dupSuccess;
+  }
 }
@@ -17,6 +17,8 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
+import org.hyperledger.besu.evm.internal.UInt256Limbs;
 
 import org.apache.tuweni.bytes.Bytes;
 
@@ -57,4 +59,19 @@ public class GtOperation extends AbstractFixedCostOperation {
 
     return gtSuccess;
   }
+
+  /**
+   * Performs GT on a {@link LimbOperandStack} without allocating.
+   *
+   * @param stack the limb stack
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final LimbOperandStack stack) {
+    final long[] w = stack.words();
+    final int a = stack.offset(0);
+    final int b = stack.offset(1);
+    UInt256Limbs.set(w, b, UInt256Limbs.compareUnsigned(w, a, b) > 0 ? 1L : 0L);
+    stack.drop(1);
+    return gtSuccess;
+  }
 }
@@ -17,6 +17,8 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
+import org.hyperledger.besu.evm.internal.UInt256Limbs;
 
 import org.apache.tuweni.bytes.Bytes;
 
@@ -54,4 +56,17 @@ public class IsZeroOperation extends AbstractFixedCostOperation {
 
     return isZeroSuccess;
   }
+
+  /**
+   * Performs ISZERO on a {@link LimbOperandStack} without allocating.
+   *
+   * @param stack the limb stack
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final LimbOperandStack stack) {
+    final long[] w = stack.words();
+    final int a = stack.offset(0);
+    UInt256Limbs.set(w, a, UInt256Limbs.isZero(w, a) ? 1L : 0L);
+    return isZeroSuccess;
+  }
 }
@@ -157,6 +157,16 @@ public interface Operation {
    */
   int getStackItemsProduced();
 
+  /**
+   * Gets the gas cost of this operation when it does not depend on the frame, as is the case for
+   * fixed cost operations.
+   *
+   * @return the fixed gas cost, or -1 if the cost is computed at execution time
+   */
+  default long getFixedGasCost() {
+    return -1L;
+  }
+
   /**
    * Determines whether this operation has been virtually added to the contract code. For instance
    * if the contract is not ended by a STOP opcode the {@link EVM} adds an explicit end of script
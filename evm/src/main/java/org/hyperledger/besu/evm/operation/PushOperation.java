@@ -17,6 +17,7 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
 
 import org.apache.tuweni.bytes.Bytes;
 
@@ -88,4 +89,26 @@ public class PushOperation extends AbstractFixedCostOperation {
     frame.setPC(pc + pushSize);
     return pushSuccess;
   }
+
+  /**
+   * Performs Push operation on a {@link LimbOperandStack}, reading the immediate straight out of
+   * the code array.
+   *
+   * @param frame the frame
+   * @param stack the limb stack
+   * @param code the code
+   * @param pc the pc
+   * @param pushSize the push size
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(
+      final MessageFrame frame,
+      final LimbOperandStack stack,
+      final byte[] code,
+      final int pc,
+      final int pushSize) {
+    stack.push(code, pc + 1, pushSize);
+    frame.setPC(pc + pushSize);
+    return pushSuccess;
+  }
 }
@@ -19,6 +19,8 @@ import static org.apache.tuweni.bytes.Bytes32.leftPad;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
+import org.hyperledger.besu.evm.internal.UInt256Limbs;
 
 import org.apache.tuweni.bytes.Bytes;
 
@@ -77,4 +79,19 @@ public class SarOperation extends AbstractFixedCostOperation {
     }
     return sarSuccess;
   }
+
+  /**
+   * Performs SAR on a {@link LimbOperandStack} without allocating.
+   *
+   * @param stack the limb stack
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final LimbOperandStack stack) {
+    final long[] w = stack.words();
+    final int a = stack.offset(0);
+    final int b = stack.offset(1);
+    UInt256Limbs.sar(w, a, b, b);
+    stack.drop(1);
+    return sarSuccess;
+  }
 }
@@ -19,6 +19,8 @@ import static org.apache.tuweni.bytes.Bytes32.leftPad;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
+import org.hyperledger.besu.evm.internal.UInt256Limbs;
 
 import org.apache.tuweni.bytes.Bytes;
 
@@ -66,4 +68,19 @@ public class ShlOperation extends AbstractFixedCostOperation {
     }
     return shlSuccess;
   }
+
+  /**
+   * Performs SHL on a {@link LimbOperandStack} without allocating.
+   *
+   * @param stack the limb stack
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final LimbOperandStack stack) {
+    final long[] w = stack.words();
+    final int a = stack.offset(0);
+    final int b = stack.offset(1);
+    UInt256Limbs.shl(w, a, b, b);
+    stack.drop(1);
+    return shlSuccess;
+  }
 }
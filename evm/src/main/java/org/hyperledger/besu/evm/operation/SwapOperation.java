@@ -18,6 +18,7 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
 
 import org.apache.tuweni.bytes.Bytes;
 
@@ -74,4 +75,17 @@ public class SwapOperation extends AbstractFixedCostOperation {
 
     return swapSuccess;
   }
+
+  /**
+   * Performs swap operation on a {@link LimbOperandStack}.
+   *
+   * @param stack the limb stack
+   * @param index the index
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(final LimbOperandStack stack, final int index) {
+    stack.swap(index);
+
+    return swapSuccess;
+  }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.evm.frame.MessageFrame.Type.MESSAGE_CALL;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.MainnetEVMs;
+import org.hyperledger.besu.evm.frame.BlockValues;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class BasicBlocksTest {
+
+  // PUSH1 10; JUMPDEST; PUSH1 1; SWAP1; SUB; DUP1; PUSH1 2; JUMPI; PUSH1 0; MSTORE;
+  // PUSH1 32; PUSH1 0; RETURN
+  private static final String COUNTDOWN = "0x600a5b600190038060025760005260206000f3";
+
+  private final EVM evm =
+      MainnetEVMs.futureEips(
+          new EvmConfiguration(32_000L, EvmConfiguration.WorldUpdaterMode.STACKED, true));
+  private final EVM referenceEvm = MainnetEVMs.futureEips(EvmConfiguration.DEFAULT);
+
+  @Test
+  void splitsCodeIntoBlocks() {
+    final BasicBlocks blocks = analyze(COUNTDOWN);
+
+    assertThat(blocks.blockCount()).isEqualTo(3);
+    assertThat(blocks.blockAt(0)).isZero();
+    assertThat(blocks.blockAt(2)).isEqualTo(1);
+    assertThat(blocks.blockAt(3)).isEqualTo(-1);
+    assertThat(blocks.blockAt(11)).isEqualTo(2);
+    // RETURN has a dynamic cost and is not part of any block
+    assertThat(blocks.blockAt(18)).isEqualTo(-1);
+  }
+
+  @Test
+  void precomputesGasAndStackBounds() {
+    final BasicBlocks blocks = analyze(COUNTDOWN);
+
+    // JUMPDEST + PUSH1 + SWAP1 + SUB + DUP1 + PUSH1 + JUMPI
+    assertThat(blocks.gasCost(1)).isEqualTo(1 + 3 + 3 + 3 + 3 + 3 + 10);
+    assertThat(blocks.canRunUnchecked(1, 1, 1024, 26)).isTrue();
+    assertThat(blocks.canRunUnchecked(1, 0, 1024, 26)).isFalse();
+    assertThat(blocks.canRunUnchecked(1, 1, 1024, 25)).isFalse();
+    assertThat(blocks.canRunUnchecked(1, 1023, 1024, 26)).isFalse();
+  }
+
+  @Test
+  void fusesSuperinstructions() {
+    final BasicBlocks blocks = analyze(COUNTDOWN);
+
+    final int lastOfLoop = blocks.firstInstruction(1) + blocks.instructionCount(1) - 1;
+    assertThat(blocks.opcode(lastOfLoop)).isEqualTo(BasicBlocks.PUSH_JUMPI);
+    assertThat(blocks.argument(lastOfLoop)).isEqualTo(2);
+    assertThat(blocks.nextPc(lastOfLoop)).isEqualTo(11);
+    assertThat(blocks.opcode(blocks.firstInstruction(2))).isEqualTo(BasicBlocks.PUSH_MSTORE);
+    assertThat(blocks.immediate(blocks.firstInstruction(2))).isEqualTo(Bytes.of(0));
+
+    final BasicBlocks dupSwap = analyze("0x8091");
+    assertThat(dupSwap.opcode(0)).isEqualTo(BasicBlocks.DUP_SWAP);
+    assertThat(dupSwap.argument(0)).isEqualTo(1 << 8 | 2);
+  }
+
+  @Test
+  void constantJumpToInvalidDestinationIsResolvedAhead() {
+    final BasicBlocks blocks = analyze("0x600556");
+    assertThat(blocks.opcode(0)).isEqualTo(BasicBlocks.PUSH_JUMP);
+    assertThat(blocks.argument(0)).isEqualTo(BasicBlocks.INVALID_TARGET);
+  }
+
+  @Test
+  void analysisIsCachedPerEvm() {
+    final CodeV0 code = new CodeV0(Bytes.fromHexString(COUNTDOWN));
+    final BasicBlocks blocks = code.getBasicBlocks(evm);
+    assertThat(code.getBasicBlocks(evm)).isSameAs(blocks);
+    assertThat(code.getBasicBlocks(referenceEvm)).isNotSameAs(blocks);
+    assertThat(code.getBasicBlocksSize()).isPositive();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    COUNTDOWN + ", 100000",
+    COUNTDOWN + ", 200",
+    COUNTDOWN + ", 26",
+    // PUSH1 5; PUSH1 3; DUP1; SWAP2; MUL; ADD; PUSH1 0; MSTORE; PUSH1 32; PUSH1 0; RETURN
+    "0x600560038091020160005260206000f3, 100000",
+    // stack underflow in the middle of a block
+    "0x6001600201010000, 100000",
+    // out of gas in the middle of a block
+    "0x6001600201, 5",
+    // constant jump to an invalid destination
+    "0x600556, 100000",
+    // dynamic cost operations between blocks
+    "0x602a60005260206000205a5060005100, 100000"
+  })
+  void matchesOpcodeByOpcodeExecution(final String code, final long gas) {
+    final MessageFrame blockFrame = execute(evm, code, gas);
+    final MessageFrame referenceFrame = execute(referenceEvm, code, gas);
+
+    assertThat(blockFrame.getState()).isEqualTo(referenceFrame.getState());
+    assertThat(blockFrame.getExceptionalHaltReason())
+        .isEqualTo(referenceFrame.getExceptionalHaltReason());
+    assertThat(blockFrame.getOutputData()).isEqualTo(referenceFrame.getOutputData());
+    if (referenceFrame.getExceptionalHaltReason().isEmpty()) {
+      assertThat(blockFrame.getRemainingGas()).isEqualTo(referenceFrame.getRemainingGas());
+      assertThat(blockFrame.stackSize()).isEqualTo(referenceFrame.stackSize());
+    }
+  }
+
+  private BasicBlocks analyze(final String code) {
+    return BasicBlocks.analyze(
+        new CodeV0(Bytes.fromHexString(code)), evm.getOperationsUnsafe(), evm.getGasCalculator());
+  }
+
+  private static MessageFrame execute(final EVM evm, final String code, final long gas) {
+    final MessageFrame frame =
+        MessageFrame.builder()
+            .type(MESSAGE_CALL)
+            .worldUpdater(mock(WorldUpdater.class))
+            .initialGas(gas)
+            .address(Address.ZERO)
+            .originator(Address.ZERO)
+            .contract(Address.ZERO)
+            .gasPrice(Wei.ZERO)
+            .inputData(Bytes.EMPTY)
+            .sender(Address.ZERO)
+            .value(Wei.ZERO)
+            .apparentValue(Wei.ZERO)
+            .code(evm.wrapCode(Bytes.fromHexString(code)))
+            .blockValues(mock(BlockValues.class))
+            .completer(f -> {})
+            .miningBeneficiary(Address.ZERO)
+            .blockHashLookup((__, ___) -> Hash.EMPTY)
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    evm.runToHalt(frame, OperationTracer.NO_TRACING);
+    return frame;
+  }
+}
@@ -15,8 +15,10 @@
 package org.hyperledger.besu.evm.code;
 
 import static org.hyperledger.besu.evm.frame.MessageFrame.Type.MESSAGE_CALL;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 
@@ -69,6 +71,19 @@ class CodeV0Test {
     Mockito.verify(getsCached, times(1)).calculateJumpDestBitMask();
   }
 
+  @Test
+  void shouldUseProvidedJumpDestMap() {
+    final JumpOperation operation = new JumpOperation(evm.getGasCalculator());
+    final Bytes jumpBytes = Bytes.fromHexString("0x6003565b00");
+    final long[] jumpDestBitMask = new CodeV0(jumpBytes).getJumpDestBitMask();
+    final CodeV0 analyzed = spy(new CodeV0(jumpBytes, Hash.hash(jumpBytes), jumpDestBitMask));
+
+    final OperationResult result = operation.execute(createJumpFrame(analyzed), evm);
+    assertNull(result.getHaltReason());
+    Mockito.verify(analyzed, never()).calculateJumpDestBitMask();
+    assertArrayEquals(new long[] {1L << 3}, analyzed.getJumpDestBitMask());
+  }
+
   @NotNull
   private MessageFrame createJumpFrame(final CodeV0 getsCached) {
     final MessageFrame frame =
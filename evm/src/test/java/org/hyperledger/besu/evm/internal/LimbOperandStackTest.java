@@ -0,0 +1,114 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LimbOperandStackTest {
+
+  private static final Bytes32 WORD =
+      Bytes32.fromHexString("0x0102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f20");
+
+  @Test
+  void construction() {
+    final LimbOperandStack stack = new LimbOperandStack(1);
+    assertThat(stack.size()).isZero();
+    assertThat(stack.words()).hasSize(LimbOperandStack.LIMBS);
+  }
+
+  @Test
+  void construction_NegativeMaximumSize() {
+    assertThatThrownBy(() -> new LimbOperandStack(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void push_StackOverflow() {
+    final LimbOperandStack stack = new LimbOperandStack(1);
+    stack.push(1L);
+    assertThatThrownBy(() -> stack.push(2L)).isInstanceOf(OverflowException.class);
+  }
+
+  @Test
+  void pop_StackUnderflow() {
+    final LimbOperandStack stack = new LimbOperandStack(1);
+    assertThatThrownBy(stack::pop).isInstanceOf(UnderflowException.class);
+    assertThatThrownBy(() -> stack.drop(1)).isInstanceOf(UnderflowException.class);
+  }
+
+  @Test
+  void pushPopRoundTrip() {
+    final LimbOperandStack stack = new LimbOperandStack(2);
+    stack.push(WORD);
+    stack.push(Bytes.fromHexString("0x0102"));
+    assertThat(stack.size()).isEqualTo(2);
+    assertThat(stack.pop()).isEqualTo(Bytes32.fromHexString("0x0102"));
+    assertThat(stack.pop()).isEqualTo(WORD);
+    assertThat(stack.isEmpty()).isTrue();
+  }
+
+  @Test
+  void limbLayoutIsLittleEndian() {
+    final LimbOperandStack stack = new LimbOperandStack(1);
+    stack.push(WORD);
+    final long[] words = stack.words();
+    final int offset = stack.offset(0);
+    assertThat(words[offset]).isEqualTo(0x191a1b1c1d1e1f20L);
+    assertThat(words[offset + 3]).isEqualTo(0x0102030405060708L);
+  }
+
+  @Test
+  void pushFromCodeRightPadsPastTheEnd() {
+    final byte[] code = Bytes.fromHexString("0x61aabb62ccdd").toArrayUnsafe();
+    final LimbOperandStack stack = new LimbOperandStack(2);
+    stack.push(code, 1, 2);
+    stack.push(code, 4, 3);
+    assertThat(stack.pop()).isEqualTo(Bytes32.fromHexString("0xccdd00"));
+    assertThat(stack.pop()).isEqualTo(Bytes32.fromHexString("0xaabb"));
+  }
+
+  @Test
+  void dupAndSwap() {
+    final LimbOperandStack stack = new LimbOperandStack(4);
+    stack.push(1L);
+    stack.push(2L);
+    stack.push(3L);
+    stack.dup(3);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x01"));
+    stack.swap(2);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString("0x02"));
+    assertThat(stack.get(2)).isEqualTo(Bytes32.fromHexString("0x01"));
+    assertThatThrownBy(() -> stack.swap(4)).isInstanceOf(UnderflowException.class);
+    assertThatThrownBy(() -> stack.dup(1)).isInstanceOf(OverflowException.class);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {5, 31, 32, 33, 1023, 1024, 1025})
+  void largeOverflows(final int n) {
+    final LimbOperandStack stack = new LimbOperandStack(n);
+    for (int i = 0; i < n; i++) {
+      stack.push(1L);
+    }
+    assertThat(stack.isFull()).isTrue();
+    assertThatThrownBy(() -> stack.push(1L)).isInstanceOf(OverflowException.class);
+  }
+}
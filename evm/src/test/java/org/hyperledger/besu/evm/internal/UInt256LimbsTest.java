@@ -0,0 +1,149 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class UInt256LimbsTest {
+
+  private static final BigInteger MODULUS = BigInteger.ONE.shiftLeft(256);
+  private static final BigInteger MAX = MODULUS.subtract(BigInteger.ONE);
+
+  static List<Arguments> operands() {
+    final Random random = new Random(0x5EED);
+    final List<Arguments> args = new ArrayList<>();
+    final BigInteger[] edges = {
+      BigInteger.ZERO,
+      BigInteger.ONE,
+      MAX,
+      MAX.shiftRight(1),
+      BigInteger.ONE.shiftLeft(255),
+      BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE),
+      BigInteger.ONE.shiftLeft(128)
+    };
+    for (final BigInteger a : edges) {
+      for (final BigInteger b : edges) {
+        args.add(Arguments.of(a, b));
+      }
+    }
+    for (int i = 0; i < 200; i++) {
+      args.add(
+          Arguments.of(
+              new BigInteger(256, random).shiftRight(random.nextInt(256)),
+              new BigInteger(256, random).shiftRight(random.nextInt(256))));
+    }
+    return args;
+  }
+
+  @ParameterizedTest
+  @MethodSource("operands")
+  void arithmeticMatchesBigInteger(final BigInteger a, final BigInteger b) {
+    assertThat(apply(UInt256Limbs::add, a, b)).isEqualTo(a.add(b).mod(MODULUS));
+    assertThat(apply(UInt256Limbs::sub, a, b)).isEqualTo(a.subtract(b).mod(MODULUS));
+    assertThat(apply(UInt256Limbs::mul, a, b)).isEqualTo(a.multiply(b).mod(MODULUS));
+    assertThat(apply(UInt256Limbs::and, a, b)).isEqualTo(a.and(b));
+    assertThat(apply(UInt256Limbs::or, a, b)).isEqualTo(a.or(b));
+    assertThat(apply(UInt256Limbs::xor, a, b)).isEqualTo(a.xor(b));
+  }
+
+  @ParameterizedTest
+  @MethodSource("operands")
+  void comparisonsMatchBigInteger(final BigInteger a, final BigInteger b) {
+    final long[] w = words(a, b);
+    assertThat(Integer.signum(UInt256Limbs.compareUnsigned(w, 0, 4))).isEqualTo(a.compareTo(b));
+    assertThat(Integer.signum(UInt256Limbs.compareSigned(w, 0, 4)))
+        .isEqualTo(signed(a).compareTo(signed(b)));
+    assertThat(UInt256Limbs.isZero(w, 0)).isEqualTo(a.signum() == 0);
+  }
+
+  @ParameterizedTest
+  @MethodSource("operands")
+  void shiftsMatchBigInteger(final BigInteger value, final BigInteger random) {
+    final BigInteger shift = random.mod(BigInteger.valueOf(300));
+    final int n = shift.intValue();
+    assertThat(apply(UInt256Limbs::shl, shift, value))
+        .isEqualTo(n >= 256 ? BigInteger.ZERO : value.shiftLeft(n).mod(MODULUS));
+    assertThat(apply(UInt256Limbs::shr, shift, value))
+        .isEqualTo(n >= 256 ? BigInteger.ZERO : value.shiftRight(n));
+    assertThat(apply(UInt256Limbs::sar, shift, value))
+        .isEqualTo(signed(value).shiftRight(Math.min(n, 256)).mod(MODULUS));
+  }
+
+  @ParameterizedTest
+  @MethodSource("operands")
+  void byteAtMatchesBigInteger(final BigInteger value, final BigInteger random) {
+    final BigInteger index = random.mod(BigInteger.valueOf(40));
+    final int i = index.intValue();
+    assertThat(apply(UInt256Limbs::byteAt, index, value))
+        .isEqualTo(
+            i >= 32
+                ? BigInteger.ZERO
+                : value.shiftRight((31 - i) * 8).and(BigInteger.valueOf(0xFF)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("operands")
+  void resultMayAliasOperand(final BigInteger a, final BigInteger b) {
+    final long[] w = words(a, b);
+    UInt256Limbs.mul(w, 0, 4, 4);
+    assertThat(read(w, 4)).isEqualTo(a.multiply(b).mod(MODULUS));
+  }
+
+  private interface BinaryOp {
+    void apply(long[] w, int a, int b, int r);
+  }
+
+  private static BigInteger apply(final BinaryOp op, final BigInteger a, final BigInteger b) {
+    final long[] w = words(a, b);
+    op.apply(w, 0, 4, 8);
+    return read(w, 8);
+  }
+
+  private static long[] words(final BigInteger a, final BigInteger b) {
+    final long[] w = new long[12];
+    write(w, 0, a);
+    write(w, 4, b);
+    return w;
+  }
+
+  private static void write(final long[] w, final int offset, final BigInteger value) {
+    BigInteger remaining = value;
+    for (int i = 0; i < 4; i++) {
+      w[offset + i] = remaining.longValue();
+      remaining = remaining.shiftRight(64);
+    }
+  }
+
+  private static BigInteger read(final long[] w, final int offset) {
+    BigInteger result = BigInteger.ZERO;
+    for (int i = 3; i >= 0; i--) {
+      result = result.shiftLeft(64).or(new BigInteger(Long.toUnsignedString(w[offset + i])));
+    }
+    return result;
+  }
+
+  private static BigInteger signed(final BigInteger value) {
+    return value.testBit(255) ? value.subtract(MODULUS) : value;
+  }
+}
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.when;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 import org.hyperledger.besu.evm.gascalculator.SpuriousDragonGasCalculator;
+import org.hyperledger.besu.evm.internal.LimbOperandStack;
 
 import java.util.List;
 
@@ -178,6 +179,18 @@ class SarOperationTest {
     verify(frame).pushStackItem(Bytes.fromHexString(expectedResult));
   }
 
+  @ParameterizedTest
+  @MethodSource("data")
+  void shiftOperationOnLimbStack(
+      final String number, final String shift, final String expectedResult) {
+    final LimbOperandStack stack = new LimbOperandStack(2);
+    stack.push(Bytes.fromHexStringLenient(number));
+    stack.push(Bytes.fromHexStringLenient(shift));
+    SarOperation.staticOperation(stack);
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.pop()).isEqualTo(Bytes32.fromHexStringLenient(expectedResult));
+  }
+
   @Test
   void dryRunDetector() {
     assertThat(true)
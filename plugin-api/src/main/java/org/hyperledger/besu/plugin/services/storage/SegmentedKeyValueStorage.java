@@ -17,8 +17,11 @@ package org.hyperledger.besu.plugin.services.storage;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -38,6 +41,43 @@ public interface SegmentedKeyValueStorage extends Closeable {
    */
   Optional<byte[]> get(SegmentIdentifier segment, byte[] key) throws StorageException;
 
+  /**
+   * Get the values from the associated segment for a batch of keys. Implementations backed by a
+   * database should read the keys in a single call to the database rather than one by one.
+   *
+   * @param segment the segment
+   * @param keys the keys to read
+   * @return the values persisted at the keys, in the same order as the keys
+   * @throws StorageException the storage exception
+   */
+  default List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    for (final byte[] key : keys) {
+      values.add(get(segment, key));
+    }
+    return values;
+  }
+
+  /**
+   * Get the value from the associated segment and key and map it, without copying it out of the
+   * storage when the implementation allows it. The bytes given to the mapper may be a view of a
+   * buffer reused by the storage: they are only valid during the call, so the mapper must copy
+   * any part of them it keeps.
+   *
+   * @param segment the segment
+   * @param key Index into persistent data repository.
+   * @param mapper the function mapping the persisted value
+   * @param <T> the type of the mapped value
+   * @return The mapped value persisted at the key index.
+   * @throws StorageException the storage exception
+   */
+  default <T> Optional<T> getAndMap(
+      final SegmentIdentifier segment, final byte[] key, final Function<Bytes, T> mapper)
+      throws StorageException {
+    return get(segment, key).map(Bytes::wrap).map(mapper);
+  }
+
   /**
    * Finds the key and corresponding value that is "nearest before" the specified key. "Nearest
    * before" is defined as the closest key that is either exactly matching the supplied key or
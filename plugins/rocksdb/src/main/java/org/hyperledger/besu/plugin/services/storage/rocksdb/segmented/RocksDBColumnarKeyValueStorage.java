@@ -29,14 +29,17 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbSegmentIdenti
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -91,6 +94,10 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   /** RocksDb Time to roll a log file (1 day = 3600 * 24 seconds) */
   private static final long TIME_TO_ROLL_LOG_FILE = 86_400L;
 
+  /** Direct buffers reused by the mapped reads of each thread */
+  private static final ThreadLocal<DirectReadBuffers> DIRECT_READ_BUFFERS =
+      ThreadLocal.withInitial(DirectReadBuffers::new);
+
   static {
     RocksDbUtil.loadNativeLibrary();
   }
@@ -419,6 +426,61 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
     }
   }
 
+  @Override
+  public <T> Optional<T> getAndMap(
+      final SegmentIdentifier segment, final byte[] key, final Function<Bytes, T> mapper)
+      throws StorageException {
+    final DirectReadBuffers buffers = DIRECT_READ_BUFFERS.get();
+    if (buffers.inUse) {
+      // a mapper reading the storage again must not overwrite the value it is mapping
+      return get(segment, key).map(Bytes::wrap).map(mapper);
+    }
+    throwIfClosed();
+
+    buffers.inUse = true;
+    try {
+      final int size = readDirect(segment, key, buffers);
+      return size == RocksDB.NOT_FOUND
+          ? Optional.empty()
+          : Optional.of(mapper.apply(Bytes.wrapByteBuffer(buffers.valueBuffer, 0, size)));
+    } finally {
+      buffers.inUse = false;
+    }
+  }
+
+  private int readDirect(
+      final SegmentIdentifier segment, final byte[] key, final DirectReadBuffers buffers) {
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      final ColumnFamilyHandle handle = safeColumnHandle(segment);
+      final ByteBuffer keyBuffer = buffers.wrapKey(key);
+      final int size = getDB().get(handle, readOptions, keyBuffer, buffers.valueBuffer.clear());
+      if (size <= buffers.valueBuffer.capacity()) {
+        return size;
+      }
+      // the value was truncated, read it again with a buffer large enough
+      buffers.growValueBuffer(size);
+      return getDB().get(handle, readOptions, keyBuffer.rewind(), buffers.valueBuffer.clear());
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      final List<ColumnFamilyHandle> handles =
+          Collections.nCopies(keys.size(), safeColumnHandle(segment));
+      return getDB().multiGetAsList(readOptions, handles, keys).stream()
+          .map(Optional::ofNullable)
+          .toList();
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestBefore(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
@@ -543,6 +605,26 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
 
   abstract RocksDB getDB();
 
+  private static class DirectReadBuffers {
+    private static final int INITIAL_KEY_CAPACITY = 128;
+    private static final int INITIAL_VALUE_CAPACITY = 1024;
+
+    private ByteBuffer keyBuffer = ByteBuffer.allocateDirect(INITIAL_KEY_CAPACITY);
+    private ByteBuffer valueBuffer = ByteBuffer.allocateDirect(INITIAL_VALUE_CAPACITY);
+    private boolean inUse;
+
+    private ByteBuffer wrapKey(final byte[] key) {
+      if (key.length > keyBuffer.capacity()) {
+        keyBuffer = ByteBuffer.allocateDirect(key.length);
+      }
+      return keyBuffer.clear().put(key).flip();
+    }
+
+    private void growValueBuffer(final int size) {
+      valueBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(size - 1) << 1);
+    }
+  }
+
   record SegmentRecord(String name, byte[] id) {
     public String forDisplay() {
       return String.format("'%s'(%s)", name, Bytes.of(id).toHexString());
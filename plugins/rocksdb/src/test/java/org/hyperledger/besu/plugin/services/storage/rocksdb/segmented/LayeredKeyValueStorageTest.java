@@ -17,6 +17,8 @@ package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -24,6 +26,7 @@ import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.services.kvstore.LayeredKeyValueStorage;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Optional;
@@ -71,6 +74,31 @@ public class LayeredKeyValueStorageTest {
     return map;
   }
 
+  @Test
+  void shouldMultiGetMissingKeysFromParentInASingleBatch() {
+    byte[] key1 = {1};
+    byte[] value1 = {10};
+    byte[] key2 = {2};
+    byte[] value2 = {20};
+    byte[] key3 = {3};
+
+    var hashValueStore = createSegmentMap();
+    hashValueStore.get(segmentId).put(Bytes.wrap(key2), Optional.of(value2));
+    hashValueStore.get(segmentId).put(Bytes.wrap(key3), Optional.empty());
+    layeredKeyValueStorage = new LayeredKeyValueStorage(hashValueStore, parentStorage);
+    when(parentStorage.multiGet(
+            eq(segmentId), argThat(keys -> keys.size() == 1 && Arrays.equals(keys.get(0), key1))))
+        .thenReturn(List.of(Optional.of(value1)));
+
+    List<Optional<byte[]>> result =
+        layeredKeyValueStorage.multiGet(segmentId, List.of(key1, key2, key3));
+
+    assertEquals(3, result.size());
+    assertArrayEquals(value1, result.get(0).orElseThrow());
+    assertArrayEquals(value2, result.get(1).orElseThrow());
+    assertTrue(result.get(2).isEmpty());
+  }
+
   @Test
   void shouldReturnParentDataWhenLayerIsEmpty() {
     byte[] key1 = {1};
@@ -47,6 +47,7 @@ import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tuweni.bytes.Bytes;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
@@ -111,6 +112,74 @@ public abstract class RocksDBColumnarKeyValueStorageTest extends AbstractKeyValu
     store.close();
   }
 
+  @Test
+  public void multiGetReturnsValuesInKeyOrder() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.FOO, bytesFromHexString("0001"), bytesFromHexString("0FFF"));
+    tx.put(TestSegment.FOO, bytesFromHexString("0003"), bytesFromHexString("3FFF"));
+    tx.put(TestSegment.BAR, bytesFromHexString("0002"), bytesFromHexString("2FFF"));
+    tx.commit();
+
+    final List<byte[]> keys =
+        List.of(bytesFromHexString("0003"), bytesFromHexString("0002"), bytesFromHexString("0001"));
+    final List<Optional<byte[]>> result = store.multiGet(TestSegment.FOO, keys);
+
+    assertThat(result).hasSize(3);
+    assertThat(result.get(0)).contains(bytesFromHexString("3FFF"));
+    assertThat(result.get(1)).isEmpty();
+    assertThat(result.get(2)).contains(bytesFromHexString("0FFF"));
+
+    store.close();
+  }
+
+  @Test
+  public void getAndMapReadsValuesOfAnySize() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+    final byte[] smallValue = bytesFromHexString("0FFF");
+    final byte[] largeValue = Bytes.random(10_000).toArrayUnsafe();
+
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.FOO, bytesFromHexString("0001"), smallValue);
+    tx.put(TestSegment.FOO, bytesFromHexString("0002"), largeValue);
+    tx.commit();
+
+    assertThat(store.getAndMap(TestSegment.FOO, bytesFromHexString("0001"), Bytes::toArray))
+        .contains(smallValue);
+    assertThat(store.getAndMap(TestSegment.FOO, bytesFromHexString("0002"), Bytes::toArray))
+        .contains(largeValue);
+    assertThat(store.getAndMap(TestSegment.FOO, bytesFromHexString("0003"), Bytes::toArray))
+        .isEmpty();
+
+    store.close();
+  }
+
+  @Test
+  public void getAndMapCanReadTheStorageFromTheMapper() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.FOO, bytesFromHexString("0001"), bytesFromHexString("0002"));
+    tx.put(TestSegment.FOO, bytesFromHexString("0002"), bytesFromHexString("0FFF"));
+    tx.commit();
+
+    final Optional<Bytes> result =
+        store.getAndMap(
+            TestSegment.FOO,
+            bytesFromHexString("0001"),
+            next ->
+                Bytes.concatenate(
+                    next.copy(),
+                    store
+                        .getAndMap(TestSegment.FOO, next.toArray(), Bytes::copy)
+                        .orElseThrow()));
+
+    assertThat(result).contains(Bytes.fromHexString("0x00020FFF"));
+
+    store.close();
+  }
+
   @Test
   public void canRemoveThroughSegmentIteration() throws Exception {
     // we're looping this in order to catch intermittent failures when rocksdb objects are not close
@@ -25,6 +25,7 @@ import org.hyperledger.besu.plugin.services.storage.SnappableKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -54,6 +55,10 @@ import org.apache.tuweni.bytes.Bytes;
 /** Segmented in memory key value storage. */
 public class SegmentedInMemoryKeyValueStorage
     implements SnappedKeyValueStorage, SnappableKeyValueStorage, SegmentedKeyValueStorage {
+  // estimated overhead of an entry: the skip list node and index, the key wrapper, the optional
+  // and the array headers
+  private static final int ENTRY_OVERHEAD = 128;
+
   /** protected access for the backing hash map. */
   final ConcurrentMap<SegmentIdentifier, NavigableMap<Bytes, Optional<byte[]>>> hashValueStore;
 
@@ -148,6 +153,24 @@ public class SegmentedInMemoryKeyValueStorage
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(
+      final SegmentIdentifier segmentIdentifier, final List<byte[]> keys) throws StorageException {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      final NavigableMap<Bytes, Optional<byte[]>> segment =
+          hashValueStore.computeIfAbsent(segmentIdentifier, s -> newSegmentMap());
+      final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+      for (final byte[] key : keys) {
+        values.add(segment.getOrDefault(Bytes.wrap(key), Optional.empty()));
+      }
+      return values;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestBefore(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
@@ -300,6 +323,28 @@ public class SegmentedInMemoryKeyValueStorage
     return false;
   }
 
+  /**
+   * Estimates the heap used by the entries of this storage, keys, values and map overhead.
+   *
+   * @return the estimated memory footprint in bytes
+   */
+  public long estimateMemoryFootprint() {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      long footprint = 0;
+      for (final NavigableMap<Bytes, Optional<byte[]>> segment : hashValueStore.values()) {
+        for (final Map.Entry<Bytes, Optional<byte[]>> entry : segment.entrySet()) {
+          final int valueSize = entry.getValue().map(value -> value.length).orElse(0);
+          footprint += entry.getKey().size() + valueSize + ENTRY_OVERHEAD;
+        }
+      }
+      return footprint;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public void close() {}
 
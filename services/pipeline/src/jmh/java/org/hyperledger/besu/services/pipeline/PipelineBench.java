@@ -0,0 +1,82 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static org.hyperledger.besu.metrics.noop.NoOpMetricsSystem.NO_OP_LABELLED_2_COUNTER;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Measures the items per second flowing through a pipeline of five stages. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PipelineBench {
+  private static final int ITEMS = 1_000_000;
+
+  @Param({"BLOCKING", "SINGLE_PRODUCER_SINGLE_CONSUMER", "MULTI_PRODUCER_SINGLE_CONSUMER"})
+  public PipeType pipeType;
+
+  @Param({"256"})
+  public int bufferSize;
+
+  private ExecutorService executorService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ITEMS)
+  public long fiveStages() throws Exception {
+    final AtomicLong sum = new AtomicLong();
+    PipelineBuilder.createPipelineFrom(
+            "source",
+            LongStream.range(0, ITEMS).iterator(),
+            bufferSize,
+            NO_OP_LABELLED_2_COUNTER,
+            false,
+            "bench")
+        .withPipeType(pipeType)
+        .thenProcess("increment", value -> value + 1)
+        .thenProcess("double", value -> value * 2)
+        .thenProcess("decrement", value -> value - 1)
+        .andFinishWith("sum", value -> sum.addAndGet(value))
+        .start(executorService)
+        .get();
+    return sum.get();
+  }
+}
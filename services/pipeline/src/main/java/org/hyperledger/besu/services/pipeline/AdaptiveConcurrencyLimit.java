@@ -0,0 +1,196 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledSuppliedMetric;
+import org.hyperledger.besu.plugin.services.metrics.MetricCategory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The concurrency of a pipeline stage, adjusted at runtime between a minimum and a maximum with
+ * additive increase and multiplicative decrease.
+ *
+ * <p>Stages report the latency of each item they process, whether the stage was saturated, that
+ * is it was using all of its concurrency because items were waiting in its input, and whether its
+ * output pipe was full. Once enough items have been reported to cover the current limit, the
+ * limit is:
+ *
+ * <ul>
+ *   <li>decreased by a quarter when the output was full for most items, as the next stage is the
+ *       bottleneck, or when the average latency went above twice the baseline latency, as the work
+ *       is contending for a shared resource such as peers or disk;
+ *   <li>increased by one when the stage was saturated for most items;
+ *   <li>left unchanged otherwise.
+ * </ul>
+ *
+ * The baseline latency follows the lowest average latency seen, and slowly drifts up so that it
+ * adapts when the work gets slower for good.
+ *
+ * <p>A limit can be shared by the stages of successive pipelines, so that each pipeline starts
+ * from what the previous one learnt.
+ */
+public class AdaptiveConcurrencyLimit {
+
+  private static final double DECREASE_FACTOR = 0.75;
+  private static final int LATENCY_TOLERANCE = 2;
+  private static final int BASELINE_DRIFT_SHIFT = 5;
+
+  private final int minLimit;
+  private final int maxLimit;
+
+  private volatile int limit;
+  private long baselineLatencyNanos = Long.MAX_VALUE;
+  private volatile long averageLatencyNanos;
+
+  private int windowSamples;
+  private long windowLatencyNanos;
+  private int windowSaturated;
+  private int windowOutputBlocked;
+
+  /**
+   * Creates a limit starting at the minimum.
+   *
+   * @param minLimit the lowest concurrency, at least 1
+   * @param maxLimit the highest concurrency
+   */
+  public AdaptiveConcurrencyLimit(final int minLimit, final int maxLimit) {
+    checkArgument(minLimit > 0, "Minimum concurrency must be positive");
+    checkArgument(maxLimit >= minLimit, "Maximum concurrency must be at least the minimum");
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = minLimit;
+  }
+
+  /**
+   * Publishes the current limit and the average latency of each stage, labelled with the stage
+   * name, as the {@code <prefix>_concurrency_limit} and {@code <prefix>_latency_milliseconds}
+   * gauges.
+   *
+   * @param metricsSystem the metrics system
+   * @param category the category of the gauges
+   * @param prefix the prefix of the names of the gauges
+   * @param limitsByStage the limits of the stages, keyed by stage name
+   */
+  public static void createGauges(
+      final MetricsSystem metricsSystem,
+      final MetricCategory category,
+      final String prefix,
+      final Map<String, AdaptiveConcurrencyLimit> limitsByStage) {
+    final LabelledSuppliedMetric limitGauge =
+        metricsSystem.createLabelledSuppliedGauge(
+            category, prefix + "_concurrency_limit", "Current concurrency of the stage", "step");
+    final LabelledSuppliedMetric latencyGauge =
+        metricsSystem.createLabelledSuppliedGauge(
+            category,
+            prefix + "_latency_milliseconds",
+            "Average latency of the items of the stage used to adjust its concurrency",
+            "step");
+    limitsByStage.forEach(
+        (stage, limit) -> {
+          limitGauge.labels(limit::getLimit, stage);
+          latencyGauge.labels(limit::getAverageLatencyMillis, stage);
+        });
+  }
+
+  /**
+   * Gets the current concurrency.
+   *
+   * @return the number of items or threads the stage may use now
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Gets the highest concurrency, which is how many threads a parallel stage has to allocate.
+   *
+   * @return the maximum limit
+   */
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  /**
+   * Gets the average latency of the items of the last completed window.
+   *
+   * @return the average latency in milliseconds
+   */
+  public double getAverageLatencyMillis() {
+    return averageLatencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Reports a processed item.
+   *
+   * @param latencyNanos how long the item took to process
+   * @param saturated whether the stage was using all its concurrency when it took the item
+   * @param outputBlocked whether the output pipe of the stage was full when it took the item
+   */
+  public synchronized void recordItem(
+      final long latencyNanos, final boolean saturated, final boolean outputBlocked) {
+    windowSamples++;
+    windowLatencyNanos += latencyNanos;
+    if (saturated) {
+      windowSaturated++;
+    }
+    if (outputBlocked) {
+      windowOutputBlocked++;
+    }
+    if (windowSamples < limit) {
+      return;
+    }
+
+    final long averageLatency = windowLatencyNanos / windowSamples;
+    averageLatencyNanos = averageLatency;
+    if (averageLatency < baselineLatencyNanos) {
+      baselineLatencyNanos = averageLatency;
+    } else {
+      baselineLatencyNanos += (averageLatency - baselineLatencyNanos) >> BASELINE_DRIFT_SHIFT;
+    }
+
+    if (windowOutputBlocked * 2 > windowSamples
+        || averageLatency > baselineLatencyNanos * LATENCY_TOLERANCE) {
+      limit = Math.max(minLimit, (int) (limit * DECREASE_FACTOR));
+    } else if (windowSaturated * 2 > windowSamples && limit < maxLimit) {
+      limit++;
+      notifyAll();
+    }
+    windowSamples = 0;
+    windowLatencyNanos = 0;
+    windowSaturated = 0;
+    windowOutputBlocked = 0;
+  }
+
+  /**
+   * Waits until a thread of a parallel stage is allowed to run, or the timeout elapses.
+   *
+   * @param threadIndex the index of the thread in the stage, from 0
+   * @param timeoutMillis how long to wait at most
+   * @return true if the thread may process an item
+   * @throws InterruptedException if interrupted while waiting
+   */
+  synchronized boolean awaitThreadEnabled(final int threadIndex, final long timeoutMillis)
+      throws InterruptedException {
+    if (threadIndex >= limit) {
+      wait(timeoutMillis);
+    }
+    return threadIndex < limit;
+  }
+}
@@ -21,6 +21,7 @@ import org.hyperledger.besu.services.pipeline.exception.AsyncOperationException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -37,20 +38,39 @@ class AsyncOperationProcessor<I, O> implements Processor<I, O> {
   private CompletableFuture<?> nextOutputAvailableFuture = completedFuture(null);
   private final boolean preserveOrder;
   private final int maxConcurrency;
+  private final Optional<AdaptiveConcurrencyLimit> concurrencyLimit;
 
   public AsyncOperationProcessor(
       final Function<I, CompletableFuture<O>> processor,
       final int maxConcurrency,
       final boolean preserveOrder) {
+    this(processor, maxConcurrency, Optional.empty(), preserveOrder);
+  }
+
+  public AsyncOperationProcessor(
+      final Function<I, CompletableFuture<O>> processor,
+      final AdaptiveConcurrencyLimit concurrencyLimit,
+      final boolean preserveOrder) {
+    this(processor, concurrencyLimit.getMaxLimit(), Optional.of(concurrencyLimit), preserveOrder);
+  }
+
+  private AsyncOperationProcessor(
+      final Function<I, CompletableFuture<O>> processor,
+      final int maxConcurrency,
+      final Optional<AdaptiveConcurrencyLimit> concurrencyLimit,
+      final boolean preserveOrder) {
     this.processor = processor;
     this.maxConcurrency = maxConcurrency;
+    this.concurrencyLimit = concurrencyLimit;
     this.inProgress = new ArrayList<>(maxConcurrency);
     this.preserveOrder = preserveOrder;
   }
 
   @Override
   public void processNextInput(final ReadPipe<I> inputPipe, final WritePipe<O> outputPipe) {
-    if (inProgress.size() < maxConcurrency) {
+    final int currentConcurrency =
+        concurrencyLimit.map(AdaptiveConcurrencyLimit::getLimit).orElse(maxConcurrency);
+    if (inProgress.size() < currentConcurrency) {
       final I value = inputPipe.get();
       if (value != null) {
         final CompletableFuture<O> future = processor.apply(value);
@@ -59,6 +79,8 @@ class AsyncOperationProcessor<I, O> implements Processor<I, O> {
         final Thread stageThread = Thread.currentThread();
         inProgress.add(future);
         updateNextOutputAvailableFuture();
+        concurrencyLimit.ifPresent(
+            limit -> recordCompletion(future, limit, currentConcurrency, outputPipe));
         future.whenComplete((result, error) -> stageThread.interrupt());
       }
       outputCompletedTasks(outputPipe);
@@ -67,6 +89,26 @@ class AsyncOperationProcessor<I, O> implements Processor<I, O> {
     }
   }
 
+  /**
+   * The stage is saturated when filling the last slot, which means the input kept up with the
+   * concurrency the stage has.
+   */
+  private void recordCompletion(
+      final CompletableFuture<O> future,
+      final AdaptiveConcurrencyLimit limit,
+      final int currentConcurrency,
+      final WritePipe<O> outputPipe) {
+    final long startTime = System.nanoTime();
+    final boolean saturated = inProgress.size() >= currentConcurrency;
+    final boolean outputBlocked = !outputPipe.hasRemainingCapacity();
+    future.whenComplete(
+        (result, error) -> {
+          if (error == null) {
+            limit.recordItem(System.nanoTime() - startTime, saturated, outputBlocked);
+          }
+        });
+  }
+
   @Override
   public boolean attemptFinalization(final WritePipe<O> outputPipe) {
     outputNextCompletedTask(outputPipe);
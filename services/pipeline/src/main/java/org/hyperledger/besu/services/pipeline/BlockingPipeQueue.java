@@ -0,0 +1,74 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link PipeQueue} backed by an {@link ArrayBlockingQueue}.
+ *
+ * @param <T> the type of item in the queue.
+ */
+class BlockingPipeQueue<T> implements PipeQueue<T> {
+  private final BlockingQueue<T> queue;
+
+  BlockingPipeQueue(final int capacity) {
+    queue = new ArrayBlockingQueue<>(capacity);
+  }
+
+  @Override
+  public boolean offer(final T item) {
+    return queue.offer(item);
+  }
+
+  @Override
+  public boolean offer(final T item, final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    return queue.offer(item, timeout, unit);
+  }
+
+  @Override
+  public T poll() {
+    return queue.poll();
+  }
+
+  @Override
+  public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return queue.poll(timeout, unit);
+  }
+
+  @Override
+  public int drainTo(final Collection<? super T> output, final int maxElements) {
+    return queue.drainTo(output, maxElements);
+  }
+
+  @Override
+  public int size() {
+    return queue.size();
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return queue.remainingCapacity();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return queue.isEmpty();
+  }
+}
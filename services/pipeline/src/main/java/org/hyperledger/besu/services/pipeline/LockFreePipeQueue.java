@@ -0,0 +1,171 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded ring buffer whose single consumer never takes a lock. Threads waiting for an item or
+ * for capacity spin briefly, then park until the other side signals them or a short timeout
+ * expires.
+ *
+ * <p>Items are written at the tail and read at the head, both of which only ever increase. Each
+ * side publishes its index with a volatile write and then checks whether the other side is
+ * waiting, so a waiting thread can't miss a signal.
+ *
+ * @param <T> the type of item in the queue.
+ */
+abstract class LockFreePipeQueue<T> implements PipeQueue<T> {
+  private static final int SPINS = 128;
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  protected final AtomicReferenceArray<T> buffer;
+  protected final int capacity;
+  private final int mask;
+  protected final AtomicLong head = new AtomicLong();
+  protected final AtomicLong tail = new AtomicLong();
+  private volatile Thread waitingConsumer;
+  private volatile Thread waitingProducer;
+
+  LockFreePipeQueue(final int capacity) {
+    checkArgument(capacity > 0 && capacity <= 1 << 30, "Invalid pipe capacity %s", capacity);
+    this.capacity = capacity;
+    final int bufferSize = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.buffer = new AtomicReferenceArray<>(bufferSize);
+    this.mask = bufferSize - 1;
+  }
+
+  /** Adds an item if there is capacity, and publishes the tail with a volatile write. */
+  protected abstract boolean tryOffer(T item);
+
+  /** Removes the item at the head if any, and publishes the head with a volatile write. */
+  protected abstract T tryPoll();
+
+  /** Removes up to the given number of items, and publishes the head once. */
+  protected abstract int tryDrainTo(Collection<? super T> output, int maxElements);
+
+  protected int index(final long position) {
+    return (int) position & mask;
+  }
+
+  @Override
+  public boolean offer(final T item) {
+    if (tryOffer(item)) {
+      signal(waitingConsumer);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean offer(final T item, final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (int spins = 0; ; spins++) {
+      if (offer(item)) {
+        return true;
+      }
+      if (spins < SPINS) {
+        Thread.onSpinWait();
+        continue;
+      }
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      waitingProducer = Thread.currentThread();
+      if (offer(item)) {
+        waitingProducer = null;
+        return true;
+      }
+      LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+      waitingProducer = null;
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  @Override
+  public T poll() {
+    final T item = tryPoll();
+    if (item != null) {
+      signal(waitingProducer);
+    }
+    return item;
+  }
+
+  @Override
+  public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (int spins = 0; ; spins++) {
+      T item = poll();
+      if (item != null) {
+        return item;
+      }
+      if (spins < SPINS) {
+        Thread.onSpinWait();
+        continue;
+      }
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return null;
+      }
+      waitingConsumer = Thread.currentThread();
+      item = poll();
+      if (item != null) {
+        waitingConsumer = null;
+        return item;
+      }
+      LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+      waitingConsumer = null;
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  @Override
+  public int drainTo(final Collection<? super T> output, final int maxElements) {
+    final int count = tryDrainTo(output, maxElements);
+    if (count > 0) {
+      signal(waitingProducer);
+    }
+    return count;
+  }
+
+  @Override
+  public int size() {
+    final long headPosition = head.get();
+    return (int) Math.min(capacity, Math.max(0, tail.get() - headPosition));
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity - size();
+  }
+
+  private static void signal(final Thread waiting) {
+    if (waiting != null) {
+      LockSupport.unpark(waiting);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import java.util.Collection;
+
+/**
+ * A {@link LockFreePipeQueue} with any number of producers and a single consumer. Producers claim
+ * a slot by moving the tail forward, then fill it, so the consumer waits for a claimed slot to be
+ * filled before reading it.
+ *
+ * @param <T> the type of item in the queue.
+ */
+class MpscPipeQueue<T> extends LockFreePipeQueue<T> {
+
+  MpscPipeQueue(final int capacity) {
+    super(capacity);
+  }
+
+  @Override
+  protected boolean tryOffer(final T item) {
+    while (true) {
+      final long position = tail.get();
+      if (position - head.get() >= capacity) {
+        return false;
+      }
+      if (tail.compareAndSet(position, position + 1)) {
+        buffer.lazySet(index(position), item);
+        return true;
+      }
+    }
+  }
+
+  @Override
+  protected T tryPoll() {
+    final long position = head.get();
+    final T item = awaitItem(position);
+    if (item == null) {
+      return null;
+    }
+    buffer.lazySet(index(position), null);
+    head.set(position + 1);
+    return item;
+  }
+
+  @Override
+  protected int tryDrainTo(final Collection<? super T> output, final int maxElements) {
+    final long position = head.get();
+    int count = 0;
+    while (count < maxElements) {
+      final T item = awaitItem(position + count);
+      if (item == null) {
+        break;
+      }
+      output.add(item);
+      buffer.lazySet(index(position + count), null);
+      count++;
+    }
+    if (count > 0) {
+      head.set(position + count);
+    }
+    return count;
+  }
+
+  private T awaitItem(final long position) {
+    final int index = index(position);
+    T item = buffer.get(index);
+    if (item == null) {
+      if (position >= tail.get()) {
+        return null;
+      }
+      // the slot is claimed by a producer which is about to fill it
+      do {
+        Thread.onSpinWait();
+        item = buffer.get(index);
+      } while (item == null);
+    }
+    return item;
+  }
+}
@@ -14,11 +14,11 @@
  */
 package org.hyperledger.besu.services.pipeline;
 
+import static org.hyperledger.besu.metrics.noop.NoOpMetricsSystem.NO_OP_COUNTER;
+
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 
 import java.util.Collection;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -34,14 +34,19 @@ import org.slf4j.LoggerFactory;
  * ReadPipe}* and {@link WritePipe}. These are designed to expose only the operations relevant to
  * objects either reading from or publishing to the pipe respectively.
  *
+ * <p>The {@link PipeType} of a pipe sets how many threads can read from and write to it.
+ *
  * @param <T> the type of item that flows through the pipe.
  */
 public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
   private static final Logger LOG = LoggerFactory.getLogger(Pipe.class);
-  private final BlockingQueue<T> queue;
+  private final PipeQueue<T> queue;
+  private final PipeType pipeType;
   private final Counter inputCounter;
   private final Counter outputCounter;
   private final Counter abortedItemCounter;
+  private final Counter putStallCounter;
+  private final Counter getStallCounter;
   private final AtomicBoolean closed = new AtomicBoolean();
   private final AtomicBoolean aborted = new AtomicBoolean();
   private String pipeName = "";
@@ -61,10 +66,45 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
       final Counter outputCounter,
       final Counter abortedItemCounter,
       final String pipeName) {
-    queue = new ArrayBlockingQueue<>(capacity);
+    this(
+        capacity,
+        PipeType.BLOCKING,
+        inputCounter,
+        outputCounter,
+        abortedItemCounter,
+        NO_OP_COUNTER,
+        NO_OP_COUNTER,
+        pipeName);
+  }
+
+  /**
+   * Instantiates a new Pipe.
+   *
+   * @param capacity the capacity
+   * @param pipeType the type of the pipe
+   * @param inputCounter the input counter
+   * @param outputCounter the output counter
+   * @param abortedItemCounter the aborted item counter
+   * @param putStallCounter the counter of the microseconds writers waited for capacity
+   * @param getStallCounter the counter of the microseconds readers waited for an item
+   * @param pipeName the name of the pipe
+   */
+  public Pipe(
+      final int capacity,
+      final PipeType pipeType,
+      final Counter inputCounter,
+      final Counter outputCounter,
+      final Counter abortedItemCounter,
+      final Counter putStallCounter,
+      final Counter getStallCounter,
+      final String pipeName) {
+    queue = pipeType.createQueue(capacity);
+    this.pipeType = pipeType;
     this.inputCounter = inputCounter;
     this.outputCounter = outputCounter;
     this.abortedItemCounter = abortedItemCounter;
+    this.putStallCounter = putStallCounter;
+    this.getStallCounter = getStallCounter;
     this.pipeName = pipeName;
   }
 
@@ -77,6 +117,15 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
     return pipeName;
   }
 
+  /**
+   * Get the type of this pipe
+   *
+   * @return the type of the pipe
+   */
+  public PipeType getPipeType() {
+    return pipeType;
+  }
+
   @Override
   public boolean isOpen() {
     return !closed.get() && !aborted.get();
@@ -114,6 +163,14 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
 
   @Override
   public T get() {
+    if (!hasMore()) {
+      return null;
+    }
+    final T item = poll();
+    if (item != null) {
+      return item;
+    }
+    final long stallStart = System.nanoTime();
     try {
       while (hasMore()) {
         final T value = queue.poll(1, TimeUnit.SECONDS);
@@ -124,6 +181,8 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
       }
     } catch (final InterruptedException e) {
       LOG.trace("Interrupted while waiting for next item from pipe {}", pipeName);
+    } finally {
+      getStallCounter.inc(microsSince(stallStart));
     }
     return null;
   }
@@ -146,15 +205,31 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
 
   @Override
   public void put(final T value) {
-    while (isOpen()) {
-      try {
-        if (queue.offer(value, 1, TimeUnit.SECONDS)) {
-          inputCounter.inc();
-          return;
+    if (!isOpen()) {
+      return;
+    }
+    if (queue.offer(value)) {
+      inputCounter.inc();
+      return;
+    }
+    final long stallStart = System.nanoTime();
+    try {
+      while (isOpen()) {
+        try {
+          if (queue.offer(value, 1, TimeUnit.SECONDS)) {
+            inputCounter.inc();
+            return;
+          }
+        } catch (final InterruptedException e) {
+          LOG.trace("Interrupted while waiting to add to output to pipe {}", pipeName);
         }
-      } catch (final InterruptedException e) {
-        LOG.trace("Interrupted while waiting to add to output to pipe {}", pipeName);
       }
+    } finally {
+      putStallCounter.inc(microsSince(stallStart));
     }
   }
+
+  private static long microsSince(final long startNanos) {
+    return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+  }
 }
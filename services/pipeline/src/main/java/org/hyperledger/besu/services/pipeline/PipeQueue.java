@@ -0,0 +1,44 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bounded queue of items in a {@link Pipe}.
+ *
+ * @param <T> the type of item in the queue.
+ */
+interface PipeQueue<T> {
+
+  boolean offer(T item);
+
+  boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException;
+
+  T poll();
+
+  T poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+  int drainTo(Collection<? super T> output, int maxElements);
+
+  int size();
+
+  int remainingCapacity();
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+/** The implementations of the queue of items in a {@link Pipe}. */
+public enum PipeType {
+  /**
+   * A blocking queue taking a lock for every item. It supports any number of threads writing to
+   * and reading from the pipe.
+   */
+  BLOCKING,
+  /**
+   * A lock-free ring buffer with a single thread writing to the pipe and a single thread reading
+   * from it.
+   */
+  SINGLE_PRODUCER_SINGLE_CONSUMER,
+  /**
+   * A lock-free ring buffer with any number of threads writing to the pipe and a single thread
+   * reading from it.
+   */
+  MULTI_PRODUCER_SINGLE_CONSUMER;
+
+  /**
+   * Whether any number of threads can write to a pipe of this type.
+   *
+   * @return true if the pipe supports concurrent writers
+   */
+  public boolean supportsMultipleProducers() {
+    return this != SINGLE_PRODUCER_SINGLE_CONSUMER;
+  }
+
+  /**
+   * Whether any number of threads can read from a pipe of this type.
+   *
+   * @return true if the pipe supports concurrent readers
+   */
+  public boolean supportsMultipleConsumers() {
+    return this == BLOCKING;
+  }
+
+  <T> PipeQueue<T> createQueue(final int capacity) {
+    return switch (this) {
+      case BLOCKING -> new BlockingPipeQueue<>(capacity);
+      case SINGLE_PRODUCER_SINGLE_CONSUMER -> new SpscPipeQueue<>(capacity);
+      case MULTI_PRODUCER_SINGLE_CONSUMER -> new MpscPipeQueue<>(capacity);
+    };
+  }
+}
@@ -15,8 +15,10 @@
 package org.hyperledger.besu.services.pipeline;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singleton;
+import static org.hyperledger.besu.metrics.noop.NoOpMetricsSystem.NO_OP_LABELLED_2_COUNTER;
 
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
@@ -25,12 +27,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import com.google.common.collect.Iterables;
+
 /**
  * Supports building a new pipeline. Pipelines are comprised of a source, various processing stages
  * and a consumer, each of which run in their own thread.
@@ -53,6 +58,8 @@ public class PipelineBuilder<I, T> {
   private final LabelledMetric<Counter> outputCounter;
   private final boolean tracingEnabled;
   private final String pipelineName;
+  private final PipeType pipeType;
+  private final LabelledMetric<Counter> stallTimeCounter;
 
   /**
    * Instantiates a new Pipeline builder.
@@ -77,6 +84,32 @@ public class PipelineBuilder<I, T> {
       final LabelledMetric<Counter> outputCounter,
       final boolean tracingEnabled,
       final String pipelineName) {
+    this(
+        inputPipe,
+        stages,
+        pipes,
+        lastStageName,
+        pipeEnd,
+        bufferSize,
+        outputCounter,
+        tracingEnabled,
+        pipelineName,
+        PipeType.BLOCKING,
+        NO_OP_LABELLED_2_COUNTER);
+  }
+
+  private PipelineBuilder(
+      final Pipe<I> inputPipe,
+      final Collection<Stage> stages,
+      final Collection<Pipe<?>> pipes,
+      final String lastStageName,
+      final ReadPipe<T> pipeEnd,
+      final int bufferSize,
+      final LabelledMetric<Counter> outputCounter,
+      final boolean tracingEnabled,
+      final String pipelineName,
+      final PipeType pipeType,
+      final LabelledMetric<Counter> stallTimeCounter) {
     checkArgument(!pipes.isEmpty(), "Must have at least one pipe in a pipeline");
     this.lastStageName = lastStageName;
     this.outputCounter = outputCounter;
@@ -87,6 +120,8 @@ public class PipelineBuilder<I, T> {
     this.bufferSize = bufferSize;
     this.tracingEnabled = tracingEnabled;
     this.pipelineName = pipelineName;
+    this.pipeType = pipeType;
+    this.stallTimeCounter = stallTimeCounter;
   }
 
   /**
@@ -111,7 +146,45 @@ public class PipelineBuilder<I, T> {
       final LabelledMetric<Counter> itemCounter,
       final boolean tracingEnabled,
       final String pipelineName) {
-    final Pipe<T> pipe = createPipe(bufferSize, sourceName, itemCounter);
+    return createPipelineFrom(
+        sourceName,
+        source,
+        bufferSize,
+        itemCounter,
+        NO_OP_LABELLED_2_COUNTER,
+        tracingEnabled,
+        pipelineName);
+  }
+
+  /**
+   * Create a new pipeline that processes inputs from <i>source</i>, counting how long its stages
+   * wait on the pipes between them. The pipeline completes when <i>source</i> returns <code>
+   * false</code> from {@link Iterator#hasNext()} and the last item has reached the end of the
+   * pipeline.
+   *
+   * @param <T> the type of items input into the pipeline.
+   * @param sourceName the name of this stage. Used as the label for the output count metric.
+   * @param source the source to pull items from for processing.
+   * @param bufferSize the number of items to be buffered between each stage in the pipeline.
+   * @param itemCounter the counter to increment for each output of a stage. Must accept two labels,
+   *     the stage name and action (output or drained).
+   * @param stallTimeCounter the counter of the microseconds stages wait to write to a full pipe or
+   *     to read from an empty one. Must accept two labels, the stage name and the direction (put or
+   *     get).
+   * @param tracingEnabled whether this pipeline should be traced
+   * @param pipelineName the name of the pipeline for tracing purposes
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public static <T> PipelineBuilder<T, T> createPipelineFrom(
+      final String sourceName,
+      final Iterator<T> source,
+      final int bufferSize,
+      final LabelledMetric<Counter> itemCounter,
+      final LabelledMetric<Counter> stallTimeCounter,
+      final boolean tracingEnabled,
+      final String pipelineName) {
+    final Pipe<T> pipe =
+        createPipe(bufferSize, sourceName, itemCounter, PipeType.BLOCKING, stallTimeCounter);
     final IteratorSourceStage<T> sourceStage = new IteratorSourceStage<>(sourceName, source, pipe);
     return new PipelineBuilder<>(
         pipe,
@@ -122,7 +195,9 @@ public class PipelineBuilder<I, T> {
         bufferSize,
         itemCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        PipeType.BLOCKING,
+        stallTimeCounter);
   }
 
   /**
@@ -144,7 +219,9 @@ public class PipelineBuilder<I, T> {
       final LabelledMetric<Counter> outputCounter,
       final boolean tracingEnabled,
       final String pipelineName) {
-    final Pipe<T> pipe = createPipe(bufferSize, sourceName, outputCounter);
+    final Pipe<T> pipe =
+        createPipe(
+            bufferSize, sourceName, outputCounter, PipeType.BLOCKING, NO_OP_LABELLED_2_COUNTER);
     return new PipelineBuilder<>(
         pipe,
         emptyList(),
@@ -187,7 +264,37 @@ public class PipelineBuilder<I, T> {
   public <O> PipelineBuilder<I, O> thenProcessInParallel(
       final String stageName, final Function<T, O> processor, final int numberOfThreads) {
     return thenProcessInParallel(
-        stageName, () -> new MapProcessor<>(processor), numberOfThreads, bufferSize);
+        stageName,
+        () -> new MapProcessor<>(processor),
+        numberOfThreads,
+        Optional.empty(),
+        bufferSize);
+  }
+
+  /**
+   * Adds a 1-to-1 processing stage to the pipeline. Multiple threads process items in the pipeline
+   * concurrently with <i>processor</i> outputting its return value to the next stage. Threads are
+   * created up to the maximum of <i>concurrencyLimit</i>, but only as many as its current limit
+   * process items.
+   *
+   * <p>Note: The order of items is not preserved.
+   *
+   * @param <O> the output type for this processing step.
+   * @param stageName the name of this stage. Used as the label for the output count metric.
+   * @param processor the processing to apply to each item.
+   * @param concurrencyLimit the limit adjusting the number of threads processing items.
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public <O> PipelineBuilder<I, O> thenProcessInParallel(
+      final String stageName,
+      final Function<T, O> processor,
+      final AdaptiveConcurrencyLimit concurrencyLimit) {
+    return thenProcessInParallel(
+        stageName,
+        () -> new MapProcessor<>(processor),
+        concurrencyLimit.getMaxLimit(),
+        Optional.of(concurrencyLimit),
+        bufferSize);
   }
 
   /**
@@ -214,6 +321,26 @@ public class PipelineBuilder<I, T> {
     return addStage(new AsyncOperationProcessor<>(processor, maxConcurrency, false), stageName);
   }
 
+  /**
+   * Adds a 1-to-1, asynchronous processing stage to the pipeline, like {@link
+   * #thenProcessAsync(String, Function, int)}, but with the number of items in progress adjusted
+   * at runtime by <i>concurrencyLimit</i>.
+   *
+   * <p>Note: The order of items is not preserved.
+   *
+   * @param <O> the output type for this processing step.
+   * @param stageName the name of this stage. Used as the label for the output count metric.
+   * @param processor the processing to apply to each item.
+   * @param concurrencyLimit the limit of the number of items being processed concurrently.
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public <O> PipelineBuilder<I, O> thenProcessAsync(
+      final String stageName,
+      final Function<T, CompletableFuture<O>> processor,
+      final AdaptiveConcurrencyLimit concurrencyLimit) {
+    return addStage(new AsyncOperationProcessor<>(processor, concurrencyLimit, false), stageName);
+  }
+
   /**
    * Adds a 1-to-1, asynchronous processing stage to the pipeline. A single thread reads items from
    * the input and calls <i>processor</i> to begin processing. While a single thread is used to
@@ -238,6 +365,26 @@ public class PipelineBuilder<I, T> {
     return addStage(new AsyncOperationProcessor<>(processor, maxConcurrency, true), stageName);
   }
 
+  /**
+   * Adds a 1-to-1, asynchronous processing stage to the pipeline, like {@link
+   * #thenProcessAsyncOrdered(String, Function, int)}, but with the number of items in progress
+   * adjusted at runtime by <i>concurrencyLimit</i>.
+   *
+   * <p>Note: While processing may occur concurrently, order is preserved when results are output.
+   *
+   * @param <O> the output type for this processing step.
+   * @param stageName the name of this stage. Used as the label for the output count metric.
+   * @param processor the processing to apply to each item.
+   * @param concurrencyLimit the limit of the number of items being processed concurrently.
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public <O> PipelineBuilder<I, O> thenProcessAsyncOrdered(
+      final String stageName,
+      final Function<T, CompletableFuture<O>> processor,
+      final AdaptiveConcurrencyLimit concurrencyLimit) {
+    return addStage(new AsyncOperationProcessor<>(processor, concurrencyLimit, true), stageName);
+  }
+
   /**
    * Batches items into groups of at most <i>maximumBatchSize</i>. Batches are created eagerly to
    * minimize delay so may not be full.
@@ -263,7 +410,9 @@ public class PipelineBuilder<I, T> {
         (int) Math.ceil(((double) bufferSize) / maximumBatchSize),
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        pipeType,
+        stallTimeCounter);
   }
 
   /**
@@ -293,7 +442,9 @@ public class PipelineBuilder<I, T> {
         (int) Math.ceil(((double) bufferSize) / maximumBatchSize),
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        pipeType,
+        stallTimeCounter);
   }
 
   /**
@@ -339,7 +490,34 @@ public class PipelineBuilder<I, T> {
       final int numberOfThreads,
       final int newBufferSize) {
     return thenProcessInParallel(
-        stageName, () -> new FlatMapProcessor<>(mapper), numberOfThreads, newBufferSize);
+        stageName,
+        () -> new FlatMapProcessor<>(mapper),
+        numberOfThreads,
+        Optional.empty(),
+        newBufferSize);
+  }
+
+  /**
+   * Sets the type of the pipes the stages added from now on write to. A pipe read by a stage with
+   * multiple threads must support multiple consumers, and a pipe written by a stage with multiple
+   * threads always supports multiple producers.
+   *
+   * @param pipeType the type of the output pipes of the next stages.
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public PipelineBuilder<I, T> withPipeType(final PipeType pipeType) {
+    return new PipelineBuilder<>(
+        inputPipe,
+        stages,
+        pipes,
+        lastStageName,
+        pipeEnd,
+        bufferSize,
+        outputCounter,
+        tracingEnabled,
+        pipelineName,
+        pipeType,
+        stallTimeCounter);
   }
 
   /**
@@ -363,13 +541,29 @@ public class PipelineBuilder<I, T> {
       final String stageName,
       final Supplier<Processor<T, O>> createProcessor,
       final int numberOfThreads,
+      final Optional<AdaptiveConcurrencyLimit> concurrencyLimit,
       final int newBufferSize) {
-    final Pipe<O> newPipeEnd = createPipe(newBufferSize, stageName, outputCounter);
+    checkState(
+        numberOfThreads == 1 || Iterables.getLast(pipes).getPipeType().supportsMultipleConsumers(),
+        "Stage %s can't read from a %s pipe with %s threads",
+        stageName,
+        Iterables.getLast(pipes).getPipeType(),
+        numberOfThreads);
+    final Pipe<O> newPipeEnd =
+        createPipe(
+            newBufferSize,
+            stageName,
+            outputCounter,
+            numberOfThreads == 1 || pipeType.supportsMultipleProducers()
+                ? pipeType
+                : PipeType.MULTI_PRODUCER_SINGLE_CONSUMER,
+            stallTimeCounter);
     final WritePipe<O> outputPipe = new SharedWritePipe<>(newPipeEnd, numberOfThreads);
     final ArrayList<Stage> newStages = new ArrayList<>(stages);
     for (int i = 0; i < numberOfThreads; i++) {
       final Stage processStage =
-          new ProcessingStage<>(stageName, pipeEnd, outputPipe, createProcessor.get());
+          new ProcessingStage<>(
+              stageName, pipeEnd, outputPipe, createProcessor.get(), concurrencyLimit, i);
       newStages.add(processStage);
     }
     return new PipelineBuilder<>(
@@ -381,7 +575,9 @@ public class PipelineBuilder<I, T> {
         newBufferSize,
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        pipeType,
+        stallTimeCounter);
   }
 
   private <O> PipelineBuilder<I, O> addStage(
@@ -391,7 +587,8 @@ public class PipelineBuilder<I, T> {
 
   private <O> PipelineBuilder<I, O> addStage(
       final Processor<T, O> processor, final int newBufferSize, final String stageName) {
-    final Pipe<O> outputPipe = createPipe(newBufferSize, stageName, outputCounter);
+    final Pipe<O> outputPipe =
+        createPipe(newBufferSize, stageName, outputCounter, pipeType, stallTimeCounter);
     final Stage processStage = new ProcessingStage<>(stageName, pipeEnd, outputPipe, processor);
     final List<Stage> newStages = concat(stages, processStage);
     return new PipelineBuilder<>(
@@ -403,7 +600,9 @@ public class PipelineBuilder<I, T> {
         newBufferSize,
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        pipeType,
+        stallTimeCounter);
   }
 
   private <X> List<X> concat(final Collection<X> existing, final X newItem) {
@@ -415,13 +614,18 @@ public class PipelineBuilder<I, T> {
   private static <O> Pipe<O> createPipe(
       final int newBufferSize,
       final String stageName,
-      final LabelledMetric<Counter> outputCounter) {
+      final LabelledMetric<Counter> outputCounter,
+      final PipeType pipeType,
+      final LabelledMetric<Counter> stallTimeCounter) {
     final String labelName = stageName + "_outputPipe";
     return new Pipe<>(
         newBufferSize,
+        pipeType,
         outputCounter.labels(labelName, "added"),
         outputCounter.labels(labelName, "removed"),
         outputCounter.labels(labelName, "aborted"),
+        stallTimeCounter.labels(labelName, "put"),
+        stallTimeCounter.labels(labelName, "get"),
         stageName);
   }
 }
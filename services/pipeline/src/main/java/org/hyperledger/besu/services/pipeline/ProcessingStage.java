@@ -14,28 +14,55 @@
  */
 package org.hyperledger.besu.services.pipeline;
 
+import java.util.Collection;
+import java.util.Optional;
+
 class ProcessingStage<I, O> implements Stage {
 
   private final String name;
   private final ReadPipe<I> inputPipe;
   private final WritePipe<O> outputPipe;
   private final Processor<I, O> processor;
+  private final Optional<AdaptiveConcurrencyLimit> concurrencyLimit;
+  private final int threadIndex;
+  private final WaitTimingReadPipe<I> timedInputPipe;
 
   public ProcessingStage(
       final String name,
       final ReadPipe<I> inputPipe,
       final WritePipe<O> outputPipe,
       final Processor<I, O> processor) {
+    this(name, inputPipe, outputPipe, processor, Optional.empty(), 0);
+  }
+
+  /**
+   * Creates one of the threads of a parallel stage whose number of running threads is adjusted by
+   * the given limit. The thread only processes items while its index is below the limit.
+   */
+  public ProcessingStage(
+      final String name,
+      final ReadPipe<I> inputPipe,
+      final WritePipe<O> outputPipe,
+      final Processor<I, O> processor,
+      final Optional<AdaptiveConcurrencyLimit> concurrencyLimit,
+      final int threadIndex) {
     this.name = name;
     this.inputPipe = inputPipe;
     this.outputPipe = outputPipe;
     this.processor = processor;
+    this.concurrencyLimit = concurrencyLimit;
+    this.threadIndex = threadIndex;
+    this.timedInputPipe = new WaitTimingReadPipe<>(inputPipe);
   }
 
   @Override
   public void run() {
     while (inputPipe.hasMore()) {
-      processor.processNextInput(inputPipe, outputPipe);
+      if (concurrencyLimit.isPresent()) {
+        processNextInput(concurrencyLimit.get());
+      } else {
+        processor.processNextInput(inputPipe, outputPipe);
+      }
     }
     if (inputPipe.isAborted()) {
       processor.abort();
@@ -49,8 +76,95 @@ class ProcessingStage<I, O> implements Stage {
     outputPipe.close();
   }
 
+  /**
+   * The latency only covers the processing of the item, not the wait for it. The stage counts as
+   * saturated when the item was already waiting in the input pipe, so threads starved of input
+   * don't push the limit up.
+   */
+  private void processNextInput(final AdaptiveConcurrencyLimit limit) {
+    try {
+      if (!limit.awaitThreadEnabled(threadIndex, 100)) {
+        return;
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    final boolean outputBlocked = !outputPipe.hasRemainingCapacity();
+    timedInputPipe.reset();
+    final long startTime = System.nanoTime();
+    processor.processNextInput(timedInputPipe, outputPipe);
+    final long latency = System.nanoTime() - startTime - timedInputPipe.waitNanos;
+    if (timedInputPipe.itemRead) {
+      limit.recordItem(latency, timedInputPipe.itemReadyToRead, outputBlocked);
+    }
+  }
+
   @Override
   public String getName() {
     return name;
   }
+
+  /** Measures how long the processor waits for its input, and whether it had to wait at all. */
+  private static class WaitTimingReadPipe<T> implements ReadPipe<T> {
+    private final ReadPipe<T> delegate;
+    private long waitNanos;
+    private boolean itemRead;
+    private boolean itemReadyToRead;
+
+    private WaitTimingReadPipe(final ReadPipe<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    private void reset() {
+      waitNanos = 0;
+      itemRead = false;
+      itemReadyToRead = false;
+    }
+
+    @Override
+    public boolean hasMore() {
+      return delegate.hasMore();
+    }
+
+    @Override
+    public boolean isAborted() {
+      return delegate.isAborted();
+    }
+
+    @Override
+    public T get() {
+      final T item = delegate.poll();
+      if (item != null) {
+        itemRead = true;
+        itemReadyToRead = true;
+        return item;
+      }
+      final long startTime = System.nanoTime();
+      final T awaitedItem = delegate.get();
+      waitNanos += System.nanoTime() - startTime;
+      itemRead |= awaitedItem != null;
+      return awaitedItem;
+    }
+
+    @Override
+    public T poll() {
+      final T item = delegate.poll();
+      if (item != null) {
+        itemRead = true;
+        itemReadyToRead = true;
+      }
+      return item;
+    }
+
+    @Override
+    public int drainTo(final Collection<T> output, final int maxElements) {
+      final int drained = delegate.drainTo(output, maxElements);
+      if (drained > 0) {
+        itemRead = true;
+        itemReadyToRead = true;
+      }
+      return drained;
+    }
+  }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import java.util.Collection;
+
+/**
+ * A {@link LockFreePipeQueue} with a single producer and a single consumer. Each side caches the
+ * last index it read from the other side, so it only reads the shared index when the cached one
+ * says the queue is full or empty.
+ *
+ * @param <T> the type of item in the queue.
+ */
+class SpscPipeQueue<T> extends LockFreePipeQueue<T> {
+  private long cachedHead;
+  private long cachedTail;
+
+  SpscPipeQueue(final int capacity) {
+    super(capacity);
+  }
+
+  @Override
+  protected boolean tryOffer(final T item) {
+    final long position = tail.get();
+    if (position - cachedHead >= capacity) {
+      cachedHead = head.get();
+      if (position - cachedHead >= capacity) {
+        return false;
+      }
+    }
+    buffer.lazySet(index(position), item);
+    tail.set(position + 1);
+    return true;
+  }
+
+  @Override
+  protected T tryPoll() {
+    final long position = head.get();
+    if (position >= cachedTail) {
+      cachedTail = tail.get();
+      if (position >= cachedTail) {
+        return null;
+      }
+    }
+    final int index = index(position);
+    final T item = buffer.get(index);
+    buffer.lazySet(index, null);
+    head.set(position + 1);
+    return item;
+  }
+
+  @Override
+  protected int tryDrainTo(final Collection<? super T> output, final int maxElements) {
+    final long position = head.get();
+    if (cachedTail - position < maxElements) {
+      cachedTail = tail.get();
+    }
+    final int count = (int) Math.min(cachedTail - position, maxElements);
+    if (count <= 0) {
+      return 0;
+    }
+    for (int i = 0; i < count; i++) {
+      final int index = index(position + i);
+      output.add(buffer.get(index));
+      buffer.lazySet(index, null);
+    }
+    head.set(position + count);
+    return count;
+  }
+}
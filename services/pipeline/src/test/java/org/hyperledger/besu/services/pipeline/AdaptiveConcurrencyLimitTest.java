@@ -0,0 +1,107 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimitTest {
+
+  private static final long LATENCY = 1_000_000;
+
+  private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 8);
+
+  @Test
+  public void shouldIncreaseWhileSaturated() {
+    assertThat(limit.getLimit()).isEqualTo(2);
+    recordWindow(LATENCY, true, false);
+    assertThat(limit.getLimit()).isEqualTo(3);
+    recordWindow(LATENCY, true, false);
+    assertThat(limit.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  public void shouldNotIncreaseWhenInputIsNotBacklogged() {
+    recordWindow(LATENCY, false, false);
+    recordWindow(LATENCY, false, false);
+    assertThat(limit.getLimit()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldNotExceedMaximum() {
+    for (int i = 0; i < 20; i++) {
+      recordWindow(LATENCY, true, false);
+    }
+    assertThat(limit.getLimit()).isEqualTo(8);
+  }
+
+  @Test
+  public void shouldDecreaseWhenOutputIsBlocked() {
+    for (int i = 0; i < 6; i++) {
+      recordWindow(LATENCY, true, false);
+    }
+    assertThat(limit.getLimit()).isEqualTo(8);
+
+    recordWindow(LATENCY, true, true);
+    assertThat(limit.getLimit()).isEqualTo(6);
+  }
+
+  @Test
+  public void shouldDecreaseWhenLatencyGrows() {
+    for (int i = 0; i < 6; i++) {
+      recordWindow(LATENCY, true, false);
+    }
+    recordWindow(LATENCY * 3, true, false);
+    assertThat(limit.getLimit()).isEqualTo(6);
+    assertThat(limit.getAverageLatencyMillis()).isEqualTo(3.0);
+
+    recordWindow(LATENCY * 3, true, false);
+    assertThat(limit.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  public void shouldNotDecreaseBelowMinimum() {
+    recordWindow(LATENCY, true, true);
+    recordWindow(LATENCY, true, true);
+    assertThat(limit.getLimit()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldOnlyEnableThreadsBelowTheLimit() throws InterruptedException {
+    assertThat(limit.awaitThreadEnabled(1, 1)).isTrue();
+    assertThat(limit.awaitThreadEnabled(2, 1)).isFalse();
+
+    recordWindow(LATENCY, true, false);
+    assertThat(limit.awaitThreadEnabled(2, 1)).isTrue();
+  }
+
+  @Test
+  public void shouldRejectInvalidBounds() {
+    assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(0, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(2, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private void recordWindow(
+      final long latencyNanos, final boolean saturated, final boolean outputBlocked) {
+    final int windowSize = limit.getLimit();
+    for (int i = 0; i < windowSize; i++) {
+      limit.recordItem(latencyNanos, saturated, outputBlocked);
+    }
+  }
+}
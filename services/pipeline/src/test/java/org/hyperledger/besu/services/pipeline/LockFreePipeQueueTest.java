@@ -0,0 +1,115 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+public class LockFreePipeQueueTest {
+
+  @Test
+  public void shouldRespectTheCapacity() {
+    final PipeQueue<Integer> queue = new SpscPipeQueue<>(3);
+
+    assertThat(queue.offer(1)).isTrue();
+    assertThat(queue.offer(2)).isTrue();
+    assertThat(queue.offer(3)).isTrue();
+    assertThat(queue.offer(4)).isFalse();
+    assertThat(queue.remainingCapacity()).isZero();
+
+    assertThat(queue.poll()).isEqualTo(1);
+    assertThat(queue.offer(4)).isTrue();
+    final List<Integer> output = new ArrayList<>();
+    assertThat(queue.drainTo(output, 10)).isEqualTo(3);
+    assertThat(output).containsExactly(2, 3, 4);
+    assertThat(queue.isEmpty()).isTrue();
+    assertThat(queue.poll()).isNull();
+  }
+
+  @Test
+  public void shouldPassItemsInOrderFromASingleProducer() throws Exception {
+    final PipeQueue<Integer> queue = new SpscPipeQueue<>(8);
+    final int itemCount = 100_000;
+    final CompletableFuture<Void> producer =
+        CompletableFuture.runAsync(
+            () -> {
+              for (int i = 0; i < itemCount; i++) {
+                offer(queue, i);
+              }
+            });
+
+    final List<Integer> output = new ArrayList<>(itemCount);
+    while (output.size() < itemCount) {
+      if (output.size() % 2 == 0) {
+        output.add(queue.poll(10, SECONDS));
+      } else {
+        queue.drainTo(output, 5);
+      }
+    }
+    producer.get(10, SECONDS);
+
+    for (int i = 0; i < itemCount; i++) {
+      assertThat(output.get(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void shouldPassAllItemsFromMultipleProducers() throws Exception {
+    final PipeQueue<Integer> queue = new MpscPipeQueue<>(8);
+    final int producerCount = 4;
+    final int itemsPerProducer = 25_000;
+    final List<CompletableFuture<Void>> producers = new ArrayList<>();
+    for (int p = 0; p < producerCount; p++) {
+      final int firstItem = p * itemsPerProducer;
+      producers.add(
+          CompletableFuture.runAsync(
+              () -> {
+                for (int i = firstItem; i < firstItem + itemsPerProducer; i++) {
+                  offer(queue, i);
+                }
+              }));
+    }
+
+    final List<Integer> output = new ArrayList<>();
+    while (output.size() < producerCount * itemsPerProducer) {
+      output.add(queue.poll(10, SECONDS));
+    }
+    CompletableFuture.allOf(producers.toArray(CompletableFuture[]::new)).get(10, SECONDS);
+
+    assertThat(output).doesNotContainNull().doesNotHaveDuplicates();
+    // items of each producer keep their order
+    for (int p = 0; p < producerCount; p++) {
+      final int producer = p;
+      assertThat(output.stream().filter(item -> item / itemsPerProducer == producer))
+          .isSorted();
+    }
+  }
+
+  private static void offer(final PipeQueue<Integer> queue, final int item) {
+    try {
+      if (!queue.offer(item, 10, SECONDS)) {
+        throw new IllegalStateException("Timed out adding item " + item);
+      }
+    } catch (final InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
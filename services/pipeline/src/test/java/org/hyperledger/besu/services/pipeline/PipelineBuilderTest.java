@@ -102,6 +102,37 @@ public class PipelineBuilderTest {
             "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15");
   }
 
+  @Test
+  public void shouldPassInputThroughLockFreePipes() throws Exception {
+    final List<String> output = new ArrayList<>();
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.createPipelineFrom(
+                "input", tasks, 10, NO_OP_LABELLED_2_COUNTER, false, "test")
+            .withPipeType(PipeType.SINGLE_PRODUCER_SINGLE_CONSUMER)
+            // reads the blocking source pipe and writes to a multi producer pipe
+            .thenProcessInParallel("addOne", value -> value + 1, 3)
+            .thenProcess("toString", Object::toString)
+            .andFinishWith("end", output::add);
+
+    final CompletableFuture<?> result = pipeline.start(executorService);
+    result.get(10, SECONDS);
+    assertThat(output)
+        .containsExactlyInAnyOrder(
+            "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15", "16");
+  }
+
+  @Test
+  public void shouldNotReadASingleConsumerPipeFromMultipleThreads() {
+    final PipelineBuilder<Integer, Integer> builder =
+        PipelineBuilder.createPipelineFrom(
+                "input", tasks, 10, NO_OP_LABELLED_2_COUNTER, false, "test")
+            .withPipeType(PipeType.SINGLE_PRODUCER_SINGLE_CONSUMER)
+            .thenProcess("addOne", value -> value + 1);
+
+    assertThatThrownBy(() -> builder.thenProcessInParallel("toString", Object::toString, 3))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
   @Test
   public void shouldCombineIntoBatches() throws Exception {
     final BlockingQueue<List<Integer>> output = new ArrayBlockingQueue<>(10);
@@ -294,6 +325,42 @@ public class PipelineBuilderTest {
             "1", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15", "2");
   }
 
+  @Test
+  public void shouldOnlyUseThreadsWithinTheConcurrencyLimit() throws Exception {
+    final List<String> output = synchronizedList(new ArrayList<>());
+    final CountDownLatch latch = new CountDownLatch(1);
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.createPipelineFrom(
+                "input", tasks, 10, NO_OP_LABELLED_2_COUNTER, false, "test")
+            .thenProcessInParallel(
+                "stageName",
+                value -> {
+                  if (value == 1) {
+                    try {
+                      latch.await();
+                    } catch (InterruptedException e) {
+                      throw new RuntimeException(e);
+                    }
+                  }
+                  return value.toString();
+                },
+                new AdaptiveConcurrencyLimit(1, 4))
+            .andFinishWith("end", output::add);
+    final CompletableFuture<?> result = pipeline.start(executorService);
+
+    // The limit starts at a single thread, which is blocked, so no other thread takes items.
+    Thread.sleep(200);
+    assertThat(output).isEmpty();
+    assertThat(result).isNotDone();
+
+    latch.countDown();
+
+    result.get(10, SECONDS);
+    assertThat(output)
+        .containsExactlyInAnyOrder(
+            "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15");
+  }
+
   @Test
   public void shouldFlatMapInParallel() throws Exception {
     final List<String> output = synchronizedList(new ArrayList<>());
@@ -471,6 +538,42 @@ public class PipelineBuilderTest {
     assertThat(counters.get("asyncOrdered_outputPipe-batches").count).hasValueBetween(4, 15);
   }
 
+  @Test
+  public void shouldTrackStallTimeInItsOwnMetric() throws Exception {
+    final Map<String, SimpleCounter> itemCounters = new ConcurrentHashMap<>();
+    final LabelledMetric<Counter> itemCounter =
+        labels ->
+            itemCounters.computeIfAbsent(
+                labels[0] + "-" + labels[1], label -> new SimpleCounter());
+    final Map<String, SimpleCounter> stallCounters = new ConcurrentHashMap<>();
+    final LabelledMetric<Counter> stallTimeCounter =
+        labels ->
+            stallCounters.computeIfAbsent(
+                labels[0] + "-" + labels[1], label -> new SimpleCounter());
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.createPipelineFrom(
+                "input", tasks, 10, itemCounter, stallTimeCounter, false, "test")
+            .thenProcess("map", Function.identity())
+            .andFinishWith("finish", new ArrayList<>()::add);
+
+    pipeline.start(executorService).get(10, SECONDS);
+
+    assertThat(stallCounters)
+        .containsOnlyKeys(
+            "input_outputPipe-put",
+            "input_outputPipe-get",
+            "map_outputPipe-put",
+            "map_outputPipe-get");
+    assertThat(itemCounters)
+        .containsOnlyKeys(
+            "input_outputPipe-added",
+            "input_outputPipe-removed",
+            "input_outputPipe-aborted",
+            "map_outputPipe-added",
+            "map_outputPipe-removed",
+            "map_outputPipe-aborted");
+  }
+
   private void waitForSize(final Collection<?> collection, final int targetSize) {
     waitAtMost(10, SECONDS).untilAsserted(() -> assertThat(collection).hasSize(targetSize));
   }
@@ -16,17 +16,24 @@ package org.hyperledger.besu.services.pipeline;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hyperledger.besu.metrics.noop.NoOpMetricsSystem.NO_OP_COUNTER;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -111,4 +118,54 @@ public class ProcessingStageTest {
     verify(singleStep).attemptFinalization(outputPipe);
     assertThat(outputPipe.isOpen()).isFalse();
   }
+
+  @Test
+  public void shouldReportSaturationWhenTheInputWasWaiting() throws Exception {
+    final AdaptiveConcurrencyLimit limit = mock(AdaptiveConcurrencyLimit.class);
+    when(limit.awaitThreadEnabled(anyInt(), anyLong())).thenReturn(true);
+    inputPipe.put("A");
+    inputPipe.close();
+
+    limitedStage(limit).run();
+
+    verify(limit).recordItem(anyLong(), eq(true), eq(false));
+    assertThat(outputPipe.poll()).isEqualTo("a");
+  }
+
+  @Test
+  public void shouldNotCountTheWaitForInputAsLatency() throws Exception {
+    final AdaptiveConcurrencyLimit limit = mock(AdaptiveConcurrencyLimit.class);
+    when(limit.awaitThreadEnabled(anyInt(), anyLong())).thenReturn(true);
+    final long inputDelayMillis = 200;
+    final Thread producer =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(inputDelayMillis);
+              } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              inputPipe.put("A");
+              inputPipe.close();
+            });
+    producer.start();
+
+    limitedStage(limit).run();
+    producer.join();
+
+    final ArgumentCaptor<Long> latency = ArgumentCaptor.forClass(Long.class);
+    verify(limit).recordItem(latency.capture(), eq(false), eq(false));
+    assertThat(latency.getValue()).isLessThan(TimeUnit.MILLISECONDS.toNanos(inputDelayMillis));
+    assertThat(outputPipe.poll()).isEqualTo("a");
+  }
+
+  private ProcessingStage<String, String> limitedStage(final AdaptiveConcurrencyLimit limit) {
+    return new ProcessingStage<>(
+        "name",
+        inputPipe,
+        outputPipe,
+        new MapProcessor<>(value -> value.toLowerCase(Locale.UK)),
+        Optional.of(limit),
+        0);
+  }
 }